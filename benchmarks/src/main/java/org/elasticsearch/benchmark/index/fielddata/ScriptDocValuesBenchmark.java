@@ -0,0 +1,130 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.benchmark.index.fielddata;
+
+import org.elasticsearch.index.fielddata.AbstractSortedNumericDocValues;
+import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading doc values the way dynamically typed scripts do, {@code doc['field'].value} which boxes numbers and wraps dates in
+ * date objects, with the primitive accessors that back {@code doc.getLong('field')} and {@code doc.getDouble('field')}.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") //invoked by benchmarking framework
+public class ScriptDocValuesBenchmark {
+
+    private static final int NUM_DOCS = 10_000;
+
+    private ScriptDocValues.Longs longs;
+    private ScriptDocValues.Dates dates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long[] values = new long[NUM_DOCS];
+        for (int i = 0; i < NUM_DOCS; i++) {
+            // outside of the range of cached boxes
+            values[i] = 1548879021354L + random.nextInt(Integer.MAX_VALUE);
+        }
+        longs = new ScriptDocValues.Longs(docValues(values));
+        dates = new ScriptDocValues.Dates(docValues(values), false);
+    }
+
+    @Benchmark
+    public long longsBoxed() throws IOException {
+        long sum = 0;
+        for (int doc = 0; doc < NUM_DOCS; doc++) {
+            longs.setNextDocId(doc);
+            sum += ((Number) ((List<?>) longs).get(0)).longValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longsPrimitive() throws IOException {
+        long sum = 0;
+        for (int doc = 0; doc < NUM_DOCS; doc++) {
+            longs.setNextDocId(doc);
+            sum += longs.getLong(0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long datesObject() throws IOException {
+        long sum = 0;
+        for (int doc = 0; doc < NUM_DOCS; doc++) {
+            dates.setNextDocId(doc);
+            sum += dates.getValue().toInstant().toEpochMilli();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long datesPrimitive() throws IOException {
+        long sum = 0;
+        for (int doc = 0; doc < NUM_DOCS; doc++) {
+            dates.setNextDocId(doc);
+            sum += dates.getEpochMilli(0);
+        }
+        return sum;
+    }
+
+    private static AbstractSortedNumericDocValues docValues(long[] values) {
+        return new AbstractSortedNumericDocValues() {
+            private int doc;
+
+            @Override
+            public boolean advanceExact(int target) {
+                doc = target;
+                return true;
+            }
+
+            @Override
+            public int docValueCount() {
+                return 1;
+            }
+
+            @Override
+            public long nextValue() {
+                return values[doc];
+            }
+        };
+    }
+}
@@ -426,6 +426,10 @@ public class RequestConvertersTests extends ESTestCase {
         } else {
             expectedParams.put(RethrottleRequest.REQUEST_PER_SECOND_PARAMETER, "-1");
         }
+        if (randomBoolean()) {
+            reindexRequest.setPrefetch(true);
+            expectedParams.put("prefetch", "true");
+        }
         if (randomBoolean()) {
             reindexRequest.setDestRouting("=cat");
         }
@@ -476,6 +480,10 @@ public class RequestConvertersTests extends ESTestCase {
         } else {
             expectedParams.put("requests_per_second", "-1");
         }
+        if (randomBoolean()) {
+            updateByQueryRequest.setPrefetch(true);
+            expectedParams.put("prefetch", "true");
+        }
         if (randomBoolean()) {
             updateByQueryRequest.setRouting("=cat");
             expectedParams.put("routing", "=cat");
@@ -554,6 +562,10 @@ public class RequestConvertersTests extends ESTestCase {
         } else {
             expectedParams.put("requests_per_second", "-1");
         }
+        if (randomBoolean()) {
+            deleteByQueryRequest.setPrefetch(true);
+            expectedParams.put("prefetch", "true");
+        }
         setRandomIndicesOptions(deleteByQueryRequest::setIndicesOptions, deleteByQueryRequest::indicesOptions, expectedParams);
         setRandomTimeout(deleteByQueryRequest::setTimeout, ReplicationRequest.DEFAULT_TIMEOUT, expectedParams);
         Request request = RequestConverters.deleteByQuery(deleteByQueryRequest);
@@ -0,0 +1,181 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.elasticsearch.search.aggregations.matrix.stats;
+
+import java.util.HashMap;
+
+/**
+ * Descriptive stats of a fixed set of fields gathered per shard, stored in primitive arrays indexed by the position of the
+ * field rather than in maps keyed by the field name. Documents are buffered in blocks: the moments and the co-moments of a
+ * block are computed around the means of the block, and the block is then merged into the running stats with the same
+ * pairwise formulas that {@link RunningStats#merge(RunningStats)} uses to merge the stats of two shards.
+ *
+ * The stats are converted to {@link RunningStats} once collection is done, see {@link #toRunningStats()}.
+ */
+final class ArrayRunningStats {
+    /** maximum number of documents buffered before they are merged into the running stats */
+    static final int BLOCK_SIZE = 64;
+
+    private final String[] fieldNames;
+    private final int numFields;
+
+    /** count of observations (same number of observations per field) */
+    private long docCount = 0;
+    /** per field sum of observations */
+    private final double[] fieldSum;
+    /** mean values (first moment) */
+    private final double[] means;
+    /** variance values (second moment) */
+    private final double[] variances;
+    /** skewness values (third moment) */
+    private final double[] skewness;
+    /** kurtosis values (fourth moment) */
+    private final double[] kurtosis;
+    /** covariance values of every pair of fields, the upper triangle of the matrix row by row */
+    private final double[] covariances;
+
+    /** buffered field values, one row of {@code numFields} values per document */
+    private double[] block;
+    private int blockDocs = 0;
+
+    ArrayRunningStats(final String[] fieldNames) {
+        this.fieldNames = fieldNames;
+        this.numFields = fieldNames.length;
+        this.fieldSum = new double[numFields];
+        this.means = new double[numFields];
+        this.variances = new double[numFields];
+        this.skewness = new double[numFields];
+        this.kurtosis = new double[numFields];
+        this.covariances = new double[numFields * (numFields - 1) / 2];
+        // the block grows with the number of documents so that buckets with few documents stay small
+        this.block = new double[numFields];
+    }
+
+    /** updates running statistics with a documents field values **/
+    void add(final double[] fieldVals) {
+        assert fieldVals.length == numFields;
+        final int offset = blockDocs * numFields;
+        if (offset == block.length) {
+            if (blockDocs == BLOCK_SIZE) {
+                flush();
+                add(fieldVals);
+                return;
+            }
+            final double[] newBlock = new double[Math.min(BLOCK_SIZE, blockDocs * 2) * numFields];
+            System.arraycopy(block, 0, newBlock, 0, offset);
+            block = newBlock;
+        }
+        System.arraycopy(fieldVals, 0, block, offset, numFields);
+        ++blockDocs;
+    }
+
+    /** merges the buffered documents into the running statistics */
+    private void flush() {
+        if (blockDocs == 0) {
+            return;
+        }
+        final double nA = docCount;
+        final double nB = blockDocs;
+        final double n = nA + nB;
+        final double[] blockSum = new double[numFields];
+        final double[] blockMeans = new double[numFields];
+        for (int doc = 0, offset = 0; doc < blockDocs; ++doc, offset += numFields) {
+            for (int i = 0; i < numFields; ++i) {
+                blockSum[i] += block[offset + i];
+            }
+        }
+        for (int i = 0; i < numFields; ++i) {
+            blockMeans[i] = blockSum[i] / nB;
+        }
+
+        // moments and co-moments of the block around its means, the co-moments are added to the running ones right away
+        final double[] m2 = new double[numFields];
+        final double[] m3 = new double[numFields];
+        final double[] m4 = new double[numFields];
+        final double[] centered = new double[numFields];
+        double c, c2;
+        for (int doc = 0, offset = 0; doc < blockDocs; ++doc, offset += numFields) {
+            for (int i = 0; i < numFields; ++i) {
+                c = block[offset + i] - blockMeans[i];
+                c2 = c * c;
+                centered[i] = c;
+                m2[i] += c2;
+                m3[i] += c2 * c;
+                m4[i] += c2 * c2;
+            }
+            for (int i = 0, cov = 0; i < numFields; ++i) {
+                c = centered[i];
+                for (int j = i + 1; j < numFields; ++j, ++cov) {
+                    covariances[cov] += c * centered[j];
+                }
+            }
+        }
+
+        // merge the block into the running stats
+        final double[] deltas = new double[numFields];
+        double d, d2, varA, skewA;
+        final double n2 = n * n;
+        for (int i = 0; i < numFields; ++i) {
+            d = blockMeans[i] - means[i];
+            d2 = d * d;
+            varA = variances[i];
+            skewA = skewness[i];
+            deltas[i] = d;
+            fieldSum[i] += blockSum[i];
+            means[i] = (nA * means[i] + nB * blockMeans[i]) / n;
+            variances[i] = varA + m2[i] + d2 * nA * nB / n;
+            skewness[i] = skewA + m3[i] + d2 * d * nA * nB * (nA - nB) / n2 + 3D * d * (nA * m2[i] - nB * varA) / n;
+            kurtosis[i] = kurtosis[i] + m4[i] + d2 * d2 * nA * nB * (nA * nA - nA * nB + nB * nB) / (n2 * n)
+                + 6D * d2 * (nA * nA * m2[i] + nB * nB * varA) / n2 + 4D * d * (nA * m3[i] - nB * skewA) / n;
+        }
+        final double f = nA * nB / n;
+        for (int i = 0, cov = 0; i < numFields; ++i) {
+            d = f * deltas[i];
+            for (int j = i + 1; j < numFields; ++j, ++cov) {
+                covariances[cov] += d * deltas[j];
+            }
+        }
+        docCount += blockDocs;
+        blockDocs = 0;
+    }
+
+    /** returns the statistics of all documents added so far */
+    RunningStats toRunningStats() {
+        flush();
+        final RunningStats stats = new RunningStats();
+        stats.docCount = docCount;
+        for (int i = 0, cov = 0; i < numFields; ++i) {
+            final String fieldName = fieldNames[i];
+            stats.counts.put(fieldName, docCount);
+            stats.fieldSum.put(fieldName, fieldSum[i]);
+            stats.means.put(fieldName, means[i]);
+            stats.variances.put(fieldName, variances[i]);
+            stats.skewness.put(fieldName, skewness[i]);
+            stats.kurtosis.put(fieldName, kurtosis[i]);
+            if (i < numFields - 1) {
+                final HashMap<String, Double> cFieldVals = new HashMap<>();
+                for (int j = i + 1; j < numFields; ++j, ++cov) {
+                    cFieldVals.put(fieldNames[j], covariances[cov]);
+                }
+                stats.covariances.put(fieldName, cFieldVals);
+            }
+        }
+        return stats;
+    }
+}
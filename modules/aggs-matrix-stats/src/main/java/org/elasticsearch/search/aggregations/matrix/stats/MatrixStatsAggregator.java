@@ -47,7 +47,7 @@ final class MatrixStatsAggregator extends MetricsAggregator {
     private final NumericArrayValuesSource valuesSources;
 
     /** array of descriptive stats, per shard, needed to compute the correlation */
-    ObjectArray<RunningStats> stats;
+    ObjectArray<ArrayRunningStats> stats;
 
     MatrixStatsAggregator(String name, Map<String, ValuesSource.Numeric> valuesSources, SearchContext context,
                                  Aggregator parent, MultiValueMode multiValueMode, List<PipelineAggregator> pipelineAggregators,
@@ -87,14 +87,13 @@ final class MatrixStatsAggregator extends MetricsAggregator {
                 // get fields
                 if (includeDocument(doc) == true) {
                     stats = bigArrays.grow(stats, bucket + 1);
-                    RunningStats stat = stats.get(bucket);
+                    ArrayRunningStats stat = stats.get(bucket);
                     // add document fields to correlation stats
                     if (stat == null) {
-                        stat = new RunningStats(fieldNames, fieldVals);
+                        stat = new ArrayRunningStats(fieldNames);
                         stats.set(bucket, stat);
-                    } else {
-                        stat.add(fieldNames, fieldVals);
                     }
+                    stat.add(fieldVals);
                 }
             }
 
@@ -126,7 +125,9 @@ final class MatrixStatsAggregator extends MetricsAggregator {
         if (valuesSources == null || bucket >= stats.size()) {
             return buildEmptyAggregation();
         }
-        return new InternalMatrixStats(name, stats.size(), stats.get(bucket), null, pipelineAggregators(), metaData());
+        final ArrayRunningStats stat = stats.get(bucket);
+        return new InternalMatrixStats(name, stats.size(), stat == null ? null : stat.toRunningStats(), null,
+            pipelineAggregators(), metaData());
     }
 
     @Override
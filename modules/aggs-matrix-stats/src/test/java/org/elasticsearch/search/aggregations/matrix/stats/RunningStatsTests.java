@@ -19,6 +19,10 @@
 package org.elasticsearch.search.aggregations.matrix.stats;
 
 import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
 
 public class RunningStatsTests extends BaseMatrixStatsTestCase {
 
@@ -51,6 +55,59 @@ public class RunningStatsTests extends BaseMatrixStatsTestCase {
         actualStats.assertNearlyEqual(results);
     }
 
+    /** test the array based running stats used to collect documents */
+    public void testArrayRunningStats() throws Exception {
+        final ArrayRunningStats stats = new ArrayRunningStats(new String[] {fieldAKey, fieldBKey});
+        final double[] fieldVals = new double[2];
+        for (int n = 0; n < numObs; ++n) {
+            fieldVals[0] = fieldA.get(n);
+            fieldVals[1] = fieldB.get(n);
+            stats.add(fieldVals);
+        }
+        final MatrixStatsResults results = new MatrixStatsResults(stats.toRunningStats());
+        actualStats.assertNearlyEqual(results);
+    }
+
+    /** the array based running stats must agree with the running stats for any number of fields and documents */
+    public void testArrayRunningStatsMatchRunningStats() throws Exception {
+        final int numFields = randomIntBetween(1, 10);
+        final String[] fieldNames = new String[numFields];
+        for (int i = 0; i < numFields; ++i) {
+            fieldNames[i] = "field" + i;
+        }
+        final RunningStats expected = new RunningStats();
+        final ArrayRunningStats actual = new ArrayRunningStats(fieldNames);
+        final int numDocs = randomIntBetween(1, 5 * ArrayRunningStats.BLOCK_SIZE);
+        final double[] fieldVals = new double[numFields];
+        for (int n = 0; n < numDocs; ++n) {
+            for (int i = 0; i < numFields; ++i) {
+                fieldVals[i] = randomDoubleBetween(-100, 100, true);
+            }
+            expected.add(fieldNames, fieldVals);
+            actual.add(fieldVals);
+        }
+        final RunningStats stats = actual.toRunningStats();
+        assertThat(stats.docCount, equalTo(expected.docCount));
+        assertThat(stats.counts, equalTo(expected.counts));
+        assertNearlyEqual(expected.fieldSum, stats.fieldSum);
+        assertNearlyEqual(expected.means, stats.means);
+        assertNearlyEqual(expected.variances, stats.variances);
+        assertNearlyEqual(expected.skewness, stats.skewness);
+        assertNearlyEqual(expected.kurtosis, stats.kurtosis);
+        assertThat(stats.covariances.keySet(), equalTo(expected.covariances.keySet()));
+        for (String fieldName : expected.covariances.keySet()) {
+            assertNearlyEqual(expected.covariances.get(fieldName), stats.covariances.get(fieldName));
+        }
+    }
+
+    private static void assertNearlyEqual(Map<String, Double> expected, Map<String, Double> actual) {
+        assertThat(actual.keySet(), equalTo(expected.keySet()));
+        for (Map.Entry<String, Double> entry : expected.entrySet()) {
+            final double value = entry.getValue();
+            assertThat(entry.getKey(), actual.get(entry.getKey()), closeTo(value, 1e-6 * Math.max(1, Math.abs(value))));
+        }
+    }
+
     private RunningStats createRunningStats(List<Double> fieldAObs, List<Double> fieldBObs) {
         RunningStats stats = new RunningStats();
         // create a document with two numeric fields
@@ -0,0 +1,215 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script.expression;
+
+import org.apache.lucene.expressions.Bindings;
+import org.apache.lucene.expressions.Expression;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DoubleValues;
+import org.apache.lucene.search.DoubleValuesSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates an {@link Expression} on the documents of a leaf. Unlike the {@link DoubleValues} returned by
+ * {@link Expression#getDoubleValuesSource(Bindings)}, which advance every variable of the expression lazily for every document,
+ * the values of the variables that only depend on the document are read into primitive columns, one variable at a time. When
+ * documents are requested in sequence, as sorts, {@code script_score} and aggregations do on dense matches, the columns are
+ * filled for a whole block of documents ahead of time, and {@link #evaluate(int[], int, double[])} fills them for the
+ * documents of a block of matches given at once. Variables that can't be read ahead, {@code _score} and the {@code _value}
+ * of aggregations, are read from their {@link DoubleValues} for every document.
+ */
+final class BatchedExpressionValues {
+
+    /** maximum number of documents read ahead */
+    static final int BLOCK_SIZE = 64;
+
+    private final Expression expression;
+    private final LeafReaderContext leaf;
+    private final DoubleValues scores;
+
+    /** the values passed to the expression, in the order of {@link Expression#variables} */
+    private final DoubleValues[] functionValues;
+
+    /** sources, values and columns of the variables that are read ahead */
+    private final DoubleValuesSource[] blockSources;
+    private final DoubleValues[] blockValues;
+    private final double[][] columns;
+
+    /** variables that are read for every document */
+    private final DoubleValues[] docValues;
+    private final boolean[] docValueExists;
+
+    /** the block of documents in the columns is [blockStart, blockEnd) */
+    private int blockStart = 0;
+    private int blockEnd = 0;
+    /** the position of the current document in the columns */
+    private int position = -1;
+    /** the first document that the block values can still advance to */
+    private int nextDoc = 0;
+    private int lastDoc = -1;
+
+    BatchedExpressionValues(Expression expression, Bindings bindings, LeafReaderContext leaf, DoubleValues scores) throws IOException {
+        this.expression = expression;
+        this.leaf = leaf;
+        this.scores = scores;
+
+        final String[] variables = expression.variables;
+        final List<DoubleValuesSource> blockSourceList = new ArrayList<>();
+        final List<DoubleValues> docValuesList = new ArrayList<>();
+        functionValues = new DoubleValues[variables.length];
+        for (int i = 0; i < variables.length; ++i) {
+            final DoubleValuesSource source = bindings.getDoubleValuesSource(variables[i]);
+            if (source.needsScores() || source instanceof ReplaceableConstDoubleValueSource) {
+                functionValues[i] = new DocValue(docValuesList.size());
+                docValuesList.add(source.getValues(leaf, scores));
+            } else {
+                functionValues[i] = new ColumnValue(blockSourceList.size());
+                blockSourceList.add(source);
+            }
+        }
+        blockSources = blockSourceList.toArray(new DoubleValuesSource[0]);
+        blockValues = new DoubleValues[blockSources.length];
+        for (int i = 0; i < blockSources.length; ++i) {
+            blockValues[i] = blockSources[i].getValues(leaf, scores);
+        }
+        columns = new double[blockSources.length][BLOCK_SIZE];
+        docValues = docValuesList.toArray(new DoubleValues[0]);
+        docValueExists = new boolean[docValues.length];
+    }
+
+    /** positions the values on the given document */
+    void advanceExact(int doc) throws IOException {
+        if (doc < blockStart || doc >= blockEnd) {
+            // read ahead only when documents are requested in sequence, sparse requests read one document at a time
+            fillBlock(doc, doc == lastDoc + 1 ? BLOCK_SIZE : 1);
+        }
+        position = doc - blockStart;
+        advanceDocValues(doc);
+    }
+
+    /** evaluates the expression on the current document */
+    double evaluate() throws IOException {
+        return expression.evaluate(functionValues);
+    }
+
+    /**
+     * Evaluates the expression on the first {@code count} documents of {@code docs}, which are in increasing order, into
+     * {@code results}. The columns are filled for up to {@link #BLOCK_SIZE} of these documents at a time, whether they are
+     * contiguous or not.
+     */
+    void evaluate(int[] docs, int count, double[] results) throws IOException {
+        for (int start = 0; start < count; start += BLOCK_SIZE) {
+            final int end = Math.min(count, start + BLOCK_SIZE);
+            if (docs[start] < nextDoc) {
+                resetBlockValues();
+            }
+            for (int i = 0; i < blockValues.length; ++i) {
+                final DoubleValues values = blockValues[i];
+                final double[] column = columns[i];
+                for (int j = start; j < end; ++j) {
+                    column[j - start] = values.advanceExact(docs[j]) ? values.doubleValue() : 0;
+                }
+            }
+            nextDoc = docs[end - 1] + 1;
+            // the columns don't hold a range of documents anymore, the next call to advanceExact fills them again
+            blockStart = blockEnd = 0;
+            for (int j = start; j < end; ++j) {
+                position = j - start;
+                advanceDocValues(docs[j]);
+                results[j] = expression.evaluate(functionValues);
+            }
+        }
+    }
+
+    private void advanceDocValues(int doc) throws IOException {
+        lastDoc = doc;
+        for (int i = 0; i < docValues.length; ++i) {
+            docValueExists[i] = docValues[i].advanceExact(doc);
+        }
+    }
+
+    private void resetBlockValues() throws IOException {
+        // the values can only go forward, start over for documents that were skipped
+        for (int i = 0; i < blockSources.length; ++i) {
+            blockValues[i] = blockSources[i].getValues(leaf, scores);
+        }
+    }
+
+    private void fillBlock(int doc, int size) throws IOException {
+        if (doc < nextDoc) {
+            resetBlockValues();
+        }
+        blockStart = doc;
+        blockEnd = size == 1 ? doc + 1 : Math.min(leaf.reader().maxDoc(), doc + size);
+        final int count = blockEnd - blockStart;
+        for (int i = 0; i < blockValues.length; ++i) {
+            final DoubleValues values = blockValues[i];
+            final double[] column = columns[i];
+            for (int j = 0; j < count; ++j) {
+                // missing values are 0, like expressions do for unpositioned values
+                column[j] = values.advanceExact(blockStart + j) ? values.doubleValue() : 0;
+            }
+        }
+        nextDoc = blockEnd;
+    }
+
+    /** the value of a variable read ahead into a column */
+    private final class ColumnValue extends DoubleValues {
+        private final int index;
+
+        ColumnValue(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public double doubleValue() {
+            return columns[index][position];
+        }
+
+        @Override
+        public boolean advanceExact(int doc) {
+            // positioned by the enclosing values, missing values read as 0
+            return true;
+        }
+    }
+
+    /** the value of a variable read for every document */
+    private final class DocValue extends DoubleValues {
+        private final int index;
+
+        DocValue(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public double doubleValue() throws IOException {
+            return docValueExists[index] ? docValues[index].doubleValue() : 0;
+        }
+
+        @Override
+        public boolean advanceExact(int doc) {
+            // positioned by the enclosing values, missing values read as 0
+            return true;
+        }
+    }
+}
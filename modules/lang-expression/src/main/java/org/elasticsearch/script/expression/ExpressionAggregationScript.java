@@ -25,7 +25,6 @@ import org.apache.lucene.expressions.Expression;
 import org.apache.lucene.expressions.SimpleBindings;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DoubleValues;
-import org.apache.lucene.search.DoubleValuesSource;
 import org.elasticsearch.script.AggregationScript;
 import org.elasticsearch.script.GeneralScriptException;
 
@@ -37,13 +36,11 @@ class ExpressionAggregationScript implements AggregationScript.LeafFactory {
 
     final Expression exprScript;
     final SimpleBindings bindings;
-    final DoubleValuesSource source;
     final ReplaceableConstDoubleValueSource specialValue; // _value
 
     ExpressionAggregationScript(Expression e, SimpleBindings b, ReplaceableConstDoubleValueSource v) {
         exprScript = e;
         bindings = b;
-        source = exprScript.getDoubleValuesSource(bindings);
         specialValue = v;
     }
 
@@ -51,12 +48,12 @@ class ExpressionAggregationScript implements AggregationScript.LeafFactory {
     public AggregationScript newInstance(final LeafReaderContext leaf) throws IOException {
         return new AggregationScript() {
             // Fake the scorer until setScorer is called.
-            DoubleValues values = source.getValues(leaf, null);
+            final BatchedExpressionValues values = new BatchedExpressionValues(exprScript, bindings, leaf, null);
 
             @Override
             public Object execute() {
                 try {
-                    return values.doubleValue();
+                    return values.evaluate();
                 } catch (Exception exception) {
                     throw new GeneralScriptException("Error evaluating " + exprScript, exception);
                 }
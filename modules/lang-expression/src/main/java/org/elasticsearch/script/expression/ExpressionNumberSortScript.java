@@ -25,7 +25,6 @@ import org.apache.lucene.expressions.Expression;
 import org.apache.lucene.expressions.SimpleBindings;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DoubleValues;
-import org.apache.lucene.search.DoubleValuesSource;
 import org.elasticsearch.script.GeneralScriptException;
 import org.elasticsearch.script.NumberSortScript;
 
@@ -37,13 +36,11 @@ class ExpressionNumberSortScript implements NumberSortScript.LeafFactory {
 
     final Expression exprScript;
     final SimpleBindings bindings;
-    final DoubleValuesSource source;
     final boolean needsScores;
 
     ExpressionNumberSortScript(Expression e, SimpleBindings b, boolean needsScores) {
         exprScript = e;
         bindings = b;
-        source = exprScript.getDoubleValuesSource(bindings);
         this.needsScores = needsScores;
     }
 
@@ -51,7 +48,7 @@ class ExpressionNumberSortScript implements NumberSortScript.LeafFactory {
     public NumberSortScript newInstance(final LeafReaderContext leaf) throws IOException {
         return new NumberSortScript() {
             // Fake the scorer until setScorer is called.
-            DoubleValues values = source.getValues(leaf, new DoubleValues() {
+            final BatchedExpressionValues values = new BatchedExpressionValues(exprScript, bindings, leaf, new DoubleValues() {
                 @Override
                 public double doubleValue() {
                     return 0.0D;
@@ -66,7 +63,7 @@ class ExpressionNumberSortScript implements NumberSortScript.LeafFactory {
             @Override
             public double execute() {
                 try {
-                    return values.doubleValue();
+                    return values.evaluate();
                 } catch (Exception exception) {
                     throw new GeneralScriptException("Error evaluating " + exprScript, exception);
                 }
@@ -24,7 +24,6 @@ import org.apache.lucene.expressions.Expression;
 import org.apache.lucene.expressions.SimpleBindings;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.DoubleValues;
-import org.apache.lucene.search.DoubleValuesSource;
 import org.elasticsearch.script.GeneralScriptException;
 import org.elasticsearch.script.ScoreScript;
 
@@ -37,12 +36,12 @@ import java.io.IOException;
 class ExpressionScoreScript implements ScoreScript.LeafFactory {
 
     private final Expression exprScript;
-    private final DoubleValuesSource source;
+    private final SimpleBindings bindings;
     private final boolean needsScores;
 
     ExpressionScoreScript(Expression e, SimpleBindings b, boolean needsScores) {
         this.exprScript = e;
-        this.source = exprScript.getDoubleValuesSource(b);
+        this.bindings = b;
         this.needsScores = needsScores;
     }
 
@@ -54,15 +53,26 @@ class ExpressionScoreScript implements ScoreScript.LeafFactory {
     @Override
     public ScoreScript newInstance(final LeafReaderContext leaf) throws IOException {
         return new ScoreScript(null, null, null) {
+            // the sub query scores of the block that executeBlock is scoring, null when documents are scored one by one
+            int[] blockDocIds;
+            float[] blockScores;
+            int blockIndex;
+
             // Fake the scorer until setScorer is called.
-            DoubleValues values = source.getValues(leaf, new DoubleValues() {
+            final BatchedExpressionValues values = new BatchedExpressionValues(exprScript, bindings, leaf, new DoubleValues() {
                 @Override
                 public double doubleValue() throws IOException {
-                    return get_score();
+                    return blockScores == null ? get_score() : blockScores[blockIndex];
                 }
 
                 @Override
                 public boolean advanceExact(int doc) throws IOException {
+                    if (blockDocIds != null) {
+                        // the documents of a block are evaluated in order
+                        while (blockDocIds[blockIndex] != doc) {
+                            blockIndex++;
+                        }
+                    }
                     return true;
                 }
             });
@@ -70,9 +80,24 @@ class ExpressionScoreScript implements ScoreScript.LeafFactory {
             @Override
             public double execute() {
                 try {
-                    return values.doubleValue();
+                    return values.evaluate();
+                } catch (Exception exception) {
+                    throw new GeneralScriptException("Error evaluating " + exprScript, exception);
+                }
+            }
+
+            @Override
+            public void executeBlock(int[] docIds, float[] subQueryScores, int count, double[] scores) {
+                blockDocIds = docIds;
+                blockScores = subQueryScores;
+                blockIndex = 0;
+                try {
+                    values.evaluate(docIds, count, scores);
                 } catch (Exception exception) {
                     throw new GeneralScriptException("Error evaluating " + exprScript, exception);
+                } finally {
+                    blockDocIds = null;
+                    blockScores = null;
                 }
             }
 
@@ -0,0 +1,142 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script.expression;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
+import org.elasticsearch.script.AggregationScript;
+import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExpressionAggregationScriptTests extends ESTestCase {
+    private ExpressionScriptEngine service;
+    private SearchLookup lookup;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        NumberFieldType fieldType = new NumberFieldType(NumberType.DOUBLE);
+        MapperService mapperService = mock(MapperService.class);
+        when(mapperService.fullName("field")).thenReturn(fieldType);
+
+        // documents whose id is a multiple of 5 miss the field, the others have twice their id as value
+        final AtomicInteger currentDoc = new AtomicInteger(-1);
+        SortedNumericDoubleValues doubleValues = mock(SortedNumericDoubleValues.class);
+        when(doubleValues.advanceExact(anyInt())).thenAnswer(invocation -> {
+            int doc = (Integer) invocation.getArguments()[0];
+            // doc values only go forward
+            assertTrue(doc > currentDoc.get());
+            currentDoc.set(doc);
+            return doc % 5 != 0;
+        });
+        when(doubleValues.docValueCount()).thenReturn(1);
+        when(doubleValues.nextValue()).thenAnswer(invocation -> currentDoc.get() * 2.0);
+
+        AtomicNumericFieldData atomicFieldData = mock(AtomicNumericFieldData.class);
+        when(atomicFieldData.getDoubleValues()).thenAnswer(invocation -> {
+            currentDoc.set(-1);
+            return doubleValues;
+        });
+
+        IndexNumericFieldData fieldData = mock(IndexNumericFieldData.class);
+        when(fieldData.getFieldName()).thenReturn("field");
+        when(fieldData.load(anyObject())).thenReturn(atomicFieldData);
+
+        service = new ExpressionScriptEngine();
+        lookup = new SearchLookup(mapperService, ignored -> fieldData, null);
+    }
+
+    private AggregationScript.LeafFactory compile(String expression) {
+        AggregationScript.Factory factory = service.compile(null, expression, AggregationScript.CONTEXT, Collections.emptyMap());
+        return factory.newFactory(Collections.emptyMap(), lookup);
+    }
+
+    public void testBatchedFieldAccess() throws IOException {
+        try (Directory directory = newDirectory()) {
+            final int numDocs = randomIntBetween(1, 5 * BatchedExpressionValues.BLOCK_SIZE);
+            try (DirectoryReader reader = createReader(directory, numDocs)) {
+                AggregationScript script = compile("doc['field'].value + 1").newInstance(reader.leaves().get(0));
+                int doc = 0;
+                while (doc < numDocs) {
+                    script.setDocument(doc);
+                    assertEquals("doc " + doc, doc % 5 == 0 ? 1.0 : doc * 2.0 + 1, script.runAsDouble(), 0.0);
+                    doc = nextDoc(doc, numDocs);
+                }
+            }
+        }
+    }
+
+    public void testBatchedFieldAccessWithValue() throws IOException {
+        try (Directory directory = newDirectory()) {
+            final int numDocs = randomIntBetween(1, 5 * BatchedExpressionValues.BLOCK_SIZE);
+            try (DirectoryReader reader = createReader(directory, numDocs)) {
+                AggregationScript script = compile("doc['field'].value + _value").newInstance(reader.leaves().get(0));
+                int doc = 0;
+                while (doc < numDocs) {
+                    script.setDocument(doc);
+                    // a document may have several values, _value changes while the document stays the same
+                    for (int i = between(1, 3); i > 0; i--) {
+                        double value = randomDouble();
+                        script.setNextAggregationValue(value);
+                        assertEquals("doc " + doc, (doc % 5 == 0 ? 0 : doc * 2.0) + value, script.runAsDouble(), 0.0);
+                    }
+                    doc = nextDoc(doc, numDocs);
+                }
+            }
+        }
+    }
+
+    /** mostly documents in sequence, sometimes with gaps and sometimes going back */
+    private static int nextDoc(int doc, int numDocs) {
+        if (rarely()) {
+            return randomIntBetween(0, numDocs);
+        }
+        return doc + (randomBoolean() ? 1 : randomIntBetween(1, 10));
+    }
+
+    private static DirectoryReader createReader(Directory directory, int numDocs) throws IOException {
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < numDocs; i++) {
+                writer.addDocument(new Document());
+            }
+            writer.forceMerge(1);
+        }
+        return DirectoryReader.open(directory);
+    }
+}
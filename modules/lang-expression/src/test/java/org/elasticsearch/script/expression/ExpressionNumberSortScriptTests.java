@@ -22,6 +22,13 @@ package org.elasticsearch.script.expression;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.Directory;
 import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
 import org.elasticsearch.index.fielddata.IndexNumericFieldData;
 import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
@@ -101,4 +108,52 @@ public class ExpressionNumberSortScriptTests extends ESTestCase {
         double result = script.execute();
         assertEquals(2.718, result, 0.0);
     }
+
+    public void testBatchedFieldAccess() throws IOException {
+        final AtomicInteger currentDoc = new AtomicInteger(-1);
+        SortedNumericDoubleValues doubleValues = mock(SortedNumericDoubleValues.class);
+        when(doubleValues.advanceExact(anyInt())).thenAnswer(invocation -> {
+            int doc = (Integer) invocation.getArguments()[0];
+            // doc values only go forward
+            assertTrue(doc > currentDoc.get());
+            currentDoc.set(doc);
+            return doc % 5 != 0;
+        });
+        when(doubleValues.docValueCount()).thenReturn(1);
+        when(doubleValues.nextValue()).thenAnswer(invocation -> currentDoc.get() * 2.0);
+
+        AtomicNumericFieldData atomicFieldData = mock(AtomicNumericFieldData.class);
+        when(atomicFieldData.getDoubleValues()).thenAnswer(invocation -> {
+            currentDoc.set(-1);
+            return doubleValues;
+        });
+        IndexNumericFieldData fieldData = mock(IndexNumericFieldData.class);
+        when(fieldData.getFieldName()).thenReturn("field");
+        when(fieldData.load(anyObject())).thenReturn(atomicFieldData);
+        lookup = new SearchLookup(lookup.doc().mapperService(), ignored -> fieldData, null);
+
+        try (Directory directory = newDirectory()) {
+            final int numDocs = randomIntBetween(1, 5 * BatchedExpressionValues.BLOCK_SIZE);
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+                for (int i = 0; i < numDocs; i++) {
+                    writer.addDocument(new Document());
+                }
+                writer.forceMerge(1);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                NumberSortScript script = compile("doc['field'].value + 1").newInstance(reader.leaves().get(0));
+                int doc = 0;
+                while (doc < numDocs) {
+                    script.setDocument(doc);
+                    assertEquals("doc " + doc, doc % 5 == 0 ? 1.0 : doc * 2.0 + 1, script.execute(), 0.0);
+                    // mostly documents in sequence, sometimes with gaps and sometimes going back
+                    if (rarely()) {
+                        doc = randomIntBetween(0, numDocs);
+                    } else {
+                        doc += randomBoolean() ? 1 : randomIntBetween(1, 10);
+                    }
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script.expression;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.index.fielddata.AtomicNumericFieldData;
+import org.elasticsearch.index.fielddata.IndexNumericFieldData;
+import org.elasticsearch.index.fielddata.SortedNumericDoubleValues;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper.NumberType;
+import org.elasticsearch.script.ScoreScript;
+import org.elasticsearch.search.lookup.SearchLookup;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExpressionScoreScriptTests extends ESTestCase {
+    private ExpressionScriptEngine service;
+    private SearchLookup lookup;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        NumberFieldType fieldType = new NumberFieldType(NumberType.DOUBLE);
+        MapperService mapperService = mock(MapperService.class);
+        when(mapperService.fullName("field")).thenReturn(fieldType);
+
+        // documents whose id is a multiple of 5 miss the field, the others have twice their id as value
+        final AtomicInteger currentDoc = new AtomicInteger(-1);
+        SortedNumericDoubleValues doubleValues = mock(SortedNumericDoubleValues.class);
+        when(doubleValues.advanceExact(anyInt())).thenAnswer(invocation -> {
+            int doc = (Integer) invocation.getArguments()[0];
+            // doc values only go forward
+            assertTrue(doc > currentDoc.get());
+            currentDoc.set(doc);
+            return doc % 5 != 0;
+        });
+        when(doubleValues.docValueCount()).thenReturn(1);
+        when(doubleValues.nextValue()).thenAnswer(invocation -> currentDoc.get() * 2.0);
+
+        AtomicNumericFieldData atomicFieldData = mock(AtomicNumericFieldData.class);
+        when(atomicFieldData.getDoubleValues()).thenAnswer(invocation -> {
+            currentDoc.set(-1);
+            return doubleValues;
+        });
+
+        IndexNumericFieldData fieldData = mock(IndexNumericFieldData.class);
+        when(fieldData.getFieldName()).thenReturn("field");
+        when(fieldData.load(anyObject())).thenReturn(atomicFieldData);
+
+        service = new ExpressionScriptEngine();
+        lookup = new SearchLookup(mapperService, ignored -> fieldData, null);
+    }
+
+    private ScoreScript.LeafFactory compile(String expression) {
+        ScoreScript.Factory factory = service.compile(null, expression, ScoreScript.CONTEXT, Collections.emptyMap());
+        return factory.newFactory(Collections.emptyMap(), lookup);
+    }
+
+    private static double expected(int doc, double score) {
+        return (doc % 5 == 0 ? 0 : doc * 2.0) + 1 + score;
+    }
+
+    public void testBatchedFieldAccess() throws IOException {
+        try (Directory directory = newDirectory()) {
+            final int numDocs = randomIntBetween(1, 5 * BatchedExpressionValues.BLOCK_SIZE);
+            try (DirectoryReader reader = createReader(directory, numDocs)) {
+                ScoreScript script = compile("doc['field'].value + 1 + _score").newInstance(reader.leaves().get(0));
+                final float[] score = new float[1];
+                script.setScorer(new Scorable() {
+                    @Override
+                    public int docID() {
+                        return -1;
+                    }
+
+                    @Override
+                    public float score() {
+                        return score[0];
+                    }
+                });
+                int doc = 0;
+                while (doc < numDocs) {
+                    score[0] = randomFloat();
+                    script.setDocument(doc);
+                    assertEquals("doc " + doc, expected(doc, score[0]), script.execute(), 0.0);
+                    // mostly documents in sequence, sometimes with gaps and sometimes going back
+                    if (rarely()) {
+                        doc = randomIntBetween(0, numDocs);
+                    } else {
+                        doc += randomBoolean() ? 1 : randomIntBetween(1, 10);
+                    }
+                }
+            }
+        }
+    }
+
+    public void testExecuteBlock() throws IOException {
+        try (Directory directory = newDirectory()) {
+            final int numDocs = randomIntBetween(1, 5 * BatchedExpressionValues.BLOCK_SIZE);
+            try (DirectoryReader reader = createReader(directory, numDocs)) {
+                ScoreScript script = compile("doc['field'].value + 1 + _score").newInstance(reader.leaves().get(0));
+                final int[] docIds = new int[2 * BatchedExpressionValues.BLOCK_SIZE];
+                final float[] subQueryScores = new float[docIds.length];
+                final double[] scores = new double[docIds.length];
+                int doc = 0;
+                for (int iter = 0; iter < 10; iter++) {
+                    // blocks are made of increasing documents, with or without gaps, and the next block may start over
+                    if (rarely()) {
+                        doc = randomIntBetween(0, numDocs - 1);
+                    }
+                    int count = 0;
+                    while (count < docIds.length && doc < numDocs) {
+                        docIds[count] = doc;
+                        subQueryScores[count] = randomFloat();
+                        count++;
+                        doc += randomBoolean() ? 1 : randomIntBetween(1, 10);
+                    }
+                    script.executeBlock(docIds, subQueryScores, count, scores);
+                    for (int i = 0; i < count; i++) {
+                        assertEquals("doc " + docIds[i], expected(docIds[i], subQueryScores[i]), scores[i], 0.0);
+                    }
+                    if (doc >= numDocs) {
+                        doc = 0;
+                    }
+                }
+
+                // documents can still be scored one by one after a block
+                script.setScorer(new Scorable() {
+                    @Override
+                    public int docID() {
+                        return -1;
+                    }
+
+                    @Override
+                    public float score() {
+                        return 0.5f;
+                    }
+                });
+                script.setDocument(numDocs - 1);
+                assertEquals(expected(numDocs - 1, 0.5f), script.execute(), 0.0);
+            }
+        }
+    }
+
+    private static DirectoryReader createReader(Directory directory, int numDocs) throws IOException {
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int i = 0; i < numDocs; i++) {
+                writer.addDocument(new Document());
+            }
+            writer.forceMerge(1);
+        }
+        return DirectoryReader.open(directory);
+    }
+}
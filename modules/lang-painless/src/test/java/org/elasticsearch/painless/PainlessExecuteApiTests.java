@@ -110,4 +110,27 @@ public class PainlessExecuteApiTests extends ESSingleNodeTestCase {
         assertThat(response.getResult(), equalTo(0.93D));
     }
 
+    public void testPrimitiveDocAccess() throws IOException {
+        ScriptService scriptService = getInstanceFromNode(ScriptService.class);
+        IndexService indexService = createIndex("index", Settings.EMPTY, "doc", "rank", "type=long", "price", "type=double",
+            "date", "type=date", "text", "type=text");
+
+        Request.ContextSetup contextSetup = new Request.ContextSetup("index",
+            new BytesArray("{\"rank\": 4, \"price\": 2.5, \"date\": 1000, \"text\": \"quick brown fox\"}"),
+            new MatchQueryBuilder("text", "fox"));
+        contextSetup.setXContentType(XContentType.JSON);
+        Request request = new Request(new Script(ScriptType.INLINE, "painless",
+            "doc.getLong('rank') * doc.getDouble('price') + doc.getLong('date') / params.scale", singletonMap("scale", 1000)), "score",
+            contextSetup);
+        Response response = innerShardOperation(request, scriptService, indexService);
+        assertThat(response.getResult(), equalTo(11.0D));
+
+        contextSetup = new Request.ContextSetup("index", new BytesArray("{\"rank\": 4, \"date\": 1000}"), null);
+        contextSetup.setXContentType(XContentType.JSON);
+        request = new Request(new Script("doc.getLong('rank') == doc['rank'].value && " +
+            "doc.getLong('date') == doc['date'].value.toInstant().toEpochMilli()"), "filter", contextSetup);
+        response = innerShardOperation(request, scriptService, indexService);
+        assertThat(response.getResult(), equalTo(true));
+    }
+
 }
@@ -86,6 +86,16 @@ public final class ParentIdFieldMapper extends FieldMapper {
             return builder;
         }
 
+        public Builder cacheOrdinals(boolean cacheOrdinals) {
+            fieldType().setCacheOrdinals(cacheOrdinals);
+            return builder;
+        }
+
+        @Override
+        public ParentIdFieldType fieldType() {
+            return (ParentIdFieldType) super.fieldType();
+        }
+
         @Override
         public ParentIdFieldMapper build(BuilderContext context) {
             fieldType.setName(name);
@@ -94,6 +104,8 @@ public final class ParentIdFieldMapper extends FieldMapper {
     }
 
     public static final class ParentIdFieldType extends StringFieldType {
+        private boolean cacheOrdinals = false;
+
         ParentIdFieldType() {
             setIndexAnalyzer(Lucene.KEYWORD_ANALYZER);
             setSearchAnalyzer(Lucene.KEYWORD_ANALYZER);
@@ -101,12 +113,39 @@ public final class ParentIdFieldMapper extends FieldMapper {
 
         protected ParentIdFieldType(ParentIdFieldType ref) {
             super(ref);
+            this.cacheOrdinals = ref.cacheOrdinals;
         }
 
         public ParentIdFieldType clone() {
             return new ParentIdFieldType(this);
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (super.equals(o) == false) {
+                return false;
+            }
+            ParentIdFieldType that = (ParentIdFieldType) o;
+            return cacheOrdinals == that.cacheOrdinals;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * super.hashCode() + Boolean.hashCode(cacheOrdinals);
+        }
+
+        /**
+         * Whether the ordinals of the parent ids are cached in memory per segment, see {@link ParentOrdinalsIndexFieldData}.
+         */
+        public boolean cacheOrdinals() {
+            return cacheOrdinals;
+        }
+
+        public void setCacheOrdinals(boolean cacheOrdinals) {
+            checkIfFrozen();
+            this.cacheOrdinals = cacheOrdinals;
+        }
+
         @Override
         public String typeName() {
             return CONTENT_TYPE;
@@ -115,6 +154,9 @@ public final class ParentIdFieldMapper extends FieldMapper {
         @Override
         public IndexFieldData.Builder fielddataBuilder(String fullyQualifiedIndexName) {
             failIfNoDocValues();
+            if (cacheOrdinals) {
+                return new ParentOrdinalsIndexFieldData.Builder();
+            }
             return new DocValuesIndexFieldData.Builder();
         }
 
@@ -123,6 +123,7 @@ public final class ParentJoinFieldMapper extends FieldMapper {
     public static class Builder extends FieldMapper.Builder<Builder, ParentJoinFieldMapper> {
         final List<ParentIdFieldMapper.Builder> parentIdFieldBuilders = new ArrayList<>();
         boolean eagerGlobalOrdinals = true;
+        boolean cacheOrdinals = false;
 
         public Builder(String name) {
             super(name, Defaults.FIELD_TYPE, Defaults.FIELD_TYPE);
@@ -145,6 +146,11 @@ public final class ParentJoinFieldMapper extends FieldMapper {
             return builder;
         }
 
+        public Builder cacheOrdinals(boolean cacheOrdinals) {
+            this.cacheOrdinals = cacheOrdinals;
+            return builder;
+        }
+
         @Override
         public ParentJoinFieldMapper build(BuilderContext context) {
             checkObjectOrNested(context.path(), name);
@@ -155,13 +161,14 @@ public final class ParentJoinFieldMapper extends FieldMapper {
                     if (eagerGlobalOrdinals) {
                         parentBuilder.eagerGlobalOrdinals(true);
                     }
+                    parentBuilder.cacheOrdinals(cacheOrdinals);
                     return parentBuilder.build(context);
                 })
                 .forEach(parentIdFields::add);
             checkParentFields(name(), parentIdFields);
             MetaJoinFieldMapper unique = new MetaJoinFieldMapper.Builder().build(context);
             return new ParentJoinFieldMapper(name, fieldType, context.indexSettings(),
-                unique, Collections.unmodifiableList(parentIdFields), eagerGlobalOrdinals);
+                unique, Collections.unmodifiableList(parentIdFields), eagerGlobalOrdinals, cacheOrdinals);
         }
     }
 
@@ -182,6 +189,11 @@ public final class ParentJoinFieldMapper extends FieldMapper {
                     iterator.remove();
                     continue;
                 }
+                if ("cache_ordinals".equals(entry.getKey())) {
+                    builder.cacheOrdinals(XContentMapValues.nodeBooleanValue(entry.getValue(), "cache_ordinals"));
+                    iterator.remove();
+                    continue;
+                }
                 if ("relations".equals(entry.getKey())) {
                     Map<String, Object> relations = XContentMapValues.nodeMapValue(entry.getValue(), "relations");
                     for (Iterator<Map.Entry<String, Object>> relIt = relations.entrySet().iterator(); relIt.hasNext(); ) {
@@ -246,18 +258,21 @@ public final class ParentJoinFieldMapper extends FieldMapper {
     private MetaJoinFieldMapper uniqueFieldMapper;
     private List<ParentIdFieldMapper> parentIdFields;
     private boolean eagerGlobalOrdinals;
+    private boolean cacheOrdinals;
 
     protected ParentJoinFieldMapper(String simpleName,
                                     MappedFieldType fieldType,
                                     Settings indexSettings,
                                     MetaJoinFieldMapper uniqueFieldMapper,
                                     List<ParentIdFieldMapper> parentIdFields,
-                                    boolean eagerGlobalOrdinals) {
+                                    boolean eagerGlobalOrdinals,
+                                    boolean cacheOrdinals) {
         super(simpleName, fieldType, Defaults.FIELD_TYPE, indexSettings, MultiFields.empty(), CopyTo.empty());
         this.parentIdFields = parentIdFields;
         this.uniqueFieldMapper = uniqueFieldMapper;
         this.uniqueFieldMapper.setFieldMapper(this);
         this.eagerGlobalOrdinals = eagerGlobalOrdinals;
+        this.cacheOrdinals = cacheOrdinals;
     }
 
     @Override
@@ -351,6 +366,7 @@ public final class ParentJoinFieldMapper extends FieldMapper {
             throw new IllegalStateException("invalid update for join field [" + name() + "]:\n" + conflicts.toString());
         }
         this.eagerGlobalOrdinals = joinMergeWith.eagerGlobalOrdinals;
+        this.cacheOrdinals = joinMergeWith.cacheOrdinals;
         this.parentIdFields = Collections.unmodifiableList(newParentIdFields);
         this.uniqueFieldMapper = (MetaJoinFieldMapper) uniqueFieldMapper.merge(joinMergeWith.uniqueFieldMapper);
         uniqueFieldMapper.setFieldMapper(this);
@@ -443,6 +459,9 @@ public final class ParentJoinFieldMapper extends FieldMapper {
     protected void doXContentBody(XContentBuilder builder, boolean includeDefaults, Params params) throws IOException {
         builder.field("type", contentType());
         builder.field("eager_global_ordinals", eagerGlobalOrdinals);
+        if (includeDefaults || cacheOrdinals) {
+            builder.field("cache_ordinals", cacheOrdinals);
+        }
         builder.startObject("relations");
         for (ParentIdFieldMapper field : parentIdFields) {
             if (field.getChildren().size() == 1) {
@@ -0,0 +1,220 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.join.mapper;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.util.Accountable;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.packed.PackedInts;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.index.IndexSettings;
+import org.elasticsearch.index.fielddata.AtomicOrdinalsFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldData;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.fielddata.fieldcomparator.BytesRefFieldComparatorSource;
+import org.elasticsearch.index.fielddata.plain.AbstractAtomicOrdinalsFieldData;
+import org.elasticsearch.index.fielddata.plain.AbstractIndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.MapperService;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.search.MultiValueMode;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Field data for the fields of the {@link ParentIdFieldMapper} that keeps, for every segment, the ordinal of the parent id of
+ * each document in a packed array. The arrays are built once per segment, cached and accounted like other field data, so
+ * the joins and the join aggregations resolve the parent of a document with a random access in memory instead of
+ * reading the doc values of the field. The global ordinals built on top of these arrays are warmed eagerly on refresh
+ * when {@code eager_global_ordinals} is enabled on the join field.
+ */
+public final class ParentOrdinalsIndexFieldData extends AbstractIndexOrdinalsFieldData {
+
+    public static class Builder implements IndexFieldData.Builder {
+        @Override
+        public IndexOrdinalsFieldData build(IndexSettings indexSettings, MappedFieldType fieldType,
+                                            IndexFieldDataCache cache, CircuitBreakerService breakerService, MapperService mapperService) {
+            return new ParentOrdinalsIndexFieldData(indexSettings, fieldType.name(), cache, breakerService);
+        }
+    }
+
+    ParentOrdinalsIndexFieldData(IndexSettings indexSettings, String fieldName,
+                                 IndexFieldDataCache cache, CircuitBreakerService breakerService) {
+        super(indexSettings, fieldName, cache, breakerService, 0, Double.MAX_VALUE, 0);
+    }
+
+    @Override
+    public SortField sortField(@Nullable Object missingValue, MultiValueMode sortMode, XFieldComparatorSource.Nested nested,
+                               boolean reverse) {
+        XFieldComparatorSource source = new BytesRefFieldComparatorSource(this, missingValue, sortMode, nested);
+        return new SortField(getFieldName(), source, reverse);
+    }
+
+    @Override
+    public AtomicOrdinalsFieldData loadDirect(LeafReaderContext context) throws Exception {
+        final LeafReader reader = context.reader();
+        final SortedDocValues values = reader.getSortedDocValues(getFieldName());
+        if (values == null) {
+            return AbstractAtomicOrdinalsFieldData.empty();
+        }
+        // ordinals are shifted by one so that zero can mark documents without a value
+        final int bitsPerValue = PackedInts.bitsRequired(values.getValueCount());
+        final long estimatedBytes = PackedInts.Format.PACKED.byteCount(PackedInts.VERSION_CURRENT, reader.maxDoc(), bitsPerValue);
+        final CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.FIELDDATA);
+        breaker.addEstimateBytesAndMaybeBreak(estimatedBytes, getFieldName());
+        boolean success = false;
+        try {
+            final PackedInts.Mutable ordinals = PackedInts.getMutable(reader.maxDoc(), bitsPerValue, PackedInts.COMPACT);
+            for (int doc = values.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = values.nextDoc()) {
+                ordinals.set(doc, values.ordValue() + 1);
+            }
+            final PackedOrdinalsAtomicFieldData data = new PackedOrdinalsAtomicFieldData(reader, getFieldName(), ordinals);
+            breaker.addWithoutBreaking(data.ramBytesUsed() - estimatedBytes);
+            success = true;
+            return data;
+        } finally {
+            if (success == false) {
+                breaker.addWithoutBreaking(-estimatedBytes);
+            }
+        }
+    }
+
+    static final class PackedOrdinalsAtomicFieldData extends AbstractAtomicOrdinalsFieldData {
+
+        private final LeafReader reader;
+        private final String field;
+        private final PackedInts.Reader ordinals;
+
+        PackedOrdinalsAtomicFieldData(LeafReader reader, String field, PackedInts.Reader ordinals) {
+            super(DEFAULT_SCRIPT_FUNCTION);
+            this.reader = reader;
+            this.field = field;
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        public SortedSetDocValues getOrdinalsValues() {
+            final SortedDocValues values;
+            try {
+                values = DocValues.getSorted(reader, field);
+            } catch (IOException e) {
+                throw new IllegalStateException("cannot load docvalues", e);
+            }
+            return DocValues.singleton(new PackedSortedDocValues(ordinals, values));
+        }
+
+        @Override
+        public long ramBytesUsed() {
+            return ordinals.ramBytesUsed();
+        }
+
+        @Override
+        public Collection<Accountable> getChildResources() {
+            return Collections.singletonList(ordinals);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * {@link SortedDocValues} that read the ordinal of a document from the packed array and only go to the doc values of
+     * the field to look up terms.
+     */
+    private static final class PackedSortedDocValues extends SortedDocValues {
+
+        private final PackedInts.Reader ordinals;
+        private final SortedDocValues values;
+        private final int maxDoc;
+        private int doc = -1;
+        private int ord = -1;
+
+        PackedSortedDocValues(PackedInts.Reader ordinals, SortedDocValues values) {
+            this.ordinals = ordinals;
+            this.values = values;
+            this.maxDoc = ordinals.size();
+        }
+
+        @Override
+        public boolean advanceExact(int target) throws IOException {
+            doc = target;
+            ord = (int) ordinals.get(target) - 1;
+            return ord >= 0;
+        }
+
+        @Override
+        public int docID() {
+            return doc;
+        }
+
+        @Override
+        public int nextDoc() throws IOException {
+            return advance(doc + 1);
+        }
+
+        @Override
+        public int advance(int target) throws IOException {
+            for (int i = target; i < maxDoc; i++) {
+                if (advanceExact(i)) {
+                    return doc;
+                }
+            }
+            ord = -1;
+            return doc = NO_MORE_DOCS;
+        }
+
+        @Override
+        public long cost() {
+            return maxDoc;
+        }
+
+        @Override
+        public int ordValue() {
+            return ord;
+        }
+
+        @Override
+        public BytesRef lookupOrd(int ord) throws IOException {
+            return values.lookupOrd(ord);
+        }
+
+        @Override
+        public int getValueCount() {
+            return values.getValueCount();
+        }
+
+        @Override
+        public TermsEnum termsEnum() throws IOException {
+            return values.termsEnum();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.join.query;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.OrdinalMap;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.Explanation;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.search.join.JoinUtil;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.util.LongBitSet;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.join.mapper.ParentOrdinalsIndexFieldData;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A join on the global ordinals of a parent id field, used instead of
+ * {@link JoinUtil#createJoinQuery(String, Query, Query, IndexSearcher, ScoreMode, OrdinalMap, int, int)} when the field caches
+ * its ordinals in memory (see {@link ParentOrdinalsIndexFieldData}). The documents matching the from query are collected into
+ * a set of global ordinals, along with their scores and counts when needed, and the documents of the to query match if the
+ * global ordinal of their value is in that set. Both sides read the global ordinals from the field data so neither of them
+ * goes to the doc values of the field for every document.
+ */
+final class GlobalOrdinalsJoinQuery extends Query {
+
+    private final String joinField;
+    private final Query fromQuery;
+    private final Query toQuery;
+    private final ScoreMode scoreMode;
+    private final int minChildren;
+    private final int maxChildren;
+    private final IndexOrdinalsFieldData globalFieldData;
+    // the join depends on the ordinals of the reader it was built on and must not be reused with another reader
+    private final Object indexReaderContextId;
+    private final LongBitSet matchingOrds;
+    private final float[] scores;
+
+    private GlobalOrdinalsJoinQuery(String joinField, Query fromQuery, Query toQuery, ScoreMode scoreMode, int minChildren,
+                                    int maxChildren, IndexOrdinalsFieldData globalFieldData, Object indexReaderContextId,
+                                    LongBitSet matchingOrds, float[] scores) {
+        this.joinField = joinField;
+        this.fromQuery = fromQuery;
+        this.toQuery = toQuery;
+        this.scoreMode = scoreMode;
+        this.minChildren = minChildren;
+        this.maxChildren = maxChildren;
+        this.globalFieldData = globalFieldData;
+        this.indexReaderContextId = indexReaderContextId;
+        this.matchingOrds = matchingOrds;
+        this.scores = scores;
+    }
+
+    /**
+     * Collects the global ordinals of the documents matching {@code fromQuery} and returns a query that matches the documents
+     * of {@code toQuery} that share one of these ordinals.
+     *
+     * @param globalFieldData the global ordinals of the join field for the reader of the {@code searcher}
+     */
+    static Query createJoinQuery(String joinField, Query fromQuery, Query toQuery, IndexSearcher searcher, ScoreMode scoreMode,
+                                 IndexOrdinalsFieldData globalFieldData, int minChildren, int maxChildren) throws IOException {
+        final int valueCount = Math.toIntExact(getValueCount(searcher, globalFieldData));
+        final boolean needsCounts = minChildren > 1 || maxChildren < Integer.MAX_VALUE || scoreMode == ScoreMode.Avg;
+        final int[] counts = needsCounts ? new int[valueCount] : null;
+        final float[] scores = scoreMode == ScoreMode.None ? null : new float[valueCount];
+        final LongBitSet collectedOrds = new LongBitSet(valueCount);
+        searcher.search(fromQuery, new SimpleCollector() {
+
+            private SortedSetDocValues ords;
+            private Scorable scorer;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                ords = globalFieldData.load(context).getOrdinalsValues();
+            }
+
+            @Override
+            public void setScorer(Scorable scorer) {
+                this.scorer = scorer;
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                if (ords.advanceExact(doc) == false) {
+                    return;
+                }
+                final int ord = (int) ords.nextOrd();
+                final boolean first = collectedOrds.getAndSet(ord) == false;
+                if (counts != null) {
+                    counts[ord]++;
+                }
+                if (scores != null) {
+                    final float score = scorer.score();
+                    if (first) {
+                        scores[ord] = score;
+                    } else {
+                        switch (scoreMode) {
+                            case Max:
+                                scores[ord] = Math.max(scores[ord], score);
+                                break;
+                            case Min:
+                                scores[ord] = Math.min(scores[ord], score);
+                                break;
+                            case Avg:
+                            case Total:
+                                scores[ord] += score;
+                                break;
+                            default:
+                                throw new IllegalStateException("unexpected score mode [" + scoreMode + "]");
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public org.apache.lucene.search.ScoreMode scoreMode() {
+                return scores == null ? org.apache.lucene.search.ScoreMode.COMPLETE_NO_SCORES : org.apache.lucene.search.ScoreMode.COMPLETE;
+            }
+        });
+
+        final LongBitSet matchingOrds;
+        if (counts == null) {
+            matchingOrds = collectedOrds;
+        } else {
+            matchingOrds = new LongBitSet(valueCount);
+            for (long ord = collectedOrds.nextSetBit(0); ord != -1;
+                 ord = ord + 1 < valueCount ? collectedOrds.nextSetBit(ord + 1) : -1) {
+                final int count = counts[(int) ord];
+                if (count >= minChildren && count <= maxChildren) {
+                    matchingOrds.set(ord);
+                    if (scoreMode == ScoreMode.Avg) {
+                        scores[(int) ord] /= count;
+                    }
+                }
+            }
+        }
+        return new GlobalOrdinalsJoinQuery(joinField, fromQuery, searcher.rewrite(toQuery), scoreMode, minChildren, maxChildren,
+            globalFieldData, searcher.getTopReaderContext().id(), matchingOrds, scores);
+    }
+
+    private static long getValueCount(IndexSearcher searcher, IndexOrdinalsFieldData globalFieldData) {
+        final OrdinalMap ordinalMap = globalFieldData.getOrdinalMap();
+        if (ordinalMap != null) {
+            return ordinalMap.getValueCount();
+        }
+        // a single segment or no segment at all, the ordinals of the segment are the global ordinals
+        long valueCount = 0;
+        for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+            valueCount = Math.max(valueCount, globalFieldData.load(context).getOrdinalsValues().getValueCount());
+        }
+        return valueCount;
+    }
+
+    @Override
+    public Weight createWeight(IndexSearcher searcher, org.apache.lucene.search.ScoreMode scoreMode, float boost) throws IOException {
+        final Weight toWeight = searcher.createWeight(toQuery, org.apache.lucene.search.ScoreMode.COMPLETE_NO_SCORES, 1f);
+        return new Weight(this) {
+
+            @Override
+            public void extractTerms(Set<Term> terms) {
+            }
+
+            @Override
+            public Explanation explain(LeafReaderContext context, int doc) throws IOException {
+                final JoinScorer scorer = scorer(context);
+                if (scorer != null && scorer.iterator().advance(doc) == doc) {
+                    return Explanation.match(scorer.score(), "A match, join value " +
+                        scorer.ords.lookupOrd(scorer.currentOrd).utf8ToString());
+                }
+                return Explanation.noMatch("Not a match");
+            }
+
+            @Override
+            public JoinScorer scorer(LeafReaderContext context) throws IOException {
+                final Scorer toScorer = toWeight.scorer(context);
+                if (toScorer == null) {
+                    return null;
+                }
+                return new JoinScorer(this, toScorer.iterator(), globalFieldData.load(context).getOrdinalsValues(), boost);
+            }
+
+            @Override
+            public boolean isCacheable(LeafReaderContext ctx) {
+                // the matching ordinals only hold for the reader the join was built on
+                return false;
+            }
+        };
+    }
+
+    private final class JoinScorer extends Scorer {
+
+        private final DocIdSetIterator approximation;
+        private final TwoPhaseIterator twoPhaseIterator;
+        private final SortedSetDocValues ords;
+        private final float boost;
+        private long currentOrd = -1;
+
+        JoinScorer(Weight weight, DocIdSetIterator approximation, SortedSetDocValues ords, float boost) {
+            super(weight);
+            this.approximation = approximation;
+            this.ords = ords;
+            this.boost = boost;
+            this.twoPhaseIterator = new TwoPhaseIterator(approximation) {
+                @Override
+                public boolean matches() throws IOException {
+                    if (ords.advanceExact(approximation.docID())) {
+                        final long ord = ords.nextOrd();
+                        if (matchingOrds.get(ord)) {
+                            currentOrd = ord;
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public float matchCost() {
+                    return 10;
+                }
+            };
+        }
+
+        @Override
+        public int docID() {
+            return approximation.docID();
+        }
+
+        @Override
+        public DocIdSetIterator iterator() {
+            return TwoPhaseIterator.asDocIdSetIterator(twoPhaseIterator);
+        }
+
+        @Override
+        public TwoPhaseIterator twoPhaseIterator() {
+            return twoPhaseIterator;
+        }
+
+        @Override
+        public float score() {
+            return scores == null ? boost : scores[(int) currentOrd] * boost;
+        }
+
+        @Override
+        public float getMaxScore(int upTo) {
+            return scores == null ? boost : Float.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (sameClassAs(o) == false) {
+            return false;
+        }
+        GlobalOrdinalsJoinQuery that = (GlobalOrdinalsJoinQuery) o;
+        return minChildren == that.minChildren &&
+            maxChildren == that.maxChildren &&
+            joinField.equals(that.joinField) &&
+            fromQuery.equals(that.fromQuery) &&
+            toQuery.equals(that.toQuery) &&
+            scoreMode == that.scoreMode &&
+            indexReaderContextId.equals(that.indexReaderContextId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(classHash(), joinField, fromQuery, toQuery, scoreMode, minChildren, maxChildren, indexReaderContextId);
+    }
+
+    @Override
+    public String toString(String field) {
+        return "GlobalOrdinalsJoinQuery {joinField=" + joinField + "}";
+    }
+}
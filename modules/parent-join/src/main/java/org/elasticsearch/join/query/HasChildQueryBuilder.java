@@ -35,7 +35,6 @@ import org.elasticsearch.common.lucene.search.Queries;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
-import org.elasticsearch.index.fielddata.plain.SortedSetDVOrdinalsIndexFieldData;
 import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.query.AbstractQueryBuilder;
 import org.elasticsearch.index.query.InnerHitBuilder;
@@ -47,6 +46,7 @@ import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.query.QueryShardException;
 import org.elasticsearch.join.mapper.ParentIdFieldMapper;
 import org.elasticsearch.join.mapper.ParentJoinFieldMapper;
+import org.elasticsearch.join.mapper.ParentOrdinalsIndexFieldData;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -310,7 +310,7 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
             Query childFilter = parentIdFieldMapper.getChildFilter(type);
             Query innerQuery = Queries.filtered(query.toQuery(context), childFilter);
             MappedFieldType fieldType = parentIdFieldMapper.fieldType();
-            final SortedSetDVOrdinalsIndexFieldData fieldData = context.getForField(fieldType);
+            final IndexOrdinalsFieldData fieldData = context.getForField(fieldType);
             return new LateParsingQuery(parentFilter, innerQuery, minChildren(), maxChildren(),
                 fieldType.name(), scoreMode, fieldData, context.getSearchSimilarity());
         } else {
@@ -331,6 +331,8 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
      * This query is exclusively used by the {@link HasChildQueryBuilder} and {@link HasParentQueryBuilder} to get access
      * to the {@link DirectoryReader} used by the current search in order to retrieve the {@link OrdinalMap}.
      * The {@link OrdinalMap} is required by {@link JoinUtil} to execute the join.
+     * When the join field caches its ordinals ({@link ParentOrdinalsIndexFieldData}) the join is executed on the cached
+     * global ordinals by a {@link GlobalOrdinalsJoinQuery} instead.
      */
     // TODO: Find a way to remove this query and let doToQuery(...) just return the query from JoinUtil.createJoinQuery(...)
     public static final class LateParsingQuery extends Query {
@@ -341,12 +343,12 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
         private final int maxChildren;
         private final String joinField;
         private final ScoreMode scoreMode;
-        private final SortedSetDVOrdinalsIndexFieldData fieldDataJoin;
+        private final IndexOrdinalsFieldData fieldDataJoin;
         private final Similarity similarity;
 
         LateParsingQuery(Query toQuery, Query innerQuery, int minChildren, int maxChildren,
                          String joinField, ScoreMode scoreMode,
-                         SortedSetDVOrdinalsIndexFieldData fieldData, Similarity similarity) {
+                         IndexOrdinalsFieldData fieldData, Similarity similarity) {
             this.toQuery = toQuery;
             this.innerQuery = innerQuery;
             this.minChildren = minChildren;
@@ -368,6 +370,10 @@ public class HasChildQueryBuilder extends AbstractQueryBuilder<HasChildQueryBuil
                 indexSearcher.setQueryCache(null);
                 indexSearcher.setSimilarity(similarity);
                 IndexOrdinalsFieldData indexParentChildFieldData = fieldDataJoin.loadGlobal((DirectoryReader) reader);
+                if (fieldDataJoin instanceof ParentOrdinalsIndexFieldData) {
+                    return GlobalOrdinalsJoinQuery.createJoinQuery(joinField, innerQuery, toQuery, indexSearcher, scoreMode,
+                        indexParentChildFieldData, minChildren, maxChildren);
+                }
                 OrdinalMap ordinalMap = indexParentChildFieldData.getOrdinalMap();
                 return JoinUtil.createJoinQuery(joinField, innerQuery, toQuery, indexSearcher, scoreMode,
                     ordinalMap, minChildren, maxChildren);
@@ -173,6 +173,7 @@ public class ParentToChildrenAggregatorTests extends AggregatorTestCase {
         Settings settings = Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT).build();
         return new ParentJoinFieldMapper.Builder("join_field")
                 .addParent(PARENT_TYPE, Collections.singleton(CHILD_TYPE))
+                .cacheOrdinals(randomBoolean())
                 .build(new Mapper.BuilderContext(settings, new ContentPath(0)));
     }
 
@@ -19,12 +19,18 @@
 
 package org.elasticsearch.join.mapper;
 
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.compress.CompressedXContent;
 import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.engine.Engine;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
 import org.elasticsearch.index.mapper.DocumentMapper;
 import org.elasticsearch.index.mapper.MapperException;
 import org.elasticsearch.index.mapper.MapperParsingException;
@@ -39,6 +45,9 @@ import java.util.Collection;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 
 public class ParentJoinFieldMapperTests extends ESSingleNodeTestCase {
     @Override
@@ -472,4 +481,80 @@ public class ParentJoinFieldMapperTests extends ESSingleNodeTestCase {
         assertNotNull(service.mapperService().fullName("join_field#child"));
         assertFalse(service.mapperService().fullName("join_field#child").eagerGlobalOrdinals());
     }
+
+    public void testCacheOrdinals() throws Exception {
+        String mapping = Strings.toString(XContentFactory.jsonBuilder().startObject()
+            .startObject("properties")
+                .startObject("join_field")
+                    .field("type", "join")
+                    .field("cache_ordinals", true)
+                    .startObject("relations")
+                        .field("parent", "child")
+                    .endObject()
+                .endObject()
+            .endObject()
+            .endObject());
+        IndexService service = createIndex("test");
+        service.mapperService().merge("type", new CompressedXContent(mapping), MapperService.MergeReason.MAPPING_UPDATE);
+        ParentIdFieldMapper.ParentIdFieldType fieldType =
+            (ParentIdFieldMapper.ParentIdFieldType) service.mapperService().fullName("join_field#parent");
+        assertTrue(fieldType.cacheOrdinals());
+        assertThat(fieldType.fielddataBuilder("test"), instanceOf(ParentOrdinalsIndexFieldData.Builder.class));
+        assertThat(Strings.toString(ParentJoinFieldMapper.getMapper(service.mapperService())),
+            containsString("\"cache_ordinals\":true"));
+
+        int numParents = randomIntBetween(1, 10);
+        for (int i = 0; i < numParents; i++) {
+            client().prepareIndex("test", "type", "p" + i)
+                .setSource(XContentFactory.jsonBuilder().startObject().field("join_field", "parent").endObject())
+                .get();
+            int numChildren = randomIntBetween(0, 5);
+            for (int j = 0; j < numChildren; j++) {
+                client().prepareIndex("test", "type", "c" + i + "_" + j).setRouting("p" + i)
+                    .setSource(XContentFactory.jsonBuilder().startObject()
+                        .startObject("join_field").field("name", "child").field("parent", "p" + i).endObject()
+                        .endObject())
+                    .get();
+            }
+            if (rarely()) {
+                client().admin().indices().prepareRefresh("test").get();
+            }
+        }
+        client().admin().indices().prepareRefresh("test").get();
+
+        IndexOrdinalsFieldData fieldData = service.newQueryShardContext(0, null, () -> 0L, null).getForField(fieldType);
+        assertThat(fieldData, instanceOf(ParentOrdinalsIndexFieldData.class));
+        try (Engine.Searcher searcher = service.getShard(0).acquireSearcher("test")) {
+            for (LeafReaderContext context : searcher.reader().leaves()) {
+                SortedSetDocValues cached = fieldData.load(context).getOrdinalsValues();
+                SortedDocValues expected = DocValues.getSorted(context.reader(), "join_field#parent");
+                assertEquals(expected.getValueCount(), cached.getValueCount());
+                for (int doc = 0; doc < context.reader().maxDoc(); doc++) {
+                    assertEquals(expected.advanceExact(doc), cached.advanceExact(doc));
+                    if (expected.docID() == doc) {
+                        long ord = cached.nextOrd();
+                        assertEquals(expected.ordValue(), ord);
+                        assertEquals(expected.lookupOrd(expected.ordValue()), cached.lookupOrd(ord));
+                        assertEquals(SortedSetDocValues.NO_MORE_ORDS, cached.nextOrd());
+                    }
+                }
+                assertThat(fieldData.load(context).ramBytesUsed(), greaterThan(0L));
+            }
+        }
+
+        mapping = Strings.toString(XContentFactory.jsonBuilder().startObject()
+            .startObject("properties")
+                .startObject("join_field")
+                    .field("type", "join")
+                    .startObject("relations")
+                        .field("parent", "child")
+                    .endObject()
+                .endObject()
+            .endObject()
+            .endObject());
+        service.mapperService().merge("type", new CompressedXContent(mapping), MapperService.MergeReason.MAPPING_UPDATE);
+        fieldType = (ParentIdFieldMapper.ParentIdFieldType) service.mapperService().fullName("join_field#parent");
+        assertFalse(fieldType.cacheOrdinals());
+        assertThat(fieldType.fielddataBuilder("test"), not(instanceOf(ParentOrdinalsIndexFieldData.Builder.class)));
+    }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.join.query;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queries.function.FunctionScoreQuery;
+import org.apache.lucene.search.DoubleValuesSource;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.join.JoinUtil;
+import org.apache.lucene.search.join.ScoreMode;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.fielddata.IndexFieldDataCache;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.KeywordFieldMapper;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
+import org.elasticsearch.join.mapper.ParentOrdinalsIndexFieldData;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.IndexSettingsModule;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class GlobalOrdinalsJoinQueryTests extends ESTestCase {
+
+    private static final String JOIN_FIELD = "join_field#parent";
+
+    public void testJoinMatchesJoinUtil() throws IOException {
+        try (Directory directory = newDirectory()) {
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                indexDocuments(indexWriter);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = newSearcher(reader, false, true);
+                IndexOrdinalsFieldData globalFieldData = newFieldData().loadGlobal(reader);
+                // the score of a child is the value of its score field
+                Query fromQuery = new FunctionScoreQuery(new TermQuery(new Term("type", "child")),
+                    DoubleValuesSource.fromLongField("score"));
+                Query toQuery = new TermQuery(new Term("type", "parent"));
+                for (ScoreMode scoreMode : ScoreMode.values()) {
+                    assertSameJoin(searcher, globalFieldData, fromQuery, toQuery, scoreMode, 0, Integer.MAX_VALUE);
+                    int minChildren = randomIntBetween(0, 3);
+                    int maxChildren = randomBoolean() ? Integer.MAX_VALUE : randomIntBetween(Math.max(1, minChildren), 5);
+                    assertSameJoin(searcher, globalFieldData, fromQuery, toQuery, scoreMode, minChildren, maxChildren);
+                }
+            }
+        }
+    }
+
+    private static void assertSameJoin(IndexSearcher searcher, IndexOrdinalsFieldData globalFieldData, Query fromQuery,
+                                       Query toQuery, ScoreMode scoreMode, int minChildren, int maxChildren) throws IOException {
+        Query expectedQuery = JoinUtil.createJoinQuery(JOIN_FIELD, fromQuery, toQuery, searcher, scoreMode,
+            globalFieldData.getOrdinalMap(), minChildren, maxChildren);
+        Query actualQuery = GlobalOrdinalsJoinQuery.createJoinQuery(JOIN_FIELD, fromQuery, toQuery, searcher, scoreMode,
+            globalFieldData, minChildren, maxChildren);
+        Map<Integer, Float> expected = scoresByDoc(searcher.search(expectedQuery, searcher.getIndexReader().maxDoc()));
+        Map<Integer, Float> actual = scoresByDoc(searcher.search(actualQuery, searcher.getIndexReader().maxDoc()));
+        String message = "score_mode [" + scoreMode + "], min_children [" + minChildren + "], max_children [" + maxChildren + "]";
+        assertEquals(message, expected.keySet(), actual.keySet());
+        for (Map.Entry<Integer, Float> entry : expected.entrySet()) {
+            assertEquals(message, entry.getValue(), actual.get(entry.getKey()), 0.0001f);
+        }
+    }
+
+    private static Map<Integer, Float> scoresByDoc(TopDocs topDocs) {
+        Map<Integer, Float> scores = new HashMap<>();
+        for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+            scores.put(scoreDoc.doc, scoreDoc.score);
+        }
+        return scores;
+    }
+
+    private static void indexDocuments(RandomIndexWriter indexWriter) throws IOException {
+        int numParents = randomIntBetween(1, 20);
+        for (int i = 0; i < numParents; i++) {
+            String parent = "parent" + i;
+            Document parentDocument = new Document();
+            parentDocument.add(new StringField("type", "parent", Field.Store.NO));
+            parentDocument.add(new SortedDocValuesField(JOIN_FIELD, new BytesRef(parent)));
+            indexWriter.addDocument(parentDocument);
+            int numChildren = randomIntBetween(0, 5);
+            for (int c = 0; c < numChildren; c++) {
+                Document childDocument = new Document();
+                childDocument.add(new StringField("type", "child", Field.Store.NO));
+                childDocument.add(new SortedDocValuesField(JOIN_FIELD, new BytesRef(parent)));
+                childDocument.add(new NumericDocValuesField("score", randomIntBetween(1, 100)));
+                indexWriter.addDocument(childDocument);
+            }
+            if (rarely()) {
+                // a document outside of the join
+                indexWriter.addDocument(new Document());
+            }
+            if (rarely()) {
+                indexWriter.commit();
+            }
+        }
+    }
+
+    private static IndexOrdinalsFieldData newFieldData() {
+        KeywordFieldMapper.KeywordFieldType fieldType = new KeywordFieldMapper.KeywordFieldType();
+        fieldType.setName(JOIN_FIELD);
+        return new ParentOrdinalsIndexFieldData.Builder().build(IndexSettingsModule.newIndexSettings("test", Settings.EMPTY),
+            fieldType, new IndexFieldDataCache.None(), new NoneCircuitBreakerService(), null);
+    }
+}
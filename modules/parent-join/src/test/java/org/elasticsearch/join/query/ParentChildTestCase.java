@@ -87,6 +87,8 @@ public abstract class ParentChildTestCase extends ESIntegTestCase {
         Map<String, Object> joinField = new HashMap<>();
         joinField.put("type", "join");
         joinField.put("eager_global_ordinals", eagerGlobalOrdinals);
+        // the joins must return the same results whether the ordinals of the join field are cached or not
+        joinField.put("cache_ordinals", randomBoolean());
         Map<String, Object> relationMap = new HashMap<>();
         for (int i = 0; i < relations.length; i+=2) {
             String[] children = relations[i+1].split(",");
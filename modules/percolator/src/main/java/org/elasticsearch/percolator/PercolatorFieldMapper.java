@@ -107,6 +107,7 @@ public class PercolatorFieldMapper extends FieldMapper {
     static final String EXTRACTION_FAILED = "failed";
 
     static final String EXTRACTED_TERMS_FIELD_NAME = "extracted_terms";
+    static final String EXTRACTED_PREFIXES_FIELD_NAME = "extracted_prefixes";
     static final String EXTRACTION_RESULT_FIELD_NAME = "extraction_result";
     static final String QUERY_BUILDER_FIELD_NAME = "query_builder_field";
     static final String RANGE_FIELD_NAME = "range_field";
@@ -127,6 +128,8 @@ public class PercolatorFieldMapper extends FieldMapper {
             FieldType fieldType = (FieldType) this.fieldType;
             KeywordFieldMapper extractedTermsField = createExtractQueryFieldBuilder(EXTRACTED_TERMS_FIELD_NAME, context);
             fieldType.queryTermsField = extractedTermsField.fieldType();
+            KeywordFieldMapper extractedPrefixesField = createExtractQueryFieldBuilder(EXTRACTED_PREFIXES_FIELD_NAME, context);
+            fieldType.queryPrefixesField = extractedPrefixesField.fieldType();
             KeywordFieldMapper extractionResultField = createExtractQueryFieldBuilder(EXTRACTION_RESULT_FIELD_NAME, context);
             fieldType.extractionResultField = extractionResultField.fieldType();
             BinaryFieldMapper queryBuilderField = createQueryBuilderFieldBuilder(context);
@@ -143,7 +146,8 @@ public class PercolatorFieldMapper extends FieldMapper {
             setupFieldType(context);
             return new PercolatorFieldMapper(name(), fieldType, defaultFieldType, context.indexSettings(),
                     multiFieldsBuilder.build(this, context), copyTo, queryShardContext, extractedTermsField,
-                    extractionResultField, queryBuilderField, rangeFieldMapper, minimumShouldMatchFieldMapper);
+                    extractedPrefixesField, extractionResultField, queryBuilderField, rangeFieldMapper,
+                    minimumShouldMatchFieldMapper);
         }
 
         private static boolean getMapUnmappedFieldAsText(Settings indexSettings) {
@@ -197,6 +201,7 @@ public class PercolatorFieldMapper extends FieldMapper {
     static class FieldType extends MappedFieldType {
 
         MappedFieldType queryTermsField;
+        MappedFieldType queryPrefixesField;
         MappedFieldType extractionResultField;
         MappedFieldType queryBuilderField;
         MappedFieldType minimumShouldMatchField;
@@ -213,6 +218,7 @@ public class PercolatorFieldMapper extends FieldMapper {
         FieldType(FieldType ref) {
             super(ref);
             queryTermsField = ref.queryTermsField;
+            queryPrefixesField = ref.queryPrefixesField;
             extractionResultField = ref.extractionResultField;
             queryBuilderField = ref.queryBuilderField;
             rangeField = ref.rangeField;
@@ -273,9 +279,11 @@ public class PercolatorFieldMapper extends FieldMapper {
             Tuple<List<BytesRef>, Map<String, List<byte[]>>> t = extractTermsAndRanges(indexReader);
             List<BytesRef> extractedTerms = t.v1();
             Map<String, List<byte[]>> encodedPointValuesByField = t.v2();
+            List<BytesRef> extractedPrefixes = indexVersion.onOrAfter(Version.V_7_0_2) ?
+                extractPrefixes(indexReader) : Collections.emptyList();
             // `1 + ` is needed to take into account the EXTRACTION_FAILED should clause
-            boolean canUseMinimumShouldMatchField = 1 + extractedTerms.size() + encodedPointValuesByField.size() <=
-                BooleanQuery.getMaxClauseCount();
+            boolean canUseMinimumShouldMatchField = 1 + extractedTerms.size() + encodedPointValuesByField.size() +
+                (extractedPrefixes.isEmpty() ? 0 : 1) <= BooleanQuery.getMaxClauseCount();
 
             List<Query> subQueries = new ArrayList<>();
             for (Map.Entry<String, List<byte[]>> entry : encodedPointValuesByField.entrySet()) {
@@ -286,6 +294,9 @@ public class PercolatorFieldMapper extends FieldMapper {
                 Query query = BinaryRange.newIntersectsQuery(rangeField.name(), encodeRange(rangeFieldName, min, max));
                 subQueries.add(query);
             }
+            if (extractedPrefixes.isEmpty() == false) {
+                subQueries.add(new TermInSetQuery(queryPrefixesField.name(), extractedPrefixes));
+            }
 
             BooleanQuery.Builder candidateQuery = new BooleanQuery.Builder();
             if (canUseMinimumShouldMatchField && indexVersion.onOrAfter(Version.V_6_1_0)) {
@@ -338,10 +349,47 @@ public class PercolatorFieldMapper extends FieldMapper {
             return new Tuple<>(extractedTerms, encodedPointValuesByField);
         }
 
+        /**
+         * Extracts the prefixes, up to {@link QueryAnalyzer#MAX_PREFIX_LENGTH} bytes long, of all terms of the documents being
+         * percolated. These select the candidate percolator queries based on the prefixes extracted from multi term queries.
+         */
+        List<BytesRef> extractPrefixes(IndexReader indexReader) throws IOException {
+            List<BytesRef> extractedPrefixes = new ArrayList<>();
+            LeafReader reader = indexReader.leaves().get(0).reader();
+            for (FieldInfo info : reader.getFieldInfos()) {
+                Terms terms = reader.terms(info.name);
+                if (terms == null) {
+                    continue;
+                }
+                BytesRef fieldBr = new BytesRef(info.name);
+                BytesRefBuilder previous = new BytesRefBuilder();
+                TermsEnum tenum = terms.iterator();
+                for (BytesRef term = tenum.next(); term != null; term = tenum.next()) {
+                    int maxLength = Math.min(term.length, QueryAnalyzer.MAX_PREFIX_LENGTH);
+                    // Terms are sorted, so the prefixes a term shares with the previous term have already been extracted:
+                    int sharedLength = 0;
+                    while (sharedLength < Math.min(maxLength, previous.length())
+                        && term.bytes[term.offset + sharedLength] == previous.byteAt(sharedLength)) {
+                        sharedLength++;
+                    }
+                    for (int length = sharedLength + 1; length <= maxLength; length++) {
+                        BytesRefBuilder builder = new BytesRefBuilder();
+                        builder.append(fieldBr);
+                        builder.append(FIELD_VALUE_SEPARATOR);
+                        builder.append(term.bytes, term.offset, length);
+                        extractedPrefixes.add(builder.toBytesRef());
+                    }
+                    previous.copyBytes(term.bytes, term.offset, maxLength);
+                }
+            }
+            return extractedPrefixes;
+        }
+
     }
 
     private final Supplier<QueryShardContext> queryShardContext;
     private KeywordFieldMapper queryTermsField;
+    private KeywordFieldMapper queryPrefixesField;
     private KeywordFieldMapper extractionResultField;
     private BinaryFieldMapper queryBuilderField;
     private NumberFieldMapper minimumShouldMatchFieldMapper;
@@ -351,12 +399,13 @@ public class PercolatorFieldMapper extends FieldMapper {
     PercolatorFieldMapper(String simpleName, MappedFieldType fieldType, MappedFieldType defaultFieldType,
                           Settings indexSettings, MultiFields multiFields, CopyTo copyTo,
                           Supplier<QueryShardContext> queryShardContext,
-                          KeywordFieldMapper queryTermsField, KeywordFieldMapper extractionResultField,
-                          BinaryFieldMapper queryBuilderField, RangeFieldMapper rangeFieldMapper,
-                          NumberFieldMapper minimumShouldMatchFieldMapper) {
+                          KeywordFieldMapper queryTermsField, KeywordFieldMapper queryPrefixesField,
+                          KeywordFieldMapper extractionResultField, BinaryFieldMapper queryBuilderField,
+                          RangeFieldMapper rangeFieldMapper, NumberFieldMapper minimumShouldMatchFieldMapper) {
         super(simpleName, fieldType, defaultFieldType, indexSettings, multiFields, copyTo);
         this.queryShardContext = queryShardContext;
         this.queryTermsField = queryTermsField;
+        this.queryPrefixesField = queryPrefixesField;
         this.extractionResultField = extractionResultField;
         this.queryBuilderField = queryBuilderField;
         this.minimumShouldMatchFieldMapper = minimumShouldMatchFieldMapper;
@@ -367,19 +416,22 @@ public class PercolatorFieldMapper extends FieldMapper {
     public FieldMapper updateFieldType(Map<String, MappedFieldType> fullNameToFieldType) {
         PercolatorFieldMapper updated = (PercolatorFieldMapper) super.updateFieldType(fullNameToFieldType);
         KeywordFieldMapper queryTermsUpdated = (KeywordFieldMapper) queryTermsField.updateFieldType(fullNameToFieldType);
+        KeywordFieldMapper queryPrefixesUpdated = (KeywordFieldMapper) queryPrefixesField.updateFieldType(fullNameToFieldType);
         KeywordFieldMapper extractionResultUpdated = (KeywordFieldMapper) extractionResultField.updateFieldType(fullNameToFieldType);
         BinaryFieldMapper queryBuilderUpdated = (BinaryFieldMapper) queryBuilderField.updateFieldType(fullNameToFieldType);
         RangeFieldMapper rangeFieldMapperUpdated = (RangeFieldMapper) rangeFieldMapper.updateFieldType(fullNameToFieldType);
         NumberFieldMapper msmFieldMapperUpdated = (NumberFieldMapper) minimumShouldMatchFieldMapper.updateFieldType(fullNameToFieldType);
 
-        if (updated == this && queryTermsUpdated == queryTermsField && extractionResultUpdated == extractionResultField
-                && queryBuilderUpdated == queryBuilderField && rangeFieldMapperUpdated == rangeFieldMapper) {
+        if (updated == this && queryTermsUpdated == queryTermsField && queryPrefixesUpdated == queryPrefixesField
+                && extractionResultUpdated == extractionResultField && queryBuilderUpdated == queryBuilderField
+                && rangeFieldMapperUpdated == rangeFieldMapper) {
             return this;
         }
         if (updated == this) {
             updated = (PercolatorFieldMapper) updated.clone();
         }
         updated.queryTermsField = queryTermsUpdated;
+        updated.queryPrefixesField = queryPrefixesUpdated;
         updated.extractionResultField = extractionResultUpdated;
         updated.queryBuilderField = queryBuilderUpdated;
         updated.rangeFieldMapper = rangeFieldMapperUpdated;
@@ -453,6 +505,7 @@ public class PercolatorFieldMapper extends FieldMapper {
             doc.add(new Field(pft.extractionResultField.name(), EXTRACTION_FAILED, extractionResultField.fieldType()));
             return;
         }
+        int numPrefixes = 0;
         for (QueryAnalyzer.QueryExtraction extraction : result.extractions) {
             if (extraction.term != null) {
                 BytesRefBuilder builder = new BytesRefBuilder();
@@ -460,6 +513,13 @@ public class PercolatorFieldMapper extends FieldMapper {
                 builder.append(FIELD_VALUE_SEPARATOR);
                 builder.append(extraction.bytes());
                 doc.add(new Field(queryTermsField.name(), builder.toBytesRef(), queryTermsField.fieldType()));
+            } else if (extraction.prefix != null) {
+                BytesRefBuilder builder = new BytesRefBuilder();
+                builder.append(new BytesRef(extraction.prefix.field()));
+                builder.append(FIELD_VALUE_SEPARATOR);
+                builder.append(extraction.prefix.bytes());
+                doc.add(new Field(queryPrefixesField.name(), builder.toBytesRef(), queryPrefixesField.fieldType()));
+                numPrefixes++;
             } else if (extraction.range != null) {
                 byte[] min = extraction.range.lowerPoint;
                 byte[] max = extraction.range.upperPoint;
@@ -484,7 +544,13 @@ public class PercolatorFieldMapper extends FieldMapper {
             context.doc().add(field);
         }
         if (indexVersionCreated.onOrAfter(Version.V_6_1_0)) {
-            doc.add(new NumericDocValuesField(minimumShouldMatchFieldMapper.name(), result.minimumShouldMatch));
+            int minimumShouldMatch = result.minimumShouldMatch;
+            if (numPrefixes > 0 && minimumShouldMatch > 0) {
+                // The candidate query matches all prefixes with a single clause, so whatever the number of prefixes
+                // a document matches, they add at most one to the number of matching clauses:
+                minimumShouldMatch = Math.max(1, minimumShouldMatch - numPrefixes + 1);
+            }
+            doc.add(new NumericDocValuesField(minimumShouldMatchFieldMapper.name(), minimumShouldMatch));
         }
     }
 
@@ -521,7 +587,8 @@ public class PercolatorFieldMapper extends FieldMapper {
     @Override
     public Iterator<Mapper> iterator() {
         return Arrays.<Mapper>asList(
-                queryTermsField, extractionResultField, queryBuilderField, minimumShouldMatchFieldMapper, rangeFieldMapper
+                queryTermsField, queryPrefixesField, extractionResultField, queryBuilderField, minimumShouldMatchFieldMapper,
+                rangeFieldMapper
         ).iterator();
     }
 
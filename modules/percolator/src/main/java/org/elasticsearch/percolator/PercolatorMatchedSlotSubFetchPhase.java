@@ -24,12 +24,11 @@ import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
-import org.apache.lucene.search.Sort;
-import org.apache.lucene.search.SortField;
-import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.SimpleCollector;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.FixedBitSet;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.lucene.search.Queries;
@@ -97,8 +96,8 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
                     continue;
                 }
 
-                TopDocs topDocs = percolatorIndexSearcher.search(query, memoryIndexMaxDoc, new Sort(SortField.FIELD_DOC));
-                if (topDocs.totalHits.value == 0) {
+                BitSet matches = findMatches(percolatorIndexSearcher, query);
+                if (matches.cardinality() == 0) {
                     // This hit didn't match with a percolate query,
                     // likely to happen when percolating multiple documents
                     continue;
@@ -109,15 +108,48 @@ final class PercolatorMatchedSlotSubFetchPhase implements FetchSubPhase {
                     fields = new HashMap<>();
                     hit.fields(fields);
                 }
-                IntStream slots = convertTopDocsToSlots(topDocs, rootDocsBySlot);
+                IntStream slots = convertMatchesToSlots(matches, rootDocsBySlot);
                 fields.put(fieldName, new DocumentField(fieldName, slots.boxed().collect(Collectors.toList())));
             }
         }
     }
 
-    static IntStream convertTopDocsToSlots(TopDocs topDocs, int[] rootDocsBySlot) {
-        IntStream stream = Arrays.stream(topDocs.scoreDocs)
-            .mapToInt(scoreDoc -> scoreDoc.doc);
+    /**
+     * Collects all the documents the given query matches in the percolator index into a bit set. When many documents are
+     * percolated at once this is cheaper than retrieving the matches sorted by doc id, which would reserve a priority queue
+     * sized to the number of documents for every hit.
+     */
+    static BitSet findMatches(IndexSearcher percolatorIndexSearcher, Query query) throws IOException {
+        FixedBitSet matches = new FixedBitSet(percolatorIndexSearcher.getIndexReader().maxDoc());
+        percolatorIndexSearcher.search(query, new SimpleCollector() {
+
+            int docBase;
+
+            @Override
+            protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                docBase = context.docBase;
+            }
+
+            @Override
+            public void collect(int doc) throws IOException {
+                matches.set(docBase + doc);
+            }
+
+            @Override
+            public ScoreMode scoreMode() {
+                return ScoreMode.COMPLETE_NO_SCORES;
+            }
+        });
+        return matches;
+    }
+
+    static IntStream convertMatchesToSlots(BitSet matches, int[] rootDocsBySlot) {
+        IntStream.Builder builder = IntStream.builder();
+        BitSetIterator iterator = new BitSetIterator(matches, 0);
+        for (int docId = iterator.nextDoc(); docId != NO_MORE_DOCS; docId = iterator.nextDoc()) {
+            builder.add(docId);
+        }
+        IntStream stream = builder.build();
         if (rootDocsBySlot != null) {
             stream = stream.map(docId -> Arrays.binarySearch(rootDocsBySlot, docId));
         }
@@ -29,17 +29,22 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
 import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.MultiPhraseQuery;
 import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.PointRangeQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.RegexpQuery;
 import org.apache.lucene.search.SynonymQuery;
 import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.search.spans.SpanFirstQuery;
+import org.apache.lucene.search.spans.SpanMultiTermQueryWrapper;
 import org.apache.lucene.search.spans.SpanNearQuery;
 import org.apache.lucene.search.spans.SpanNotQuery;
 import org.apache.lucene.search.spans.SpanOrQuery;
@@ -47,6 +52,8 @@ import org.apache.lucene.search.spans.SpanQuery;
 import org.apache.lucene.search.spans.SpanTermQuery;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.NumericUtils;
+import org.apache.lucene.util.automaton.Automaton;
+import org.apache.lucene.util.automaton.Operations;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.logging.LoggerMessageFormat;
 import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
@@ -68,6 +75,12 @@ import static java.util.stream.Collectors.toSet;
 
 final class QueryAnalyzer {
 
+    /**
+     * The maximum length in bytes of the prefixes extracted from multi term queries. Longer prefixes are truncated, so that
+     * the percolate query only needs to generate this many prefixes per term of the document being percolated.
+     */
+    static final int MAX_PREFIX_LENGTH = 8;
+
     private static final Map<Class<? extends Query>, BiFunction<Query, Version, Result>> queryProcessors;
 
     static {
@@ -94,6 +107,11 @@ final class QueryAnalyzer {
         map.put(PointRangeQuery.class, pointRangeQuery());
         map.put(IndexOrDocValuesQuery.class, indexOrDocValuesQuery());
         map.put(ESToParentBlockJoinQuery.class, toParentBlockJoinQuery());
+        map.put(PrefixQuery.class, prefixQuery());
+        map.put(WildcardQuery.class, wildcardQuery());
+        map.put(RegexpQuery.class, regexpQuery());
+        map.put(FuzzyQuery.class, fuzzyQuery());
+        map.put(SpanMultiTermQueryWrapper.class, spanMultiTermQueryWrapper());
         queryProcessors = Collections.unmodifiableMap(map);
     }
 
@@ -120,6 +138,11 @@ final class QueryAnalyzer {
      * since that those terms are likely to be the rarest. Boolean query's must_not clauses are always ignored.
      *
      * <p>
+     * From multi term queries like the prefix, wildcard, regexp and fuzzy queries the query analyzer extracts the literal
+     * prefix that all matching terms start with. A document can only match such a query if it has a term starting with that
+     * prefix, but the query always needs to be verified.
+     *
+     * <p>
      * Sometimes the query analyzer can't always extract terms or ranges from a sub query, if that happens then
      * query analysis is stopped and an UnsupportedQueryException is thrown. So that the caller can mark
      * this query in such a way that the PercolatorQuery always verifies if this query with the MemoryIndex.
@@ -423,6 +446,75 @@ final class QueryAnalyzer {
         };
     }
 
+    private static BiFunction<Query, Version, Result> prefixQuery() {
+        return (query, version) -> {
+            Term prefix = ((PrefixQuery) query).getPrefix();
+            return prefixResult(query, prefix.field(), prefix.bytes(), version);
+        };
+    }
+
+    private static BiFunction<Query, Version, Result> wildcardQuery() {
+        return (query, version) -> {
+            Term term = ((WildcardQuery) query).getTerm();
+            return prefixResult(query, term.field(), new BytesRef(wildcardPrefix(term.text())), version);
+        };
+    }
+
+    /**
+     * Returns the literal text a wildcard expression starts with, unescaping escaped characters.
+     */
+    static String wildcardPrefix(String wildcardText) {
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < wildcardText.length(); i++) {
+            char c = wildcardText.charAt(i);
+            if (c == WildcardQuery.WILDCARD_STRING || c == WildcardQuery.WILDCARD_CHAR) {
+                break;
+            } else if (c == WildcardQuery.WILDCARD_ESCAPE) {
+                if (i + 1 == wildcardText.length()) {
+                    break;
+                }
+                c = wildcardText.charAt(++i);
+            }
+            prefix.append(c);
+        }
+        return prefix.toString();
+    }
+
+    private static BiFunction<Query, Version, Result> regexpQuery() {
+        return (query, version) -> {
+            RegexpQuery regexpQuery = (RegexpQuery) query;
+            Automaton automaton = regexpQuery.getAutomaton();
+            if (automaton.isDeterministic() == false) {
+                throw new UnsupportedQueryException(query);
+            }
+            return prefixResult(query, regexpQuery.getField(), new BytesRef(Operations.getCommonPrefix(automaton)), version);
+        };
+    }
+
+    private static BiFunction<Query, Version, Result> fuzzyQuery() {
+        return (query, version) -> {
+            FuzzyQuery fuzzyQuery = (FuzzyQuery) query;
+            String text = fuzzyQuery.getTerm().text();
+            // the prefix length is expressed in code points:
+            int prefixLength = Math.min(fuzzyQuery.getPrefixLength(), text.codePointCount(0, text.length()));
+            String prefix = text.substring(0, text.offsetByCodePoints(0, prefixLength));
+            return prefixResult(query, fuzzyQuery.getField(), new BytesRef(prefix), version);
+        };
+    }
+
+    private static BiFunction<Query, Version, Result> spanMultiTermQueryWrapper() {
+        return (query, version) -> analyze(((SpanMultiTermQueryWrapper<?>) query).getWrappedQuery(), version);
+    }
+
+    private static Result prefixResult(Query query, String field, BytesRef prefix, Version version) {
+        if (version.before(Version.V_7_0_2) || prefix.length == 0) {
+            throw new UnsupportedQueryException(query);
+        }
+        BytesRef truncated = BytesRef.deepCopyOf(prefix);
+        truncated.length = Math.min(truncated.length, MAX_PREFIX_LENGTH);
+        return new Result(false, Collections.singleton(QueryExtraction.prefix(new Term(field, truncated))), 1);
+    }
+
     private static byte[] prepad(byte[] original) {
         int offset = BinaryRange.BYTES - original.length;
         byte[] result = new byte[BinaryRange.BYTES];
@@ -800,15 +892,27 @@ final class QueryAnalyzer {
 
         final Term term;
         final Range range;
+        final Term prefix;
 
         QueryExtraction(Term term) {
-            this.term = term;
-            this.range = null;
+            this(term, null, null);
         }
 
         QueryExtraction(Range range) {
-            this.term = null;
+            this(null, range, null);
+        }
+
+        private QueryExtraction(Term term, Range range, Term prefix) {
+            this.term = term;
             this.range = range;
+            this.prefix = prefix;
+        }
+
+        /**
+         * An extraction for a multi term query, a document can only match it if it has a term that starts with the given prefix.
+         */
+        static QueryExtraction prefix(Term prefix) {
+            return new QueryExtraction(null, null, prefix);
         }
 
         String field() {
@@ -829,12 +933,13 @@ final class QueryAnalyzer {
             if (o == null || getClass() != o.getClass()) return false;
             QueryExtraction queryExtraction = (QueryExtraction) o;
             return Objects.equals(term, queryExtraction.term) &&
-                Objects.equals(range, queryExtraction.range);
+                Objects.equals(range, queryExtraction.range) &&
+                Objects.equals(prefix, queryExtraction.prefix);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(term, range);
+            return Objects.hash(term, range, prefix);
         }
 
         @Override
@@ -842,6 +947,7 @@ final class QueryAnalyzer {
             return "QueryExtraction{" +
                 "term=" + term +
                 ",range=" + range +
+                ",prefix=" + prefix +
                 '}';
         }
     }
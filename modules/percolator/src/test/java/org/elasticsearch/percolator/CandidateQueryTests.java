@@ -55,12 +55,14 @@ import org.apache.lucene.search.DisjunctionMaxQuery;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.FilteredDocIdSetIterator;
+import org.apache.lucene.search.FuzzyQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.PhraseQuery;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.RegexpQuery;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
 import org.apache.lucene.search.Sort;
@@ -88,6 +90,7 @@ import org.elasticsearch.common.lucene.search.function.FunctionScoreQuery;
 import org.elasticsearch.common.geo.ShapeRelation;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.IndexSettings;
 import org.elasticsearch.index.mapper.DocumentMapper;
@@ -95,7 +98,9 @@ import org.elasticsearch.index.mapper.MappedFieldType;
 import org.elasticsearch.index.mapper.MapperService;
 import org.elasticsearch.index.mapper.NumberFieldMapper;
 import org.elasticsearch.index.mapper.ParseContext;
+import org.elasticsearch.index.mapper.ParsedDocument;
 import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.test.ESSingleNodeTestCase;
 import org.junit.After;
 import org.junit.Before;
@@ -215,6 +220,16 @@ public class CandidateQueryTests extends ESSingleNodeTestCase {
                 new BytesRef(randomFrom(stringContent.get(field1)))));
         queryFunctions.add(() -> new TermInSetQuery(field2, new BytesRef(randomFrom(stringContent.get(field1))),
                 new BytesRef(randomFrom(stringContent.get(field1)))));
+        queryFunctions.add(() -> new PrefixQuery(new Term(field1, randomFrom(stringContent.get(field1)).substring(0, 3))));
+        queryFunctions.add(() -> new WildcardQuery(new Term(field2, randomFrom(stringContent.get(field2)).substring(0, 2) + "?*")));
+        queryFunctions.add(() -> new RegexpQuery(new Term(field1, randomFrom(stringContent.get(field1)).substring(0, 4) + ".*")));
+        queryFunctions.add(() -> new FuzzyQuery(new Term(field2, randomFrom(stringContent.get(field2))), 1, randomIntBetween(0, 3)));
+        queryFunctions.add(() -> {
+            BooleanQuery.Builder builder = new BooleanQuery.Builder();
+            builder.add(new PrefixQuery(new Term(field1, randomFrom(stringContent.get(field1)).substring(0, 2))), Occur.MUST);
+            builder.add(new TermQuery(new Term(field2, randomFrom(stringContent.get(field2)))), Occur.MUST);
+            return builder.build();
+        });
         // many iterations with boolean queries, which are the most complex queries to deal with when nested
         int numRandomBoolQueries = 1000;
         for (int i = 0; i < numRandomBoolQueries; i++) {
@@ -913,6 +928,53 @@ public class CandidateQueryTests extends ESSingleNodeTestCase {
         }
     }
 
+    public void testPercolateManyDocuments() throws Exception {
+        List<ParseContext.Document> docs = new ArrayList<>();
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(new TermQuery(new Term("field", "value1")), Occur.MUST);
+        builder.add(new TermQuery(new Term("field", "value2")), Occur.MUST);
+        addQuery(builder.build(), docs);
+        builder = new BooleanQuery.Builder();
+        builder.add(new TermQuery(new Term("field", "value2")), Occur.MUST);
+        builder.add(new TermQuery(new Term("field", "value3")), Occur.MUST);
+        addQuery(builder.build(), docs);
+        indexWriter.addDocuments(docs);
+        indexWriter.close();
+        directoryReader = DirectoryReader.open(directory);
+        IndexSearcher shardSearcher = newSearcher(directoryReader);
+        shardSearcher.setQueryCache(null);
+
+        int numDocs = randomIntBetween(256, 2048);
+        List<ParsedDocument> parsedDocuments = new ArrayList<>(numDocs);
+        for (int i = 0; i < numDocs; i++) {
+            ParseContext.Document document = new ParseContext.Document();
+            int value = i % 2;
+            document.add(new StringField("field", "value" + value, Field.Store.NO));
+            document.add(new StringField("field", "value" + (value + 1), Field.Store.NO));
+            parsedDocuments.add(new ParsedDocument(null, null, Integer.toString(i), "type", null, Collections.singletonList(document),
+                new BytesArray("{}"), XContentType.JSON, null));
+        }
+        IndexSearcher percolateSearcher = PercolateQueryBuilder.createMultiDocumentSearcher(new WhitespaceAnalyzer(), parsedDocuments);
+        try (IndexReader ir = percolateSearcher.getIndexReader()) {
+            assertEquals(1, ir.leaves().size());
+            assertEquals(numDocs, ir.maxDoc());
+
+            PercolateQuery query = (PercolateQuery) fieldType.percolateQuery("_name", queryStore,
+                Collections.singletonList(new BytesArray("{}")), percolateSearcher, false, Version.CURRENT);
+            TopDocs topDocs = shardSearcher.search(query, 10);
+            assertEquals(1L, topDocs.totalHits.value);
+            assertEquals(0, topDocs.scoreDocs[0].doc);
+
+            SearchHit[] hits = new SearchHit[]{new SearchHit(topDocs.scoreDocs[0].doc)};
+            PercolatorMatchedSlotSubFetchPhase.innerHitsExecute(query, shardSearcher, hits);
+            List<Object> slots = hits[0].field(PercolatorMatchedSlotSubFetchPhase.FIELD_NAME_PREFIX).getValues();
+            assertEquals(numDocs / 2, slots.size());
+            for (int i = 0; i < slots.size(); i++) {
+                assertEquals(2 * i + 1, slots.get(i));
+            }
+        }
+    }
+
     public void testDuplicatedClauses() throws Exception {
         List<ParseContext.Document> docs = new ArrayList<>();
 
@@ -34,10 +34,12 @@ import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.CoveringQuery;
 import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.search.join.ScoreMode;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Version;
@@ -288,6 +290,65 @@ public class PercolatorFieldMapperTests extends ESSingleNodeTestCase {
         assertThat(fields.get(0).numericValue(), equalTo(2L));
     }
 
+    public void testExtractPrefixes() throws Exception {
+        addQueryFieldMappings();
+        BooleanQuery.Builder bq = new BooleanQuery.Builder();
+        bq.add(new PrefixQuery(new Term("field", "ab")), Occur.MUST);
+        bq.add(new WildcardQuery(new Term("field", "cd*")), Occur.MUST);
+        bq.add(new TermQuery(new Term("field", "term")), Occur.MUST);
+
+        DocumentMapper documentMapper = mapperService.documentMapper("doc");
+        IndexMetaData build = IndexMetaData.builder("")
+            .settings(Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT))
+            .numberOfShards(1).numberOfReplicas(0).build();
+        IndexSettings settings = new IndexSettings(build, Settings.EMPTY);
+        PercolatorFieldMapper fieldMapper = (PercolatorFieldMapper) documentMapper.mappers().getMapper(fieldName);
+        ParseContext.InternalParseContext parseContext = new ParseContext.InternalParseContext(settings,
+            mapperService.documentMapperParser(), documentMapper, null, null);
+        fieldMapper.processQuery(bq.build(), parseContext);
+        ParseContext.Document document = parseContext.doc();
+
+        PercolatorFieldMapper.FieldType fieldType = (PercolatorFieldMapper.FieldType) fieldMapper.fieldType();
+        assertThat(document.getField(fieldType.extractionResultField.name()).stringValue(), equalTo(EXTRACTION_PARTIAL));
+        List<String> prefixes = Arrays.stream(document.getFields(fieldType.queryPrefixesField.name()))
+            .map(field -> field.binaryValue().utf8ToString())
+            .sorted()
+            .collect(Collectors.toList());
+        assertThat(prefixes, equalTo(Arrays.asList("field\u0000ab", "field\u0000cd")));
+        List<IndexableField> fields = Arrays.asList(document.getFields(fieldType.queryTermsField.name()));
+        assertThat(fields.size(), equalTo(1));
+        assertThat(fields.get(0).binaryValue().utf8ToString(), equalTo("field\u0000term"));
+
+        // the candidate query matches both prefixes with a single clause:
+        fields = Arrays.asList(document.getFields(fieldType.minimumShouldMatchField.name()));
+        assertThat(fields.size(), equalTo(1));
+        assertThat(fields.get(0).numericValue(), equalTo(2L));
+    }
+
+    public void testExtractPrefixesFromDocument() throws Exception {
+        addQueryFieldMappings();
+
+        MemoryIndex memoryIndex = new MemoryIndex(false);
+        memoryIndex.addField("field1", "abc abd percolator", new WhitespaceAnalyzer());
+        memoryIndex.addField("field2", "x", new WhitespaceAnalyzer());
+        IndexReader indexReader = memoryIndex.createSearcher().getIndexReader();
+
+        List<String> prefixes = fieldType.extractPrefixes(indexReader).stream()
+            .map(BytesRef::utf8ToString)
+            .sorted()
+            .collect(Collectors.toList());
+        assertThat(prefixes, equalTo(Arrays.asList("field1\u0000a", "field1\u0000ab", "field1\u0000abc", "field1\u0000abd",
+            "field1\u0000p", "field1\u0000pe", "field1\u0000per", "field1\u0000perc", "field1\u0000perco", "field1\u0000percol",
+            "field1\u0000percola", "field1\u0000percolat", "field2\u0000x")));
+
+        // prefixes are only extracted for indices that index the prefixes of percolator queries:
+        Tuple<BooleanQuery, Boolean> t = fieldType.createCandidateQuery(indexReader, Version.V_7_0_0);
+        assertTrue(t.v2());
+        t = fieldType.createCandidateQuery(indexReader, Version.CURRENT);
+        assertTrue(t.v2());
+        assertThat(t.v1().clauses().get(0).getQuery().toString(), containsString(fieldName + ".extracted_prefixes:"));
+    }
+
     public void testExtractTermsAndRanges_failed() throws Exception {
         addQueryFieldMappings();
         TermRangeQuery query = new TermRangeQuery("field1", new BytesRef("a"), new BytesRef("z"), true, true);
@@ -374,7 +435,7 @@ public class PercolatorFieldMapperTests extends ESSingleNodeTestCase {
 
         MemoryIndex memoryIndex = new MemoryIndex(false);
         StringBuilder text = new StringBuilder();
-        for (int i = 0; i < 1022; i++) {
+        for (int i = 0; i < 1021; i++) {
             text.append(i).append(' ');
         }
         memoryIndex.addField("field1", text.toString(), new WhitespaceAnalyzer());
@@ -392,11 +453,13 @@ public class PercolatorFieldMapperTests extends ESSingleNodeTestCase {
         indexReader = memoryIndex.createSearcher().getIndexReader();
         t = fieldType.createCandidateQuery(indexReader, Version.CURRENT);
         assertFalse(t.v2());
-        assertEquals(3, t.v1().clauses().size());
+        assertEquals(4, t.v1().clauses().size());
         TermInSetQuery terms = (TermInSetQuery) t.v1().clauses().get(0).getQuery();
-        assertEquals(1023, terms.getTermData().size());
+        assertEquals(1022, terms.getTermData().size());
         assertThat(t.v1().clauses().get(1).getQuery().toString(), containsString(fieldName + ".range_field:<ranges:"));
-        assertThat(t.v1().clauses().get(2).getQuery().toString(), containsString(fieldName + ".extraction_result:failed"));
+        TermInSetQuery prefixes = (TermInSetQuery) t.v1().clauses().get(2).getQuery();
+        assertEquals(fieldName + ".extracted_prefixes", prefixes.getTermData().iterator().field());
+        assertThat(t.v1().clauses().get(3).getQuery().toString(), containsString(fieldName + ".extraction_result:failed"));
     }
 
     public void testCreateCandidateQuery_oldIndex() throws Exception {
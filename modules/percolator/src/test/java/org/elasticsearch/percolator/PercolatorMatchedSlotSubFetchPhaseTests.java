@@ -20,6 +20,8 @@ package org.elasticsearch.percolator;
 
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.RandomIndexWriter;
 import org.apache.lucene.index.Term;
@@ -27,17 +29,14 @@ import org.apache.lucene.index.memory.MemoryIndex;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
-import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BitSet;
 import org.apache.lucene.util.FixedBitSet;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.test.ESTestCase;
 
 import java.util.Collections;
-import java.util.stream.IntStream;
 
 public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
 
@@ -95,30 +94,55 @@ public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
         }
     }
 
-    public void testConvertTopDocsToSlots() {
-        ScoreDoc[] scoreDocs = new ScoreDoc[randomInt(128)];
-        for (int i = 0; i < scoreDocs.length; i++) {
-            scoreDocs[i] = new ScoreDoc(i, 1f);
+    public void testFindMatches() throws Exception {
+        try (Directory directory = newDirectory()) {
+            int numDocs = randomIntBetween(1, 256);
+            FixedBitSet expected = new FixedBitSet(numDocs);
+            try (RandomIndexWriter indexWriter = new RandomIndexWriter(random(), directory)) {
+                for (int i = 0; i < numDocs; i++) {
+                    Document document = new Document();
+                    if (randomBoolean()) {
+                        document.add(new StringField("field", "value", Field.Store.NO));
+                        expected.set(i);
+                    }
+                    indexWriter.addDocument(document);
+                }
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher indexSearcher = new IndexSearcher(reader);
+                BitSet matches = PercolatorMatchedSlotSubFetchPhase.findMatches(indexSearcher, new TermQuery(new Term("field", "value")));
+                assertEquals(numDocs, matches.length());
+                for (int i = 0; i < numDocs; i++) {
+                    assertEquals(expected.get(i), matches.get(i));
+                }
+            }
         }
+    }
 
-        TopDocs topDocs = new TopDocs(new TotalHits(scoreDocs.length, TotalHits.Relation.EQUAL_TO), scoreDocs);
-        IntStream stream = PercolatorMatchedSlotSubFetchPhase.convertTopDocsToSlots(topDocs, null);
+    public void testConvertMatchesToSlots() {
+        FixedBitSet matches = new FixedBitSet(randomIntBetween(1, 128));
+        for (int i = 0; i < matches.length(); i++) {
+            if (randomBoolean()) {
+                matches.set(i);
+            }
+        }
 
-        int[] result = stream.toArray();
-        assertEquals(scoreDocs.length, result.length);
-        for (int i = 0; i < scoreDocs.length; i++) {
-            assertEquals(scoreDocs[i].doc, result[i]);
+        int[] result = PercolatorMatchedSlotSubFetchPhase.convertMatchesToSlots(matches, null).toArray();
+        assertEquals(matches.cardinality(), result.length);
+        int docId = -1;
+        for (int slot : result) {
+            docId = matches.nextSetBit(docId + 1);
+            assertEquals(docId, slot);
         }
     }
 
-    public void testConvertTopDocsToSlots_nestedDocs() {
-        ScoreDoc[] scoreDocs = new ScoreDoc[5];
-        scoreDocs[0] = new ScoreDoc(2, 1f);
-        scoreDocs[1] = new ScoreDoc(5, 1f);
-        scoreDocs[2] = new ScoreDoc(8, 1f);
-        scoreDocs[3] = new ScoreDoc(11, 1f);
-        scoreDocs[4] = new ScoreDoc(14, 1f);
-        TopDocs topDocs = new TopDocs(new TotalHits(scoreDocs.length, TotalHits.Relation.EQUAL_TO), scoreDocs);
+    public void testConvertMatchesToSlots_nestedDocs() {
+        FixedBitSet matches = new FixedBitSet(15);
+        matches.set(2);
+        matches.set(5);
+        matches.set(8);
+        matches.set(11);
+        matches.set(14);
 
         FixedBitSet bitSet = new FixedBitSet(15);
         bitSet.set(2);
@@ -128,8 +152,8 @@ public class PercolatorMatchedSlotSubFetchPhaseTests extends ESTestCase {
         bitSet.set(14);
 
         int[] rootDocsBySlot = PercolatorMatchedSlotSubFetchPhase.buildRootDocsSlots(bitSet);
-        int[] result = PercolatorMatchedSlotSubFetchPhase.convertTopDocsToSlots(topDocs, rootDocsBySlot).toArray();
-        assertEquals(scoreDocs.length, result.length);
+        int[] result = PercolatorMatchedSlotSubFetchPhase.convertMatchesToSlots(matches, rootDocsBySlot).toArray();
+        assertEquals(5, result.length);
         assertEquals(0, result[0]);
         assertEquals(1, result[1]);
         assertEquals(2, result[2]);
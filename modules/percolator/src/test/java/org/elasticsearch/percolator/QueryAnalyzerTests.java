@@ -34,20 +34,25 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.BoostQuery;
 import org.apache.lucene.search.ConstantScoreQuery;
 import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
 import org.apache.lucene.search.IndexOrDocValuesQuery;
 import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.MatchNoDocsQuery;
 import org.apache.lucene.search.MultiPhraseQuery;
 import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.RegexpQuery;
 import org.apache.lucene.search.SynonymQuery;
 import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.join.QueryBitSetProducer;
 import org.apache.lucene.search.join.ScoreMode;
 import org.apache.lucene.search.spans.SpanFirstQuery;
+import org.apache.lucene.search.spans.SpanMultiTermQueryWrapper;
 import org.apache.lucene.search.spans.SpanNearQuery;
 import org.apache.lucene.search.spans.SpanNotQuery;
 import org.apache.lucene.search.spans.SpanOrQuery;
@@ -633,10 +638,9 @@ public class QueryAnalyzerTests extends ESTestCase {
         // 3) SpanBoostQuery
 
         // The following span queries can't be supported because of how these queries work:
-        // 1) SpanMultiTermQueryWrapper, not supported, because there is no support for MTQ typed queries yet.
-        // 2) SpanContainingQuery, is kind of range of spans and we don't know what is between the little and big terms
-        // 3) SpanWithinQuery, same reason as SpanContainingQuery
-        // 4) FieldMaskingSpanQuery is a tricky query so we shouldn't optimize this
+        // 1) SpanContainingQuery, is kind of range of spans and we don't know what is between the little and big terms
+        // 2) SpanWithinQuery, same reason as SpanContainingQuery
+        // 3) FieldMaskingSpanQuery is a tricky query so we shouldn't optimize this
 
         SpanTermQuery spanTermQuery1 = new SpanTermQuery(new Term("_field", "_short_term"));
         Result result = analyze(spanTermQuery1, Version.CURRENT);
@@ -1201,6 +1205,92 @@ public class QueryAnalyzerTests extends ESTestCase {
         assertDimension(ranges.get(0).range.upperPoint, bytes -> IntPoint.encodeDimension(20, bytes, 0));
     }
 
+    public void testPrefixQuery() {
+        PrefixQuery prefixQuery = new PrefixQuery(new Term("_field", "_prefix"));
+        Result result = analyze(prefixQuery, Version.CURRENT);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(1));
+        assertPrefixEquals(result.extractions, new Term("_field", "_prefix"));
+
+        // long prefixes are truncated:
+        prefixQuery = new PrefixQuery(new Term("_field", "_very_long_prefix"));
+        result = analyze(prefixQuery, Version.CURRENT);
+        assertPrefixEquals(result.extractions, new Term("_field", "_very_lo"));
+
+        PrefixQuery emptyPrefixQuery = new PrefixQuery(new Term("_field", ""));
+        UnsupportedQueryException e = expectThrows(UnsupportedQueryException.class, () -> analyze(emptyPrefixQuery, Version.CURRENT));
+        assertThat(e.getUnsupportedQuery(), sameInstance(emptyPrefixQuery));
+
+        PrefixQuery oldIndexPrefixQuery = new PrefixQuery(new Term("_field", "_prefix"));
+        e = expectThrows(UnsupportedQueryException.class, () -> analyze(oldIndexPrefixQuery, Version.V_7_0_0));
+        assertThat(e.getUnsupportedQuery(), sameInstance(oldIndexPrefixQuery));
+    }
+
+    public void testWildcardQuery() {
+        Result result = analyze(new WildcardQuery(new Term("_field", "ab?d*")), Version.CURRENT);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(1));
+        assertPrefixEquals(result.extractions, new Term("_field", "ab"));
+
+        WildcardQuery leadingWildcardQuery = new WildcardQuery(new Term("_field", "*bc"));
+        UnsupportedQueryException e = expectThrows(UnsupportedQueryException.class,
+            () -> analyze(leadingWildcardQuery, Version.CURRENT));
+        assertThat(e.getUnsupportedQuery(), sameInstance(leadingWildcardQuery));
+
+        assertThat(QueryAnalyzer.wildcardPrefix("abc"), equalTo("abc"));
+        assertThat(QueryAnalyzer.wildcardPrefix("a\\*b*"), equalTo("a*b"));
+        assertThat(QueryAnalyzer.wildcardPrefix("ab\\"), equalTo("ab"));
+        assertThat(QueryAnalyzer.wildcardPrefix("?b"), equalTo(""));
+    }
+
+    public void testRegexpQuery() {
+        Result result = analyze(new RegexpQuery(new Term("_field", "abc[de]+")), Version.CURRENT);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(1));
+        assertPrefixEquals(result.extractions, new Term("_field", "abc"));
+
+        RegexpQuery regexpQuery = new RegexpQuery(new Term("_field", "(abc|abd)"));
+        result = analyze(regexpQuery, Version.CURRENT);
+        assertPrefixEquals(result.extractions, new Term("_field", "ab"));
+
+        RegexpQuery noPrefixRegexpQuery = new RegexpQuery(new Term("_field", ".*abc"));
+        UnsupportedQueryException e = expectThrows(UnsupportedQueryException.class,
+            () -> analyze(noPrefixRegexpQuery, Version.CURRENT));
+        assertThat(e.getUnsupportedQuery(), sameInstance(noPrefixRegexpQuery));
+    }
+
+    public void testFuzzyQuery() {
+        Result result = analyze(new FuzzyQuery(new Term("_field", "abcdef"), 2, 3), Version.CURRENT);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(1));
+        assertPrefixEquals(result.extractions, new Term("_field", "abc"));
+
+        FuzzyQuery noPrefixFuzzyQuery = new FuzzyQuery(new Term("_field", "abcdef"), 2, 0);
+        UnsupportedQueryException e = expectThrows(UnsupportedQueryException.class,
+            () -> analyze(noPrefixFuzzyQuery, Version.CURRENT));
+        assertThat(e.getUnsupportedQuery(), sameInstance(noPrefixFuzzyQuery));
+    }
+
+    public void testSpanMultiTermQueryWrapper() {
+        SpanMultiTermQueryWrapper<PrefixQuery> query = new SpanMultiTermQueryWrapper<>(new PrefixQuery(new Term("_field", "ab")));
+        Result result = analyze(query, Version.CURRENT);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(1));
+        assertPrefixEquals(result.extractions, new Term("_field", "ab"));
+    }
+
+    public void testPrefixQueryInConjunction() {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(new PrefixQuery(new Term("_field", "ab")), Occur.FILTER);
+        builder.add(new TermQuery(new Term("_field", "_term")), Occur.FILTER);
+        Result result = analyze(builder.build(), Version.CURRENT);
+        assertFalse(result.verified);
+        assertThat(result.minimumShouldMatch, equalTo(2));
+        assertThat(result.extractions.size(), equalTo(2));
+        assertTrue(result.extractions.contains(new QueryExtraction(new Term("_field", "_term"))));
+        assertTrue(result.extractions.contains(QueryExtraction.prefix(new Term("_field", "ab"))));
+    }
+
     public void testToParentBlockJoinQuery() {
         TermQuery termQuery = new TermQuery(new Term("field", "value"));
         QueryBitSetProducer queryBitSetProducer = new QueryBitSetProducer(new TermQuery(new Term("_type", "child")));
@@ -1393,6 +1483,14 @@ public class QueryAnalyzerTests extends ESTestCase {
         assertArrayEquals(expected, dest);
     }
 
+    private static void assertPrefixEquals(Set<QueryExtraction> actual, Term expected) {
+        assertThat(actual.size(), equalTo(1));
+        QueryExtraction extraction = actual.iterator().next();
+        assertNull(extraction.term);
+        assertNull(extraction.range);
+        assertEquals(expected, extraction.prefix);
+    }
+
     private static void assertTermsEqual(Set<QueryExtraction> actual, Term... expected) {
         assertEquals(Arrays.stream(expected).map(QueryExtraction::new).collect(Collectors.toSet()), actual);
     }
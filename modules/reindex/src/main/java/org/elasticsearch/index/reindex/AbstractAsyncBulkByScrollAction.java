@@ -66,8 +66,11 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static java.lang.Math.max;
 import static java.lang.Math.min;
@@ -99,6 +102,12 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
     protected final Request mainRequest;
 
     private final AtomicLong startTime = new AtomicLong(-1);
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    /**
+     * The next scroll response, fetched while the bulk requests for the current batch are in flight. Only used if the request asks
+     * to {@link AbstractBulkByScrollRequest#isPrefetch() prefetch}. There is never more than one.
+     */
+    private final AtomicReference<PrefetchedScrollResponse> prefetchedScrollResponse = new AtomicReference<>();
     private final Set<String> destinationIndices = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     private final ParentTaskAssigningClient client;
@@ -321,26 +330,57 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
         }
         request.timeout(mainRequest.getTimeout());
         request.waitForActiveShards(mainRequest.getWaitForActiveShards());
+        if (mainRequest.isPrefetch()
+                && (mainRequest.getSize() == SIZE_ALL_MATCHES || worker.getSuccessfullyProcessed() + hits.size() < mainRequest.getSize())) {
+            prefetchNextScroll(thisBatchStartTime, request.numberOfActions());
+        }
         sendBulkRequest(thisBatchStartTime, request);
     }
 
+    /**
+     * Start fetching the next scroll batch while the bulk requests for this batch are in flight. Its response is picked up by
+     * {@link #startNextScroll(TimeValue, TimeValue, int)} once this batch has been written.
+     */
+    private void prefetchNextScroll(TimeValue thisBatchStartTime, int thisBatchSize) {
+        logger.debug("[{}]: prefetching the next scroll batch", task.getId());
+        PrefetchedScrollResponse prefetched = new PrefetchedScrollResponse();
+        prefetchedScrollResponse.set(prefetched);
+        // The throttle delay is measured from now, so it can only overestimate how long the scroll must be kept alive
+        TimeValue extraKeepAlive = worker.throttleWaitTime(thisBatchStartTime, timeValueNanos(System.nanoTime()), thisBatchSize);
+        scrollSource.startNextScroll(extraKeepAlive, prefetched::onResponse);
+    }
+
     /**
      * Send a bulk request, handling retries.
      */
     void sendBulkRequest(TimeValue thisBatchStartTime, BulkRequest request) {
+        sendBulkRequest(thisBatchStartTime, request, 0);
+    }
+
+    /**
+     * Send the requests of a bulk request starting at {@code from}, handling retries. The requests are sent in bulk requests of at most
+     * {@link WorkerBulkByScrollTaskState#bulkSize(int)} requests, one after the other, so that a destination that rejects or is slow
+     * to process large bulk requests gets smaller ones.
+     */
+    private void sendBulkRequest(TimeValue thisBatchStartTime, BulkRequest request, int from) {
+        final BulkRequest bulk = nextBulk(request, from);
         if (logger.isDebugEnabled()) {
-            logger.debug("[{}]: sending [{}] entry, [{}] bulk request", task.getId(), request.requests().size(),
-                    new ByteSizeValue(request.estimatedSizeInBytes()));
+            logger.debug("[{}]: sending [{}] entry, [{}] bulk request", task.getId(), bulk.requests().size(),
+                    new ByteSizeValue(bulk.estimatedSizeInBytes()));
         }
         if (task.isCancelled()) {
             logger.debug("[{}]: finishing early because the task was cancelled", task.getId());
             finishHim(null);
             return;
         }
-        bulkRetry.withBackoff(client::bulk, request, new ActionListener<BulkResponse>() {
+        final long bulkRetriesBefore = worker.getBulkRetries();
+        final long startTime = System.nanoTime();
+        bulkRetry.withBackoff(client::bulk, bulk, new ActionListener<BulkResponse>() {
             @Override
             public void onResponse(BulkResponse response) {
-                onBulkResponse(thisBatchStartTime, response);
+                worker.onBulkCompleted(bulk.numberOfActions(), request.numberOfActions() - from,
+                    timeValueNanos(System.nanoTime() - startTime), worker.getBulkRetries() > bulkRetriesBefore);
+                onBulkResponse(thisBatchStartTime, response, request, from + bulk.numberOfActions());
             }
 
             @Override
@@ -350,10 +390,36 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
         });
     }
 
+    /**
+     * Builds the bulk request holding the next requests to send out of {@code request}, starting at {@code from}.
+     */
+    private BulkRequest nextBulk(BulkRequest request, int from) {
+        final int pending = request.numberOfActions() - from;
+        final int size = worker.bulkSize(pending);
+        if (from == 0 && size == pending) {
+            return request;
+        }
+        BulkRequest bulk = new BulkRequest();
+        for (DocWriteRequest<?> docWriteRequest : request.requests().subList(from, from + size)) {
+            bulk.add(docWriteRequest);
+        }
+        bulk.timeout(request.timeout());
+        bulk.waitForActiveShards(request.waitForActiveShards());
+        return bulk;
+    }
+
     /**
      * Processes bulk responses, accounting for failures.
      */
     void onBulkResponse(TimeValue thisBatchStartTime, BulkResponse response) {
+        onBulkResponse(thisBatchStartTime, response, null, response.getItems().length);
+    }
+
+    /**
+     * Processes the response to a bulk request holding part of the requests of {@code request}, sending the remaining requests after
+     * {@code sent} if there are any or starting the next scroll otherwise.
+     */
+    private void onBulkResponse(TimeValue thisBatchStartTime, BulkResponse response, BulkRequest request, int sent) {
         try {
             List<Failure> failures = new ArrayList<>();
             Set<String> destinationIndicesThisBatch = new HashSet<>();
@@ -401,7 +467,11 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
                 return;
             }
 
-            startNextScroll(thisBatchStartTime, timeValueNanos(System.nanoTime()), response.getItems().length);
+            if (request != null && sent < request.numberOfActions()) {
+                sendBulkRequest(thisBatchStartTime, request, sent);
+                return;
+            }
+            startNextScroll(thisBatchStartTime, timeValueNanos(System.nanoTime()), sent);
         } catch (Exception t) {
             finishHim(t);
         }
@@ -419,12 +489,50 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
             finishHim(null);
             return;
         }
+        PrefetchedScrollResponse prefetched = prefetchedScrollResponse.getAndSet(null);
+        if (prefetched != null) {
+            prefetched.consume(response -> onScrollResponse(lastBatchStartTime, lastBatchSize, response));
+            return;
+        }
         TimeValue extraKeepAlive = worker.throttleWaitTime(lastBatchStartTime, now, lastBatchSize);
         scrollSource.startNextScroll(extraKeepAlive, response -> {
             onScrollResponse(lastBatchStartTime, lastBatchSize, response);
         });
     }
 
+    /**
+     * Hands a prefetched scroll response over to whoever consumes it, whichever of the response and the consumer comes last.
+     */
+    static class PrefetchedScrollResponse {
+        private ScrollableHitSource.Response response;
+        private Consumer<ScrollableHitSource.Response> consumer;
+
+        void onResponse(ScrollableHitSource.Response response) {
+            Consumer<ScrollableHitSource.Response> consumer;
+            synchronized (this) {
+                consumer = this.consumer;
+                if (consumer == null) {
+                    this.response = response;
+                    return;
+                }
+            }
+            consumer.accept(response);
+        }
+
+        void consume(Consumer<ScrollableHitSource.Response> consumer) {
+            ScrollableHitSource.Response response;
+            synchronized (this) {
+                response = this.response;
+                if (response == null) {
+                    this.consumer = consumer;
+                    return;
+                }
+                this.response = null;
+            }
+            consumer.accept(response);
+        }
+    }
+
     private void recordFailure(Failure failure, List<Failure> failures) {
         if (failure.getStatus() == CONFLICT) {
             worker.countVersionConflict();
@@ -479,6 +587,11 @@ public abstract class AbstractAsyncBulkByScrollAction<Request extends AbstractBu
      */
     protected void finishHim(Exception failure, List<Failure> indexingFailures,
             List<SearchFailure> searchFailures, boolean timedOut) {
+        if (finished.compareAndSet(false, true) == false) {
+            // A prefetched scroll request can fail while the bulk requests of the previous batch are still in flight
+            logger.debug(() -> new ParameterizedMessage("[{}]: already finished", task.getId()), failure);
+            return;
+        }
         logger.debug("[{}]: finishing without any catastrophic failures", task.getId());
         scrollSource.close(() -> {
             if (failure == null) {
@@ -90,6 +90,7 @@ public abstract class AbstractBaseReindexRestHandler<
 
         request.setRefresh(restRequest.paramAsBoolean("refresh", request.isRefresh()));
         request.setTimeout(restRequest.paramAsTime("timeout", request.getTimeout()));
+        request.setPrefetch(restRequest.paramAsBoolean("prefetch", request.isPrefetch()));
 
         Integer slices = parseSlices(restRequest);
         if (slices != null) {
@@ -91,6 +91,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -411,6 +412,61 @@ public class AsyncBulkByScrollActionTests extends ESTestCase {
         assertThat(e.getCause().getMessage(), equalTo("surprise"));
     }
 
+    /**
+     * With prefetch the next scroll request is sent before the bulk request for the current batch and its response is processed once
+     * the batch has been written.
+     */
+    public void testPrefetchFetchesTheNextBatchWhileWriting() throws Exception {
+        testRequest.setPrefetch(true);
+        AtomicInteger scrollAttemptsWhenWriting = new AtomicInteger(-1);
+        DummyAsyncBulkByScrollAction action = new DummyAsyncBulkByScrollAction() {
+            @Override
+            protected AbstractAsyncBulkByScrollAction.RequestWrapper<?> buildRequest(Hit doc) {
+                return wrap(new IndexRequest("index", "type", doc.getId()));
+            }
+
+            @Override
+            void sendBulkRequest(TimeValue thisBatchStartTime, BulkRequest request) {
+                scrollAttemptsWhenWriting.set(client.scrollAttempts.get());
+                super.sendBulkRequest(thisBatchStartTime, request);
+            }
+        };
+        ScrollableHitSource.BasicHit hit = new ScrollableHitSource.BasicHit("index", "type", "id", 0);
+        hit.setSource(new BytesArray("{}"), XContentType.JSON);
+        ScrollableHitSource.Response response = new ScrollableHitSource.Response(false, emptyList(), 1, singletonList(hit), null);
+        simulateScrollResponse(action, timeValueNanos(System.nanoTime()), 0, response);
+        assertBusy(() -> assertEquals(1, testTask.getStatus().getCreated()));
+        assertEquals(1, scrollAttemptsWhenWriting.get());
+        // the batch was written without sending another scroll request
+        assertEquals(1, client.scrollAttempts.get());
+        assertFalse(listener.isDone());
+
+        SearchHits hits = new SearchHits(new SearchHit[0], new TotalHits(0, TotalHits.Relation.EQUAL_TO), 0);
+        InternalSearchResponse internalResponse = new InternalSearchResponse(hits, null, null, null, false, false, 1);
+        client.lastScroll.get().listener.onResponse(new SearchResponse(internalResponse, scrollId(), 5, 4, 0, randomLong(), null,
+            SearchResponse.Clusters.EMPTY));
+        BulkByScrollResponse bulkByScrollResponse = listener.get();
+        assertEquals(1, bulkByScrollResponse.getCreated());
+        assertEquals(1, bulkByScrollResponse.getBatches());
+        assertEquals(1, client.scrollAttempts.get());
+    }
+
+    public void testPrefetchedScrollResponse() {
+        AbstractAsyncBulkByScrollAction.PrefetchedScrollResponse prefetched =
+            new AbstractAsyncBulkByScrollAction.PrefetchedScrollResponse();
+        ScrollableHitSource.Response response = new ScrollableHitSource.Response(false, emptyList(), 0, emptyList(), null);
+        AtomicReference<ScrollableHitSource.Response> consumed = new AtomicReference<>();
+        if (randomBoolean()) {
+            prefetched.onResponse(response);
+            prefetched.consume(consumed::set);
+        } else {
+            prefetched.consume(consumed::set);
+            assertNull(consumed.get());
+            prefetched.onResponse(response);
+        }
+        assertSame(response, consumed.get());
+    }
+
     /**
      * Mimicks bulk rejections. These should be retried and eventually succeed.
      */
@@ -524,6 +580,42 @@ public class AsyncBulkByScrollActionTests extends ESTestCase {
         }
     }
 
+    /**
+     * Bulk requests that had to be retried make the worker send the following batches in smaller bulk requests, which grow again as
+     * long as they aren't rejected.
+     */
+    public void testRetriedBulkRequestsShrinkTheBulkSize() throws Exception {
+        client.bulksToReject = client.bulksAttempts.get() + 1;
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        DummyAsyncBulkByScrollAction action = new DummyActionWithoutBackoff() {
+            @Override
+            void startNextScroll(TimeValue lastBatchStartTime, TimeValue now, int lastBatchSize) {
+                batchSizes.add(lastBatchSize);
+            }
+        };
+        action.sendBulkRequest(timeValueNanos(System.nanoTime()), bulkRequest(200));
+        assertBusy(() -> assertThat(batchSizes, hasSize(1)));
+        assertEquals(1, testTask.getStatus().getBulkRetries());
+        assertEquals(1, testTask.getStatus().getBulkSizeDecreases());
+
+        int bulksAttempts = client.bulksAttempts.get();
+        action.sendBulkRequest(timeValueNanos(System.nanoTime()), bulkRequest(200));
+        assertBusy(() -> assertThat(batchSizes, hasSize(2)));
+        // the second batch was sent in two bulk requests of 100 requests, the first of which grew the bulk size back
+        assertEquals(bulksAttempts + 2, client.bulksAttempts.get());
+        assertThat(batchSizes, contains(200, 200));
+        assertEquals(1, testTask.getStatus().getBulkSizeDecreases());
+        assertEquals(1, testTask.getStatus().getBulkSizeIncreases());
+    }
+
+    private static BulkRequest bulkRequest(int size) {
+        BulkRequest request = new BulkRequest();
+        for (int i = 0; i < size; i++) {
+            request.add(new IndexRequest("index", "type", "id" + i));
+        }
+        return request;
+    }
+
     /**
      * The default retry time matches what we say it is in the javadoc for the request.
      */
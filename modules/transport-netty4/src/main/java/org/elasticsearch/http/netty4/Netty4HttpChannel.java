@@ -80,6 +80,17 @@ public class Netty4HttpChannel implements HttpChannel {
         return (InetSocketAddress) channel.remoteAddress();
     }
 
+    @Override
+    public boolean pauseReads() {
+        channel.config().setAutoRead(false);
+        return true;
+    }
+
+    @Override
+    public void resumeReads() {
+        channel.config().setAutoRead(true);
+    }
+
     @Override
     public void addCloseListener(ActionListener<Void> listener) {
         closeContext.addListener(ActionListener.toBiConsumer(listener));
@@ -50,6 +50,8 @@ final class Netty4MessageChannelHandler extends ChannelDuplexHandler {
         try {
             Channel channel = ctx.channel();
             Attribute<Netty4TcpChannel> channelAttribute = channel.attr(Netty4Transport.CHANNEL_KEY);
+            // the message is deserialized on this thread, so the pooled buffer (and any composite components it is built from)
+            // only needs to stay alive until inboundMessage returns; the deserialized request holds copies of what it needs
             transport.inboundMessage(channelAttribute.get(), Netty4Utils.toBytesReference(buffer));
         } finally {
             buffer.release();
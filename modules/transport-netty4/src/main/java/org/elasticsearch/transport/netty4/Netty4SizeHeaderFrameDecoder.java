@@ -32,6 +32,14 @@ final class Netty4SizeHeaderFrameDecoder extends ByteToMessageDecoder {
 
     private static final int HEADER_SIZE = TcpHeader.MARKER_BYTES_SIZE + TcpHeader.MESSAGE_LENGTH_SIZE;
 
+    Netty4SizeHeaderFrameDecoder() {
+        // Accumulate partial frames as a composite of the pooled buffers handed to us by the channel instead of merging them into
+        // a single contiguous buffer. Large frames (bulk shard requests, recovery chunks) would otherwise be copied into ever
+        // growing buffers as they arrive. The slices we emit retain the underlying pooled buffers until the message handler has
+        // deserialized the message and released it.
+        setCumulator(COMPOSITE_CUMULATOR);
+    }
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
         try {
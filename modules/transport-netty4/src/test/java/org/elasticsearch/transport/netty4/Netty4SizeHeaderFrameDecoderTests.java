@@ -19,6 +19,9 @@
 
 package org.elasticsearch.transport.netty4;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.network.NetworkService;
@@ -39,8 +42,11 @@ import java.io.InputStreamReader;
 import java.net.InetAddress;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
 /**
@@ -106,4 +112,40 @@ public class Netty4SizeHeaderFrameDecoderTests extends ESTestCase {
         }
     }
 
+
+    public void testFramesSplitAcrossReadsAreReassembledWithoutLeaking() {
+        final EmbeddedChannel channel = new EmbeddedChannel(new Netty4SizeHeaderFrameDecoder());
+        final int numMessages = randomIntBetween(1, 8);
+        final List<byte[]> messages = new ArrayList<>(numMessages);
+        final ByteBuf wire = Unpooled.buffer();
+        for (int i = 0; i < numMessages; i++) {
+            final byte[] message = randomByteArrayOfLength(randomIntBetween(1, 64 * 1024));
+            messages.add(message);
+            wire.writeByte('E').writeByte('S').writeInt(message.length).writeBytes(message);
+        }
+
+        // hand the frames to the decoder in randomly sized network reads, keeping track of them to check they all get released
+        final List<ByteBuf> reads = new ArrayList<>();
+        while (wire.isReadable()) {
+            final ByteBuf read = wire.readRetainedSlice(Math.min(wire.readableBytes(), randomIntBetween(1, 16 * 1024)));
+            reads.add(read);
+            channel.writeInbound(read);
+        }
+        wire.release();
+
+        for (byte[] message : messages) {
+            final ByteBuf frame = channel.readInbound();
+            assertNotNull(frame);
+            final byte[] bytes = new byte[frame.readableBytes()];
+            frame.readBytes(bytes);
+            assertArrayEquals(message, bytes);
+            frame.release();
+        }
+        assertNull(channel.readInbound());
+        assertFalse(channel.finish());
+        for (ByteBuf read : reads) {
+            assertThat(read.refCnt(), equalTo(0));
+        }
+    }
+
 }
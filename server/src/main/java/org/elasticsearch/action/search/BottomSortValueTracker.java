@@ -0,0 +1,123 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.search.FieldBounds;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+
+/**
+ * Tracks the value of the primary sort field that a hit needs to beat in order to make it into the top hits of a field sorted
+ * search request. Each shard that returns a full page of hits proves that the top hits of the request are at least as good as
+ * its last hit, so the best of these values is passed to the shards that are searched later on. Shards whose documents are all
+ * worse can then skip collecting hits, see {@link org.elasticsearch.search.internal.ShardSearchRequest#bottomSortValue()}.
+ */
+final class BottomSortValueTracker {
+
+    private final int topN;
+    private final boolean reverse;
+    private Double bottomSortValue;
+
+    private BottomSortValueTracker(int topN, boolean reverse) {
+        this.topN = topN;
+        this.reverse = reverse;
+    }
+
+    /**
+     * Returns a tracker for the given request, or {@code null} if shards cannot be skipped based on the sort values of other shards.
+     */
+    @Nullable
+    static BottomSortValueTracker create(SearchRequest request, int numShards) {
+        final SearchSourceBuilder source = request.source();
+        if (numShards <= 1 || request.scroll() != null || source == null || source.collapse() != null) {
+            return null;
+        }
+        final FieldSortBuilder sort = FieldBounds.boundedPrimarySort(source);
+        if (sort == null) {
+            return null;
+        }
+        final int from = source.from() == -1 ? SearchService.DEFAULT_FROM : source.from();
+        final int size = source.size() == -1 ? SearchService.DEFAULT_SIZE : source.size();
+        if (size == 0) {
+            return null;
+        }
+        return new BottomSortValueTracker(from + size, sort.order() == SortOrder.DESC);
+    }
+
+    /**
+     * Updates the bottom sort value with the hits of the given shard result.
+     */
+    synchronized void consume(QuerySearchResult result) {
+        if (result.hasConsumedTopDocs()) {
+            return;
+        }
+        final ScoreDoc[] scoreDocs = result.topDocs().topDocs.scoreDocs;
+        if (scoreDocs.length < topN || scoreDocs[topN - 1] instanceof FieldDoc == false) {
+            return;
+        }
+        final Object value = ((FieldDoc) scoreDocs[topN - 1]).fields[0];
+        if (value instanceof Number == false || isMissingValue((Number) value)) {
+            return;
+        }
+        // round towards the worse values so that shards are only skipped if none of their documents can compete
+        final double bottom = toDouble((Number) value, reverse == false);
+        if (bottomSortValue == null || (reverse ? bottom > bottomSortValue : bottom < bottomSortValue)) {
+            bottomSortValue = bottom;
+        }
+    }
+
+    /**
+     * Returns the current bottom sort value, or {@code null} if none of the shards returned a full page of hits yet.
+     */
+    @Nullable
+    synchronized Double bottomSortValue() {
+        return bottomSortValue;
+    }
+
+    /**
+     * Documents without a value sort last using the minimum or maximum value of the type of the field.
+     */
+    private static boolean isMissingValue(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            double d = value.doubleValue();
+            return Double.isNaN(d) || Double.isInfinite(d);
+        }
+        long l = value.longValue();
+        return l == Long.MIN_VALUE || l == Long.MAX_VALUE;
+    }
+
+    static double toDouble(Number value, boolean roundUp) {
+        if (value instanceof Double || value instanceof Float) {
+            return value.doubleValue();
+        }
+        final long l = value.longValue();
+        final double d = l;
+        if (roundUp) {
+            return (long) d < l ? Math.nextUp(d) : d;
+        }
+        return (long) d > l ? Math.nextDown(d) : d;
+    }
+}
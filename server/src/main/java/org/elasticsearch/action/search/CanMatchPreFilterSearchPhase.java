@@ -23,10 +23,17 @@ import org.apache.lucene.util.FixedBitSet;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
 import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.search.FieldBounds;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.elasticsearch.transport.Transport;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
@@ -45,6 +52,8 @@ final class CanMatchPreFilterSearchPhase extends AbstractSearchAsyncAction<Searc
 
     private final Function<GroupShardsIterator<SearchShardIterator>, SearchPhase> phaseFactory;
     private final GroupShardsIterator<SearchShardIterator> shardsIts;
+    @Nullable
+    private final ShardFieldBoundsCache.Lookup fieldBoundsLookup;
 
     CanMatchPreFilterSearchPhase(Logger logger, SearchTransportService searchTransportService,
                                         BiFunction<String, String, Transport.Connection> nodeIdToConnection,
@@ -54,20 +63,32 @@ final class CanMatchPreFilterSearchPhase extends AbstractSearchAsyncAction<Searc
                                         ActionListener<SearchResponse> listener, GroupShardsIterator<SearchShardIterator> shardsIts,
                                         TransportSearchAction.SearchTimeProvider timeProvider, long clusterStateVersion,
                                         SearchTask task, Function<GroupShardsIterator<SearchShardIterator>, SearchPhase> phaseFactory,
-                                        SearchResponse.Clusters clusters) {
+                                        SearchResponse.Clusters clusters, @Nullable ShardFieldBoundsCache.Lookup fieldBoundsLookup) {
         //We set max concurrent shard requests to the number of shards so no throttling happens for can_match requests
         super("can_match", logger, searchTransportService, nodeIdToConnection, aliasFilter, concreteIndexBoosts, indexRoutings,
                 executor, request, listener, shardsIts, timeProvider, clusterStateVersion, task,
                 new BitSetSearchPhaseResults(shardsIts.size()), shardsIts.size(), clusters);
         this.phaseFactory = phaseFactory;
         this.shardsIts = shardsIts;
+        this.fieldBoundsLookup = fieldBoundsLookup;
     }
 
     @Override
     protected void executePhaseOnShard(SearchShardIterator shardIt, ShardRouting shard,
                                        SearchActionListener<SearchService.CanMatchResponse> listener) {
-        getSearchTransport().sendCanMatch(getConnection(shardIt.getClusterAlias(), shard.currentNodeId()),
-            buildShardSearchRequest(shardIt), getTask(), listener);
+        if (fieldBoundsLookup == null) {
+            getSearchTransport().sendCanMatch(getConnection(shardIt.getClusterAlias(), shard.currentNodeId()),
+                buildShardSearchRequest(shardIt), getTask(), listener);
+        } else if (fieldBoundsLookup.canSkip(shardIt.shardId())) {
+            // the bounds that the shard reported earlier prove that it cannot match, no need to ask again
+            listener.onResponse(new SearchService.CanMatchResponse(false));
+        } else {
+            getSearchTransport().sendCanMatch(getConnection(shardIt.getClusterAlias(), shard.currentNodeId()),
+                buildShardSearchRequest(shardIt), getTask(), ActionListener.wrap(response -> {
+                    fieldBoundsLookup.onResponse(shardIt.shardId(), response);
+                    listener.onResponse(response);
+                }, listener::onFailure));
+        }
     }
 
     @Override
@@ -94,24 +115,56 @@ final class CanMatchPreFilterSearchPhase extends AbstractSearchAsyncAction<Searc
                 iter.resetAndSkip();
             }
         }
-        return shardsIts;
+        final FieldSortBuilder primarySort = FieldBounds.boundedPrimarySort(getRequest().source());
+        if (primarySort == null) {
+            return shardsIts;
+        }
+        return sortShards(shardsIts, results.getSortFieldBounds(), primarySort.order() == SortOrder.DESC);
+    }
+
+    /**
+     * Orders the shards by the bounds of the primary sort field so that the shards with the most competitive documents are
+     * searched first. Later shards then benefit from the bottom sort value of the hits that were collected so far. Shards
+     * with unknown bounds are searched last.
+     */
+    static GroupShardsIterator<SearchShardIterator> sortShards(GroupShardsIterator<SearchShardIterator> shardsIts,
+                                                               FieldBounds[] sortFieldBounds, boolean reverse) {
+        final List<Integer> order = new ArrayList<>(shardsIts.size());
+        for (int i = 0; i < shardsIts.size(); i++) {
+            order.add(i);
+        }
+        final Comparator<FieldBounds> comparator = reverse ?
+            Comparator.comparingDouble((FieldBounds bounds) -> bounds.getMax()).reversed() :
+            Comparator.comparingDouble(FieldBounds::getMin);
+        // the sort is stable so shards with equal bounds keep their order
+        order.sort(Comparator.comparing((Integer i) -> sortFieldBounds[i], Comparator.nullsLast(comparator)));
+        final List<SearchShardIterator> sorted = new ArrayList<>(shardsIts.size());
+        for (int i : order) {
+            sorted.add(shardsIts.get(i));
+        }
+        return GroupShardsIterator.ofOrdered(sorted);
     }
 
     private static final class BitSetSearchPhaseResults extends InitialSearchPhase.
         SearchPhaseResults<SearchService.CanMatchResponse> {
 
         private final FixedBitSet possibleMatches;
+        private final FieldBounds[] sortFieldBounds;
         private int numPossibleMatches;
 
         BitSetSearchPhaseResults(int size) {
             super(size);
             possibleMatches = new FixedBitSet(size);
+            sortFieldBounds = new FieldBounds[size];
         }
 
         @Override
         void consumeResult(SearchService.CanMatchResponse result) {
             if (result.canMatch()) {
                 consumeShardFailure(result.getShardIndex());
+                synchronized (this) {
+                    sortFieldBounds[result.getShardIndex()] = result.sortFieldBounds();
+                }
             }
         }
 
@@ -136,6 +189,10 @@ final class CanMatchPreFilterSearchPhase extends AbstractSearchAsyncAction<Searc
             return possibleMatches;
         }
 
+        synchronized FieldBounds[] getSortFieldBounds() {
+            return sortFieldBounds;
+        }
+
         @Override
         Stream<SearchService.CanMatchResponse> getSuccessfulResults() {
             return Stream.empty();
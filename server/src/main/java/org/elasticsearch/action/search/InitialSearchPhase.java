@@ -72,8 +72,9 @@ abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends
                 iterators.add(iterator);
             }
         }
-        this.toSkipShardsIts = new GroupShardsIterator<>(toSkipIterators);
-        this.shardsIts = new GroupShardsIterator<>(iterators);
+        // keep the order of the given shards, the can_match phase orders them by their primary sort values
+        this.toSkipShardsIts = GroupShardsIterator.ofOrdered(toSkipIterators);
+        this.shardsIts = GroupShardsIterator.ofOrdered(iterators);
         this.logger = logger;
         // we need to add 1 for non active partition, since we count it in the total. This means for each shard in the iterator we sum up
         // it's number of active shards but use 1 as the default if no replica of a shard is active at this point.
@@ -296,7 +297,7 @@ abstract class InitialSearchPhase<FirstResult extends SearchPhaseResult> extends
         }
     }
 
-    private void onShardResult(FirstResult result, SearchShardIterator shardIt) {
+    void onShardResult(FirstResult result, SearchShardIterator shardIt) {
         assert result.getShardIndex() != -1 : "shard index is not set";
         assert result.getSearchShardTarget() != null : "search shard target must not be null";
         onShardSuccess(result);
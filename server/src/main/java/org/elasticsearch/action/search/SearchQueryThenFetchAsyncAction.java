@@ -23,8 +23,10 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.cluster.routing.GroupShardsIterator;
 import org.elasticsearch.cluster.routing.ShardRouting;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.internal.AliasFilter;
+import org.elasticsearch.search.internal.ShardSearchTransportRequest;
 import org.elasticsearch.transport.Transport;
 
 import java.util.Map;
@@ -35,6 +37,8 @@ import java.util.function.BiFunction;
 final class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<SearchPhaseResult> {
 
     private final SearchPhaseController searchPhaseController;
+    @Nullable
+    private final BottomSortValueTracker bottomSortValueTracker;
 
     SearchQueryThenFetchAsyncAction(final Logger logger, final SearchTransportService searchTransportService,
             final BiFunction<String, String, Transport.Connection> nodeIdToConnection, final Map<String, AliasFilter> aliasFilter,
@@ -47,12 +51,26 @@ final class SearchQueryThenFetchAsyncAction extends AbstractSearchAsyncAction<Se
                 executor, request, listener, shardsIts, timeProvider, clusterStateVersion, task,
                 searchPhaseController.newSearchPhaseResults(request, shardsIts.size()), request.getMaxConcurrentShardRequests(), clusters);
         this.searchPhaseController = searchPhaseController;
+        this.bottomSortValueTracker = BottomSortValueTracker.create(request, shardsIts.size());
     }
 
     protected void executePhaseOnShard(final SearchShardIterator shardIt, final ShardRouting shard,
                                        final SearchActionListener<SearchPhaseResult> listener) {
+        final ShardSearchTransportRequest request = buildShardSearchRequest(shardIt);
+        if (bottomSortValueTracker != null) {
+            request.bottomSortValue(bottomSortValueTracker.bottomSortValue());
+        }
         getSearchTransport().sendExecuteQuery(getConnection(shardIt.getClusterAlias(), shard.currentNodeId()),
-            buildShardSearchRequest(shardIt), getTask(), listener);
+            request, getTask(), listener);
+    }
+
+    @Override
+    void onShardResult(SearchPhaseResult result, SearchShardIterator shardIt) {
+        // the top docs might be consumed by the results, so we need to look at them first
+        if (bottomSortValueTracker != null && result.queryResult() != null) {
+            bottomSortValueTracker.consume(result.queryResult());
+        }
+        super.onShardResult(result, shardIt);
     }
 
     @Override
@@ -0,0 +1,177 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.FieldBounds;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the {@link FieldBounds} reported by shards in their {@code can_match} responses on the coordinating node. Shards only
+ * report bounds while their index is blocked for writes, so bounds stay valid until the metadata of the index changes. Cached
+ * bounds allow the coordinating node to skip shards that cannot match the range queries of a search request without sending a
+ * {@code can_match} request, and even when the request does not go through the pre-filter phase at all.
+ */
+public final class ShardFieldBoundsCache implements ClusterStateListener {
+
+    public static final Setting<Integer> CACHE_SIZE_SETTING =
+        Setting.intSetting("search.shard_field_bounds_cache.size", 10_000, 0, Property.NodeScope);
+
+    private final Cache<ShardId, Entry> cache;
+
+    public ShardFieldBoundsCache(Settings settings) {
+        this.cache = CacheBuilder.<ShardId, Entry>builder().setMaximumWeight(CACHE_SIZE_SETTING.get(settings)).build();
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (event.metaDataChanged() == false || cache.count() == 0) {
+            return;
+        }
+        final MetaData metaData = event.state().metaData();
+        for (IndexMetaData previous : event.previousState().metaData()) {
+            final IndexMetaData current = metaData.index(previous.getIndex());
+            if (current == null || current.getVersion() != previous.getVersion()) {
+                for (int shard = 0; shard < previous.getNumberOfShards(); shard++) {
+                    cache.invalidate(new ShardId(previous.getIndex(), shard));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of shards that have cached bounds.
+     */
+    public int count() {
+        return cache.count();
+    }
+
+    /**
+     * Returns a lookup for the given search request against the given cluster state, or {@code null} if the request cannot
+     * make use of cached bounds.
+     */
+    @Nullable
+    public Lookup lookup(ClusterState clusterState, SearchRequest request, LongSupplier nowInMillis) {
+        final SearchSourceBuilder source = request.source();
+        if (request.searchType() != SearchType.QUERY_THEN_FETCH || SearchService.canRewriteToMatchNone(source) == false) {
+            return null;
+        }
+        final List<RangeQueryBuilder> ranges = FieldBounds.requiredRanges(source.query());
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        return new Lookup(clusterState.metaData(), ranges, nowInMillis);
+    }
+
+    private static boolean isWriteBlocked(IndexMetaData indexMetaData) {
+        final Settings settings = indexMetaData.getSettings();
+        return IndexMetaData.INDEX_BLOCKS_WRITE_SETTING.get(settings)
+            || IndexMetaData.INDEX_READ_ONLY_SETTING.get(settings)
+            || IndexMetaData.INDEX_BLOCKS_READ_ONLY_ALLOW_DELETE_SETTING.get(settings);
+    }
+
+    /**
+     * Looks up and records bounds for the range queries of a single search request. The index metadata versions are taken
+     * from the cluster state that the request was routed with.
+     */
+    public final class Lookup {
+
+        private final MetaData metaData;
+        private final List<RangeQueryBuilder> ranges;
+        private final LongSupplier nowInMillis;
+
+        private Lookup(MetaData metaData, List<RangeQueryBuilder> ranges, LongSupplier nowInMillis) {
+            this.metaData = metaData;
+            this.ranges = ranges;
+            this.nowInMillis = nowInMillis;
+        }
+
+        /**
+         * Returns {@code true} if the cached bounds of the given shard prove that the request cannot match any document on it.
+         */
+        public boolean canSkip(ShardId shardId) {
+            final IndexMetaData indexMetaData = metaData.index(shardId.getIndex());
+            if (indexMetaData == null) {
+                // a shard of a remote cluster
+                return false;
+            }
+            final Entry entry = cache.get(shardId);
+            if (entry == null || entry.indexMetaDataVersion != indexMetaData.getVersion()) {
+                return false;
+            }
+            for (RangeQueryBuilder range : ranges) {
+                final FieldBounds bounds = entry.fieldBounds.get(range.fieldName());
+                if (bounds != null && bounds.mayMatch(range, nowInMillis) == false) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records the bounds that the given shard reported in its {@code can_match} response.
+         */
+        public void onResponse(ShardId shardId, SearchService.CanMatchResponse response) {
+            final IndexMetaData indexMetaData = metaData.index(shardId.getIndex());
+            // the data node checked its own view of the index blocks, ours must agree since it determines how long we keep the bounds
+            if (response.fieldBounds().isEmpty() || indexMetaData == null || isWriteBlocked(indexMetaData) == false) {
+                return;
+            }
+            final Entry existing = cache.get(shardId);
+            final Map<String, FieldBounds> fieldBounds;
+            if (existing != null && existing.indexMetaDataVersion == indexMetaData.getVersion()) {
+                fieldBounds = new HashMap<>(existing.fieldBounds);
+                fieldBounds.putAll(response.fieldBounds());
+            } else {
+                fieldBounds = response.fieldBounds();
+            }
+            cache.put(shardId, new Entry(indexMetaData.getVersion(), Collections.unmodifiableMap(fieldBounds)));
+        }
+    }
+
+    private static final class Entry {
+        private final long indexMetaDataVersion;
+        private final Map<String, FieldBounds> fieldBounds;
+
+        Entry(long indexMetaDataVersion, Map<String, FieldBounds> fieldBounds) {
+            this.indexMetaDataVersion = indexMetaDataVersion;
+            this.fieldBounds = fieldBounds;
+        }
+    }
+}
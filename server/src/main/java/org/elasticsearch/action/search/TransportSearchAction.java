@@ -96,12 +96,13 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
     private final SearchPhaseController searchPhaseController;
     private final SearchService searchService;
     private final IndexNameExpressionResolver indexNameExpressionResolver;
+    private final ShardFieldBoundsCache fieldBoundsCache;
 
     @Inject
     public TransportSearchAction(ThreadPool threadPool, TransportService transportService, SearchService searchService,
                                  SearchTransportService searchTransportService, SearchPhaseController searchPhaseController,
                                  ClusterService clusterService, ActionFilters actionFilters,
-                                 IndexNameExpressionResolver indexNameExpressionResolver) {
+                                 IndexNameExpressionResolver indexNameExpressionResolver, ShardFieldBoundsCache fieldBoundsCache) {
         super(SearchAction.NAME, transportService, actionFilters, (Writeable.Reader<SearchRequest>) SearchRequest::new);
         this.threadPool = threadPool;
         this.searchPhaseController = searchPhaseController;
@@ -111,6 +112,7 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         this.clusterService = clusterService;
         this.searchService = searchService;
         this.indexNameExpressionResolver = indexNameExpressionResolver;
+        this.fieldBoundsCache = fieldBoundsCache;
     }
 
     private Map<String, AliasFilter> buildPerIndexAliasFilter(SearchRequest request, ClusterState clusterState,
@@ -510,8 +512,35 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
         BiFunction<String, String, Transport.Connection> connectionLookup = buildConnectionLookup(searchRequest.getLocalClusterAlias(),
             nodes::get, remoteConnections, searchTransportService::getConnection);
         boolean preFilterSearchShards = shouldPreFilterSearchShards(searchRequest, shardIterators);
+        ShardFieldBoundsCache.Lookup fieldBoundsLookup = fieldBoundsCache.lookup(clusterState, searchRequest,
+            timeProvider::getAbsoluteStartMillis);
+        if (preFilterSearchShards == false && fieldBoundsLookup != null) {
+            skipShardsWithDisjointBounds(shardIterators, fieldBoundsLookup);
+        }
         searchAsyncAction(task, searchRequest, shardIterators, timeProvider, connectionLookup, clusterState.version(),
-            Collections.unmodifiableMap(aliasFilter), concreteIndexBoosts, routingMap, listener, preFilterSearchShards, clusters).start();
+            Collections.unmodifiableMap(aliasFilter), concreteIndexBoosts, routingMap, listener, preFilterSearchShards, clusters,
+            fieldBoundsLookup).start();
+    }
+
+    /**
+     * Marks the shards whose cached field bounds are disjoint from the range queries of the request as skipped. This gives
+     * requests that are not pre-filtered with a {@code can_match} phase the same benefit. At least one shard is always searched
+     * in order to produce a valid search response with all the aggregations etc.
+     */
+    static void skipShardsWithDisjointBounds(GroupShardsIterator<SearchShardIterator> shardIterators,
+                                             ShardFieldBoundsCache.Lookup fieldBoundsLookup) {
+        final List<SearchShardIterator> disjoint = new ArrayList<>();
+        for (SearchShardIterator shardIterator : shardIterators) {
+            if (fieldBoundsLookup.canSkip(shardIterator.shardId())) {
+                disjoint.add(shardIterator);
+            }
+        }
+        if (disjoint.isEmpty() == false && disjoint.size() == shardIterators.size()) {
+            disjoint.remove(0);
+        }
+        for (SearchShardIterator shardIterator : disjoint) {
+            shardIterator.resetAndSkip();
+        }
     }
 
     static BiFunction<String, String, Transport.Connection> buildConnectionLookup(String requestClusterAlias,
@@ -565,21 +594,22 @@ public class TransportSearchAction extends HandledTransportAction<SearchRequest,
                                                         Map<String, Set<String>> indexRoutings,
                                                         ActionListener<SearchResponse> listener,
                                                         boolean preFilter,
-                                                        SearchResponse.Clusters clusters) {
+                                                        SearchResponse.Clusters clusters,
+                                                        @Nullable ShardFieldBoundsCache.Lookup fieldBoundsLookup) {
         Executor executor = threadPool.executor(ThreadPool.Names.SEARCH);
         if (preFilter) {
             return new CanMatchPreFilterSearchPhase(logger, searchTransportService, connectionLookup,
                 aliasFilter, concreteIndexBoosts, indexRoutings, executor, searchRequest, listener, shardIterators,
                 timeProvider, clusterStateVersion, task, (iter) -> {
                 AbstractSearchAsyncAction action = searchAsyncAction(task, searchRequest, iter, timeProvider, connectionLookup,
-                    clusterStateVersion, aliasFilter, concreteIndexBoosts, indexRoutings, listener, false, clusters);
+                    clusterStateVersion, aliasFilter, concreteIndexBoosts, indexRoutings, listener, false, clusters, null);
                 return new SearchPhase(action.getName()) {
                     @Override
                     public void run() {
                         action.start();
                     }
                 };
-            }, clusters);
+            }, clusters, fieldBoundsLookup);
         } else {
             AbstractSearchAsyncAction<? extends SearchPhaseResult> searchAsyncAction;
             switch (searchRequest.searchType()) {
@@ -38,10 +38,23 @@ public final class GroupShardsIterator<ShardIt extends ShardIterator> implements
      * Constructs a enw GroupShardsIterator from the given list.
      */
     public GroupShardsIterator(List<ShardIt> iterators) {
-        CollectionUtil.timSort(iterators);
+        this(iterators, true);
+    }
+
+    private GroupShardsIterator(List<ShardIt> iterators, boolean sort) {
+        if (sort) {
+            CollectionUtil.timSort(iterators);
+        }
         this.iterators = iterators;
     }
 
+    /**
+     * Constructs a new GroupShardsIterator from the given list, keeping the order of the list.
+     */
+    public static <ShardIt extends ShardIterator> GroupShardsIterator<ShardIt> ofOrdered(List<ShardIt> iterators) {
+        return new GroupShardsIterator<>(iterators, false);
+    }
+
     /**
      * Returns the total number of shards within all groups
      * @return total number of shards
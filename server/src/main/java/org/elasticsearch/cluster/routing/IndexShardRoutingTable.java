@@ -316,7 +316,8 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
      *
      * This adjustment takes the "winning" node's statistics and adds the average of those statistics with each non-winning node. Let's say
      * the winning node had a queue size of 10 and a non-winning node had a queue of 18. The average queue size is (10 + 18) / 2 = 14 so the
-     * non-winning node will have statistics added for a queue size of 14. This is repeated for the response time and service times as well.
+     * non-winning node will have statistics added for a queue size of 14. This is repeated for the response time and service times as well,
+     * and for the load signals reported by the nodes so that a node recovering from e.g. a GC storm is eventually tried again.
      */
     private static void adjustStats(final ResponseCollectorService collector,
                                     final Map<String, Optional<ResponseCollectorService.ComputedNodeStats>> nodeStats,
@@ -332,11 +333,25 @@ public class IndexShardRoutingTable implements Iterable<ShardRouting> {
                     final long updatedResponse = (long) (minStats.responseTime + stats.responseTime) / 2;
                     final long updatedService = (long) (minStats.serviceTime + stats.serviceTime) / 2;
                     collector.addNodeStatistics(nodeId, updatedQueue, updatedResponse, updatedService);
+                    collector.addNodeLoadStatistics(nodeId,
+                        averageLoad(minStats.searchRejectionRate, stats.searchRejectionRate),
+                        averageLoad(minStats.gcOverhead, stats.gcOverhead),
+                        averageLoad(minStats.ioUtilization, stats.ioUtilization));
                 }
             }
         }
     }
 
+    /**
+     * Averages a load signal of the winning node with the one of another node, the signals are negative if unknown.
+     */
+    private static double averageLoad(double minLoad, double load) {
+        if (minLoad < 0 || load < 0) {
+            return -1;
+        }
+        return (minLoad + load) / 2;
+    }
+
     private static List<ShardRouting> rankShardsAndUpdateStats(List<ShardRouting> shards, final ResponseCollectorService collector,
                                                                final Map<String, Long> nodeSearchCounts) {
         if (collector == null || nodeSearchCounts == null || shards.size() <= 1) {
@@ -28,6 +28,17 @@ public abstract class LeafScoreFunction {
 
     public abstract double score(int docId, float subQueryScore) throws IOException;
 
+    /**
+     * Scores the first {@code count} documents of {@code docIds}, which are in increasing order, and writes their scores into
+     * {@code scores}. The default implementation scores documents one by one, functions that can score many documents at once
+     * should override it.
+     */
+    public void score(int[] docIds, float[] subQueryScores, int count, double[] scores) throws IOException {
+        for (int i = 0; i < count; i++) {
+            scores[i] = score(docIds[i], subQueryScores[i]);
+        }
+    }
+
     public abstract Explanation explainScore(int docId, Explanation subQueryScore) throws IOException;
 
 }
@@ -69,12 +69,18 @@ public class ScriptScoreFunction extends ScoreFunction {
                 scorer.docid = docId;
                 scorer.score = subQueryScore;
                 double result = leafScript.execute();
-                if (result < 0f) {
-                    throw new IllegalArgumentException("script score function must not produce negative scores, but got: [" + result + "]");
-                }
+                checkScore(result);
                 return result;
             }
 
+            @Override
+            public void score(int[] docIds, float[] subQueryScores, int count, double[] scores) {
+                leafScript.executeBlock(docIds, subQueryScores, count, scores);
+                for (int i = 0; i < count; i++) {
+                    checkScore(scores[i]);
+                }
+            }
+
             @Override
             public Explanation explainScore(int docId, Explanation subQueryScore) throws IOException {
                 Explanation exp;
@@ -99,6 +105,12 @@ public class ScriptScoreFunction extends ScoreFunction {
         };
     }
 
+    private static void checkScore(double result) {
+        if (result < 0f) {
+            throw new IllegalArgumentException("script score function must not produce negative scores, but got: [" + result + "]");
+        }
+    }
+
     @Override
     public boolean needsScores() {
         return script.needs_score();
@@ -22,13 +22,16 @@ package org.elasticsearch.common.lucene.search.function;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BulkScorer;
 import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.Explanation;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Weight;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.ScoreMode;
 import org.apache.lucene.search.Scorer;
+import org.apache.lucene.util.Bits;
 import org.elasticsearch.ElasticsearchException;
 
 
@@ -87,10 +90,7 @@ public class ScriptScoreQuery extends Query {
                         int docId = docID();
                         float subQueryScore = subQueryScoreMode == ScoreMode.COMPLETE ? subQueryScorer.score() : 0f;
                         float score = (float) leafFunction.score(docId, subQueryScore);
-                        if (score == Float.NEGATIVE_INFINITY || Float.isNaN(score)) {
-                            throw new ElasticsearchException(
-                                "script score query returned an invalid score: " + score + " for doc: " + docId);
-                        }
+                        checkScore(score, docId);
                         return score;
                     }
                     @Override
@@ -115,6 +115,16 @@ public class ScriptScoreQuery extends Query {
                 return scriptScorer;
             }
 
+            @Override
+            public BulkScorer bulkScorer(LeafReaderContext context) throws IOException {
+                Scorer subQueryScorer = subQueryWeight.scorer(context);
+                if (subQueryScorer == null) {
+                    return null;
+                }
+                return new BlockScoringBulkScorer(subQueryScorer, subQueryScoreMode == ScoreMode.COMPLETE,
+                    function.getLeafScoreFunction(context), minScore);
+            }
+
             @Override
             public Explanation explain(LeafReaderContext context, int doc) throws IOException {
                 Explanation queryExplanation = subQueryWeight.explain(context, doc);
@@ -138,6 +148,77 @@ public class ScriptScoreQuery extends Query {
     }
 
 
+    private static void checkScore(float score, int docId) {
+        if (score == Float.NEGATIVE_INFINITY || Float.isNaN(score)) {
+            throw new ElasticsearchException(
+                "script score query returned an invalid score: " + score + " for doc: " + docId);
+        }
+    }
+
+    /**
+     * Scores the matches of the sub query in blocks of {@link #BLOCK_SIZE} documents rather than one by one, so that the script is
+     * handed whole blocks of documents through {@link LeafScoreFunction#score(int[], float[], int, double[])}. This is only used when
+     * the query drives the collection of a segment, ie. when it is not nested in another query that would skip over documents.
+     */
+    static final class BlockScoringBulkScorer extends BulkScorer {
+
+        static final int BLOCK_SIZE = 128;
+
+        private final Scorer subQueryScorer;
+        private final boolean needsSubQueryScores;
+        private final LeafScoreFunction leafFunction;
+        private final Float minScore;
+        private final ScriptScoreFunction.CannedScorer scorer = new ScriptScoreFunction.CannedScorer();
+        private final int[] docIds = new int[BLOCK_SIZE];
+        private final float[] subQueryScores = new float[BLOCK_SIZE];
+        private final double[] scores = new double[BLOCK_SIZE];
+
+        BlockScoringBulkScorer(Scorer subQueryScorer, boolean needsSubQueryScores, LeafScoreFunction leafFunction, Float minScore) {
+            this.subQueryScorer = subQueryScorer;
+            this.needsSubQueryScores = needsSubQueryScores;
+            this.leafFunction = leafFunction;
+            this.minScore = minScore;
+        }
+
+        @Override
+        public int score(LeafCollector collector, Bits acceptDocs, int min, int max) throws IOException {
+            collector.setScorer(scorer);
+            DocIdSetIterator iterator = subQueryScorer.iterator();
+            int doc = iterator.docID();
+            if (doc < min) {
+                doc = iterator.advance(min);
+            }
+            while (doc < max) {
+                int count = 0;
+                while (doc < max && count < BLOCK_SIZE) {
+                    if (acceptDocs == null || acceptDocs.get(doc)) {
+                        docIds[count] = doc;
+                        subQueryScores[count] = needsSubQueryScores ? subQueryScorer.score() : 0f;
+                        count++;
+                    }
+                    doc = iterator.nextDoc();
+                }
+                leafFunction.score(docIds, subQueryScores, count, scores);
+                for (int i = 0; i < count; i++) {
+                    float score = (float) scores[i];
+                    checkScore(score, docIds[i]);
+                    if (minScore != null && score < minScore) {
+                        continue;
+                    }
+                    scorer.docid = docIds[i];
+                    scorer.score = score;
+                    collector.collect(docIds[i]);
+                }
+            }
+            return doc;
+        }
+
+        @Override
+        public long cost() {
+            return subQueryScorer.iterator().cost();
+        }
+    }
+
     @Override
     public String toString(String field) {
         StringBuilder sb = new StringBuilder();
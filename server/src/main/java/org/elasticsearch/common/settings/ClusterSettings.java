@@ -21,6 +21,7 @@ package org.elasticsearch.common.settings;
 import org.apache.logging.log4j.LogManager;
 import org.elasticsearch.action.admin.cluster.configuration.TransportAddVotingConfigExclusionsAction;
 import org.elasticsearch.action.admin.indices.close.TransportCloseIndexAction;
+import org.elasticsearch.action.search.ShardFieldBoundsCache;
 import org.elasticsearch.action.search.TransportSearchAction;
 import org.elasticsearch.action.support.AutoCreateIndex;
 import org.elasticsearch.action.support.DestructiveOperations;
@@ -87,12 +88,15 @@ import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
 import org.elasticsearch.indices.fielddata.cache.IndicesFieldDataCache;
 import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.store.IndicesStore;
+import org.elasticsearch.monitor.NodeLoadService;
 import org.elasticsearch.monitor.fs.FsService;
 import org.elasticsearch.monitor.jvm.JvmGcMonitorService;
 import org.elasticsearch.monitor.jvm.JvmService;
 import org.elasticsearch.monitor.os.OsService;
 import org.elasticsearch.monitor.process.ProcessService;
+import org.elasticsearch.node.LoadAwareReplicaRanker;
 import org.elasticsearch.node.Node;
+import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.persistent.PersistentTasksClusterService;
 import org.elasticsearch.persistent.decider.EnableAssignmentDecider;
 import org.elasticsearch.plugins.PluginsService;
@@ -270,6 +274,10 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     HttpTransportSettings.SETTING_HTTP_MAX_WARNING_HEADER_SIZE,
                     HttpTransportSettings.SETTING_HTTP_MAX_INITIAL_LINE_LENGTH,
                     HttpTransportSettings.SETTING_HTTP_READ_TIMEOUT,
+                    HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_ENABLED,
+                    HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_IN_FLIGHT_REQUESTS_RATIO,
+                    HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_QUEUE_RATIO,
+                    HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_CHECK_INTERVAL,
                     HttpTransportSettings.SETTING_HTTP_RESET_COOKIES,
                     HttpTransportSettings.OLD_SETTING_HTTP_TCP_NO_DELAY,
                     HttpTransportSettings.SETTING_HTTP_TCP_NO_DELAY,
@@ -367,6 +375,10 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     IndexSettings.QUERY_STRING_ANALYZE_WILDCARD,
                     IndexSettings.QUERY_STRING_ALLOW_LEADING_WILDCARD,
                     ScriptService.SCRIPT_CACHE_SIZE_SETTING,
+                    ScriptService.SCRIPT_CACHE_SIZE_IN_BYTES_SETTING,
+                    ScriptService.SCRIPT_CONTEXT_CACHE_SIZE_SETTING,
+                    ScriptService.SCRIPT_CONTEXT_CACHE_SIZE_IN_BYTES_SETTING,
+                    ScriptService.SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING,
                     ScriptService.SCRIPT_CACHE_EXPIRE_SETTING,
                     ScriptService.SCRIPT_MAX_SIZE_IN_BYTES,
                     ScriptService.SCRIPT_MAX_COMPILATIONS_RATE,
@@ -417,6 +429,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     MultiBucketConsumerService.MAX_BUCKET_SETTING,
                     SearchService.LOW_LEVEL_CANCELLATION_SETTING,
                     SearchService.MAX_OPEN_SCROLL_CONTEXT,
+                    ShardFieldBoundsCache.CACHE_SIZE_SETTING,
                     Node.WRITE_PORTS_FILE_SETTING,
                     Node.NODE_NAME_SETTING,
                     Node.NODE_DATA_SETTING,
@@ -441,6 +454,7 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     FsService.REFRESH_INTERVAL_SETTING,
                     JvmGcMonitorService.ENABLED_SETTING,
                     JvmGcMonitorService.REFRESH_INTERVAL_SETTING,
+                    NodeLoadService.REFRESH_INTERVAL_SETTING,
                     JvmGcMonitorService.GC_SETTING,
                     JvmGcMonitorService.GC_OVERHEAD_WARN_SETTING,
                     JvmGcMonitorService.GC_OVERHEAD_INFO_SETTING,
@@ -471,6 +485,10 @@ public final class ClusterSettings extends AbstractScopedSettings {
                     FastVectorHighlighter.SETTING_TV_HIGHLIGHT_MULTI_VALUE,
                     Node.BREAKER_TYPE_KEY,
                     OperationRouting.USE_ADAPTIVE_REPLICA_SELECTION_SETTING,
+                    ResponseCollectorService.REPLICA_RANKER_SETTING,
+                    LoadAwareReplicaRanker.REJECTION_WEIGHT_SETTING,
+                    LoadAwareReplicaRanker.GC_WEIGHT_SETTING,
+                    LoadAwareReplicaRanker.IO_WEIGHT_SETTING,
                     IndexGraveyard.SETTING_MAX_TOMBSTONES,
                     PersistentTasksClusterService.CLUSTER_TASKS_ALLOCATION_RECHECK_INTERVAL_SETTING,
                     EnableAssignmentDecider.CLUSTER_TASKS_ALLOCATION_ENABLE_SETTING,
@@ -40,6 +40,8 @@ import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.rest.RestChannel;
 import org.elasticsearch.rest.RestRequest;
 import org.elasticsearch.threadpool.ThreadPool;
@@ -74,6 +76,7 @@ public abstract class AbstractHttpServerTransport extends AbstractLifecycleCompo
     protected final ThreadPool threadPool;
     protected final Dispatcher dispatcher;
     private final NamedXContentRegistry xContentRegistry;
+    private final HttpReadBackpressure readBackpressure;
 
     protected final PortsRange port;
     protected final ByteSizeValue maxContentLength;
@@ -87,6 +90,12 @@ public abstract class AbstractHttpServerTransport extends AbstractLifecycleCompo
 
     protected AbstractHttpServerTransport(Settings settings, NetworkService networkService, BigArrays bigArrays, ThreadPool threadPool,
                                           NamedXContentRegistry xContentRegistry, Dispatcher dispatcher) {
+        this(settings, networkService, bigArrays, threadPool, xContentRegistry, dispatcher, new NoneCircuitBreakerService());
+    }
+
+    protected AbstractHttpServerTransport(Settings settings, NetworkService networkService, BigArrays bigArrays, ThreadPool threadPool,
+                                          NamedXContentRegistry xContentRegistry, Dispatcher dispatcher,
+                                          CircuitBreakerService circuitBreakerService) {
         this.settings = settings;
         this.networkService = networkService;
         this.bigArrays = bigArrays;
@@ -107,6 +116,7 @@ public abstract class AbstractHttpServerTransport extends AbstractLifecycleCompo
         this.port = SETTING_HTTP_PORT.get(settings);
 
         this.maxContentLength = SETTING_HTTP_MAX_CONTENT_LENGTH.get(settings);
+        this.readBackpressure = new HttpReadBackpressure(settings, threadPool, circuitBreakerService);
     }
 
     @Override
@@ -125,7 +135,8 @@ public abstract class AbstractHttpServerTransport extends AbstractLifecycleCompo
 
     @Override
     public HttpStats stats() {
-        return new HttpStats(httpChannels.size(), totalChannelsAccepted.get());
+        return new HttpStats(httpChannels.size(), totalChannelsAccepted.get(), readBackpressure.currentPaused(),
+            readBackpressure.totalPaused(), readBackpressure.pausedTimeInMillis());
     }
 
     protected void bindServer() {
@@ -203,6 +214,7 @@ public abstract class AbstractHttpServerTransport extends AbstractLifecycleCompo
             logger.warn("unexpected exception while closing http channels", e);
         }
         httpChannels.clear();
+        readBackpressure.resumeAll();
 
         stopInternal();
     }
@@ -294,6 +306,7 @@ public abstract class AbstractHttpServerTransport extends AbstractLifecycleCompo
      */
     public void incomingRequest(final HttpRequest httpRequest, final HttpChannel httpChannel) {
         handleIncomingRequest(httpRequest, httpChannel, null);
+        readBackpressure.onRequest(httpChannel);
     }
 
     /**
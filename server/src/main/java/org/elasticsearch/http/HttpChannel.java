@@ -49,4 +49,20 @@ public interface HttpChannel extends CloseableChannel {
      */
     InetSocketAddress getRemoteAddress();
 
+    /**
+     * Stops reading from this channel until {@link #resumeReads()} is called, so that a client sending requests faster than the node
+     * can handle them is pushed back through TCP flow control.
+     *
+     * @return whether reads were paused. Implementations that cannot pause reads return {@code false}.
+     */
+    default boolean pauseReads() {
+        return false;
+    }
+
+    /**
+     * Resumes reading from this channel after reads were paused with {@link #pauseReads()}.
+     */
+    default void resumeReads() {
+    }
+
 }
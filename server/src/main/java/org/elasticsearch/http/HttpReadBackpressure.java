@@ -0,0 +1,197 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.http;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
+import org.elasticsearch.common.util.concurrent.SizeBlockingQueue;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_CHECK_INTERVAL;
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_ENABLED;
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_IN_FLIGHT_REQUESTS_RATIO;
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_QUEUE_RATIO;
+
+/**
+ * Pushes back on http clients while the node is under pressure by pausing reads from their channels. The node is considered to be
+ * under pressure when the bytes tracked by the {@code in_flight_requests} circuit breaker, or the queue of the write or search thread
+ * pool, exceed a configurable fraction of their limit. A channel is paused right after it delivered a request, so that the client
+ * cannot push more request bodies onto the heap, and all paused channels are resumed once the pressure is gone again. The pressure is
+ * re-checked periodically for as long as channels are paused, as it is relieved by work that completes on other threads rather than
+ * by anything that happens on the paused channels.
+ */
+final class HttpReadBackpressure {
+
+    private static final Logger logger = LogManager.getLogger(HttpReadBackpressure.class);
+
+    private static final String[] QUEUES = new String[] { ThreadPool.Names.WRITE, ThreadPool.Names.SEARCH };
+
+    private final ThreadPool threadPool;
+    private final CircuitBreakerService circuitBreakerService;
+    private final boolean enabled;
+    private final double inFlightRequestsRatio;
+    private final double queueRatio;
+    private final TimeValue checkInterval;
+
+    // paused channels and the relative time in nanos at which they got paused
+    private final Map<HttpChannel, Long> pausedChannels = new ConcurrentHashMap<>();
+    private final AtomicBoolean checkScheduled = new AtomicBoolean();
+    private final AtomicLong totalPaused = new AtomicLong();
+    private final AtomicLong pausedTimeInNanos = new AtomicLong();
+
+    HttpReadBackpressure(Settings settings, ThreadPool threadPool, CircuitBreakerService circuitBreakerService) {
+        this.threadPool = threadPool;
+        this.circuitBreakerService = circuitBreakerService;
+        this.enabled = SETTING_HTTP_BACKPRESSURE_ENABLED.get(settings);
+        this.inFlightRequestsRatio = SETTING_HTTP_BACKPRESSURE_IN_FLIGHT_REQUESTS_RATIO.get(settings);
+        this.queueRatio = SETTING_HTTP_BACKPRESSURE_QUEUE_RATIO.get(settings);
+        this.checkInterval = SETTING_HTTP_BACKPRESSURE_CHECK_INTERVAL.get(settings);
+    }
+
+    /**
+     * Called once a request was received on the given channel, pauses reads from the channel if the node is under pressure.
+     */
+    void onRequest(HttpChannel channel) {
+        if (enabled == false || pausedChannels.containsKey(channel) || isUnderPressure() == false) {
+            return;
+        }
+        if (channel.pauseReads()) {
+            if (pausedChannels.putIfAbsent(channel, System.nanoTime()) == null) {
+                totalPaused.incrementAndGet();
+                logger.trace("paused reads on http channel {}", channel);
+                channel.addCloseListener(ActionListener.wrap(() -> onResumed(channel)));
+                scheduleCheck();
+            }
+        }
+    }
+
+    /**
+     * Resumes all paused channels unless the node is still under pressure.
+     */
+    void maybeResume() {
+        if (pausedChannels.isEmpty() || isUnderPressure()) {
+            return;
+        }
+        for (HttpChannel channel : pausedChannels.keySet()) {
+            if (onResumed(channel)) {
+                logger.trace("resuming reads on http channel {}", channel);
+                channel.resumeReads();
+            }
+        }
+    }
+
+    /**
+     * Resumes all paused channels regardless of the current pressure, used when the transport stops.
+     */
+    void resumeAll() {
+        for (HttpChannel channel : pausedChannels.keySet()) {
+            if (onResumed(channel)) {
+                channel.resumeReads();
+            }
+        }
+    }
+
+    private boolean onResumed(HttpChannel channel) {
+        final Long pausedAt = pausedChannels.remove(channel);
+        if (pausedAt == null) {
+            return false;
+        }
+        pausedTimeInNanos.addAndGet(Math.max(0L, System.nanoTime() - pausedAt));
+        return true;
+    }
+
+    private void scheduleCheck() {
+        if (checkScheduled.compareAndSet(false, true)) {
+            try {
+                threadPool.schedule(this::check, checkInterval, ThreadPool.Names.SAME);
+            } catch (EsRejectedExecutionException e) {
+                // the node is shutting down and channels are about to be closed
+                checkScheduled.set(false);
+                logger.debug("failed to schedule http backpressure check", e);
+            }
+        }
+    }
+
+    private void check() {
+        checkScheduled.set(false);
+        try {
+            maybeResume();
+        } finally {
+            if (pausedChannels.isEmpty() == false) {
+                scheduleCheck();
+            }
+        }
+    }
+
+    boolean isUnderPressure() {
+        final CircuitBreaker breaker = circuitBreakerService.getBreaker(CircuitBreaker.IN_FLIGHT_REQUESTS);
+        if (breaker != null && breaker.getLimit() > 0 && breaker.getUsed() >= breaker.getLimit() * inFlightRequestsRatio) {
+            return true;
+        }
+        for (String name : QUEUES) {
+            final ExecutorService executor = threadPool.executor(name);
+            if (executor instanceof EsThreadPoolExecutor) {
+                final BlockingQueue<Runnable> queue = ((EsThreadPoolExecutor) executor).getQueue();
+                if (queue instanceof SizeBlockingQueue) {
+                    final int capacity = ((SizeBlockingQueue<Runnable>) queue).capacity();
+                    if (capacity > 0 && queue.size() >= capacity * queueRatio) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    long currentPaused() {
+        return pausedChannels.size();
+    }
+
+    long totalPaused() {
+        return totalPaused.get();
+    }
+
+    /**
+     * The time channels spent paused, including the time the currently paused channels have been paused for so far.
+     */
+    long pausedTimeInMillis() {
+        final long now = System.nanoTime();
+        long pausedTime = pausedTimeInNanos.get();
+        for (Long pausedAt : pausedChannels.values()) {
+            pausedTime += Math.max(0L, now - pausedAt);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(pausedTime);
+    }
+}
@@ -19,9 +19,11 @@
 
 package org.elasticsearch.http;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
@@ -31,21 +33,45 @@ public class HttpStats implements Writeable, ToXContentFragment {
 
     private final long serverOpen;
     private final long totalOpen;
+    private final long currentReadsPaused;
+    private final long totalReadsPaused;
+    private final long readsPausedTimeInMillis;
 
     public HttpStats(long serverOpen, long totalOpened) {
+        this(serverOpen, totalOpened, 0, 0, 0);
+    }
+
+    public HttpStats(long serverOpen, long totalOpened, long currentReadsPaused, long totalReadsPaused, long readsPausedTimeInMillis) {
         this.serverOpen = serverOpen;
         this.totalOpen = totalOpened;
+        this.currentReadsPaused = currentReadsPaused;
+        this.totalReadsPaused = totalReadsPaused;
+        this.readsPausedTimeInMillis = readsPausedTimeInMillis;
     }
 
     public HttpStats(StreamInput in) throws IOException {
         serverOpen = in.readVLong();
         totalOpen = in.readVLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            currentReadsPaused = in.readVLong();
+            totalReadsPaused = in.readVLong();
+            readsPausedTimeInMillis = in.readVLong();
+        } else {
+            currentReadsPaused = 0;
+            totalReadsPaused = 0;
+            readsPausedTimeInMillis = 0;
+        }
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeVLong(serverOpen);
         out.writeVLong(totalOpen);
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeVLong(currentReadsPaused);
+            out.writeVLong(totalReadsPaused);
+            out.writeVLong(readsPausedTimeInMillis);
+        }
     }
 
     public long getServerOpen() {
@@ -56,10 +82,36 @@ public class HttpStats implements Writeable, ToXContentFragment {
         return this.totalOpen;
     }
 
+    /**
+     * The number of http channels whose reads are currently paused because the node is under pressure.
+     */
+    public long getCurrentReadsPaused() {
+        return currentReadsPaused;
+    }
+
+    /**
+     * The total number of times reads were paused on an http channel because the node was under pressure.
+     */
+    public long getTotalReadsPaused() {
+        return totalReadsPaused;
+    }
+
+    /**
+     * The accumulated time http channels spent with their reads paused, summed across channels.
+     */
+    public TimeValue getReadsPausedTime() {
+        return new TimeValue(readsPausedTimeInMillis);
+    }
+
     static final class Fields {
         static final String HTTP = "http";
         static final String CURRENT_OPEN = "current_open";
         static final String TOTAL_OPENED = "total_opened";
+        static final String READS_PAUSED = "reads_paused";
+        static final String CURRENT = "current";
+        static final String TOTAL = "total";
+        static final String TIME = "time";
+        static final String TIME_IN_MILLIS = "time_in_millis";
     }
 
     @Override
@@ -67,6 +119,11 @@ public class HttpStats implements Writeable, ToXContentFragment {
         builder.startObject(Fields.HTTP);
         builder.field(Fields.CURRENT_OPEN, serverOpen);
         builder.field(Fields.TOTAL_OPENED, totalOpen);
+        builder.startObject(Fields.READS_PAUSED);
+        builder.field(Fields.CURRENT, currentReadsPaused);
+        builder.field(Fields.TOTAL, totalReadsPaused);
+        builder.humanReadableField(Fields.TIME_IN_MILLIS, Fields.TIME, getReadsPausedTime());
+        builder.endObject();
         builder.endObject();
         return builder;
     }
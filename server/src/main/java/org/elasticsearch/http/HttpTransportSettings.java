@@ -105,6 +105,19 @@ public final class HttpTransportSettings {
     public static final Setting<TimeValue> SETTING_HTTP_READ_TIMEOUT =
         Setting.timeSetting("http.read_timeout", new TimeValue(0), new TimeValue(0), Property.NodeScope);
 
+    // Backpressure settings: reads from http channels are paused while the node is under pressure, see HttpReadBackpressure
+    public static final Setting<Boolean> SETTING_HTTP_BACKPRESSURE_ENABLED =
+        Setting.boolSetting("http.backpressure.enabled", true, Property.NodeScope);
+    // fraction of the in_flight_requests circuit breaker limit above which reads are paused
+    public static final Setting<Double> SETTING_HTTP_BACKPRESSURE_IN_FLIGHT_REQUESTS_RATIO =
+        Setting.doubleSetting("http.backpressure.in_flight_requests_ratio", 0.9, 0.0, 1.0, Property.NodeScope);
+    // fraction of the write or search thread pool queue capacity above which reads are paused
+    public static final Setting<Double> SETTING_HTTP_BACKPRESSURE_QUEUE_RATIO =
+        Setting.doubleSetting("http.backpressure.queue_ratio", 0.9, 0.0, 1.0, Property.NodeScope);
+    public static final Setting<TimeValue> SETTING_HTTP_BACKPRESSURE_CHECK_INTERVAL =
+        Setting.timeSetting("http.backpressure.check_interval", TimeValue.timeValueMillis(100), TimeValue.timeValueMillis(1),
+            Property.NodeScope);
+
     // Tcp socket settings
 
     // TODO: Deprecate in 7.0
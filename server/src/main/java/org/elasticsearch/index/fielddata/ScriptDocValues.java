@@ -112,11 +112,18 @@ public abstract class ScriptDocValues<T> extends AbstractList<T> {
         }
 
         public long getValue() {
-            return get(0);
+            return getLong(0);
         }
 
         @Override
         public Long get(int index) {
+            return getLong(index);
+        }
+
+        /**
+         * Fetch the value at the given index as a primitive {@code long}, without boxing it.
+         */
+        public long getLong(int index) {
             if (count == 0) {
                 throw new IllegalStateException("A document doesn't have a value for a field! " +
                     "Use doc[<field>].size()==0 to check if a document is missing a field!");
@@ -135,10 +142,13 @@ public abstract class ScriptDocValues<T> extends AbstractList<T> {
         private final SortedNumericDocValues in;
         private final boolean isNanos;
 
+        private long[] values = new long[0];
         /**
-         * Values wrapped in {@link java.time.ZonedDateTime} objects.
+         * Values wrapped in {@link java.time.ZonedDateTime} objects. They are only built when a script asks for them so that
+         * scripts reading the epoch millis through {@link #getEpochMilli(int)} don't allocate anything per document.
          */
         private JodaCompatibleZonedDateTime[] dates;
+        private boolean datesLoaded;
         private int count;
 
         public Dates(SortedNumericDocValues in, boolean isNanos) {
@@ -156,6 +166,22 @@ public abstract class ScriptDocValues<T> extends AbstractList<T> {
 
         @Override
         public JodaCompatibleZonedDateTime get(int index) {
+            checkIndex(index);
+            if (datesLoaded == false) {
+                loadDates();
+            }
+            return dates[index];
+        }
+
+        /**
+         * Fetch the value at the given index as milliseconds since the epoch, without wrapping it in a date object.
+         */
+        public long getEpochMilli(int index) {
+            checkIndex(index);
+            return isNanos ? DateUtils.toMilliSeconds(values[index]) : values[index];
+        }
+
+        private void checkIndex(int index) {
             if (count == 0) {
                 throw new IllegalStateException("A document doesn't have a value for a field! " +
                     "Use doc[<field>].size()==0 to check if a document is missing a field!");
@@ -165,7 +191,6 @@ public abstract class ScriptDocValues<T> extends AbstractList<T> {
                         "attempted to fetch the [" + index + "] date when there are only ["
                                 + count + "] dates.");
             }
-            return dates[index];
         }
 
         @Override
@@ -177,30 +202,29 @@ public abstract class ScriptDocValues<T> extends AbstractList<T> {
         public void setNextDocId(int docId) throws IOException {
             if (in.advanceExact(docId)) {
                 count = in.docValueCount();
+                values = ArrayUtil.grow(values, count);
+                for (int i = 0; i < count; i++) {
+                    values[i] = in.nextValue();
+                }
             } else {
                 count = 0;
             }
-            refreshArray();
+            datesLoaded = false;
         }
 
-        /**
-         * Refresh the backing array. Package private so it can be called when {@link Longs} loads dates.
-         */
-        void refreshArray() throws IOException {
-            if (count == 0) {
-                return;
-            }
+        private void loadDates() {
             if (dates == null || count > dates.length) {
                 // Happens for the document. We delay allocating dates so we can allocate it with a reasonable size.
                 dates = new JodaCompatibleZonedDateTime[count];
             }
             for (int i = 0; i < count; ++i) {
                 if (isNanos) {
-                    dates[i] = new JodaCompatibleZonedDateTime(DateUtils.toInstant(in.nextValue()), ZoneOffset.UTC);
+                    dates[i] = new JodaCompatibleZonedDateTime(DateUtils.toInstant(values[i]), ZoneOffset.UTC);
                 } else {
-                    dates[i] = new JodaCompatibleZonedDateTime(Instant.ofEpochMilli(in.nextValue()), ZoneOffset.UTC);
+                    dates[i] = new JodaCompatibleZonedDateTime(Instant.ofEpochMilli(values[i]), ZoneOffset.UTC);
                 }
             }
+            datesLoaded = true;
         }
     }
 
@@ -240,11 +264,18 @@ public abstract class ScriptDocValues<T> extends AbstractList<T> {
         }
 
         public double getValue() {
-            return get(0);
+            return getDouble(0);
         }
 
         @Override
         public Double get(int index) {
+            return getDouble(index);
+        }
+
+        /**
+         * Fetch the value at the given index as a primitive {@code double}, without boxing it.
+         */
+        public double getDouble(int index) {
             if (count == 0) {
                 throw new IllegalStateException("A document doesn't have a value for a field! " +
                     "Use doc[<field>].size()==0 to check if a document is missing a field!");
@@ -110,6 +110,12 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
      */
     private int slices = DEFAULT_SLICES;
 
+    /**
+     * Should the next scroll batch be fetched while the current batch is being written? This overlaps the latency of the source and the
+     * destination at the cost of holding up to one more scroll batch in memory.
+     */
+    private boolean prefetch = false;
+
     /**
      * Constructor for deserialization.
      */
@@ -384,6 +390,22 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         return slices;
     }
 
+    /**
+     * Should the next scroll batch be fetched while the current batch is being written?
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Set whether the next scroll batch should be fetched while the current batch is being written. This overlaps the latency of the
+     * source and the destination at the cost of holding up to one more scroll batch in memory.
+     */
+    public Self setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        return self();
+    }
+
     /**
      * Build a new request for a slice of the parent request.
      */
@@ -404,7 +426,8 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
                 // Split requests per second between all slices
                 .setRequestsPerSecond(requestsPerSecond / totalSlices)
                 // Sub requests don't have workers
-                .setSlices(1);
+                .setSlices(1)
+                .setPrefetch(prefetch);
         if (size != -1) {
             // Size is split between workers. This means the size might round
             // down!
@@ -434,6 +457,9 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         maxRetries = in.readVInt();
         requestsPerSecond = in.readFloat();
         slices = in.readVInt();
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            prefetch = in.readBoolean();
+        }
     }
 
     @Override
@@ -454,6 +480,9 @@ public abstract class AbstractBulkByScrollRequest<Self extends AbstractBulkByScr
         } else {
             out.writeVInt(slices);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeBoolean(prefetch);
+        }
     }
 
     /**
@@ -124,6 +124,15 @@ public abstract class AbstractBulkByScrollRequestBuilder<
         return self();
     }
 
+    /**
+     * Set whether the next scroll batch should be fetched while the current batch is being written. This overlaps the latency of the
+     * source and the destination at the cost of holding up to one more scroll batch in memory.
+     */
+    public Self setPrefetch(boolean prefetch) {
+        request.setPrefetch(prefetch);
+        return self();
+    }
+
     /**
      * Set the throttle for this request in sub-requests per second. {@link Float#POSITIVE_INFINITY} means set no throttle and that is the
      * default. Throttling is done between batches, as we start the next scroll requests. That way we can increase the scroll's timeout to
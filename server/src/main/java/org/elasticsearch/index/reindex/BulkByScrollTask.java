@@ -20,6 +20,7 @@
 package org.elasticsearch.index.reindex;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.Version;
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.collect.Tuple;
@@ -217,6 +218,8 @@ public class BulkByScrollTask extends CancellableTask {
         private Long noops = null;
         private Long bulkRetries = null;
         private Long searchRetries = null;
+        private long bulkSizeDecreases = 0; // Only present if the bulk size was adapted
+        private long bulkSizeIncreases = 0; // Only present if the bulk size was adapted
         private TimeValue throttled = null;
         private Float requestsPerSecond = null;
         private String reasonCancelled = null;
@@ -270,6 +273,14 @@ public class BulkByScrollTask extends CancellableTask {
             this.searchRetries = searchRetries;
         }
 
+        public void setBulkSizeDecreases(Long bulkSizeDecreases) {
+            this.bulkSizeDecreases = bulkSizeDecreases;
+        }
+
+        public void setBulkSizeIncreases(Long bulkSizeIncreases) {
+            this.bulkSizeIncreases = bulkSizeIncreases;
+        }
+
         public void setThrottled(Long throttled) {
             if (throttled != null) {
                 this.throttled = new TimeValue(throttled, TimeUnit.MILLISECONDS);
@@ -308,7 +319,8 @@ public class BulkByScrollTask extends CancellableTask {
                 try {
                     return new Status(
                         sliceId, total, updated, created, deleted, batches, versionConflicts, noops, bulkRetries,
-                        searchRetries, throttled, requestsPerSecond, reasonCancelled, throttledUntil
+                        searchRetries, bulkSizeDecreases, bulkSizeIncreases, throttled, requestsPerSecond, reasonCancelled,
+                        throttledUntil
                     );
                 } catch (NullPointerException npe) {
                     throw new IllegalArgumentException("a required field is null when building Status");
@@ -353,6 +365,8 @@ public class BulkByScrollTask extends CancellableTask {
         public static final String RETRIES_FIELD = "retries";
         public static final String RETRIES_BULK_FIELD = "bulk";
         public static final String RETRIES_SEARCH_FIELD = "search";
+        public static final String BULK_SIZE_DECREASES_FIELD = "bulk_size_decreases";
+        public static final String BULK_SIZE_INCREASES_FIELD = "bulk_size_increases";
         public static final String THROTTLED_RAW_FIELD = "throttled_millis";
         public static final String THROTTLED_HR_FIELD = "throttled";
         public static final String REQUESTS_PER_SEC_FIELD = "requests_per_second";
@@ -373,6 +387,8 @@ public class BulkByScrollTask extends CancellableTask {
             FIELDS_SET.add(NOOPS_FIELD);
             FIELDS_SET.add(RETRIES_FIELD);
             // No need for inner level fields for retries in the set of outer level fields
+            FIELDS_SET.add(BULK_SIZE_DECREASES_FIELD);
+            FIELDS_SET.add(BULK_SIZE_INCREASES_FIELD);
             FIELDS_SET.add(THROTTLED_RAW_FIELD);
             FIELDS_SET.add(THROTTLED_HR_FIELD);
             FIELDS_SET.add(REQUESTS_PER_SEC_FIELD);
@@ -403,6 +419,8 @@ public class BulkByScrollTask extends CancellableTask {
             parser.declareLong(StatusBuilder::setVersionConflicts, new ParseField(VERSION_CONFLICTS_FIELD));
             parser.declareLong(StatusBuilder::setNoops, new ParseField(NOOPS_FIELD));
             parser.declareObject(StatusBuilder::setRetries, RETRIES_PARSER, new ParseField(RETRIES_FIELD));
+            parser.declareLong(StatusBuilder::setBulkSizeDecreases, new ParseField(BULK_SIZE_DECREASES_FIELD));
+            parser.declareLong(StatusBuilder::setBulkSizeIncreases, new ParseField(BULK_SIZE_INCREASES_FIELD));
             parser.declareLong(StatusBuilder::setThrottled, new ParseField(THROTTLED_RAW_FIELD));
             parser.declareFloat(StatusBuilder::setRequestsPerSecond, new ParseField(REQUESTS_PER_SEC_FIELD));
             parser.declareString(StatusBuilder::setReasonCancelled, new ParseField(CANCELED_FIELD));
@@ -422,6 +440,8 @@ public class BulkByScrollTask extends CancellableTask {
         private final long noops;
         private final long bulkRetries;
         private final long searchRetries;
+        private final long bulkSizeDecreases;
+        private final long bulkSizeIncreases;
         private final TimeValue throttled;
         private final float requestsPerSecond;
         private final String reasonCancelled;
@@ -431,6 +451,13 @@ public class BulkByScrollTask extends CancellableTask {
         public Status(Integer sliceId, long total, long updated, long created, long deleted, int batches, long versionConflicts, long noops,
                 long bulkRetries, long searchRetries, TimeValue throttled, float requestsPerSecond, @Nullable String reasonCancelled,
                 TimeValue throttledUntil) {
+            this(sliceId, total, updated, created, deleted, batches, versionConflicts, noops, bulkRetries, searchRetries, 0, 0, throttled,
+                requestsPerSecond, reasonCancelled, throttledUntil);
+        }
+
+        public Status(Integer sliceId, long total, long updated, long created, long deleted, int batches, long versionConflicts, long noops,
+                long bulkRetries, long searchRetries, long bulkSizeDecreases, long bulkSizeIncreases, TimeValue throttled,
+                float requestsPerSecond, @Nullable String reasonCancelled, TimeValue throttledUntil) {
             this.sliceId = sliceId == null ? null : checkPositive(sliceId, "sliceId");
             this.total = checkPositive(total, "total");
             this.updated = checkPositive(updated, "updated");
@@ -441,6 +468,8 @@ public class BulkByScrollTask extends CancellableTask {
             this.noops = checkPositive(noops, "noops");
             this.bulkRetries = checkPositive(bulkRetries, "bulkRetries");
             this.searchRetries = checkPositive(searchRetries, "searchRetries");
+            this.bulkSizeDecreases = checkPositive(bulkSizeDecreases, "bulkSizeDecreases");
+            this.bulkSizeIncreases = checkPositive(bulkSizeIncreases, "bulkSizeIncreases");
             this.throttled = throttled;
             this.requestsPerSecond = requestsPerSecond;
             this.reasonCancelled = reasonCancelled;
@@ -468,6 +497,8 @@ public class BulkByScrollTask extends CancellableTask {
             long mergedNoops = 0;
             long mergedBulkRetries = 0;
             long mergedSearchRetries = 0;
+            long mergedBulkSizeDecreases = 0;
+            long mergedBulkSizeIncreases = 0;
             long mergedThrottled = 0;
             float mergedRequestsPerSecond = 0;
             long mergedThrottledUntil = Long.MAX_VALUE;
@@ -490,6 +521,8 @@ public class BulkByScrollTask extends CancellableTask {
                 mergedNoops += slice.status.getNoops();
                 mergedBulkRetries += slice.status.getBulkRetries();
                 mergedSearchRetries += slice.status.getSearchRetries();
+                mergedBulkSizeDecreases += slice.status.getBulkSizeDecreases();
+                mergedBulkSizeIncreases += slice.status.getBulkSizeIncreases();
                 mergedThrottled += slice.status.getThrottled().nanos();
                 mergedRequestsPerSecond += slice.status.getRequestsPerSecond();
                 mergedThrottledUntil = min(mergedThrottledUntil, slice.status.getThrottledUntil().nanos());
@@ -504,6 +537,8 @@ public class BulkByScrollTask extends CancellableTask {
             noops = mergedNoops;
             bulkRetries = mergedBulkRetries;
             searchRetries = mergedSearchRetries;
+            bulkSizeDecreases = mergedBulkSizeDecreases;
+            bulkSizeIncreases = mergedBulkSizeIncreases;
             throttled = timeValueNanos(mergedThrottled);
             requestsPerSecond = mergedRequestsPerSecond;
             throttledUntil = timeValueNanos(mergedThrottledUntil == Long.MAX_VALUE ? 0 : mergedThrottledUntil);
@@ -521,6 +556,13 @@ public class BulkByScrollTask extends CancellableTask {
             noops = in.readVLong();
             bulkRetries = in.readVLong();
             searchRetries = in.readVLong();
+            if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+                bulkSizeDecreases = in.readVLong();
+                bulkSizeIncreases = in.readVLong();
+            } else {
+                bulkSizeDecreases = 0;
+                bulkSizeIncreases = 0;
+            }
             throttled = in.readTimeValue();
             requestsPerSecond = in.readFloat();
             reasonCancelled = in.readOptionalString();
@@ -540,6 +582,10 @@ public class BulkByScrollTask extends CancellableTask {
             out.writeVLong(noops);
             out.writeVLong(bulkRetries);
             out.writeVLong(searchRetries);
+            if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+                out.writeVLong(bulkSizeDecreases);
+                out.writeVLong(bulkSizeIncreases);
+            }
             out.writeTimeValue(throttled);
             out.writeFloat(requestsPerSecond);
             out.writeOptionalString(reasonCancelled);
@@ -588,6 +634,10 @@ public class BulkByScrollTask extends CancellableTask {
                 builder.field(RETRIES_SEARCH_FIELD, searchRetries);
             }
             builder.endObject();
+            if (bulkSizeDecreases > 0 || bulkSizeIncreases > 0) {
+                builder.field(BULK_SIZE_DECREASES_FIELD, bulkSizeDecreases);
+                builder.field(BULK_SIZE_INCREASES_FIELD, bulkSizeIncreases);
+            }
             builder.humanReadableField(THROTTLED_RAW_FIELD, THROTTLED_HR_FIELD, throttled);
             builder.field(REQUESTS_PER_SEC_FIELD, requestsPerSecond == Float.POSITIVE_INFINITY ? -1 : requestsPerSecond);
             if (reasonCancelled != null) {
@@ -669,6 +719,12 @@ public class BulkByScrollTask extends CancellableTask {
                         case Status.NOOPS_FIELD:
                             builder.setNoops(parser.longValue());
                             break;
+                        case Status.BULK_SIZE_DECREASES_FIELD:
+                            builder.setBulkSizeDecreases(parser.longValue());
+                            break;
+                        case Status.BULK_SIZE_INCREASES_FIELD:
+                            builder.setBulkSizeIncreases(parser.longValue());
+                            break;
                         case Status.THROTTLED_RAW_FIELD:
                             builder.setThrottled(parser.longValue());
                             break;
@@ -706,6 +762,10 @@ public class BulkByScrollTask extends CancellableTask {
             builder.append(",versionConflicts=").append(versionConflicts);
             builder.append(",noops=").append(noops);
             builder.append(",retries=").append(bulkRetries);
+            if (bulkSizeDecreases > 0 || bulkSizeIncreases > 0) {
+                builder.append(",bulkSizeDecreases=").append(bulkSizeDecreases);
+                builder.append(",bulkSizeIncreases=").append(bulkSizeIncreases);
+            }
             if (reasonCancelled != null) {
                 builder.append(",canceled=").append(reasonCancelled);
             }
@@ -780,6 +840,20 @@ public class BulkByScrollTask extends CancellableTask {
             return searchRetries;
         }
 
+        /**
+         * Number of times the bulk size was halved because bulk requests were rejected or slow.
+         */
+        public long getBulkSizeDecreases() {
+            return bulkSizeDecreases;
+        }
+
+        /**
+         * Number of times the bulk size was doubled again after bulk requests were neither rejected nor slow.
+         */
+        public long getBulkSizeIncreases() {
+            return bulkSizeIncreases;
+        }
+
         /**
          * The total time this request has throttled itself not including the current throttle time if it is currently sleeping.
          */
@@ -819,7 +893,8 @@ public class BulkByScrollTask extends CancellableTask {
         public int hashCode() {
             return Objects.hash(
                 sliceId, total, updated, created, deleted, batches, versionConflicts, noops, searchRetries,
-                bulkRetries, throttled, requestsPerSecond, reasonCancelled, throttledUntil, sliceStatuses
+                bulkRetries, bulkSizeDecreases, bulkSizeIncreases, throttled, requestsPerSecond, reasonCancelled, throttledUntil,
+                sliceStatuses
             );
         }
 
@@ -838,6 +913,8 @@ public class BulkByScrollTask extends CancellableTask {
                     noops == other.noops &&
                     searchRetries == other.searchRetries &&
                     bulkRetries == other.bulkRetries &&
+                    bulkSizeDecreases == other.bulkSizeDecreases &&
+                    bulkSizeIncreases == other.bulkSizeIncreases &&
                     Objects.equals(throttled, other.throttled) &&
                     requestsPerSecond == other.requestsPerSecond &&
                     Objects.equals(reasonCancelled, other.reasonCancelled) &&
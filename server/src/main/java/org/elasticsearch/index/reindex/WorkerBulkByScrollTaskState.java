@@ -50,6 +50,19 @@ public class WorkerBulkByScrollTaskState implements SuccessfullyProcessed {
      */
     private static final TimeValue MAX_THROTTLE_WAIT_TIME =  TimeValue.timeValueHours(1);
 
+    /**
+     * Bulk requests taking longer than this are taken as a sign that the destination can't keep up, for example because indexing is
+     * throttled while merges catch up, and make the next bulk requests smaller. This is fixed rather than a request parameter: the
+     * adaptive size only ever shrinks bulk requests below the scroll batch {@code size}, which remains the knob for users who want
+     * smaller bulk requests from the start.
+     */
+    static final TimeValue SLOW_BULK_TIME = TimeValue.timeValueSeconds(5);
+
+    /**
+     * The bulk size is never shrunk below this number of requests. Fixed like {@link #SLOW_BULK_TIME}.
+     */
+    static final int MIN_BULK_SIZE = 16;
+
     private final BulkByScrollTask task;
 
     /**
@@ -71,6 +84,15 @@ public class WorkerBulkByScrollTaskState implements SuccessfullyProcessed {
     private final AtomicLong bulkRetries = new AtomicLong(0);
     private final AtomicLong searchRetries = new AtomicLong(0);
     private final AtomicLong throttledNanos = new AtomicLong();
+    private final AtomicLong bulkSizeDecreases = new AtomicLong(0);
+    private final AtomicLong bulkSizeIncreases = new AtomicLong(0);
+
+    /**
+     * The maximum number of requests to send in a single bulk request. Starts unbounded so that every scroll batch is sent in a single
+     * bulk request, is halved when bulk requests are rejected or slow and doubled again when they are neither, up to unbounded. Only the thread that
+     * sends the bulk requests of this worker updates it, one bulk request at a time.
+     */
+    private volatile int maxBulkSize = Integer.MAX_VALUE;
 
     /**
      * The number of requests per second to which to throttle the request that this task represents. The other variables are all AtomicXXX
@@ -101,6 +123,8 @@ public class WorkerBulkByScrollTaskState implements SuccessfullyProcessed {
             noops.get(),
             bulkRetries.get(),
             searchRetries.get(),
+            bulkSizeDecreases.get(),
+            bulkSizeIncreases.get(),
             timeValueNanos(throttledNanos.get()),
             getRequestsPerSecond(),
             task.getReasonCancelled(),
@@ -163,6 +187,47 @@ public class WorkerBulkByScrollTaskState implements SuccessfullyProcessed {
         searchRetries.incrementAndGet();
     }
 
+    public long getBulkRetries() {
+        return bulkRetries.get();
+    }
+
+    /**
+     * The number of requests out of {@code pendingRequests} to send in the next bulk request.
+     */
+    public int bulkSize(int pendingRequests) {
+        return min(pendingRequests, maxBulkSize);
+    }
+
+    /**
+     * Adapts the bulk size to how the destination handled the last bulk request: halves it if any of the requests had to be retried
+     * because they were rejected or if the bulk request took more than {@link #SLOW_BULK_TIME}, and doubles it if the bulk request
+     * was as large as allowed and went through smoothly. Once doubling it would cover all the requests that were pending, the bulk
+     * size is unbounded again and scroll batches are sent in a single bulk request.
+     *
+     * @param bulkSize the number of requests in the bulk request
+     * @param pendingRequests the number of requests of the scroll batch that were pending when the bulk request was built
+     * @param took how long the bulk request took, including retries
+     * @param retried whether any requests of the bulk request had to be retried
+     */
+    public void onBulkCompleted(int bulkSize, int pendingRequests, TimeValue took, boolean retried) {
+        if (retried || took.compareTo(SLOW_BULK_TIME) > 0) {
+            if (bulkSize > MIN_BULK_SIZE) {
+                maxBulkSize = max(MIN_BULK_SIZE, bulkSize / 2);
+                bulkSizeDecreases.incrementAndGet();
+                logger.debug("[{}]: decreased bulk size to [{}] after bulk request of [{}] took [{}], retried [{}]", task.getId(),
+                    maxBulkSize, bulkSize, took, retried);
+            }
+        } else if (maxBulkSize != Integer.MAX_VALUE && bulkSize >= maxBulkSize) {
+            // only a bulk request that had to leave requests behind is made larger, the others were sent whole already
+            if (maxBulkSize < pendingRequests) {
+                bulkSizeIncreases.incrementAndGet();
+            }
+            final int doubled = maxBulkSize > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : maxBulkSize * 2;
+            maxBulkSize = doubled >= pendingRequests ? Integer.MAX_VALUE : doubled;
+            logger.debug("[{}]: increased bulk size to [{}]", task.getId(), maxBulkSize);
+        }
+    }
+
     float getRequestsPerSecond() {
         return requestsPerSecond;
     }
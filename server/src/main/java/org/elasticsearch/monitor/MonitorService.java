@@ -22,6 +22,7 @@ package org.elasticsearch.monitor;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.monitor.fs.FsProbe;
 import org.elasticsearch.monitor.fs.FsService;
 import org.elasticsearch.monitor.jvm.JvmGcMonitorService;
 import org.elasticsearch.monitor.jvm.JvmService;
@@ -39,6 +40,7 @@ public class MonitorService extends AbstractLifecycleComponent {
     private final ProcessService processService;
     private final JvmService jvmService;
     private final FsService fsService;
+    private final NodeLoadService nodeLoadService;
 
     public MonitorService(Settings settings, NodeEnvironment nodeEnvironment, ThreadPool threadPool,
                           ClusterInfoService clusterInfoService) throws IOException {
@@ -47,6 +49,7 @@ public class MonitorService extends AbstractLifecycleComponent {
         this.processService = new ProcessService(settings);
         this.jvmService = new JvmService(settings);
         this.fsService = new FsService(settings, nodeEnvironment, clusterInfoService);
+        this.nodeLoadService = new NodeLoadService(settings, threadPool, new FsProbe(nodeEnvironment));
     }
 
     public OsService osService() {
@@ -65,19 +68,26 @@ public class MonitorService extends AbstractLifecycleComponent {
         return this.fsService;
     }
 
+    public NodeLoadService nodeLoadService() {
+        return this.nodeLoadService;
+    }
+
     @Override
     protected void doStart() {
         jvmGcMonitorService.start();
+        nodeLoadService.start();
     }
 
     @Override
     protected void doStop() {
         jvmGcMonitorService.stop();
+        nodeLoadService.stop();
     }
 
     @Override
     protected void doClose() {
         jvmGcMonitorService.close();
+        nodeLoadService.close();
     }
 
 }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.monitor;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.ExponentiallyWeightedMovingAverage;
+import org.elasticsearch.common.component.AbstractLifecycleComponent;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.XRejectedExecutionHandler;
+import org.elasticsearch.monitor.fs.FsProbe;
+import org.elasticsearch.threadpool.Scheduler.Cancellable;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.elasticsearch.threadpool.ThreadPool.Names;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Periodically samples signals describing how loaded this node is: the rate at which the search thread pool
+ * rejects requests, the share of time spent in GC pauses, and the utilization of the devices backing the data
+ * paths. The EWMA of these signals is piggybacked on search responses so that coordinating nodes can take them
+ * into account for adaptive replica selection.
+ */
+public class NodeLoadService extends AbstractLifecycleComponent {
+
+    private static final Logger logger = LogManager.getLogger(NodeLoadService.class);
+
+    public static final Setting<TimeValue> REFRESH_INTERVAL_SETTING =
+        Setting.timeSetting("monitor.node_load.refresh_interval", TimeValue.timeValueSeconds(1), TimeValue.timeValueSeconds(1),
+            Property.NodeScope);
+
+    private static final double ALPHA = 0.3;
+
+    private final ThreadPool threadPool;
+    private final FsProbe fsProbe;
+    private final TimeValue interval;
+
+    private final ExponentiallyWeightedMovingAverage searchRejectionRate = new ExponentiallyWeightedMovingAverage(ALPHA, 0);
+    private final ExponentiallyWeightedMovingAverage gcOverhead = new ExponentiallyWeightedMovingAverage(ALPHA, 0);
+    private final ExponentiallyWeightedMovingAverage ioUtilization = new ExponentiallyWeightedMovingAverage(ALPHA, 0);
+    private volatile boolean sampledIo = false;
+
+    private long lastSampleMillis = -1;
+    private long lastSearchRejections = -1;
+    private long lastGcTimeMillis = -1;
+    private long lastIoTimeMillis = -1;
+
+    private volatile Cancellable scheduledFuture;
+
+    public NodeLoadService(Settings settings, ThreadPool threadPool, FsProbe fsProbe) {
+        this.threadPool = threadPool;
+        this.fsProbe = fsProbe;
+        this.interval = REFRESH_INTERVAL_SETTING.get(settings);
+    }
+
+    /**
+     * The EWMA of the number of search requests rejected per second.
+     */
+    public double searchRejectionRate() {
+        return searchRejectionRate.getAverage();
+    }
+
+    /**
+     * The EWMA of the fraction of time spent in garbage collection, between {@code 0} and {@code 1}.
+     */
+    public double gcOverhead() {
+        return gcOverhead.getAverage();
+    }
+
+    /**
+     * The EWMA of the fraction of time the devices backing the data paths were busy, between {@code 0} and {@code 1},
+     * or {@code -1} if it cannot be determined on this platform.
+     */
+    public double ioUtilization() {
+        return sampledIo ? ioUtilization.getAverage() : -1;
+    }
+
+    @Override
+    protected void doStart() {
+        scheduledFuture = threadPool.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (Exception e) {
+                logger.debug("failed to sample node load", e);
+            }
+        }, interval, Names.SAME);
+    }
+
+    @Override
+    protected void doStop() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel();
+        }
+    }
+
+    @Override
+    protected void doClose() {
+    }
+
+    private void sample() {
+        onSample(threadPool.relativeTimeInMillis(), searchRejections(), gcTimeMillis(), fsProbe.averageIoTimeMillis());
+    }
+
+    /**
+     * Records a sample of the cumulative counters, rates are computed from the difference with the previous sample.
+     * Counters that are not available are passed as {@code -1}.
+     */
+    synchronized void onSample(long nowMillis, long searchRejections, long gcTimeMillis, long ioTimeMillis) {
+        final long elapsedMillis = nowMillis - lastSampleMillis;
+        if (lastSampleMillis >= 0 && elapsedMillis > 0) {
+            if (searchRejections >= 0 && lastSearchRejections >= 0) {
+                searchRejectionRate.addValue((searchRejections - lastSearchRejections) * 1000.0 / elapsedMillis);
+            }
+            if (gcTimeMillis >= 0 && lastGcTimeMillis >= 0) {
+                gcOverhead.addValue(Math.min(1.0, (double) (gcTimeMillis - lastGcTimeMillis) / elapsedMillis));
+            }
+            if (ioTimeMillis >= 0 && lastIoTimeMillis >= 0) {
+                ioUtilization.addValue(Math.min(1.0, (double) (ioTimeMillis - lastIoTimeMillis) / elapsedMillis));
+                sampledIo = true;
+            }
+        }
+        lastSampleMillis = nowMillis;
+        lastSearchRejections = searchRejections;
+        lastGcTimeMillis = gcTimeMillis;
+        lastIoTimeMillis = ioTimeMillis;
+    }
+
+    private long searchRejections() {
+        ExecutorService executor = threadPool.executor(Names.SEARCH);
+        if (executor instanceof ThreadPoolExecutor) {
+            if (((ThreadPoolExecutor) executor).getRejectedExecutionHandler() instanceof XRejectedExecutionHandler) {
+                return ((XRejectedExecutionHandler) ((ThreadPoolExecutor) executor).getRejectedExecutionHandler()).rejected();
+            }
+        }
+        return -1;
+    }
+
+    private static long gcTimeMillis() {
+        long gcTimeMillis = 0;
+        for (GarbageCollectorMXBean gcMxBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            final long collectionTime = gcMxBean.getCollectionTime();
+            if (collectionTime > 0) {
+                gcTimeMillis += collectionTime;
+            }
+        }
+        return gcTimeMillis;
+    }
+}
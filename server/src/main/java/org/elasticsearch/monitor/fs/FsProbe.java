@@ -62,13 +62,7 @@ public class FsProbe {
         }
         FsInfo.IoStats ioStats = null;
         if (Constants.LINUX) {
-            Set<Tuple<Integer, Integer>> devicesNumbers = new HashSet<>();
-            for (int i = 0; i < dataLocations.length; i++) {
-                if (dataLocations[i].majorDeviceNumber != -1 && dataLocations[i].minorDeviceNumber != -1) {
-                    devicesNumbers.add(Tuple.tuple(dataLocations[i].majorDeviceNumber, dataLocations[i].minorDeviceNumber));
-                }
-            }
-            ioStats = ioStats(devicesNumbers, previous);
+            ioStats = ioStats(devicesNumbers(dataLocations), previous);
         }
         DiskUsage leastDiskEstimate = null;
         DiskUsage mostDiskEstimate = null;
@@ -79,6 +73,51 @@ public class FsProbe {
         return new FsInfo(System.currentTimeMillis(), ioStats, paths, leastDiskEstimate, mostDiskEstimate);
     }
 
+    private static Set<Tuple<Integer, Integer>> devicesNumbers(NodePath[] dataLocations) {
+        Set<Tuple<Integer, Integer>> devicesNumbers = new HashSet<>();
+        for (int i = 0; i < dataLocations.length; i++) {
+            if (dataLocations[i].majorDeviceNumber != -1 && dataLocations[i].minorDeviceNumber != -1) {
+                devicesNumbers.add(Tuple.tuple(dataLocations[i].majorDeviceNumber, dataLocations[i].minorDeviceNumber));
+            }
+        }
+        return devicesNumbers;
+    }
+
+    /**
+     * Returns the time in milliseconds spent doing I/O, averaged over the devices backing the data paths of this node,
+     * or {@code -1} if it is not available on this platform. The difference between two calls divided by the elapsed
+     * time is the average utilization of these devices.
+     */
+    public long averageIoTimeMillis() {
+        if (Constants.LINUX == false || nodeEnv.hasNodeFile() == false) {
+            return -1;
+        }
+        return averageIoTimeMillis(devicesNumbers(nodeEnv.nodePaths()));
+    }
+
+    final long averageIoTimeMillis(final Set<Tuple<Integer, Integer>> devicesNumbers) {
+        try {
+            long totalIoTimeMillis = 0;
+            int devices = 0;
+            for (String line : readProcDiskStats()) {
+                String fields[] = line.trim().split("\\s+");
+                final int majorDeviceNumber = Integer.parseInt(fields[0]);
+                final int minorDeviceNumber = Integer.parseInt(fields[1]);
+                if (devicesNumbers.contains(Tuple.tuple(majorDeviceNumber, minorDeviceNumber))) {
+                    totalIoTimeMillis += Long.parseLong(fields[12]);
+                    devices++;
+                }
+            }
+            return devices == 0 ? -1 : totalIoTimeMillis / devices;
+        } catch (Exception e) {
+            // do not fail Elasticsearch if something unexpected
+            // happens here
+            logger.debug(() -> new ParameterizedMessage(
+                    "unexpected exception processing /proc/diskstats for devices {}", devicesNumbers), e);
+            return -1;
+        }
+    }
+
     final FsInfo.IoStats ioStats(final Set<Tuple<Integer, Integer>> devicesNumbers, final FsInfo previous) {
         try {
             final Map<Tuple<Integer, Integer>, FsInfo.DeviceStats> deviceMap = new HashMap<>();
@@ -19,6 +19,7 @@
 
 package org.elasticsearch.node;
 
+import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
@@ -37,29 +38,48 @@ import java.util.stream.Collectors;
 
 /**
  * Class representing statistics about adaptive replica selection. This includes
- * EWMA of queue size, service time, and response time, as well as outgoing
- * searches to each node and the "rank" based on the ARS formula.
+ * EWMA of queue size, service time, response time and the load signals
+ * reported by each node, as well as outgoing searches to each node and the
+ * "rank" computed by the configured {@link ReplicaRanker}.
  */
 public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
 
     private final Map<String, Long> clientOutgoingConnections;
     private final Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats;
+    // ranks are computed on the node that collected the statistics since the ranker may not be known to the receiving node
+    private final Map<String, Double> nodeRanks;
 
     public AdaptiveSelectionStats(Map<String, Long> clientConnections,
                                   Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats) {
         this.clientOutgoingConnections = clientConnections;
         this.nodeComputedStats = nodeComputedStats;
+        this.nodeRanks = computeRanks(clientConnections, nodeComputedStats);
     }
 
     public AdaptiveSelectionStats(StreamInput in) throws IOException {
         this.clientOutgoingConnections = in.readMap(StreamInput::readString, StreamInput::readLong);
         this.nodeComputedStats = in.readMap(StreamInput::readString, ResponseCollectorService.ComputedNodeStats::new);
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            this.nodeRanks = in.readMap(StreamInput::readString, StreamInput::readDouble);
+        } else {
+            this.nodeRanks = computeRanks(clientOutgoingConnections, nodeComputedStats);
+        }
+    }
+
+    private static Map<String, Double> computeRanks(Map<String, Long> clientConnections,
+                                                    Map<String, ResponseCollectorService.ComputedNodeStats> nodeComputedStats) {
+        return nodeComputedStats.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                                e -> e.getValue().rank(clientConnections.getOrDefault(e.getKey(), 0L))));
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeMap(this.clientOutgoingConnections, StreamOutput::writeString, StreamOutput::writeLong);
         out.writeMap(this.nodeComputedStats, StreamOutput::writeString, (stream, stats) -> stats.writeTo(stream));
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeMap(this.nodeRanks, StreamOutput::writeString, StreamOutput::writeDouble);
+        }
     }
 
     @Override
@@ -81,7 +101,16 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
                     builder.field("avg_response_time", new TimeValue((long) stats.responseTime, TimeUnit.NANOSECONDS).toString());
                 }
                 builder.field("avg_response_time_ns", (long) stats.responseTime);
-                builder.field("rank", String.format(Locale.ROOT, "%.1f", stats.rank(outgoingSearches)));
+                if (stats.searchRejectionRate >= 0) {
+                    builder.field("avg_search_rejections_per_second", stats.searchRejectionRate);
+                }
+                if (stats.gcOverhead >= 0) {
+                    builder.field("avg_gc_overhead", stats.gcOverhead);
+                }
+                if (stats.ioUtilization >= 0) {
+                    builder.field("avg_io_utilization", stats.ioUtilization);
+                }
+                builder.field("rank", String.format(Locale.ROOT, "%.1f", nodeRanks.get(nodeId)));
             }
             builder.endObject();
         }
@@ -107,8 +136,6 @@ public class AdaptiveSelectionStats implements Writeable, ToXContentFragment {
      * Returns a map of node id to the ranking of the nodes based on the adaptive replica formula
      */
     public Map<String, Double> getRanks() {
-        return nodeComputedStats.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey,
-                                e -> e.getValue().rank(clientOutgoingConnections.getOrDefault(e.getKey(), 0L))));
+        return nodeRanks;
     }
 }
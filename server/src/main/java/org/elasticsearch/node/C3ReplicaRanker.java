@@ -0,0 +1,71 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+/**
+ * Ranks nodes according to the adaptive replica selection formula from the C3 paper
+ * https://www.usenix.org/system/files/conference/nsdi15/nsdi15-paper-suresh.pdf, which
+ * only takes the queue size, response time and service time of a node into account.
+ */
+public final class C3ReplicaRanker implements ReplicaRanker {
+
+    public static final String NAME = "c3";
+
+    public static final C3ReplicaRanker INSTANCE = new C3ReplicaRanker();
+
+    // We store timestamps with nanosecond precision, however, the
+    // formula specifies milliseconds, therefore we need to convert
+    // the values so the times don't unduely weight the formula
+    private static final double FACTOR = 1000000.0;
+
+    // Cubic queue adjustment factor. The paper chose 3 though we could
+    // potentially make this configurable if desired.
+    private static final int QUEUE_ADJUSTMENT_FACTOR = 3;
+
+    private C3ReplicaRanker() {}
+
+    @Override
+    public double rank(ResponseCollectorService.ComputedNodeStats stats, long outstandingRequests) {
+        return rank(stats, outstandingRequests, stats.serviceTime);
+    }
+
+    /**
+     * Rank the node using the given service time instead of the measured one, this allows other
+     * rankers to account for a node being slower than its recent service time suggests.
+     */
+    static double rank(ResponseCollectorService.ComputedNodeStats stats, long outstandingRequests, double serviceTime) {
+        // the concurrency compensation is defined as the number of
+        // outstanding requests from the client to the node times the number
+        // of clients in the system
+        double concurrencyCompensation = outstandingRequests * stats.clientNum;
+
+        // EWMA of queue size
+        double qBar = stats.queueSize;
+        double qHatS = 1 + concurrencyCompensation + qBar;
+
+        // EWMA of response time
+        double rS = stats.responseTime / FACTOR;
+        // EWMA of service time
+        double muBarS = serviceTime / FACTOR;
+
+        // The final formula
+        return rS - (1.0 / muBarS) + (Math.pow(qHatS, QUEUE_ADJUSTMENT_FACTOR) / muBarS);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+
+/**
+ * Ranks nodes using the C3 formula (see {@link C3ReplicaRanker}) and additionally penalizes nodes that
+ * recently rejected search requests, spend a large share of their time in garbage collection, or whose
+ * data paths are saturated with I/O. These signals are reported by the nodes themselves, see
+ * {@link org.elasticsearch.monitor.NodeLoadService}, and are ignored if a node did not report them.
+ */
+public final class LoadAwareReplicaRanker implements ReplicaRanker {
+
+    public static final String NAME = "load_aware";
+
+    public static final Setting<Double> REJECTION_WEIGHT_SETTING =
+        Setting.doubleSetting("cluster.routing.adaptive_replica_selection.load_aware.rejection_weight", 1.0, 0.0,
+            Setting.Property.Dynamic, Setting.Property.NodeScope);
+    public static final Setting<Double> GC_WEIGHT_SETTING =
+        Setting.doubleSetting("cluster.routing.adaptive_replica_selection.load_aware.gc_weight", 1.0, 0.0,
+            Setting.Property.Dynamic, Setting.Property.NodeScope);
+    public static final Setting<Double> IO_WEIGHT_SETTING =
+        Setting.doubleSetting("cluster.routing.adaptive_replica_selection.load_aware.io_weight", 1.0, 0.0,
+            Setting.Property.Dynamic, Setting.Property.NodeScope);
+
+    // a node that spends (almost) all of its time collecting garbage would otherwise get an infinite service time
+    private static final double MAX_GC_OVERHEAD = 0.9;
+
+    private volatile double rejectionWeight;
+    private volatile double gcWeight;
+    private volatile double ioWeight;
+
+    public LoadAwareReplicaRanker(Settings settings, ClusterSettings clusterSettings) {
+        this(REJECTION_WEIGHT_SETTING.get(settings), GC_WEIGHT_SETTING.get(settings), IO_WEIGHT_SETTING.get(settings));
+        clusterSettings.addSettingsUpdateConsumer(REJECTION_WEIGHT_SETTING, this::setRejectionWeight);
+        clusterSettings.addSettingsUpdateConsumer(GC_WEIGHT_SETTING, this::setGcWeight);
+        clusterSettings.addSettingsUpdateConsumer(IO_WEIGHT_SETTING, this::setIoWeight);
+    }
+
+    LoadAwareReplicaRanker(double rejectionWeight, double gcWeight, double ioWeight) {
+        this.rejectionWeight = rejectionWeight;
+        this.gcWeight = gcWeight;
+        this.ioWeight = ioWeight;
+    }
+
+    private void setRejectionWeight(double rejectionWeight) {
+        this.rejectionWeight = rejectionWeight;
+    }
+
+    private void setGcWeight(double gcWeight) {
+        this.gcWeight = gcWeight;
+    }
+
+    private void setIoWeight(double ioWeight) {
+        this.ioWeight = ioWeight;
+    }
+
+    @Override
+    public double rank(ResponseCollectorService.ComputedNodeStats stats, long outstandingRequests) {
+        // A node that spends a fraction of its time in GC pauses can only serve requests in the remaining time,
+        // so its effective service time is inflated accordingly rather than the rank being scaled afterwards.
+        double serviceTime = stats.serviceTime;
+        if (stats.gcOverhead > 0) {
+            serviceTime /= 1.0 - Math.min(MAX_GC_OVERHEAD, gcWeight * stats.gcOverhead);
+        }
+        double rank = C3ReplicaRanker.rank(stats, outstandingRequests, serviceTime);
+        if (stats.ioUtilization > 0) {
+            rank *= 1.0 + ioWeight * stats.ioUtilization;
+        }
+        if (stats.searchRejectionRate > 0) {
+            rank *= 1.0 + rejectionWeight * stats.searchRejectionRate;
+        }
+        return rank;
+    }
+}
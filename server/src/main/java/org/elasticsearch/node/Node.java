@@ -31,6 +31,7 @@ import org.elasticsearch.action.ActionModule;
 import org.elasticsearch.action.search.SearchExecutionStatsCollector;
 import org.elasticsearch.action.search.SearchPhaseController;
 import org.elasticsearch.action.search.SearchTransportService;
+import org.elasticsearch.action.search.ShardFieldBoundsCache;
 import org.elasticsearch.action.support.TransportAction;
 import org.elasticsearch.action.update.UpdateHelper;
 import org.elasticsearch.bootstrap.BootstrapCheck;
@@ -113,6 +114,7 @@ import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.store.IndicesStore;
 import org.elasticsearch.ingest.IngestService;
 import org.elasticsearch.monitor.MonitorService;
+import org.elasticsearch.monitor.NodeLoadService;
 import org.elasticsearch.monitor.jvm.JvmInfo;
 import org.elasticsearch.persistent.PersistentTasksClusterService;
 import org.elasticsearch.persistent.PersistentTasksExecutor;
@@ -167,14 +169,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -343,6 +348,7 @@ public class Node implements Closeable {
             final SettingsModule settingsModule =
                     new SettingsModule(this.settings, additionalSettings, additionalSettingsFilter, settingsUpgraders);
             scriptModule.registerClusterSettingsListeners(settingsModule.getClusterSettings());
+            scriptModule.getScriptService().setPrecompileExecutor(threadPool.generic());
             resourcesToClose.add(resourceWatcherService);
             final NetworkService networkService = new NetworkService(
                 getCustomNameResolvers(pluginsService.filterPlugins(DiscoveryPlugin.class)));
@@ -474,9 +480,12 @@ public class Node implements Closeable {
                 networkModule.getTransportInterceptor(), localNodeFactory, settingsModule.getClusterSettings(), taskHeaders);
             final GatewayMetaState gatewayMetaState = new GatewayMetaState(settings, nodeEnvironment, metaStateService,
                     metaDataIndexUpgradeService, metaDataUpgrader, transportService, clusterService, indicesService);
-            final ResponseCollectorService responseCollectorService = new ResponseCollectorService(clusterService);
+            final ResponseCollectorService responseCollectorService = new ResponseCollectorService(clusterService,
+                getReplicaRankers(settings, clusterService.getClusterSettings(), clusterPlugins));
             final SearchTransportService searchTransportService =  new SearchTransportService(transportService,
                 SearchExecutionStatsCollector.makeWrapper(responseCollectorService));
+            final ShardFieldBoundsCache shardFieldBoundsCache = new ShardFieldBoundsCache(settings);
+            clusterService.addListener(shardFieldBoundsCache);
             final HttpServerTransport httpServerTransport = newHttpTransport(networkModule);
 
 
@@ -494,7 +503,7 @@ public class Node implements Closeable {
 
             final SearchService searchService = newSearchService(clusterService, indicesService,
                 threadPool, scriptModule.getScriptService(), bigArrays, searchModule.getFetchPhase(),
-                responseCollectorService);
+                responseCollectorService, monitorService.nodeLoadService());
 
             final List<PersistentTasksExecutor<?>> tasksExecutors = pluginsService
                 .filterPlugins(PersistentTaskPlugin.class).stream()
@@ -534,6 +543,7 @@ public class Node implements Closeable {
                     b.bind(MetaDataCreateIndexService.class).toInstance(metaDataCreateIndexService);
                     b.bind(SearchService.class).toInstance(searchService);
                     b.bind(SearchTransportService.class).toInstance(searchTransportService);
+                    b.bind(ShardFieldBoundsCache.class).toInstance(shardFieldBoundsCache);
                     b.bind(SearchPhaseController.class).toInstance(new SearchPhaseController(searchService::createReduceContext));
                     b.bind(Transport.class).toInstance(transport);
                     b.bind(TransportService.class).toInstance(transportService);
@@ -946,14 +956,36 @@ public class Node implements Closeable {
         return new PageCacheRecycler(settings);
     }
 
+    /**
+     * Collects the built-in {@link ReplicaRanker}s and the ones provided by plugins, keyed by name.
+     */
+    private static Map<String, ReplicaRanker> getReplicaRankers(Settings settings, ClusterSettings clusterSettings,
+                                                                List<ClusterPlugin> clusterPlugins) {
+        final Map<String, Supplier<ReplicaRanker>> rankers = new HashMap<>();
+        rankers.put(C3ReplicaRanker.NAME, () -> C3ReplicaRanker.INSTANCE);
+        rankers.put(LoadAwareReplicaRanker.NAME, () -> new LoadAwareReplicaRanker(settings, clusterSettings));
+        for (ClusterPlugin plugin : clusterPlugins) {
+            plugin.getReplicaRankers(settings, clusterSettings).forEach((name, ranker) -> {
+                if (rankers.put(name, ranker) != null) {
+                    throw new IllegalArgumentException("ReplicaRanker [" + name + "] already defined");
+                }
+            });
+        }
+        final Map<String, ReplicaRanker> replicaRankers = new HashMap<>(rankers.size());
+        rankers.forEach((name, supplier) -> replicaRankers.put(name,
+            Objects.requireNonNull(supplier.get(), "ReplicaRanker factory for [" + name + "] returned null")));
+        return replicaRankers;
+    }
+
     /**
      * Creates a new the SearchService. This method can be overwritten by tests to inject mock implementations.
      */
     protected SearchService newSearchService(ClusterService clusterService, IndicesService indicesService,
                                              ThreadPool threadPool, ScriptService scriptService, BigArrays bigArrays,
-                                             FetchPhase fetchPhase, ResponseCollectorService responseCollectorService) {
+                                             FetchPhase fetchPhase, ResponseCollectorService responseCollectorService,
+                                             NodeLoadService nodeLoadService) {
         return new SearchService(clusterService, indicesService, threadPool,
-            scriptService, bigArrays, fetchPhase, responseCollectorService);
+            scriptService, bigArrays, fetchPhase, responseCollectorService, nodeLoadService);
     }
 
     /**
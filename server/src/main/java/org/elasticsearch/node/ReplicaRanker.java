@@ -0,0 +1,37 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+/**
+ * Ranks a copy of the data held on a node for adaptive replica selection, based on the
+ * statistics the coordinating node has collected about that node. Copies on nodes with a
+ * lower rank are preferred.
+ *
+ * Implementations are registered by name, see {@link ResponseCollectorService#REPLICA_RANKER_SETTING}
+ * and {@link org.elasticsearch.plugins.ClusterPlugin#getReplicaRankers}.
+ */
+public interface ReplicaRanker {
+
+    /**
+     * Rank the given node given the number of outstanding search requests from this node to it.
+     * The returned value must not be negative.
+     */
+    double rank(ResponseCollectorService.ComputedNodeStats stats, long outstandingRequests);
+}
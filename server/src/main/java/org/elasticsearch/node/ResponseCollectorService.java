@@ -22,14 +22,17 @@ package org.elasticsearch.node;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateListener;
 import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.Version;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.ExponentiallyWeightedMovingAverage;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.util.concurrent.ConcurrentCollections;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -38,19 +41,49 @@ import java.util.concurrent.ConcurrentMap;
 
 /**
  * Collects statistics about queue size, response time, and service time of
- * tasks executed on each node, making the EWMA of the values available to the
- * coordinating node.
+ * tasks executed on each node, as well as the load signals (search rejections,
+ * GC overhead and I/O utilization) reported by each node, making the EWMA of
+ * the values available to the coordinating node.
  */
 public final class ResponseCollectorService implements ClusterStateListener {
 
+    public static final Setting<String> REPLICA_RANKER_SETTING =
+        Setting.simpleString("cluster.routing.adaptive_replica_selection.ranker", C3ReplicaRanker.NAME,
+            Setting.Property.Dynamic, Setting.Property.NodeScope);
+
     private static final double ALPHA = 0.3;
 
     private final ConcurrentMap<String, NodeStatistics> nodeIdToStats = ConcurrentCollections.newConcurrentMap();
 
+    private final Map<String, ReplicaRanker> rankers;
+
+    private volatile ReplicaRanker ranker;
+
     public ResponseCollectorService(ClusterService clusterService) {
+        this(clusterService, Collections.singletonMap(C3ReplicaRanker.NAME, C3ReplicaRanker.INSTANCE));
+    }
+
+    /**
+     * Creates a collector that ranks nodes with one of the given rankers, selected by name through
+     * {@link #REPLICA_RANKER_SETTING}.
+     */
+    public ResponseCollectorService(ClusterService clusterService, Map<String, ReplicaRanker> rankers) {
+        this.rankers = Collections.unmodifiableMap(new HashMap<>(rankers));
+        this.ranker = resolveRanker(REPLICA_RANKER_SETTING.get(clusterService.getSettings()));
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(REPLICA_RANKER_SETTING,
+            name -> this.ranker = resolveRanker(name), this::resolveRanker);
         clusterService.addListener(this);
     }
 
+    private ReplicaRanker resolveRanker(String name) {
+        ReplicaRanker ranker = rankers.get(name);
+        if (ranker == null) {
+            throw new IllegalArgumentException("unknown replica ranker [" + name + "] for setting [" +
+                REPLICA_RANKER_SETTING.getKey() + "], must be one of " + rankers.keySet());
+        }
+        return ranker;
+    }
+
     @Override
     public void clusterChanged(ClusterChangedEvent event) {
         if (event.nodesRemoved()) {
@@ -79,16 +112,48 @@ public final class ResponseCollectorService implements ClusterStateListener {
         });
     }
 
+    /**
+     * Adds the load signals reported by a node. Each value may be negative if the node could not determine it,
+     * in which case it is ignored. Signals are only recorded for nodes that already have response statistics.
+     */
+    public void addNodeLoadStatistics(String nodeId, double searchRejectionRate, double gcOverhead, double ioUtilization) {
+        nodeIdToStats.computeIfPresent(nodeId, (id, ns) -> {
+            ns.searchRejectionRate = addLoadValue(ns.searchRejectionRate, searchRejectionRate);
+            ns.gcOverhead = addLoadValue(ns.gcOverhead, gcOverhead);
+            ns.ioUtilization = addLoadValue(ns.ioUtilization, ioUtilization);
+            return ns;
+        });
+    }
+
+    private static ExponentiallyWeightedMovingAverage addLoadValue(ExponentiallyWeightedMovingAverage ewma, double value) {
+        if (value < 0) {
+            return ewma;
+        }
+        if (ewma == null) {
+            return new ExponentiallyWeightedMovingAverage(ALPHA, value);
+        }
+        ewma.addValue(value);
+        return ewma;
+    }
+
     public Map<String, ComputedNodeStats> getAllNodeStatistics() {
         final int clientNum = nodeIdToStats.size();
+        final ReplicaRanker ranker = this.ranker;
         // Transform the mutable object internally used for accounting into the computed version
         Map<String, ComputedNodeStats> nodeStats = new HashMap<>(nodeIdToStats.size());
         nodeIdToStats.forEach((k, v) -> {
-            nodeStats.put(k, new ComputedNodeStats(clientNum, v));
+            nodeStats.put(k, new ComputedNodeStats(clientNum, v, ranker));
         });
         return nodeStats;
     }
 
+    /**
+     * Returns the ranker currently used to rank copies of the data.
+     */
+    public ReplicaRanker getRanker() {
+        return ranker;
+    }
+
     public AdaptiveSelectionStats getAdaptiveStats(Map<String, Long> clientSearchConnections) {
         return new AdaptiveSelectionStats(clientSearchConnections, getAllNodeStatistics());
     }
@@ -100,20 +165,19 @@ public final class ResponseCollectorService implements ClusterStateListener {
      */
     public Optional<ComputedNodeStats> getNodeStatistics(final String nodeId) {
         final int clientNum = nodeIdToStats.size();
-        return Optional.ofNullable(nodeIdToStats.get(nodeId)).map(ns -> new ComputedNodeStats(clientNum, ns));
+        final ReplicaRanker ranker = this.ranker;
+        return Optional.ofNullable(nodeIdToStats.get(nodeId)).map(ns -> new ComputedNodeStats(clientNum, ns, ranker));
     }
 
     /**
      * Struct-like class encapsulating a point-in-time snapshot of a particular
      * node's statistics. This includes the EWMA of queue size, response time,
-     * and service time.
+     * and service time, as well as the EWMA of the load signals reported by the
+     * node, which are negative if the node did not report them.
      */
     public static class ComputedNodeStats implements Writeable {
-        // We store timestamps with nanosecond precision, however, the
-        // formula specifies milliseconds, therefore we need to convert
-        // the values so the times don't unduely weight the formula
-        private final double FACTOR = 1000000.0;
-        private final int clientNum;
+        public final int clientNum;
+        private final ReplicaRanker ranker;
 
         private double cachedRank = 0;
 
@@ -121,18 +185,35 @@ public final class ResponseCollectorService implements ClusterStateListener {
         public final int queueSize;
         public final double responseTime;
         public final double serviceTime;
+        public final double searchRejectionRate;
+        public final double gcOverhead;
+        public final double ioUtilization;
 
         public ComputedNodeStats(String nodeId, int clientNum, int queueSize, double responseTime, double serviceTime) {
+            this(nodeId, clientNum, queueSize, responseTime, serviceTime, -1, -1, -1, C3ReplicaRanker.INSTANCE);
+        }
+
+        public ComputedNodeStats(String nodeId, int clientNum, int queueSize, double responseTime, double serviceTime,
+                                 double searchRejectionRate, double gcOverhead, double ioUtilization, ReplicaRanker ranker) {
             this.nodeId = nodeId;
             this.clientNum = clientNum;
             this.queueSize = queueSize;
             this.responseTime = responseTime;
             this.serviceTime = serviceTime;
+            this.searchRejectionRate = searchRejectionRate;
+            this.gcOverhead = gcOverhead;
+            this.ioUtilization = ioUtilization;
+            this.ranker = ranker;
         }
 
-        ComputedNodeStats(int clientNum, NodeStatistics nodeStats) {
+        ComputedNodeStats(int clientNum, NodeStatistics nodeStats, ReplicaRanker ranker) {
             this(nodeStats.nodeId, clientNum,
-                    (int) nodeStats.queueSize.getAverage(), nodeStats.responseTime.getAverage(), nodeStats.serviceTime);
+                    (int) nodeStats.queueSize.getAverage(), nodeStats.responseTime.getAverage(), nodeStats.serviceTime,
+                    average(nodeStats.searchRejectionRate), average(nodeStats.gcOverhead), average(nodeStats.ioUtilization), ranker);
+        }
+
+        private static double average(ExponentiallyWeightedMovingAverage ewma) {
+            return ewma == null ? -1 : ewma.getAverage();
         }
 
         ComputedNodeStats(StreamInput in) throws IOException {
@@ -141,6 +222,17 @@ public final class ResponseCollectorService implements ClusterStateListener {
             this.queueSize = in.readInt();
             this.responseTime = in.readDouble();
             this.serviceTime = in.readDouble();
+            if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+                this.searchRejectionRate = in.readDouble();
+                this.gcOverhead = in.readDouble();
+                this.ioUtilization = in.readDouble();
+            } else {
+                this.searchRejectionRate = -1;
+                this.gcOverhead = -1;
+                this.ioUtilization = -1;
+            }
+            // the ranker used by the sending node is not known, ranks are serialized separately by AdaptiveSelectionStats
+            this.ranker = C3ReplicaRanker.INSTANCE;
         }
 
         @Override
@@ -150,39 +242,19 @@ public final class ResponseCollectorService implements ClusterStateListener {
             out.writeInt(this.queueSize);
             out.writeDouble(this.responseTime);
             out.writeDouble(this.serviceTime);
+            if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+                out.writeDouble(this.searchRejectionRate);
+                out.writeDouble(this.gcOverhead);
+                out.writeDouble(this.ioUtilization);
+            }
         }
 
         /**
-         * Rank this copy of the data, according to the adaptive replica selection formula from the C3 paper
-         * https://www.usenix.org/system/files/conference/nsdi15/nsdi15-paper-suresh.pdf
+         * Rank this copy of the data with the {@link ReplicaRanker} that was configured when these stats were computed.
          */
-        private double innerRank(long outstandingRequests) {
-            // the concurrency compensation is defined as the number of
-            // outstanding requests from the client to the node times the number
-            // of clients in the system
-            double concurrencyCompensation = outstandingRequests * clientNum;
-
-            // Cubic queue adjustment factor. The paper chose 3 though we could
-            // potentially make this configurable if desired.
-            int queueAdjustmentFactor = 3;
-
-            // EWMA of queue size
-            double qBar = queueSize;
-            double qHatS = 1 + concurrencyCompensation + qBar;
-
-            // EWMA of response time
-            double rS = responseTime / FACTOR;
-            // EWMA of service time
-            double muBarS = serviceTime / FACTOR;
-
-            // The final formula
-            double rank = rS - (1.0 / muBarS) + (Math.pow(qHatS, queueAdjustmentFactor) / muBarS);
-            return rank;
-        }
-
         public double rank(long outstandingRequests) {
             if (cachedRank == 0) {
-                cachedRank = innerRank(outstandingRequests);
+                cachedRank = ranker.rank(this, outstandingRequests);
             }
             return cachedRank;
         }
@@ -195,6 +267,9 @@ public final class ResponseCollectorService implements ClusterStateListener {
             sb.append(", queue: ").append(queueSize);
             sb.append(", response time: ").append(String.format(Locale.ROOT, "%.1f", responseTime));
             sb.append(", service time: ").append(String.format(Locale.ROOT, "%.1f", serviceTime));
+            sb.append(", search rejection rate: ").append(String.format(Locale.ROOT, "%.2f", searchRejectionRate));
+            sb.append(", gc overhead: ").append(String.format(Locale.ROOT, "%.2f", gcOverhead));
+            sb.append(", io utilization: ").append(String.format(Locale.ROOT, "%.2f", ioUtilization));
             sb.append(", rank: ").append(String.format(Locale.ROOT, "%.1f", rank(1)));
             sb.append(")");
             return sb.toString();
@@ -211,6 +286,10 @@ public final class ResponseCollectorService implements ClusterStateListener {
         final ExponentiallyWeightedMovingAverage queueSize;
         final ExponentiallyWeightedMovingAverage responseTime;
         double serviceTime;
+        // load signals are created lazily as nodes that do not report them leave them null
+        ExponentiallyWeightedMovingAverage searchRejectionRate;
+        ExponentiallyWeightedMovingAverage gcOverhead;
+        ExponentiallyWeightedMovingAverage ioUtilization;
 
         NodeStatistics(String nodeId,
                        ExponentiallyWeightedMovingAverage queueSizeEWMA,
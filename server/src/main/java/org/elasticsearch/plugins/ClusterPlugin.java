@@ -28,6 +28,7 @@ import org.elasticsearch.cluster.routing.allocation.allocator.ShardsAllocator;
 import org.elasticsearch.cluster.routing.allocation.decider.AllocationDecider;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.node.ReplicaRanker;
 
 /**
  * An extension point for {@link Plugin} implementations to customer behavior of cluster management.
@@ -59,6 +60,22 @@ public interface ClusterPlugin {
         return Collections.emptyMap();
     }
 
+    /**
+     * Return {@link ReplicaRanker} implementations added by this plugin, used to rank copies of the
+     * data for adaptive replica selection.
+     *
+     * The key of the returned {@link Map} is the name of the ranker, which can be selected through the
+     * {@code cluster.routing.adaptive_replica_selection.ranker} setting, and the value is a function to
+     * construct the ranker.
+     *
+     * @param settings Settings for the node
+     * @param clusterSettings Settings for the cluster
+     * @return A map of ranker implementations
+     */
+    default Map<String, Supplier<ReplicaRanker>> getReplicaRankers(Settings settings, ClusterSettings clusterSettings) {
+        return Collections.emptyMap();
+    }
+
     /**
      * Called when the node is started
      */
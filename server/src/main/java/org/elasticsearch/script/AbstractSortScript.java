@@ -26,7 +26,7 @@ import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Scorable;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.common.lucene.ScorerAware;
-import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.search.lookup.LeafDocLookup;
 import org.elasticsearch.search.lookup.LeafSearchLookup;
 import org.elasticsearch.search.lookup.SearchLookup;
 
@@ -98,7 +98,7 @@ abstract class AbstractSortScript implements ScorerAware {
     /**
      * The doc lookup for the Lucene segment this script was created for.
      */
-    public Map<String, ScriptDocValues<?>> getDoc() {
+    public LeafDocLookup getDoc() {
         return leafLookup.doc();
     }
 
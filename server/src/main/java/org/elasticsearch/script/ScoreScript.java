@@ -20,7 +20,7 @@ package org.elasticsearch.script;
 
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Scorable;
-import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.search.lookup.LeafDocLookup;
 import org.elasticsearch.search.lookup.LeafSearchLookup;
 import org.elasticsearch.search.lookup.SearchLookup;
 
@@ -62,6 +62,9 @@ public abstract class ScoreScript {
 
     private DoubleSupplier scoreSupplier = () -> 0.0;
 
+    /** Supplies {@code _score} while {@link #executeBlock} runs the script on each document of a block. */
+    private BlockScoreSupplier blockScoreSupplier;
+
     public ScoreScript(Map<String, Object> params, SearchLookup lookup, LeafReaderContext leafContext) {
         // null check needed b/c of expression engine subclass
         if (lookup == null) {
@@ -79,13 +82,35 @@ public abstract class ScoreScript {
 
     public abstract double execute();
 
+    /**
+     * Computes the scores of the first {@code count} documents of {@code docIds}, which are in increasing order, into {@code scores}.
+     * {@code subQueryScores} holds the values of {@code _score} for these documents. The default implementation runs the script on
+     * each document in turn, script engines that can evaluate many documents at once may override it.
+     */
+    public void executeBlock(int[] docIds, float[] subQueryScores, int count, double[] scores) {
+        if (blockScoreSupplier == null) {
+            blockScoreSupplier = new BlockScoreSupplier();
+        }
+        final DoubleSupplier previousScoreSupplier = scoreSupplier;
+        scoreSupplier = blockScoreSupplier;
+        try {
+            for (int i = 0; i < count; i++) {
+                setDocument(docIds[i]);
+                blockScoreSupplier.score = subQueryScores[i];
+                scores[i] = execute();
+            }
+        } finally {
+            scoreSupplier = previousScoreSupplier;
+        }
+    }
+
     /** Return the parameters for this script. */
     public Map<String, Object> getParams() {
         return params;
     }
 
     /** The doc lookup for the Lucene segment this script was created for. */
-    public final Map<String, ScriptDocValues<?>> getDoc() {
+    public final LeafDocLookup getDoc() {
         return leafLookup.doc();
     }
 
@@ -108,6 +133,15 @@ public abstract class ScoreScript {
         return scoreSupplier.getAsDouble();
     }
 
+    private static final class BlockScoreSupplier implements DoubleSupplier {
+        private double score;
+
+        @Override
+        public double getAsDouble() {
+            return score;
+        }
+    }
+
     /** A factory to construct {@link ScoreScript} instances. */
     public interface LeafFactory {
 
@@ -0,0 +1,139 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalListener;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache of compiled scripts, shared by the {@link ScriptContext}s that don't have a cache of their own, along with the statistics
+ * of each of these contexts. The cache is either bounded by the number of compiled scripts or by an estimate of the memory that the
+ * classes of the compiled scripts take.
+ */
+final class ScriptCache {
+
+    private static final Logger logger = LogManager.getLogger(ScriptCache.class);
+
+    /**
+     * Rough number of bytes that the class of a compiled script takes regardless of its size, for its constant pool, method
+     * tables and the factories around it.
+     */
+    static final long COMPILED_SCRIPT_BASE_SIZE_IN_BYTES = 4096;
+
+    /**
+     * Rough number of bytes of bytecode and class metadata that a compiled script takes per character of its source.
+     */
+    static final long COMPILED_SCRIPT_BYTES_PER_SOURCE_CHAR = 16;
+
+    private final String name;
+    private final Cache<ScriptService.CacheKey, Object> cache;
+    private final Map<String, ScriptMetrics> contextMetrics;
+
+    /**
+     * @param name the name of the cache, for logging
+     * @param contexts the contexts whose scripts are cached
+     * @param cacheMaxSize the maximum number of compiled scripts, ignored if {@code cacheMaxSizeInBytes} is not negative
+     * @param cacheMaxSizeInBytes the maximum estimated size of the compiled scripts, negative to bound the cache by count
+     * @param cacheExpire how long compiled scripts stay in the cache after their last use, {@code 0} for no expiry
+     */
+    ScriptCache(String name, Collection<String> contexts, int cacheMaxSize, ByteSizeValue cacheMaxSizeInBytes, TimeValue cacheExpire) {
+        this.name = name;
+        Map<String, ScriptMetrics> contextMetrics = new HashMap<>();
+        for (String context : contexts) {
+            contextMetrics.put(context, new ScriptMetrics());
+        }
+        this.contextMetrics = Collections.unmodifiableMap(contextMetrics);
+        CacheBuilder<ScriptService.CacheKey, Object> cacheBuilder = CacheBuilder.builder();
+        if (cacheMaxSizeInBytes.getBytes() >= 0) {
+            cacheBuilder.setMaximumWeight(cacheMaxSizeInBytes.getBytes());
+            cacheBuilder.weigher((key, compiledScript) -> estimateSizeInBytes(key.idOrCode));
+        } else if (cacheMaxSize >= 0) {
+            cacheBuilder.setMaximumWeight(cacheMaxSize);
+        }
+        if (cacheExpire.getNanos() != 0) {
+            cacheBuilder.setExpireAfterAccess(cacheExpire);
+        }
+        logger.debug("using script cache [{}] for contexts {} with max_size [{}], max_size_in_bytes [{}], expire [{}]",
+            name, contexts, cacheMaxSize, cacheMaxSizeInBytes, cacheExpire);
+        this.cache = cacheBuilder.removalListener(new ScriptCacheRemovalListener()).build();
+    }
+
+    /**
+     * Estimates the memory that the class of a script compiled from the given source takes.
+     */
+    static long estimateSizeInBytes(String source) {
+        return COMPILED_SCRIPT_BASE_SIZE_IN_BYTES + COMPILED_SCRIPT_BYTES_PER_SOURCE_CHAR * source.length();
+    }
+
+    /**
+     * Returns the cached compiled script for the given key, or {@code null} if it has not been compiled yet, and records the hit
+     * or miss.
+     */
+    Object get(ScriptService.CacheKey key) {
+        Object compiledScript = cache.get(key);
+        if (compiledScript == null) {
+            contextMetrics.get(key.context).onCacheMiss();
+        } else {
+            contextMetrics.get(key.context).onCacheHit();
+        }
+        return compiledScript;
+    }
+
+    /**
+     * Like {@link #get} but does not record the lookup in the statistics of the cache.
+     */
+    Object peek(ScriptService.CacheKey key) {
+        return cache.get(key);
+    }
+
+    void put(ScriptService.CacheKey key, Object compiledScript, long compileTimeInNanos) {
+        contextMetrics.get(key.context).onCompilation(compileTimeInNanos);
+        cache.put(key, compiledScript);
+    }
+
+    ScriptContextStats stats(String context) {
+        return contextMetrics.get(context).stats(context);
+    }
+
+    /**
+     * A small listener for the script cache that records the evictions of compiled scripts.
+     */
+    private class ScriptCacheRemovalListener implements RemovalListener<ScriptService.CacheKey, Object> {
+        @Override
+        public void onRemoval(RemovalNotification<ScriptService.CacheKey, Object> notification) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("removed {} from cache [{}] for context [{}], reason: {}", notification.getValue(), name,
+                    notification.getKey().context, notification.getRemovalReason());
+            }
+            contextMetrics.get(notification.getKey().context).onCacheEviction();
+        }
+    }
+}
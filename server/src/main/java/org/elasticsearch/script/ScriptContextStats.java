@@ -0,0 +1,108 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.script;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.ToXContentFragment;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+/**
+ * The statistics of the compiled script cache of a single {@link ScriptContext}.
+ */
+public class ScriptContextStats implements Writeable, ToXContentFragment {
+    private final String context;
+    private final long compilations;
+    private final long cacheEvictions;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final long compileTimeInMillis;
+
+    public ScriptContextStats(String context, long compilations, long cacheEvictions, long cacheHits, long cacheMisses,
+                              long compileTimeInMillis) {
+        this.context = context;
+        this.compilations = compilations;
+        this.cacheEvictions = cacheEvictions;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.compileTimeInMillis = compileTimeInMillis;
+    }
+
+    public ScriptContextStats(StreamInput in) throws IOException {
+        context = in.readString();
+        compilations = in.readVLong();
+        cacheEvictions = in.readVLong();
+        cacheHits = in.readVLong();
+        cacheMisses = in.readVLong();
+        compileTimeInMillis = in.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(context);
+        out.writeVLong(compilations);
+        out.writeVLong(cacheEvictions);
+        out.writeVLong(cacheHits);
+        out.writeVLong(cacheMisses);
+        out.writeVLong(compileTimeInMillis);
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public long getCompilations() {
+        return compilations;
+    }
+
+    public long getCacheEvictions() {
+        return cacheEvictions;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getCompileTimeInMillis() {
+        return compileTimeInMillis;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject();
+        builder.field(ScriptStats.Fields.CONTEXT, getContext());
+        builder.field(ScriptStats.Fields.COMPILATIONS, getCompilations());
+        builder.field(ScriptStats.Fields.CACHE_EVICTIONS, getCacheEvictions());
+        builder.field(ScriptStats.Fields.CACHE_HITS, getCacheHits());
+        builder.field(ScriptStats.Fields.CACHE_MISSES, getCacheMisses());
+        builder.humanReadableField(ScriptStats.Fields.COMPILE_TIME_IN_MILLIS, ScriptStats.Fields.COMPILE_TIME,
+            new TimeValue(getCompileTimeInMillis()));
+        builder.endObject();
+        return builder;
+    }
+}
@@ -21,23 +21,46 @@ package org.elasticsearch.script;
 
 import org.elasticsearch.common.metrics.CounterMetric;
 
+import java.util.concurrent.TimeUnit;
+
 public class ScriptMetrics {
     final CounterMetric compilationsMetric = new CounterMetric();
     final CounterMetric cacheEvictionsMetric = new CounterMetric();
     final CounterMetric compilationLimitTriggered = new CounterMetric();
+    final CounterMetric cacheHitsMetric = new CounterMetric();
+    final CounterMetric cacheMissesMetric = new CounterMetric();
+    final CounterMetric compileTimeInNanosMetric = new CounterMetric();
 
     public ScriptStats stats() {
         return new ScriptStats(compilationsMetric.count(), cacheEvictionsMetric.count(), compilationLimitTriggered.count());
     }
 
+    public ScriptContextStats stats(String context) {
+        return new ScriptContextStats(context, compilationsMetric.count(), cacheEvictionsMetric.count(), cacheHitsMetric.count(),
+            cacheMissesMetric.count(), TimeUnit.NANOSECONDS.toMillis(compileTimeInNanosMetric.count()));
+    }
+
     public void onCompilation() {
         compilationsMetric.inc();
     }
 
+    public void onCompilation(long tookInNanos) {
+        compilationsMetric.inc();
+        compileTimeInNanosMetric.inc(tookInNanos);
+    }
+
     public void onCacheEviction() {
         cacheEvictionsMetric.inc();
     }
 
+    public void onCacheHit() {
+        cacheHitsMetric.inc();
+    }
+
+    public void onCacheMiss() {
+        cacheMissesMetric.inc();
+    }
+
     public void onCompilationLimit() {
         compilationLimitTriggered.inc();
     }
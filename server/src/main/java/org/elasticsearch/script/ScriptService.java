@@ -21,6 +21,7 @@ package org.elasticsearch.script;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.elasticsearch.ResourceNotFoundException;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.cluster.storedscripts.DeleteStoredScriptRequest;
@@ -36,27 +37,28 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.breaker.CircuitBreakingException;
-import org.elasticsearch.common.cache.Cache;
-import org.elasticsearch.common.cache.CacheBuilder;
-import org.elasticsearch.common.cache.RemovalListener;
-import org.elasticsearch.common.cache.RemovalNotification;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.core.internal.io.IOUtils;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 public class ScriptService implements Closeable, ClusterStateApplier {
@@ -99,6 +101,16 @@ public class ScriptService implements Closeable, ClusterStateApplier {
 
     public static final Setting<Integer> SCRIPT_CACHE_SIZE_SETTING =
         Setting.intSetting("script.cache.max_size", 100, 0, Property.NodeScope);
+    public static final Setting<ByteSizeValue> SCRIPT_CACHE_SIZE_IN_BYTES_SETTING =
+        Setting.byteSizeSetting("script.cache.max_size_in_bytes", new ByteSizeValue(-1), Property.NodeScope);
+    public static final Setting.AffixSetting<Integer> SCRIPT_CONTEXT_CACHE_SIZE_SETTING =
+        Setting.affixKeySetting("script.context.", "cache_max_size",
+            key -> Setting.intSetting(key, SCRIPT_CACHE_SIZE_SETTING, 0, Property.NodeScope));
+    public static final Setting.AffixSetting<ByteSizeValue> SCRIPT_CONTEXT_CACHE_SIZE_IN_BYTES_SETTING =
+        Setting.affixKeySetting("script.context.", "cache_max_size_in_bytes",
+            key -> Setting.byteSizeSetting(key, SCRIPT_CACHE_SIZE_IN_BYTES_SETTING, Property.NodeScope));
+    public static final Setting<List<String>> SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING =
+        Setting.listSetting("script.cache.precompile_contexts", Collections.emptyList(), Function.identity(), Property.NodeScope);
     public static final Setting<TimeValue> SCRIPT_CACHE_EXPIRE_SETTING =
         Setting.positiveTimeSetting("script.cache.expire", TimeValue.timeValueMillis(0), Property.NodeScope);
     public static final Setting<Integer> SCRIPT_MAX_SIZE_IN_BYTES =
@@ -120,10 +132,13 @@ public class ScriptService implements Closeable, ClusterStateApplier {
     private final Map<String, ScriptEngine> engines;
     private final Map<String, ScriptContext<?>> contexts;
 
-    private final Cache<CacheKey, Object> cache;
+    private final Map<String, ScriptCache> caches;
+    private final List<String> precompileContexts;
 
     private final ScriptMetrics scriptMetrics = new ScriptMetrics();
 
+    private volatile Executor precompileExecutor;
+
     private ClusterState clusterState;
 
     private int maxSizeInBytes;
@@ -211,20 +226,35 @@ public class ScriptService implements Closeable, ClusterStateApplier {
             }
         }
 
-        int cacheMaxSize = SCRIPT_CACHE_SIZE_SETTING.get(settings);
-
-        CacheBuilder<CacheKey, Object> cacheBuilder = CacheBuilder.builder();
-        if (cacheMaxSize >= 0) {
-            cacheBuilder.setMaximumWeight(cacheMaxSize);
-        }
-
+        // contexts share a single cache bounded by script.cache.max_size, so that the total number of compiled classes stays the
+        // same regardless of the number of contexts, unless the size of their cache is configured on its own
         TimeValue cacheExpire = SCRIPT_CACHE_EXPIRE_SETTING.get(settings);
-        if (cacheExpire.getNanos() != 0) {
-            cacheBuilder.setExpireAfterAccess(cacheExpire);
+        Map<String, ScriptCache> caches = new HashMap<>();
+        List<String> sharedCacheContexts = new ArrayList<>();
+        for (String context : contexts.keySet()) {
+            Setting<Integer> cacheMaxSize = SCRIPT_CONTEXT_CACHE_SIZE_SETTING.getConcreteSettingForNamespace(context);
+            Setting<ByteSizeValue> cacheMaxSizeInBytes = SCRIPT_CONTEXT_CACHE_SIZE_IN_BYTES_SETTING.getConcreteSettingForNamespace(context);
+            if (cacheMaxSize.exists(settings) || cacheMaxSizeInBytes.exists(settings)) {
+                caches.put(context, new ScriptCache(context, Collections.singleton(context), cacheMaxSize.get(settings),
+                    cacheMaxSizeInBytes.get(settings), cacheExpire));
+            } else {
+                sharedCacheContexts.add(context);
+            }
+        }
+        ScriptCache sharedCache = new ScriptCache("shared", sharedCacheContexts, SCRIPT_CACHE_SIZE_SETTING.get(settings),
+            SCRIPT_CACHE_SIZE_IN_BYTES_SETTING.get(settings), cacheExpire);
+        for (String context : sharedCacheContexts) {
+            caches.put(context, sharedCache);
         }
+        this.caches = Collections.unmodifiableMap(caches);
 
-        logger.debug("using script cache with max_size [{}], expire [{}]", cacheMaxSize, cacheExpire);
-        this.cache = cacheBuilder.removalListener(new ScriptCacheRemovalListener()).build();
+        this.precompileContexts = SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING.get(settings);
+        for (String context : precompileContexts) {
+            if (contexts.containsKey(context) == false) {
+                throw new IllegalArgumentException("unknown script context [" + context + "] found in setting [" +
+                    SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING.getKey() + "].");
+            }
+        }
 
         this.lastInlineCompileTime = System.nanoTime();
         this.setMaxSizeInBytes(SCRIPT_MAX_SIZE_IN_BYTES.get(settings));
@@ -236,6 +266,14 @@ public class ScriptService implements Closeable, ClusterStateApplier {
         clusterSettings.addSettingsUpdateConsumer(SCRIPT_MAX_COMPILATIONS_RATE, this::setMaxCompilationRate);
     }
 
+    /**
+     * Sets the executor that compiles the stored scripts for the contexts of {@link #SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING}
+     * whenever they change. Stored scripts are not precompiled until it is set.
+     */
+    public void setPrecompileExecutor(Executor precompileExecutor) {
+        this.precompileExecutor = precompileExecutor;
+    }
+
     @Override
     public void close() throws IOException {
         IOUtils.close(engines.values());
@@ -330,19 +368,29 @@ public class ScriptService implements Closeable, ClusterStateApplier {
             logger.trace("compiling lang: [{}] type: [{}] script: {}", lang, type, idOrCode);
         }
 
+        return context.factoryClazz.cast(getOrCompile(scriptEngine, context, type, lang, id, idOrCode, options, true));
+    }
+
+    /**
+     * Returns the cached compiled script for the given source and context, compiling and caching it if needed.
+     */
+    private Object getOrCompile(ScriptEngine scriptEngine, ScriptContext<?> context, ScriptType type, String lang, String id,
+                                String idOrCode, Map<String, String> options, boolean checkCompilationLimit) {
+        ScriptCache cache = caches.get(context.name);
         CacheKey cacheKey = new CacheKey(lang, idOrCode, context.name, options);
         Object compiledScript = cache.get(cacheKey);
 
         if (compiledScript != null) {
-            return context.factoryClazz.cast(compiledScript);
+            return compiledScript;
         }
 
         // Synchronize so we don't compile scripts many times during multiple shards all compiling a script
         synchronized (this) {
             // Retrieve it again in case it has been put by a different thread
-            compiledScript = cache.get(cacheKey);
+            compiledScript = cache.peek(cacheKey);
 
             if (compiledScript == null) {
+                long compileTimeInNanos;
                 try {
                     // Either an un-cached inline script or indexed script
                     // If the script type is inline the name will be the same as the code for identification in exceptions
@@ -352,8 +400,12 @@ public class ScriptService implements Closeable, ClusterStateApplier {
                         logger.trace("compiling script, type: [{}], lang: [{}], options: [{}]", type, lang, options);
                     }
                     // Check whether too many compilations have happened
-                    checkCompilationLimit();
+                    if (checkCompilationLimit) {
+                        checkCompilationLimit();
+                    }
+                    long startTimeInNanos = System.nanoTime();
                     compiledScript = scriptEngine.compile(id, idOrCode, context, options);
+                    compileTimeInNanos = System.nanoTime() - startTimeInNanos;
                 } catch (ScriptException good) {
                     // TODO: remove this try-catch completely, when all script engines have good exceptions!
                     throw good; // its already good
@@ -364,11 +416,10 @@ public class ScriptService implements Closeable, ClusterStateApplier {
 
                 // Since the cache key is the script content itself we don't need to
                 // invalidate/check the cache if an indexed script changes.
-                scriptMetrics.onCompilation();
-                cache.put(cacheKey, compiledScript);
+                cache.put(cacheKey, compiledScript, compileTimeInNanos);
             }
 
-            return context.factoryClazz.cast(compiledScript);
+            return compiledScript;
         }
     }
 
@@ -539,30 +590,61 @@ public class ScriptService implements Closeable, ClusterStateApplier {
     }
 
     public ScriptStats stats() {
-        return scriptMetrics.stats();
+        List<ScriptContextStats> contextStats = new ArrayList<>(caches.size());
+        for (Map.Entry<String, ScriptCache> cache : caches.entrySet()) {
+            contextStats.add(cache.getValue().stats(cache.getKey()));
+        }
+        contextStats.sort(Comparator.comparing(ScriptContextStats::getContext));
+        return new ScriptStats(contextStats, scriptMetrics.compilationLimitTriggered.count());
     }
 
     @Override
     public void applyClusterState(ClusterChangedEvent event) {
         clusterState = event.state();
+
+        Executor executor = precompileExecutor;
+        if (precompileContexts.isEmpty() == false && executor != null) {
+            ScriptMetaData previous = event.previousState().metaData().custom(ScriptMetaData.TYPE);
+            ScriptMetaData current = event.state().metaData().custom(ScriptMetaData.TYPE);
+            if (current != null && current != previous) {
+                Map<String, StoredScriptSource> storedScripts = current.getStoredScripts();
+                executor.execute(() -> precompileStoredScripts(storedScripts));
+            }
+        }
     }
 
     /**
-     * A small listener for the script cache that calls each
-     * {@code ScriptEngine}'s {@code scriptRemoved} method when the
-     * script has been removed from the cache
+     * Compiles the given stored scripts for each of the contexts of {@link #SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING} so that the
+     * first searches that use them find them in the cache. These compilations don't count against the compilation rate limit.
      */
-    private class ScriptCacheRemovalListener implements RemovalListener<CacheKey, Object> {
-        @Override
-        public void onRemoval(RemovalNotification<CacheKey, Object> notification) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("removed {} from cache, reason: {}", notification.getValue(), notification.getRemovalReason());
+    void precompileStoredScripts(Map<String, StoredScriptSource> storedScripts) {
+        if (isTypeEnabled(ScriptType.STORED) == false) {
+            return;
+        }
+        for (Map.Entry<String, StoredScriptSource> storedScript : storedScripts.entrySet()) {
+            StoredScriptSource source = storedScript.getValue();
+            ScriptEngine scriptEngine = engines.get(source.getLang());
+            if (scriptEngine == null) {
+                continue;
+            }
+            for (String contextName : precompileContexts) {
+                ScriptContext<?> context = contexts.get(contextName);
+                if (isContextEnabled(context) == false) {
+                    continue;
+                }
+                try {
+                    getOrCompile(scriptEngine, context, ScriptType.STORED, source.getLang(), storedScript.getKey(), source.getSource(),
+                        source.getOptions(), false);
+                } catch (Exception e) {
+                    // stored scripts are usually only meant for some of the contexts
+                    logger.debug(() -> new ParameterizedMessage("failed to precompile stored script [{}] for context [{}]",
+                        storedScript.getKey(), contextName), e);
+                }
             }
-            scriptMetrics.onCacheEviction();
         }
     }
 
-    private static final class CacheKey {
+    static final class CacheKey {
         final String lang;
         final String idOrCode;
         final String context;
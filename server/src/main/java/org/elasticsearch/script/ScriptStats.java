@@ -23,26 +23,66 @@ import org.elasticsearch.Version;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.ToXContentFragment;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 public class ScriptStats implements Writeable, ToXContentFragment {
     private final long compilations;
     private final long cacheEvictions;
     private final long compilationLimitTriggered;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final long compileTimeInMillis;
+    private final List<ScriptContextStats> contextStats;
 
     public ScriptStats(long compilations, long cacheEvictions, long compilationLimitTriggered) {
+        this(compilations, cacheEvictions, compilationLimitTriggered, 0, 0, 0, Collections.emptyList());
+    }
+
+    /**
+     * Sums up the statistics of the caches of the different script contexts.
+     */
+    public ScriptStats(List<ScriptContextStats> contextStats, long compilationLimitTriggered) {
+        this(contextStats.stream().mapToLong(ScriptContextStats::getCompilations).sum(),
+            contextStats.stream().mapToLong(ScriptContextStats::getCacheEvictions).sum(),
+            compilationLimitTriggered,
+            contextStats.stream().mapToLong(ScriptContextStats::getCacheHits).sum(),
+            contextStats.stream().mapToLong(ScriptContextStats::getCacheMisses).sum(),
+            contextStats.stream().mapToLong(ScriptContextStats::getCompileTimeInMillis).sum(),
+            contextStats);
+    }
+
+    private ScriptStats(long compilations, long cacheEvictions, long compilationLimitTriggered, long cacheHits, long cacheMisses,
+                        long compileTimeInMillis, List<ScriptContextStats> contextStats) {
         this.compilations = compilations;
         this.cacheEvictions = cacheEvictions;
         this.compilationLimitTriggered = compilationLimitTriggered;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.compileTimeInMillis = compileTimeInMillis;
+        this.contextStats = Collections.unmodifiableList(contextStats);
     }
 
     public ScriptStats(StreamInput in) throws IOException {
         compilations = in.readVLong();
         cacheEvictions = in.readVLong();
         compilationLimitTriggered = in.getVersion().onOrAfter(Version.V_7_0_0) ? in.readVLong() : 0;
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            cacheHits = in.readVLong();
+            cacheMisses = in.readVLong();
+            compileTimeInMillis = in.readVLong();
+            contextStats = Collections.unmodifiableList(in.readList(ScriptContextStats::new));
+        } else {
+            cacheHits = 0;
+            cacheMisses = 0;
+            compileTimeInMillis = 0;
+            contextStats = Collections.emptyList();
+        }
     }
 
     @Override
@@ -52,6 +92,12 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         if (out.getVersion().onOrAfter(Version.V_7_0_0)) {
             out.writeVLong(compilationLimitTriggered);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeVLong(cacheHits);
+            out.writeVLong(cacheMisses);
+            out.writeVLong(compileTimeInMillis);
+            out.writeList(contextStats);
+        }
     }
 
     public long getCompilations() {
@@ -66,20 +112,55 @@ public class ScriptStats implements Writeable, ToXContentFragment {
         return compilationLimitTriggered;
     }
 
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getCompileTimeInMillis() {
+        return compileTimeInMillis;
+    }
+
+    /**
+     * The statistics of the caches of the different script contexts.
+     */
+    public List<ScriptContextStats> getContextStats() {
+        return contextStats;
+    }
+
     @Override
     public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
         builder.startObject(Fields.SCRIPT_STATS);
         builder.field(Fields.COMPILATIONS, getCompilations());
         builder.field(Fields.CACHE_EVICTIONS, getCacheEvictions());
         builder.field(Fields.COMPILATION_LIMIT_TRIGGERED, getCompilationLimitTriggered());
+        builder.field(Fields.CACHE_HITS, getCacheHits());
+        builder.field(Fields.CACHE_MISSES, getCacheMisses());
+        builder.humanReadableField(Fields.COMPILE_TIME_IN_MILLIS, Fields.COMPILE_TIME, new TimeValue(getCompileTimeInMillis()));
+        if (contextStats.isEmpty() == false) {
+            builder.startArray(Fields.CONTEXTS);
+            for (ScriptContextStats context : contextStats) {
+                context.toXContent(builder, params);
+            }
+            builder.endArray();
+        }
         builder.endObject();
         return builder;
     }
 
     static final class Fields {
         static final String SCRIPT_STATS = "script";
+        static final String CONTEXTS = "contexts";
+        static final String CONTEXT = "context";
         static final String COMPILATIONS = "compilations";
         static final String CACHE_EVICTIONS = "cache_evictions";
         static final String COMPILATION_LIMIT_TRIGGERED = "compilation_limit_triggered";
+        static final String CACHE_HITS = "cache_hits";
+        static final String CACHE_MISSES = "cache_misses";
+        static final String COMPILE_TIME = "compile_time";
+        static final String COMPILE_TIME_IN_MILLIS = "compile_time_in_millis";
     }
 }
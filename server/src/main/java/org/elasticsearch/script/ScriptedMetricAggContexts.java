@@ -22,7 +22,7 @@ package org.elasticsearch.script;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.search.Scorable;
 import org.elasticsearch.ElasticsearchException;
-import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.search.lookup.LeafDocLookup;
 import org.elasticsearch.search.lookup.LeafSearchLookup;
 import org.elasticsearch.search.lookup.SearchLookup;
 
@@ -108,9 +108,7 @@ public class ScriptedMetricAggContexts {
             return state;
         }
 
-        // Return the doc as a map (instead of LeafDocLookup) in order to abide by type whitelisting rules for
-        // Painless scripts.
-        public Map<String, ScriptDocValues<?>> getDoc() {
+        public LeafDocLookup getDoc() {
             return leafLookup == null ? null : leafLookup.doc();
         }
 
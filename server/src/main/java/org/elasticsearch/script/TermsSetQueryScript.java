@@ -23,7 +23,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.apache.lucene.index.LeafReaderContext;
-import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.search.lookup.LeafDocLookup;
 import org.elasticsearch.search.lookup.LeafSearchLookup;
 import org.elasticsearch.search.lookup.SearchLookup;
 
@@ -82,7 +82,7 @@ public abstract class TermsSetQueryScript {
     /**
      * The doc lookup for the Lucene segment this script was created for.
      */
-    public Map<String, ScriptDocValues<?>> getDoc() {
+    public LeafDocLookup getDoc() {
         return leafLookup.doc();
     }
 
@@ -0,0 +1,304 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search;
+
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.common.time.DateFormatter;
+import org.elasticsearch.common.time.DateMathParser;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.internal.SearchContext;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortMode;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * The minimum and maximum value of a numeric or date field on a shard. Bounds are reported by shards whose content
+ * can no longer change so that coordinating nodes can cache them and skip shards that cannot match a range query
+ * without sending a {@code can_match} request, see {@link org.elasticsearch.action.search.ShardFieldBoundsCache}.
+ * Shards also report the bounds of the primary sort field so that the most competitive shards can be searched first.
+ *
+ * Bounds are always conservative: they may be wider than the actual values on the shard but never narrower.
+ * Date bounds are stored in milliseconds since the epoch, numeric bounds as doubles.
+ */
+public final class FieldBounds implements Writeable {
+
+    /**
+     * Bounds of a field that has no values on a shard.
+     */
+    public static final FieldBounds EMPTY = new FieldBounds(null, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    @Nullable
+    private final String dateFormat;
+    private final double min;
+    private final double max;
+
+    public FieldBounds(@Nullable String dateFormat, double min, double max) {
+        this.dateFormat = dateFormat;
+        this.min = min;
+        this.max = max;
+    }
+
+    public FieldBounds(StreamInput in) throws IOException {
+        this.dateFormat = in.readOptionalString();
+        this.min = in.readDouble();
+        this.max = in.readDouble();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(dateFormat);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    /**
+     * Returns whether the field has any value on the shard.
+     */
+    public boolean hasValues() {
+        return min <= max;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the format of the date field these bounds belong to, or {@code null} if the field is numeric.
+     */
+    @Nullable
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    /**
+     * Returns {@code false} if the given range query cannot match any value within these bounds. This method may return
+     * {@code true} for ranges that do not match, for instance if the range cannot be parsed without the field mapping.
+     */
+    public boolean mayMatch(RangeQueryBuilder range, LongSupplier nowInMillis) {
+        if (hasValues() == false) {
+            // a range query never matches documents without a value
+            return false;
+        }
+        try {
+            // bounds are treated as inclusive and date math is rounded outwards so the check is conservative
+            final double lower;
+            final double upper;
+            if (dateFormat != null) {
+                String format = range.format() != null ? range.format() : dateFormat;
+                DateMathParser parser = DateFormatter.forPattern(format).toDateMathParser();
+                ZoneId timeZone = range.timeZone() == null ? null : ZoneId.of(range.timeZone());
+                lower = range.from() == null ? Double.NEGATIVE_INFINITY :
+                    parser.parse(toString(range.from()), nowInMillis, false, timeZone).toEpochMilli();
+                upper = range.to() == null ? Double.POSITIVE_INFINITY :
+                    parser.parse(toString(range.to()), nowInMillis, true, timeZone).toEpochMilli();
+            } else {
+                lower = range.from() == null ? Double.NEGATIVE_INFINITY : toDouble(range.from());
+                upper = range.to() == null ? Double.POSITIVE_INFINITY : toDouble(range.to());
+            }
+            return lower <= max && upper >= min;
+        } catch (RuntimeException e) {
+            // let the shard deal with values we cannot parse here
+            return true;
+        }
+    }
+
+    private static String toString(Object value) {
+        return value instanceof BytesRef ? ((BytesRef) value).utf8ToString() : value.toString();
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(toString(value));
+    }
+
+    /**
+     * Computes the bounds of the given field on the given reader, or returns {@code null} if the field is not an indexed
+     * numeric or date field.
+     */
+    @Nullable
+    public static FieldBounds compute(@Nullable MappedFieldType fieldType, IndexReader reader) throws IOException {
+        if (fieldType == null) {
+            // unmapped fields have no values
+            return EMPTY;
+        }
+        if (fieldType.indexOptions() == IndexOptions.NONE) {
+            return null;
+        }
+        if (fieldType instanceof DateFieldMapper.DateFieldType) {
+            DateFormatter formatter = ((DateFieldMapper.DateFieldType) fieldType).dateTimeFormatter();
+            if (Locale.ROOT.equals(formatter.locale()) == false) {
+                // the coordinating node parses dates with the root locale
+                return null;
+            }
+            byte[] minPacked = PointValues.getMinPackedValue(reader, fieldType.name());
+            byte[] maxPacked = PointValues.getMaxPackedValue(reader, fieldType.name());
+            if (minPacked == null || maxPacked == null) {
+                return EMPTY;
+            }
+            long min = LongPoint.decodeDimension(minPacked, 0);
+            long max = LongPoint.decodeDimension(maxPacked, 0);
+            if (DateFieldMapper.Resolution.NANOSECONDS.type().equals(fieldType.typeName())) {
+                min = Math.floorDiv(min, 1_000_000L);
+                max = Math.floorDiv(max, 1_000_000L) + 1;
+            }
+            return new FieldBounds(formatter.pattern(), roundDown(min), roundUp(max));
+        }
+        if (fieldType instanceof NumberFieldMapper.NumberFieldType) {
+            NumberFieldMapper.NumberFieldType numberFieldType = (NumberFieldMapper.NumberFieldType) fieldType;
+            byte[] minPacked = PointValues.getMinPackedValue(reader, fieldType.name());
+            byte[] maxPacked = PointValues.getMaxPackedValue(reader, fieldType.name());
+            if (minPacked == null || maxPacked == null) {
+                return EMPTY;
+            }
+            Number min = numberFieldType.parsePoint(minPacked);
+            Number max = numberFieldType.parsePoint(maxPacked);
+            if (min instanceof Long) {
+                return new FieldBounds(null, roundDown(min.longValue()), roundUp(max.longValue()));
+            }
+            return new FieldBounds(null, min.doubleValue(), max.doubleValue());
+        }
+        return null;
+    }
+
+    // longs that cannot be represented exactly as doubles are rounded outwards
+    private static double roundDown(long value) {
+        double d = value;
+        return (long) d > value ? Math.nextDown(d) : d;
+    }
+
+    private static double roundUp(long value) {
+        double d = value;
+        return (long) d < value ? Math.nextUp(d) : d;
+    }
+
+    /**
+     * Returns the range queries that all documents matching the given query must match, looking through
+     * {@code bool} {@code must} and {@code filter} clauses as well as {@code constant_score} queries.
+     */
+    public static List<RangeQueryBuilder> requiredRanges(@Nullable QueryBuilder query) {
+        List<RangeQueryBuilder> ranges = new ArrayList<>();
+        collectRequiredRanges(query, ranges);
+        return ranges;
+    }
+
+    private static void collectRequiredRanges(QueryBuilder query, List<RangeQueryBuilder> ranges) {
+        if (query instanceof RangeQueryBuilder) {
+            ranges.add((RangeQueryBuilder) query);
+        } else if (query instanceof ConstantScoreQueryBuilder) {
+            collectRequiredRanges(((ConstantScoreQueryBuilder) query).innerQuery(), ranges);
+        } else if (query instanceof BoolQueryBuilder) {
+            BoolQueryBuilder bool = (BoolQueryBuilder) query;
+            for (QueryBuilder clause : bool.must()) {
+                collectRequiredRanges(clause, ranges);
+            }
+            for (QueryBuilder clause : bool.filter()) {
+                collectRequiredRanges(clause, ranges);
+            }
+        }
+    }
+
+    /**
+     * Returns the primary sort of the given search source if it sorts on a field and the sort values of all documents that have a
+     * value are within the bounds of that field, or {@code null} otherwise. Documents without a value must sort last.
+     */
+    @Nullable
+    public static FieldSortBuilder boundedPrimarySort(@Nullable SearchSourceBuilder source) {
+        if (source == null || source.sorts() == null || source.sorts().isEmpty()
+                || source.sorts().get(0) instanceof FieldSortBuilder == false) {
+            return null;
+        }
+        FieldSortBuilder sort = (FieldSortBuilder) source.sorts().get(0);
+        if (FieldSortBuilder.DOC_FIELD_NAME.equals(sort.getFieldName())
+                || sort.getNestedSort() != null || sort.getNestedPath() != null
+                // sums, averages and medians of multi-valued fields may be outside of the bounds
+                || (sort.sortMode() != null && sort.sortMode() != SortMode.MIN && sort.sortMode() != SortMode.MAX)
+                || (sort.missing() != null && "_last".equals(toString(sort.missing())) == false)) {
+            return null;
+        }
+        return sort;
+    }
+
+    /**
+     * Computes the bounds of the primary sort field of the request of the given context on its searcher, or returns
+     * {@code null} if the primary sort is not {@link #boundedPrimarySort bounded} or not on a numeric or date field.
+     */
+    @Nullable
+    public static FieldBounds computeSortFieldBounds(SearchContext context) throws IOException {
+        final FieldSortBuilder sort = context.request() == null ? null : boundedPrimarySort(context.request().source());
+        if (sort == null) {
+            return null;
+        }
+        final MappedFieldType fieldType = context.mapperService().fullName(sort.getFieldName());
+        if (fieldType != null && DateFieldMapper.Resolution.NANOSECONDS.type().equals(fieldType.typeName())) {
+            // sort values are in nanoseconds while bounds are in milliseconds
+            return null;
+        }
+        return compute(fieldType, context.searcher().getIndexReader());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FieldBounds that = (FieldBounds) o;
+        return Double.compare(that.min, min) == 0 &&
+            Double.compare(that.max, max) == 0 &&
+            Objects.equals(dateFormat, that.dateFormat);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dateFormat, min, max);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldBounds[format=" + dateFormat + ", min=" + min + ", max=" + max + "]";
+    }
+}
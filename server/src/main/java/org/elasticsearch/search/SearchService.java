@@ -21,19 +21,25 @@ package org.elasticsearch.search;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.TopDocs;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.Version;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.OriginalIndices;
 import org.elasticsearch.action.search.SearchTask;
 import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.lucene.Lucene;
+import org.elasticsearch.common.lucene.index.ElasticsearchDirectoryReader;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
@@ -53,12 +59,14 @@ import org.elasticsearch.index.query.MatchNoneQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryRewriteContext;
 import org.elasticsearch.index.query.QueryShardContext;
+import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.Rewriteable;
 import org.elasticsearch.index.shard.IndexEventListener;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.SearchOperationListener;
 import org.elasticsearch.indices.IndicesService;
 import org.elasticsearch.indices.cluster.IndicesClusterStateService.AllocatedIndices.IndexRemovalReason;
+import org.elasticsearch.monitor.NodeLoadService;
 import org.elasticsearch.node.ResponseCollectorService;
 import org.elasticsearch.script.FieldScript;
 import org.elasticsearch.script.ScriptService;
@@ -108,6 +116,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -194,7 +203,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     public SearchService(ClusterService clusterService, IndicesService indicesService,
                          ThreadPool threadPool, ScriptService scriptService, BigArrays bigArrays, FetchPhase fetchPhase,
-                         ResponseCollectorService responseCollectorService) {
+                         ResponseCollectorService responseCollectorService, @Nullable NodeLoadService nodeLoadService) {
         Settings settings = clusterService.getSettings();
         this.threadPool = threadPool;
         this.clusterService = clusterService;
@@ -202,7 +211,7 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
         this.scriptService = scriptService;
         this.responseCollectorService = responseCollectorService;
         this.bigArrays = bigArrays;
-        this.queryPhase = new QueryPhase();
+        this.queryPhase = new QueryPhase(nodeLoadService);
         this.fetchPhase = fetchPhase;
         this.multiBucketConsumerService = new MultiBucketConsumerService(clusterService, settings);
 
@@ -1015,21 +1024,62 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
      * shard.
      */
     public boolean canMatch(ShardSearchRequest request) throws IOException {
+        return canMatch(request, false).canMatch();
+    }
+
+    private CanMatchResponse canMatch(ShardSearchRequest request, boolean computeFieldBounds) throws IOException {
         assert request.searchType() == SearchType.QUERY_THEN_FETCH : "unexpected search type: " + request.searchType();
+        // the range queries need to be collected before the rewrite since ranges that are disjoint from the shard are rewritten away
+        final List<RangeQueryBuilder> ranges = computeFieldBounds && canRewriteToMatchNone(request.source()) ?
+            FieldBounds.requiredRanges(request.source().query()) : Collections.emptyList();
         try (DefaultSearchContext context = createSearchContext(request, defaultSearchTimeout, false, "can_match")) {
+            final Map<String, FieldBounds> fieldBounds = ranges.isEmpty() ? Collections.emptyMap() : computeFieldBounds(context, ranges);
+            final FieldBounds sortFieldBounds = computeFieldBounds ? FieldBounds.computeSortFieldBounds(context) : null;
             SearchSourceBuilder source = context.request().source();
             if (canRewriteToMatchNone(source)) {
                 QueryBuilder queryBuilder = source.query();
-                return queryBuilder instanceof MatchNoneQueryBuilder == false;
+                return new CanMatchResponse(queryBuilder instanceof MatchNoneQueryBuilder == false, fieldBounds, sortFieldBounds);
             }
-            return true; // null query means match_all
+            return new CanMatchResponse(true, fieldBounds, sortFieldBounds); // null query means match_all
         }
     }
 
+    /**
+     * Computes the bounds of the fields of the given range queries so that the coordinating node can skip this shard for
+     * later requests without asking. Bounds are only returned if the shard is blocked for writes and its searcher is current,
+     * otherwise they might be outdated by the time they are used.
+     */
+    private static Map<String, FieldBounds> computeFieldBounds(SearchContext context, List<RangeQueryBuilder> ranges) throws IOException {
+        final Settings indexSettings = context.indexShard().indexSettings().getSettings();
+        final boolean writeBlocked = IndexMetaData.INDEX_BLOCKS_WRITE_SETTING.get(indexSettings)
+            || IndexMetaData.INDEX_READ_ONLY_SETTING.get(indexSettings)
+            // deletes can only narrow the bounds
+            || IndexMetaData.INDEX_BLOCKS_READ_ONLY_ALLOW_DELETE_SETTING.get(indexSettings);
+        final IndexReader topReader = context.searcher().getIndexReader();
+        if (writeBlocked == false || topReader instanceof DirectoryReader == false) {
+            return Collections.emptyMap();
+        }
+        // bounds are shared by all requests on the coordinating node so they must not depend on reader wrappers, e.g. document
+        // level security
+        final DirectoryReader reader = ElasticsearchDirectoryReader.getElasticsearchDirectoryReader((DirectoryReader) topReader);
+        if (reader == null || reader.isCurrent() == false) {
+            return Collections.emptyMap();
+        }
+        final Map<String, FieldBounds> fieldBounds = new HashMap<>();
+        for (RangeQueryBuilder range : ranges) {
+            if (fieldBounds.containsKey(range.fieldName()) == false) {
+                FieldBounds bounds = FieldBounds.compute(context.mapperService().fullName(range.fieldName()), reader);
+                if (bounds != null) {
+                    fieldBounds.put(range.fieldName(), bounds);
+                }
+            }
+        }
+        return fieldBounds;
+    }
 
     public void canMatch(ShardSearchRequest request, ActionListener<CanMatchResponse> listener) {
         try {
-            listener.onResponse(new CanMatchResponse(canMatch(request)));
+            listener.onResponse(canMatch(request, true));
         } catch (IOException e) {
             listener.onFailure(e);
         }
@@ -1094,30 +1144,71 @@ public class SearchService extends AbstractLifecycleComponent implements IndexEv
 
     public static final class CanMatchResponse extends SearchPhaseResult {
         private boolean canMatch;
+        private Map<String, FieldBounds> fieldBounds;
+        @Nullable
+        private FieldBounds sortFieldBounds;
 
         public CanMatchResponse(StreamInput in) throws IOException {
             this.canMatch = in.readBoolean();
+            readBounds(in);
         }
 
         public CanMatchResponse(boolean canMatch) {
+            this(canMatch, Collections.emptyMap(), null);
+        }
+
+        public CanMatchResponse(boolean canMatch, Map<String, FieldBounds> fieldBounds, @Nullable FieldBounds sortFieldBounds) {
             this.canMatch = canMatch;
+            this.fieldBounds = Objects.requireNonNull(fieldBounds);
+            this.sortFieldBounds = sortFieldBounds;
         }
 
         @Override
         public void readFrom(StreamInput in) throws IOException {
             super.readFrom(in);
             canMatch = in.readBoolean();
+            readBounds(in);
+        }
+
+        private void readBounds(StreamInput in) throws IOException {
+            if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+                fieldBounds = in.readMap(StreamInput::readString, FieldBounds::new);
+                sortFieldBounds = in.readOptionalWriteable(FieldBounds::new);
+            } else {
+                fieldBounds = Collections.emptyMap();
+                sortFieldBounds = null;
+            }
         }
 
         @Override
         public void writeTo(StreamOutput out) throws IOException {
             super.writeTo(out);
             out.writeBoolean(canMatch);
+            if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+                out.writeMap(fieldBounds, StreamOutput::writeString, (o, bounds) -> bounds.writeTo(o));
+                out.writeOptionalWriteable(sortFieldBounds);
+            }
         }
 
         public boolean canMatch() {
             return canMatch;
         }
+
+        /**
+         * Returns the bounds of the fields of the range queries of the request, keyed by field name. Bounds are only
+         * reported by shards whose content cannot change.
+         */
+        public Map<String, FieldBounds> fieldBounds() {
+            return fieldBounds;
+        }
+
+        /**
+         * Returns the bounds of the primary sort field of the request on this shard, or {@code null} if unknown.
+         */
+        @Nullable
+        public FieldBounds sortFieldBounds() {
+            return sortFieldBounds;
+        }
     }
 
     /**
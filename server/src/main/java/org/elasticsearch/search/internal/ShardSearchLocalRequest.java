@@ -73,6 +73,7 @@ public class ShardSearchLocalRequest implements ShardSearchRequest {
     private String[] indexRoutings = Strings.EMPTY_ARRAY;
     private String preference;
     private boolean profile;
+    private Double bottomSortValue;
 
     ShardSearchLocalRequest() {
     }
@@ -200,6 +201,15 @@ public class ShardSearchLocalRequest implements ShardSearchRequest {
         return profile;
     }
 
+    @Override
+    public Double bottomSortValue() {
+        return bottomSortValue;
+    }
+
+    void bottomSortValue(@Nullable Double bottomSortValue) {
+        this.bottomSortValue = bottomSortValue;
+    }
+
     void setSearchType(SearchType type) {
         this.searchType = type;
     }
@@ -228,6 +238,9 @@ public class ShardSearchLocalRequest implements ShardSearchRequest {
             indexRoutings = Strings.EMPTY_ARRAY;
             preference = null;
         }
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            bottomSortValue = in.readOptionalDouble();
+        }
     }
 
     protected void innerWriteTo(StreamOutput out, boolean asKey) throws IOException {
@@ -257,6 +270,10 @@ public class ShardSearchLocalRequest implements ShardSearchRequest {
                 out.writeOptionalString(preference);
             }
         }
+        // the bottom sort value changes the hits that are returned so it needs to be part of the cache key
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeOptionalDouble(bottomSortValue);
+        }
     }
 
     @Override
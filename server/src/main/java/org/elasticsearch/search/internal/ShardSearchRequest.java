@@ -94,6 +94,14 @@ public interface ShardSearchRequest {
      */
     boolean isProfile();
 
+    /**
+     * Returns the value of the primary sort field of the worst hit among the top hits that the coordinating node has already
+     * collected from other shards, or {@code null} if unknown. Documents that sort after this value cannot make it into the
+     * response, see {@link org.elasticsearch.search.FieldBounds#boundedPrimarySort}.
+     */
+    @Nullable
+    Double bottomSortValue();
+
     /**
      * Returns the cache key for this shard search request, based on its content
      */
@@ -189,6 +189,15 @@ public class ShardSearchTransportRequest extends TransportRequest implements Sha
         return shardSearchLocalRequest.isProfile();
     }
 
+    @Override
+    public Double bottomSortValue() {
+        return shardSearchLocalRequest.bottomSortValue();
+    }
+
+    public void bottomSortValue(@Nullable Double bottomSortValue) {
+        shardSearchLocalRequest.bottomSortValue(bottomSortValue);
+    }
+
     @Override
     public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
         return new SearchTask(id, type, action, getDescription(), parentTaskId, headers);
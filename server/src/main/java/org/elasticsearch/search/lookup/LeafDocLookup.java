@@ -111,6 +111,38 @@ public class LeafDocLookup implements Map<String, ScriptDocValues<?>> {
         return scriptValues;
     }
 
+    /**
+     * Returns the first value of the given numeric or date field for the current document as a primitive {@code long}, dates as
+     * milliseconds since the epoch. Unlike {@code doc[field].value} this neither boxes the value nor wraps dates in date objects.
+     */
+    public long getLong(String field) {
+        final ScriptDocValues<?> scriptValues = get(field);
+        if (scriptValues instanceof ScriptDocValues.Longs) {
+            return ((ScriptDocValues.Longs) scriptValues).getLong(0);
+        } else if (scriptValues instanceof ScriptDocValues.Dates) {
+            return ((ScriptDocValues.Dates) scriptValues).getEpochMilli(0);
+        }
+        throw new IllegalArgumentException("field [" + field + "] can't be read as a long, it has doc values of type ["
+                + scriptValues.getClass().getSimpleName() + "]");
+    }
+
+    /**
+     * Returns the first value of the given numeric or date field for the current document as a primitive {@code double}, dates as
+     * milliseconds since the epoch. Unlike {@code doc[field].value} this neither boxes the value nor wraps dates in date objects.
+     */
+    public double getDouble(String field) {
+        final ScriptDocValues<?> scriptValues = get(field);
+        if (scriptValues instanceof ScriptDocValues.Doubles) {
+            return ((ScriptDocValues.Doubles) scriptValues).getDouble(0);
+        } else if (scriptValues instanceof ScriptDocValues.Longs) {
+            return ((ScriptDocValues.Longs) scriptValues).getLong(0);
+        } else if (scriptValues instanceof ScriptDocValues.Dates) {
+            return ((ScriptDocValues.Dates) scriptValues).getEpochMilli(0);
+        }
+        throw new IllegalArgumentException("field [" + field + "] can't be read as a double, it has doc values of type ["
+                + scriptValues.getClass().getSimpleName() + "]");
+    }
+
     @Override
     public boolean containsKey(Object key) {
         // assume its a string...
@@ -39,10 +39,12 @@ import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.TotalHits;
 import org.apache.lucene.util.Counter;
 import org.elasticsearch.action.search.SearchTask;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.util.concurrent.EsThreadPoolExecutor;
 import org.elasticsearch.common.util.concurrent.QueueResizingEsThreadPoolExecutor;
+import org.elasticsearch.monitor.NodeLoadService;
 import org.elasticsearch.search.DocValueFormat;
 import org.elasticsearch.search.SearchPhase;
 import org.elasticsearch.search.SearchService;
@@ -80,11 +82,20 @@ public class QueryPhase implements SearchPhase {
     private final AggregationPhase aggregationPhase;
     private final SuggestPhase suggestPhase;
     private RescorePhase rescorePhase;
+    private final NodeLoadService nodeLoadService;
 
     public QueryPhase() {
+        this(null);
+    }
+
+    /**
+     * @param nodeLoadService if not null, the load signals of this node are added to each query result
+     */
+    public QueryPhase(@Nullable NodeLoadService nodeLoadService) {
         this.aggregationPhase = new AggregationPhase();
         this.suggestPhase = new SuggestPhase();
         this.rescorePhase = new RescorePhase();
+        this.nodeLoadService = nodeLoadService;
     }
 
     @Override
@@ -125,6 +136,10 @@ public class QueryPhase implements SearchPhase {
                     .buildShardResults(searchContext.getProfilers());
             searchContext.queryResult().profileResults(shardResults);
         }
+        if (nodeLoadService != null) {
+            searchContext.queryResult().nodeLoad(nodeLoadService.searchRejectionRate(), nodeLoadService.gcOverhead(),
+                nodeLoadService.ioUtilization());
+        }
     }
 
     /**
@@ -63,6 +63,9 @@ public final class QuerySearchResult extends SearchPhaseResult {
     private boolean hasProfileResults;
     private long serviceTimeEWMA = -1;
     private int nodeQueueSize = -1;
+    private double nodeSearchRejectionRate = -1;
+    private double nodeGcOverhead = -1;
+    private double nodeIoUtilization = -1;
 
     public QuerySearchResult() {
     }
@@ -254,6 +257,28 @@ public final class QuerySearchResult extends SearchPhaseResult {
         return this;
     }
 
+    public double nodeSearchRejectionRate() {
+        return this.nodeSearchRejectionRate;
+    }
+
+    public double nodeGcOverhead() {
+        return this.nodeGcOverhead;
+    }
+
+    public double nodeIoUtilization() {
+        return this.nodeIoUtilization;
+    }
+
+    /**
+     * Sets the load signals of the node that executed the query, see {@link org.elasticsearch.monitor.NodeLoadService}.
+     */
+    public QuerySearchResult nodeLoad(double searchRejectionRate, double gcOverhead, double ioUtilization) {
+        this.nodeSearchRejectionRate = searchRejectionRate;
+        this.nodeGcOverhead = gcOverhead;
+        this.nodeIoUtilization = ioUtilization;
+        return this;
+    }
+
     /**
      * Returns <code>true</code> if this result has any suggest score docs
      */
@@ -311,6 +336,11 @@ public final class QuerySearchResult extends SearchPhaseResult {
             serviceTimeEWMA = -1;
             nodeQueueSize = -1;
         }
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            nodeSearchRejectionRate = in.readDouble();
+            nodeGcOverhead = in.readDouble();
+            nodeIoUtilization = in.readDouble();
+        }
     }
 
     @Override
@@ -352,6 +382,11 @@ public final class QuerySearchResult extends SearchPhaseResult {
             out.writeZLong(serviceTimeEWMA);
             out.writeInt(nodeQueueSize);
         }
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeDouble(nodeSearchRejectionRate);
+            out.writeDouble(nodeGcOverhead);
+            out.writeDouble(nodeIoUtilization);
+        }
     }
 
     public TotalHits getTotalHits() {
@@ -47,11 +47,14 @@ import org.elasticsearch.common.lucene.Lucene;
 import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
 import org.elasticsearch.common.util.CachedSupplier;
 import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.FieldBounds;
 import org.elasticsearch.search.collapse.CollapseContext;
 import org.elasticsearch.search.internal.ScrollContext;
 import org.elasticsearch.search.internal.SearchContext;
 import org.elasticsearch.search.rescore.RescoreContext;
+import org.elasticsearch.search.sort.FieldSortBuilder;
 import org.elasticsearch.search.sort.SortAndFormats;
+import org.elasticsearch.search.sort.SortOrder;
 
 import java.io.IOException;
 import java.util.Objects;
@@ -88,17 +91,20 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
     static class EmptyTopDocsCollectorContext extends TopDocsCollectorContext {
         private final Collector collector;
         private final Supplier<TotalHits> hitCountSupplier;
+        private final SortAndFormats sortAndFormats;
 
         /**
          * Ctr
          * @param reader The index reader
          * @param query The query to execute
+         * @param sortAndFormats The query sort, if the empty top docs should be sorted
          * @param trackTotalHitsUpTo True if the total number of hits should be tracked
          * @param hasFilterCollector True if the collector chain contains a filter
          */
-        private EmptyTopDocsCollectorContext(IndexReader reader, Query query,
+        private EmptyTopDocsCollectorContext(IndexReader reader, Query query, @Nullable SortAndFormats sortAndFormats,
                                              int trackTotalHitsUpTo, boolean hasFilterCollector) throws IOException {
             super(REASON_SEARCH_COUNT, 0);
+            this.sortAndFormats = sortAndFormats;
             if (trackTotalHitsUpTo == SearchContext.TRACK_TOTAL_HITS_DISABLED) {
                 this.collector = new EarlyTerminatingCollector(new TotalHitCountCollector(), 0, false);
                 // for bwc hit count is set to 0, it will be converted to -1 by the coordinating node
@@ -133,7 +139,13 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
         @Override
         void postProcess(QuerySearchResult result) {
             final TotalHits totalHitCount = hitCountSupplier.get();
-            result.topDocs(new TopDocsAndMaxScore(new TopDocs(totalHitCount, Lucene.EMPTY_SCORE_DOCS), Float.NaN), null);
+            if (sortAndFormats != null) {
+                // other shards return sorted hits, which can only be merged with sorted top docs
+                final TopDocs topDocs = new TopFieldDocs(totalHitCount, Lucene.EMPTY_SCORE_DOCS, sortAndFormats.sort.getSort());
+                result.topDocs(new TopDocsAndMaxScore(topDocs, Float.NaN), sortAndFormats.formats);
+            } else {
+                result.topDocs(new TopDocsAndMaxScore(new TopDocs(totalHitCount, Lucene.EMPTY_SCORE_DOCS), Float.NaN), null);
+            }
         }
     }
 
@@ -362,6 +374,24 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
         }
     }
 
+    /**
+     * Returns {@code true} if all documents of the shard sort after the bottom sort value of the request, see
+     * {@link org.elasticsearch.search.internal.ShardSearchRequest#bottomSortValue()}.
+     */
+    static boolean canSkipTopDocs(SearchContext searchContext) throws IOException {
+        if (searchContext.request() == null || searchContext.request().bottomSortValue() == null || searchContext.sort() == null) {
+            return false;
+        }
+        final FieldSortBuilder sort = FieldBounds.boundedPrimarySort(searchContext.request().source());
+        final FieldBounds bounds = FieldBounds.computeSortFieldBounds(searchContext);
+        if (sort == null || bounds == null) {
+            return false;
+        }
+        // documents without a value sort last, so shards without values can always be skipped
+        final double bottom = searchContext.request().bottomSortValue();
+        return sort.order() == SortOrder.DESC ? bounds.getMax() < bottom : bounds.getMin() > bottom;
+    }
+
     /**
      * Creates a {@link TopDocsCollectorContext} from the provided <code>searchContext</code>.
      * @param hasFilterCollector True if the collector chain contains at least one collector that can filters document.
@@ -374,7 +404,11 @@ abstract class TopDocsCollectorContext extends QueryCollectorContext {
         final int totalNumDocs = Math.max(1, reader.numDocs());
         if (searchContext.size() == 0) {
             // no matter what the value of from is
-            return new EmptyTopDocsCollectorContext(reader, query, searchContext.trackTotalHitsUpTo(), hasFilterCollector);
+            return new EmptyTopDocsCollectorContext(reader, query, null, searchContext.trackTotalHitsUpTo(), hasFilterCollector);
+        } else if (searchContext.scrollContext() == null && searchContext.collapse() == null && canSkipTopDocs(searchContext)) {
+            // none of the documents of this shard can make it into the top hits, we only need to count them
+            return new EmptyTopDocsCollectorContext(reader, query, searchContext.sort(), searchContext.trackTotalHitsUpTo(),
+                hasFilterCollector);
         } else if (searchContext.scrollContext() != null) {
             // we can disable the tracking of total hits after the initial scroll query
             // since the total hits is preserved in the scroll context.
@@ -35,6 +35,7 @@ import org.elasticsearch.monitor.os.OsStats;
 import org.elasticsearch.monitor.process.ProcessStats;
 import org.elasticsearch.node.AdaptiveSelectionStats;
 import org.elasticsearch.node.ResponseCollectorService;
+import org.elasticsearch.script.ScriptContextStats;
 import org.elasticsearch.script.ScriptStats;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.test.VersionUtils;
@@ -224,6 +225,9 @@ public class NodeStatsTests extends ESTestCase {
                 } else {
                     assertEquals(nodeStats.getHttp().getServerOpen(), deserializedNodeStats.getHttp().getServerOpen());
                     assertEquals(nodeStats.getHttp().getTotalOpen(), deserializedNodeStats.getHttp().getTotalOpen());
+                    assertEquals(nodeStats.getHttp().getCurrentReadsPaused(), deserializedNodeStats.getHttp().getCurrentReadsPaused());
+                    assertEquals(nodeStats.getHttp().getTotalReadsPaused(), deserializedNodeStats.getHttp().getTotalReadsPaused());
+                    assertEquals(nodeStats.getHttp().getReadsPausedTime(), deserializedNodeStats.getHttp().getReadsPausedTime());
                 }
                 if (nodeStats.getBreaker() == null) {
                     assertNull(deserializedNodeStats.getBreaker());
@@ -245,6 +249,19 @@ public class NodeStatsTests extends ESTestCase {
                 } else {
                     assertEquals(scriptStats.getCacheEvictions(), deserializedNodeStats.getScriptStats().getCacheEvictions());
                     assertEquals(scriptStats.getCompilations(), deserializedNodeStats.getScriptStats().getCompilations());
+                    assertEquals(scriptStats.getCompilationLimitTriggered(),
+                        deserializedNodeStats.getScriptStats().getCompilationLimitTriggered());
+                    assertEquals(scriptStats.getCacheHits(), deserializedNodeStats.getScriptStats().getCacheHits());
+                    assertEquals(scriptStats.getCacheMisses(), deserializedNodeStats.getScriptStats().getCacheMisses());
+                    assertEquals(scriptStats.getCompileTimeInMillis(), deserializedNodeStats.getScriptStats().getCompileTimeInMillis());
+                    assertEquals(scriptStats.getContextStats().size(), deserializedNodeStats.getScriptStats().getContextStats().size());
+                    for (int i = 0; i < scriptStats.getContextStats().size(); i++) {
+                        ScriptContextStats contextStats = scriptStats.getContextStats().get(i);
+                        ScriptContextStats deserializedContextStats = deserializedNodeStats.getScriptStats().getContextStats().get(i);
+                        assertEquals(contextStats.getContext(), deserializedContextStats.getContext());
+                        assertEquals(contextStats.getCompilations(), deserializedContextStats.getCompilations());
+                        assertEquals(contextStats.getCacheHits(), deserializedContextStats.getCacheHits());
+                    }
                 }
                 DiscoveryStats discoveryStats = nodeStats.getDiscoveryStats();
                 DiscoveryStats deserializedDiscoveryStats = deserializedNodeStats.getDiscoveryStats();
@@ -414,7 +431,8 @@ public class NodeStatsTests extends ESTestCase {
         }
         TransportStats transportStats = frequently() ? new TransportStats(randomNonNegativeLong(), randomNonNegativeLong(),
                 randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
-        HttpStats httpStats = frequently() ? new HttpStats(randomNonNegativeLong(), randomNonNegativeLong()) : null;
+        HttpStats httpStats = frequently() ? new HttpStats(randomNonNegativeLong(), randomNonNegativeLong(),
+            randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
         AllCircuitBreakerStats allCircuitBreakerStats = null;
         if (frequently()) {
             int numCircuitBreakerStats = randomIntBetween(0, 10);
@@ -425,8 +443,16 @@ public class NodeStatsTests extends ESTestCase {
             }
             allCircuitBreakerStats = new AllCircuitBreakerStats(circuitBreakerStatsArray);
         }
-        ScriptStats scriptStats = frequently() ?
-                new ScriptStats(randomNonNegativeLong(), randomNonNegativeLong(), randomNonNegativeLong()) : null;
+        ScriptStats scriptStats = null;
+        if (frequently()) {
+            List<ScriptContextStats> contextStats = new ArrayList<>();
+            for (int i = randomIntBetween(0, 4); i > 0; i--) {
+                contextStats.add(new ScriptContextStats(randomAlphaOfLength(8), randomLongBetween(0, Integer.MAX_VALUE),
+                    randomLongBetween(0, Integer.MAX_VALUE), randomLongBetween(0, Integer.MAX_VALUE),
+                    randomLongBetween(0, Integer.MAX_VALUE), randomLongBetween(0, Integer.MAX_VALUE)));
+            }
+            scriptStats = new ScriptStats(contextStats, randomNonNegativeLong());
+        }
         DiscoveryStats discoveryStats = frequently()
             ? new DiscoveryStats(
                 randomBoolean()
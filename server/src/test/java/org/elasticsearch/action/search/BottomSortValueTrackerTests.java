@@ -0,0 +1,98 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.common.lucene.search.TopDocsAndMaxScore;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.DocValueFormat;
+import org.elasticsearch.search.Scroll;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.query.QuerySearchResult;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.ESTestCase;
+
+public class BottomSortValueTrackerTests extends ESTestCase {
+
+    private static QuerySearchResult result(Object... sortValues) {
+        ScoreDoc[] scoreDocs = new ScoreDoc[sortValues.length];
+        for (int i = 0; i < sortValues.length; i++) {
+            scoreDocs[i] = new FieldDoc(i, Float.NaN, new Object[] { sortValues[i] });
+        }
+        SortField[] sortFields = new SortField[] { new SortField("timestamp", SortField.Type.LONG) };
+        QuerySearchResult result = new QuerySearchResult();
+        result.topDocs(new TopDocsAndMaxScore(new TopFieldDocs(new TotalHits(sortValues.length, TotalHits.Relation.EQUAL_TO),
+            scoreDocs, sortFields), Float.NaN), new DocValueFormat[] { DocValueFormat.RAW });
+        return result;
+    }
+
+    public void testCreate() {
+        SearchRequest request = new SearchRequest().source(new SearchSourceBuilder().sort("timestamp", SortOrder.DESC));
+        assertNotNull(BottomSortValueTracker.create(request, 2));
+        assertNull(BottomSortValueTracker.create(request, 1));
+        assertNull(BottomSortValueTracker.create(new SearchRequest().source(new SearchSourceBuilder().sort("_score")), 2));
+        assertNull(BottomSortValueTracker.create(new SearchRequest().source(new SearchSourceBuilder().sort("_doc")), 2));
+        assertNull(BottomSortValueTracker.create(new SearchRequest().source(new SearchSourceBuilder().size(0).sort("timestamp")), 2));
+        assertNull(BottomSortValueTracker.create(new SearchRequest(), 2));
+        request = new SearchRequest().source(new SearchSourceBuilder().sort("timestamp")).scroll(new Scroll(TimeValue.timeValueMinutes(1)));
+        assertNull(BottomSortValueTracker.create(request, 2));
+    }
+
+    public void testDescendingSort() {
+        SearchRequest request = new SearchRequest().source(new SearchSourceBuilder().size(3).sort("timestamp", SortOrder.DESC));
+        BottomSortValueTracker tracker = BottomSortValueTracker.create(request, 3);
+        assertNull(tracker.bottomSortValue());
+        // not a full page
+        tracker.consume(result(10L, 9L));
+        assertNull(tracker.bottomSortValue());
+        tracker.consume(result(10L, 9L, 8L));
+        assertEquals(8d, tracker.bottomSortValue(), 0d);
+        tracker.consume(result(20L, 15L, 7L));
+        assertEquals(8d, tracker.bottomSortValue(), 0d);
+        tracker.consume(result(20L, 15L, 12L));
+        assertEquals(12d, tracker.bottomSortValue(), 0d);
+        // documents without a value
+        tracker.consume(result(30L, 25L, Long.MIN_VALUE));
+        assertEquals(12d, tracker.bottomSortValue(), 0d);
+    }
+
+    public void testAscendingSortWithFrom() {
+        SearchRequest request = new SearchRequest().source(new SearchSourceBuilder().from(1).size(1).sort("timestamp", SortOrder.ASC));
+        BottomSortValueTracker tracker = BottomSortValueTracker.create(request, 3);
+        tracker.consume(result(5L, 6L));
+        assertEquals(6d, tracker.bottomSortValue(), 0d);
+        tracker.consume(result(1L, 7L));
+        assertEquals(6d, tracker.bottomSortValue(), 0d);
+        tracker.consume(result(1L, 3L));
+        assertEquals(3d, tracker.bottomSortValue(), 0d);
+    }
+
+    public void testToDouble() {
+        long value = (1L << 60) + 1;
+        assertTrue((long) BottomSortValueTracker.toDouble(value, true) >= value);
+        assertTrue((long) BottomSortValueTracker.toDouble(value, false) <= value);
+        assertEquals(42d, BottomSortValueTracker.toDouble(42L, randomBoolean()), 0d);
+        assertEquals(4.2d, BottomSortValueTracker.toDouble(4.2d, randomBoolean()), 0d);
+    }
+}
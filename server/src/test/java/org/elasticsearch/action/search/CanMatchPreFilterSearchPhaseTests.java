@@ -26,6 +26,7 @@ import org.elasticsearch.cluster.routing.GroupShardsIterator;
 import org.elasticsearch.cluster.routing.ShardRouting;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.search.FieldBounds;
 import org.elasticsearch.search.SearchPhaseResult;
 import org.elasticsearch.search.SearchService;
 import org.elasticsearch.search.SearchShardTarget;
@@ -35,7 +36,10 @@ import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.transport.Transport;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
@@ -86,7 +90,7 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
                     public void run() throws IOException {
                         result.set(iter);
                         latch.countDown();
-                    }}, SearchResponse.Clusters.EMPTY);
+                    }}, SearchResponse.Clusters.EMPTY, null);
 
         canMatchPhase.start();
         latch.await();
@@ -154,7 +158,7 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
                 public void run() throws IOException {
                     result.set(iter);
                     latch.countDown();
-                }}, SearchResponse.Clusters.EMPTY);
+                }}, SearchResponse.Clusters.EMPTY, null);
 
         canMatchPhase.start();
         latch.await();
@@ -241,10 +245,33 @@ public class CanMatchPreFilterSearchPhaseTests extends ESTestCase {
                             listener.onFailure(new Exception("failure"));
                         }
                     }
-                }, SearchResponse.Clusters.EMPTY);
+                }, SearchResponse.Clusters.EMPTY, null);
 
         canMatchPhase.start();
         latch.await();
         executor.shutdown();
     }
+
+    public void testSortShards() {
+        DiscoveryNode node = new DiscoveryNode("node_1", buildNewFakeTransportAddress(), Version.CURRENT);
+        GroupShardsIterator<SearchShardIterator> shardsIter = SearchAsyncActionTests.getShardsIter("idx",
+            new OriginalIndices(new String[]{"idx"}, SearchRequest.DEFAULT_INDICES_OPTIONS), 4, false, node, null);
+        FieldBounds[] bounds = new FieldBounds[] {
+            new FieldBounds(null, 0, 10), null, new FieldBounds(null, 5, 20), FieldBounds.EMPTY
+        };
+
+        GroupShardsIterator<SearchShardIterator> sorted = CanMatchPreFilterSearchPhase.sortShards(shardsIter, bounds, true);
+        assertEquals(Arrays.asList(2, 0, 3, 1), shardIds(sorted));
+
+        sorted = CanMatchPreFilterSearchPhase.sortShards(shardsIter, bounds, false);
+        assertEquals(Arrays.asList(0, 2, 3, 1), shardIds(sorted));
+    }
+
+    private static List<Integer> shardIds(GroupShardsIterator<SearchShardIterator> shardsIter) {
+        List<Integer> shardIds = new ArrayList<>();
+        for (SearchShardIterator shardIt : shardsIter) {
+            shardIds.add(shardIt.shardId().id());
+        }
+        return shardIds;
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.action.search;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.OriginalIndices;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.routing.GroupShardsIterator;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.Index;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.shard.ShardId;
+import org.elasticsearch.search.FieldBounds;
+import org.elasticsearch.search.SearchService;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ShardFieldBoundsCacheTests extends ESTestCase {
+
+    private static ClusterState clusterState(boolean writeBlocked, long version) {
+        IndexMetaData indexMetaData = IndexMetaData.builder("index")
+            .settings(Settings.builder()
+                .put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT)
+                .put(IndexMetaData.SETTING_INDEX_UUID, "uuid")
+                .put(IndexMetaData.SETTING_BLOCKS_WRITE, writeBlocked))
+            .numberOfShards(2)
+            .numberOfReplicas(0)
+            .version(version)
+            .build();
+        return ClusterState.builder(ClusterName.DEFAULT).metaData(MetaData.builder().put(indexMetaData, false)).build();
+    }
+
+    private static SearchRequest rangeRequest(long from) {
+        return new SearchRequest("index").source(new SearchSourceBuilder().query(QueryBuilders.rangeQuery("field").gte(from)));
+    }
+
+    public void testLookup() {
+        ShardFieldBoundsCache cache = new ShardFieldBoundsCache(Settings.EMPTY);
+        ClusterState state = clusterState(true, 1);
+        assertNull(cache.lookup(state, new SearchRequest("index"), () -> 0L));
+        assertNull(cache.lookup(state, rangeRequest(5).searchType(SearchType.DFS_QUERY_THEN_FETCH), () -> 0L));
+        SearchRequest termRequest = new SearchRequest("index").source(new SearchSourceBuilder().query(QueryBuilders.termQuery("f", "v")));
+        assertNull(cache.lookup(state, termRequest, () -> 0L));
+        assertNotNull(cache.lookup(state, rangeRequest(5), () -> 0L));
+    }
+
+    public void testSkipWithCachedBounds() {
+        ShardFieldBoundsCache cache = new ShardFieldBoundsCache(Settings.EMPTY);
+        ClusterState state = clusterState(true, 1);
+        ShardId shardId = new ShardId(new Index("index", "uuid"), 0);
+        SearchService.CanMatchResponse response = new SearchService.CanMatchResponse(true,
+            Collections.singletonMap("field", new FieldBounds(null, 0, 10)), null);
+
+        ShardFieldBoundsCache.Lookup lookup = cache.lookup(state, rangeRequest(20), () -> 0L);
+        assertFalse(lookup.canSkip(shardId));
+        lookup.onResponse(shardId, response);
+        assertEquals(1, cache.count());
+        assertTrue(lookup.canSkip(shardId));
+        assertFalse(lookup.canSkip(new ShardId(new Index("index", "uuid"), 1)));
+        assertFalse(lookup.canSkip(new ShardId(new Index("remote", "remote_uuid"), 0)));
+        assertFalse(cache.lookup(state, rangeRequest(5), () -> 0L).canSkip(shardId));
+
+        // the entry is only valid for the version of the index metadata it was recorded with
+        ClusterState newState = clusterState(true, 2);
+        assertFalse(cache.lookup(newState, rangeRequest(20), () -> 0L).canSkip(shardId));
+        cache.clusterChanged(new ClusterChangedEvent("test", newState, state));
+        assertEquals(0, cache.count());
+    }
+
+    public void testBoundsOfWritableIndicesAreNotCached() {
+        ShardFieldBoundsCache cache = new ShardFieldBoundsCache(Settings.EMPTY);
+        ShardId shardId = new ShardId(new Index("index", "uuid"), 0);
+        ShardFieldBoundsCache.Lookup lookup = cache.lookup(clusterState(false, 1), rangeRequest(20), () -> 0L);
+        lookup.onResponse(shardId, new SearchService.CanMatchResponse(true,
+            Collections.singletonMap("field", new FieldBounds(null, 0, 10)), null));
+        assertEquals(0, cache.count());
+        assertFalse(lookup.canSkip(shardId));
+    }
+
+    public void testSkipShardsWithDisjointBounds() {
+        ShardFieldBoundsCache cache = new ShardFieldBoundsCache(Settings.EMPTY);
+        ClusterState state = clusterState(true, 1);
+        ShardId shardId0 = new ShardId(new Index("index", "uuid"), 0);
+        ShardId shardId1 = new ShardId(new Index("index", "uuid"), 1);
+        ShardFieldBoundsCache.Lookup lookup = cache.lookup(state, rangeRequest(20), () -> 0L);
+        lookup.onResponse(shardId0, new SearchService.CanMatchResponse(false,
+            Collections.singletonMap("field", new FieldBounds(null, 0, 10)), null));
+
+        GroupShardsIterator<SearchShardIterator> iterators = new GroupShardsIterator<>(Arrays.asList(
+            new SearchShardIterator(null, shardId0, Collections.emptyList(), OriginalIndices.NONE),
+            new SearchShardIterator(null, shardId1, Collections.emptyList(), OriginalIndices.NONE)));
+        TransportSearchAction.skipShardsWithDisjointBounds(iterators, lookup);
+        assertTrue(iterators.get(0).skip());
+        assertFalse(iterators.get(1).skip());
+
+        // at least one shard is always searched
+        lookup.onResponse(shardId1, new SearchService.CanMatchResponse(false,
+            Collections.singletonMap("field", new FieldBounds(null, 0, 15)), null));
+        iterators = new GroupShardsIterator<>(Arrays.asList(
+            new SearchShardIterator(null, shardId0, Collections.emptyList(), OriginalIndices.NONE),
+            new SearchShardIterator(null, shardId1, Collections.emptyList(), OriginalIndices.NONE)));
+        TransportSearchAction.skipShardsWithDisjointBounds(iterators, lookup);
+        assertFalse(iterators.get(0).skip());
+        assertTrue(iterators.get(1).skip());
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.common.lucene.search.function;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.RandomIndexWriter;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.script.ScoreScript;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class ScriptScoreQueryTests extends ESTestCase {
+
+    public void testBlockScoringMatchesScoringOneByOne() throws IOException {
+        try (Directory directory = newDirectory()) {
+            indexRandomDocuments(directory);
+            try (IndexReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                TermQuery subQuery = new TermQuery(new Term("field", "a"));
+                Map<Integer, Float> expected = expectedScores(searcher, subQuery, null);
+
+                AtomicInteger largestBlock = new AtomicInteger();
+                ScriptScoreQuery query = new ScriptScoreQuery(subQuery, scriptFunction(largestBlock), null);
+                // collecting the query on its own scores blocks of documents
+                assertThat(collect(searcher, query), equalTo(expected));
+                assertThat(largestBlock.get(), greaterThan(1));
+                assertThat(scoreOneByOne(searcher, query), equalTo(expected));
+            }
+        }
+    }
+
+    public void testBlockScoringWithMinScore() throws IOException {
+        try (Directory directory = newDirectory()) {
+            indexRandomDocuments(directory);
+            try (IndexReader reader = DirectoryReader.open(directory)) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                TermQuery subQuery = new TermQuery(new Term("field", "a"));
+                float minScore = 4f;
+                Map<Integer, Float> expected = expectedScores(searcher, subQuery, minScore);
+
+                ScriptScoreQuery query = new ScriptScoreQuery(subQuery, scriptFunction(new AtomicInteger()), minScore);
+                assertThat(collect(searcher, query), equalTo(expected));
+                assertThat(scoreOneByOne(searcher, query), equalTo(expected));
+            }
+        }
+    }
+
+    private static void indexRandomDocuments(Directory directory) throws IOException {
+        try (RandomIndexWriter writer = new RandomIndexWriter(random(), directory)) {
+            int numDocs = scaledRandomIntBetween(500, 2000);
+            for (int i = 0; i < numDocs; i++) {
+                Document document = new Document();
+                StringBuilder value = new StringBuilder(randomFrom("a", "b"));
+                for (int j = randomIntBetween(0, 3); j > 0; j--) {
+                    value.append(' ').append(randomFrom("a", "b", "c"));
+                }
+                document.add(new TextField("field", value.toString(), Field.Store.NO));
+                writer.addDocument(document);
+                if (rarely()) {
+                    writer.commit();
+                }
+            }
+        }
+    }
+
+    /**
+     * A script that adds a value derived from the id of the document to the score of the sub query.
+     */
+    private static ScriptScoreFunction scriptFunction(AtomicInteger largestBlock) {
+        ScoreScript.LeafFactory factory = new ScoreScript.LeafFactory() {
+            @Override
+            public boolean needs_score() {
+                return true;
+            }
+
+            @Override
+            public ScoreScript newInstance(LeafReaderContext ctx) {
+                return new ScoreScript(null, null, null) {
+                    int docId;
+
+                    @Override
+                    public double execute() {
+                        return (ctx.docBase + docId) % 7 + get_score();
+                    }
+
+                    @Override
+                    public void setDocument(int docid) {
+                        this.docId = docid;
+                    }
+
+                    @Override
+                    public void executeBlock(int[] docIds, float[] subQueryScores, int count, double[] scores) {
+                        largestBlock.accumulateAndGet(count, Math::max);
+                        super.executeBlock(docIds, subQueryScores, count, scores);
+                    }
+                };
+            }
+        };
+        return new ScriptScoreFunction(new Script("doc id modulo 7 plus score"), factory);
+    }
+
+    private static Map<Integer, Float> expectedScores(IndexSearcher searcher, Query subQuery, Float minScore) throws IOException {
+        Map<Integer, Float> expected = new HashMap<>();
+        for (ScoreDoc scoreDoc : searcher.search(subQuery, searcher.getIndexReader().maxDoc()).scoreDocs) {
+            float score = (float) (scoreDoc.doc % 7 + (double) scoreDoc.score);
+            if (minScore == null || score >= minScore) {
+                expected.put(scoreDoc.doc, score);
+            }
+        }
+        return expected;
+    }
+
+    private static Map<Integer, Float> collect(IndexSearcher searcher, Query query) throws IOException {
+        Map<Integer, Float> scores = new HashMap<>();
+        for (ScoreDoc scoreDoc : searcher.search(query, searcher.getIndexReader().maxDoc()).scoreDocs) {
+            scores.put(scoreDoc.doc, scoreDoc.score);
+        }
+        return scores;
+    }
+
+    private static Map<Integer, Float> scoreOneByOne(IndexSearcher searcher, Query query) throws IOException {
+        Map<Integer, Float> scores = new HashMap<>();
+        Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE, 1f);
+        for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+            Scorer scorer = weight.scorer(context);
+            if (scorer == null) {
+                continue;
+            }
+            for (int doc = scorer.iterator().nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = scorer.iterator().nextDoc()) {
+                scores.put(context.docBase + doc, scorer.score());
+            }
+        }
+        return scores;
+    }
+}
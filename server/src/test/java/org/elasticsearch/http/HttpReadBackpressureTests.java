@@ -0,0 +1,201 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.http;
+
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.settings.ClusterSettings;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.TestThreadPool;
+import org.elasticsearch.threadpool.ThreadPool;
+import org.junit.After;
+import org.junit.Before;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_CHECK_INTERVAL;
+import static org.elasticsearch.http.HttpTransportSettings.SETTING_HTTP_BACKPRESSURE_ENABLED;
+import static org.elasticsearch.indices.breaker.HierarchyCircuitBreakerService.IN_FLIGHT_REQUESTS_CIRCUIT_BREAKER_LIMIT_SETTING;
+
+public class HttpReadBackpressureTests extends ESTestCase {
+
+    private ThreadPool threadPool;
+    private CircuitBreakerService breakerService;
+
+    @Before
+    public void setup() {
+        threadPool = new TestThreadPool(getTestName(), Settings.builder()
+            .put("thread_pool.write.size", 1)
+            .put("thread_pool.write.queue_size", 2)
+            .build());
+        breakerService = new HierarchyCircuitBreakerService(
+            Settings.builder().put(IN_FLIGHT_REQUESTS_CIRCUIT_BREAKER_LIMIT_SETTING.getKey(), "100b").build(),
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS));
+    }
+
+    @After
+    public void shutdown() {
+        terminate(threadPool);
+    }
+
+    private HttpReadBackpressure backpressure(boolean enabled) {
+        Settings settings = Settings.builder()
+            .put(SETTING_HTTP_BACKPRESSURE_ENABLED.getKey(), enabled)
+            .put(SETTING_HTTP_BACKPRESSURE_CHECK_INTERVAL.getKey(), "10ms")
+            .build();
+        return new HttpReadBackpressure(settings, threadPool, breakerService);
+    }
+
+    public void testPausesWhileInFlightRequestsAreHigh() throws Exception {
+        HttpReadBackpressure backpressure = backpressure(true);
+        CircuitBreaker breaker = breakerService.getBreaker(CircuitBreaker.IN_FLIGHT_REQUESTS);
+        TestHttpChannel channel = new TestHttpChannel(true);
+
+        backpressure.onRequest(channel);
+        assertFalse(channel.paused);
+        assertEquals(0, backpressure.totalPaused());
+
+        breaker.addWithoutBreaking(95);
+        backpressure.onRequest(channel);
+        assertTrue(channel.paused);
+        // further requests that were already read off the paused channel must not count as another pause
+        backpressure.onRequest(channel);
+        assertEquals(1, backpressure.currentPaused());
+        assertEquals(1, backpressure.totalPaused());
+
+        breaker.addWithoutBreaking(-95);
+        assertBusy(() -> assertFalse(channel.paused));
+        assertEquals(0, backpressure.currentPaused());
+        assertEquals(1, backpressure.totalPaused());
+    }
+
+    public void testPausesWhileQueueIsFull() throws Exception {
+        HttpReadBackpressure backpressure = backpressure(true);
+        CountDownLatch latch = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            threadPool.executor(ThreadPool.Names.WRITE).execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            });
+        }
+        TestHttpChannel channel = new TestHttpChannel(true);
+        try {
+            assertBusy(() -> assertTrue(backpressure.isUnderPressure()));
+            backpressure.onRequest(channel);
+            assertTrue(channel.paused);
+        } finally {
+            latch.countDown();
+        }
+        assertBusy(() -> assertFalse(channel.paused));
+    }
+
+    public void testDisabled() {
+        HttpReadBackpressure backpressure = backpressure(false);
+        breakerService.getBreaker(CircuitBreaker.IN_FLIGHT_REQUESTS).addWithoutBreaking(100);
+        TestHttpChannel channel = new TestHttpChannel(true);
+        backpressure.onRequest(channel);
+        assertFalse(channel.paused);
+        assertEquals(0, backpressure.totalPaused());
+    }
+
+    public void testChannelsThatCannotPauseAreNotTracked() {
+        HttpReadBackpressure backpressure = backpressure(true);
+        breakerService.getBreaker(CircuitBreaker.IN_FLIGHT_REQUESTS).addWithoutBreaking(100);
+        backpressure.onRequest(new TestHttpChannel(false));
+        assertEquals(0, backpressure.currentPaused());
+        assertEquals(0, backpressure.totalPaused());
+    }
+
+    public void testClosedChannelsAreReleased() {
+        HttpReadBackpressure backpressure = backpressure(true);
+        breakerService.getBreaker(CircuitBreaker.IN_FLIGHT_REQUESTS).addWithoutBreaking(100);
+        TestHttpChannel channel = new TestHttpChannel(true);
+        backpressure.onRequest(channel);
+        assertEquals(1, backpressure.currentPaused());
+        channel.close();
+        assertEquals(0, backpressure.currentPaused());
+        assertEquals(1, backpressure.totalPaused());
+        assertTrue(channel.paused);
+    }
+
+    private static class TestHttpChannel implements HttpChannel {
+
+        private final boolean canPause;
+        private final List<ActionListener<Void>> closeListeners = new ArrayList<>();
+        private volatile boolean paused;
+        private volatile boolean open = true;
+
+        TestHttpChannel(boolean canPause) {
+            this.canPause = canPause;
+        }
+
+        @Override
+        public boolean pauseReads() {
+            paused = canPause;
+            return canPause;
+        }
+
+        @Override
+        public void resumeReads() {
+            paused = false;
+        }
+
+        @Override
+        public void sendResponse(HttpResponse response, ActionListener<Void> listener) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return null;
+        }
+
+        @Override
+        public synchronized void addCloseListener(ActionListener<Void> listener) {
+            closeListeners.add(listener);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public synchronized void close() {
+            open = false;
+            closeListeners.forEach(l -> l.onResponse(null));
+            closeListeners.clear();
+        }
+    }
+}
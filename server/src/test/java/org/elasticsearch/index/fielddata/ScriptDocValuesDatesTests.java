@@ -0,0 +1,129 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.index.fielddata;
+
+import org.elasticsearch.common.time.DateUtils;
+import org.elasticsearch.index.fielddata.ScriptDocValues.Dates;
+import org.elasticsearch.script.JodaCompatibleZonedDateTime;
+import org.elasticsearch.test.ESTestCase;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ScriptDocValuesDatesTests extends ESTestCase {
+
+    public void testMillis() throws IOException {
+        long[][] values = new long[between(3, 10)][];
+        for (int d = 0; d < values.length; d++) {
+            values[d] = new long[randomBoolean() ? randomBoolean() ? 0 : 1 : between(2, 100)];
+            for (int i = 0; i < values[d].length; i++) {
+                values[d][i] = randomLongBetween(0, 4102444800000L); // up to 2100-01-01
+            }
+        }
+        assertDates(values, false);
+    }
+
+    public void testNanos() throws IOException {
+        long[][] values = new long[between(3, 10)][];
+        for (int d = 0; d < values.length; d++) {
+            values[d] = new long[randomBoolean() ? randomBoolean() ? 0 : 1 : between(2, 100)];
+            for (int i = 0; i < values[d].length; i++) {
+                values[d][i] = randomNonNegativeLong();
+            }
+        }
+        assertDates(values, true);
+    }
+
+    public void testDatesAreNotReusedAcrossDocuments() throws IOException {
+        long[][] values = new long[][] { new long[] { 1000L }, new long[] { 1000L } };
+        Dates dates = wrap(values, false);
+        dates.setNextDocId(0);
+        JodaCompatibleZonedDateTime first = dates.getValue();
+        dates.setNextDocId(1);
+        assertThat(dates.getValue(), not(sameInstance(first)));
+        assertEquals(first, dates.getValue());
+    }
+
+    private void assertDates(long[][] values, boolean isNanos) throws IOException {
+        Dates dates = wrap(values, isNanos);
+        for (int round = 0; round < 10; round++) {
+            int d = between(0, values.length - 1);
+            dates.setNextDocId(d);
+            if (values[d].length > 0) {
+                assertEquals(expectedMillis(values[d][0], isNanos), dates.getEpochMilli(0));
+                assertEquals(expectedDate(values[d][0], isNanos), dates.getValue());
+            } else {
+                Exception e = expectThrows(IllegalStateException.class, () -> dates.getEpochMilli(0));
+                assertEquals("A document doesn't have a value for a field! " +
+                    "Use doc[<field>].size()==0 to check if a document is missing a field!", e.getMessage());
+                e = expectThrows(IllegalStateException.class, () -> dates.get(0));
+                assertEquals("A document doesn't have a value for a field! " +
+                    "Use doc[<field>].size()==0 to check if a document is missing a field!", e.getMessage());
+            }
+            assertEquals(values[d].length, dates.size());
+            // read the primitive values first to check that the dates are still built afterwards
+            for (int i = 0; i < values[d].length; i++) {
+                assertEquals(expectedMillis(values[d][i], isNanos), dates.getEpochMilli(i));
+            }
+            for (int i = 0; i < values[d].length; i++) {
+                assertEquals(expectedDate(values[d][i], isNanos), dates.get(i));
+            }
+            if (values[d].length > 0) {
+                int index = values[d].length;
+                expectThrows(IndexOutOfBoundsException.class, () -> dates.getEpochMilli(index));
+            }
+        }
+    }
+
+    private static long expectedMillis(long value, boolean isNanos) {
+        return isNanos ? DateUtils.toMilliSeconds(value) : value;
+    }
+
+    private static JodaCompatibleZonedDateTime expectedDate(long value, boolean isNanos) {
+        Instant instant = isNanos ? DateUtils.toInstant(value) : Instant.ofEpochMilli(value);
+        return new JodaCompatibleZonedDateTime(instant, ZoneOffset.UTC);
+    }
+
+    private Dates wrap(long[][] values, boolean isNanos) {
+        return new Dates(new AbstractSortedNumericDocValues() {
+            long[] current;
+            int i;
+
+            @Override
+            public boolean advanceExact(int doc) {
+                i = 0;
+                current = values[doc];
+                return current.length > 0;
+            }
+            @Override
+            public int docValueCount() {
+                return current.length;
+            }
+            @Override
+            public long nextValue() {
+                return current[i++];
+            }
+        }, isNanos);
+    }
+}
@@ -54,6 +54,7 @@ public class ScriptDocValuesLongsTests extends ESTestCase {
             assertEquals(values[d].length, longs.size());
             for (int i = 0; i < values[d].length; i++) {
                 assertEquals(values[d][i], longs.get(i).longValue());
+                assertEquals(values[d][i], longs.getLong(i));
             }
 
             Exception e = expectThrows(UnsupportedOperationException.class, () -> longs.add(100L));
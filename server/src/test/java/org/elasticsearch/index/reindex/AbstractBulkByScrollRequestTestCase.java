@@ -44,6 +44,7 @@ public abstract class AbstractBulkByScrollRequestTestCase<R extends AbstractBulk
         if (randomBoolean()) {
             original.setSize(between(0, Integer.MAX_VALUE));
         }
+        original.setPrefetch(randomBoolean());
 
         // it's not important how many slices there are, we just need a number for forSlice
         int actualSlices = between(2, 1000);
@@ -60,6 +61,7 @@ public abstract class AbstractBulkByScrollRequestTestCase<R extends AbstractBulk
         assertEquals(original.getWaitForActiveShards(), forSliced.getWaitForActiveShards());
         assertEquals(original.getRetryBackoffInitialTime(), forSliced.getRetryBackoffInitialTime());
         assertEquals(original.getMaxRetries(), forSliced.getMaxRetries());
+        assertEquals(original.isPrefetch(), forSliced.isPrefetch());
         assertEquals("only the parent task should store results", false, forSliced.getShouldStoreResult());
         assertEquals("slice requests always have a single worker", 1, forSliced.getSlices());
         assertEquals("requests_per_second is split between all workers", original.getRequestsPerSecond() / actualSlices,
@@ -72,6 +72,13 @@ public class BulkByScrollTaskStatusTests extends AbstractXContentTestCase<BulkBy
         assertEquals(expected.getNoops(), actual.getNoops());
         assertEquals(expected.getBulkRetries(), actual.getBulkRetries());
         assertEquals(expected.getSearchRetries(), actual.getSearchRetries());
+        if (version.onOrAfter(Version.V_7_0_2)) {
+            assertEquals(expected.getBulkSizeDecreases(), actual.getBulkSizeDecreases());
+            assertEquals(expected.getBulkSizeIncreases(), actual.getBulkSizeIncreases());
+        } else {
+            assertEquals(0, actual.getBulkSizeDecreases());
+            assertEquals(0, actual.getBulkSizeIncreases());
+        }
         assertEquals(expected.getThrottled(), actual.getThrottled());
         assertEquals(expected.getRequestsPerSecond(), actual.getRequestsPerSecond(), 0f);
         assertEquals(expected.getReasonCancelled(), actual.getReasonCancelled());
@@ -138,6 +145,8 @@ public class BulkByScrollTaskStatusTests extends AbstractXContentTestCase<BulkBy
         long versionConflicts = between(0, total);
         long bulkRetries = between(0, 10000000);
         long searchRetries = between(0, 100000);
+        long bulkSizeDecreases = randomBoolean() ? 0 : between(0, 1000);
+        long bulkSizeIncreases = randomBoolean() ? 0 : between(0, 1000);
         // smallest unit of time during toXContent is Milliseconds
         TimeUnit[] timeUnits = {TimeUnit.MILLISECONDS, TimeUnit.SECONDS, TimeUnit.MINUTES, TimeUnit.HOURS, TimeUnit.DAYS};
         TimeValue throttled = new TimeValue(randomIntBetween(0, 1000), randomFrom(timeUnits));
@@ -145,7 +154,7 @@ public class BulkByScrollTaskStatusTests extends AbstractXContentTestCase<BulkBy
         return
             new BulkByScrollTask.Status(
                 sliceId, total, updated, created, deleted, batches, versionConflicts, noops,
-                bulkRetries, searchRetries, throttled, abs(Randomness.get().nextFloat()),
+                bulkRetries, searchRetries, bulkSizeDecreases, bulkSizeIncreases, throttled, abs(Randomness.get().nextFloat()),
                 randomBoolean() ? null : randomSimpleString(Randomness.get()), throttledUntil
             );
     }
@@ -101,6 +101,8 @@ public class BulkByScrollTaskTests extends ESTestCase {
         int mergedNoops = 0;
         int mergedBulkRetries = 0;
         int mergedSearchRetries = 0;
+        int mergedBulkSizeDecreases = 0;
+        int mergedBulkSizeIncreases = 0;
         TimeValue mergedThrottled = timeValueNanos(0);
         float mergedRequestsPerSecond = 0;
         TimeValue mergedThrottledUntil = timeValueNanos(Integer.MAX_VALUE);
@@ -117,12 +119,15 @@ public class BulkByScrollTaskTests extends ESTestCase {
             int noops = total - updated - created - deleted;
             int bulkRetries = between(0, 100);
             int searchRetries = between(0, 100);
+            int bulkSizeDecreases = between(0, 10);
+            int bulkSizeIncreases = between(0, 10);
             TimeValue throttled = timeValueNanos(between(0, 10000));
             float requestsPerSecond = randomValueOtherThanMany(r -> r <= 0, () -> randomFloat());
             String reasonCancelled = randomBoolean() ? null : "test";
             TimeValue throttledUntil = timeValueNanos(between(0, 1000));
             statuses[i] = new BulkByScrollTask.StatusOrException(new BulkByScrollTask.Status(i, total, updated, created, deleted, batches,
-                    versionConflicts, noops, bulkRetries, searchRetries, throttled, requestsPerSecond, reasonCancelled, throttledUntil));
+                    versionConflicts, noops, bulkRetries, searchRetries, bulkSizeDecreases, bulkSizeIncreases, throttled, requestsPerSecond,
+                    reasonCancelled, throttledUntil));
             mergedTotal += total;
             mergedUpdated += updated;
             mergedCreated += created;
@@ -132,6 +137,8 @@ public class BulkByScrollTaskTests extends ESTestCase {
             mergedNoops += noops;
             mergedBulkRetries += bulkRetries;
             mergedSearchRetries += searchRetries;
+            mergedBulkSizeDecreases += bulkSizeDecreases;
+            mergedBulkSizeIncreases += bulkSizeIncreases;
             mergedThrottled = timeValueNanos(mergedThrottled.nanos() + throttled.nanos());
             mergedRequestsPerSecond += requestsPerSecond;
             mergedThrottledUntil = timeValueNanos(min(mergedThrottledUntil.nanos(), throttledUntil.nanos()));
@@ -147,6 +154,8 @@ public class BulkByScrollTaskTests extends ESTestCase {
         assertEquals(mergedNoops, merged.getNoops());
         assertEquals(mergedBulkRetries, merged.getBulkRetries());
         assertEquals(mergedSearchRetries, merged.getSearchRetries());
+        assertEquals(mergedBulkSizeDecreases, merged.getBulkSizeDecreases());
+        assertEquals(mergedBulkSizeIncreases, merged.getBulkSizeIncreases());
         assertEquals(mergedThrottled, merged.getThrottled());
         assertEquals(mergedRequestsPerSecond, merged.getRequestsPerSecond(), 0.0001f);
         assertEquals(mergedThrottledUntil, merged.getThrottledUntil());
@@ -36,6 +36,7 @@ import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.elasticsearch.common.unit.TimeValue.timeValueMillis;
 import static org.elasticsearch.common.unit.TimeValue.timeValueNanos;
 import static org.elasticsearch.common.unit.TimeValue.timeValueSeconds;
 import static org.hamcrest.Matchers.both;
@@ -126,6 +127,71 @@ public class WorkerBulkByScrollTaskStateTests extends ESTestCase {
         assertEquals(noops, status.getNoops());
     }
 
+    public void testAdaptiveBulkSize() {
+        // bulk requests are as large as the scroll batches until the destination pushes back
+        assertEquals(1000, workerState.bulkSize(1000));
+        workerState.onBulkCompleted(1000, 1000, timeValueMillis(100), false);
+        assertEquals(1000, workerState.bulkSize(1000));
+
+        workerState.onBulkCompleted(1000, 1000, timeValueMillis(100), true);
+        assertEquals(500, workerState.bulkSize(1000));
+        assertEquals(10, workerState.bulkSize(10));
+        workerState.onBulkCompleted(500, 1000, timeValueSeconds(30), false);
+        assertEquals(250, workerState.bulkSize(1000));
+
+        // a bulk request that is smaller than allowed doesn't prove that larger ones would go through
+        workerState.onBulkCompleted(100, 100, timeValueMillis(100), false);
+        assertEquals(250, workerState.bulkSize(1000));
+        workerState.onBulkCompleted(250, 1000, timeValueMillis(100), false);
+        assertEquals(500, workerState.bulkSize(1000));
+
+        // the bulk size never goes below the minimum
+        for (int i = 0; i < 10; i++) {
+            workerState.onBulkCompleted(workerState.bulkSize(1000), 1000, timeValueMillis(100), true);
+        }
+        assertEquals(WorkerBulkByScrollTaskState.MIN_BULK_SIZE, workerState.bulkSize(1000));
+
+        BulkByScrollTask.Status status = task.getStatus();
+        assertEquals(7, status.getBulkSizeDecreases());
+        assertEquals(1, status.getBulkSizeIncreases());
+    }
+
+    public void testAdaptiveBulkSizeRecovers() {
+        workerState.onBulkCompleted(1000, 1000, timeValueMillis(100), true);
+        workerState.onBulkCompleted(500, 1000, timeValueMillis(100), true);
+        workerState.onBulkCompleted(250, 1000, timeValueMillis(100), true);
+        assertEquals(125, workerState.bulkSize(1000));
+
+        // every scroll batch of 1000 requests is split into bulk requests, each allowed to be twice as large as the one before
+        workerState.onBulkCompleted(125, 1000, timeValueMillis(100), false);
+        assertEquals(250, workerState.bulkSize(875));
+        workerState.onBulkCompleted(250, 875, timeValueMillis(100), false);
+        assertEquals(500, workerState.bulkSize(625));
+        // doubling covers all the pending requests, so the bulk size is unbounded again
+        workerState.onBulkCompleted(500, 625, timeValueMillis(100), false);
+        assertEquals(125, workerState.bulkSize(125));
+        assertEquals(1000, workerState.bulkSize(1000));
+        assertEquals(5000, workerState.bulkSize(5000));
+
+        // bulk requests holding whole scroll batches neither change the bulk size nor count as increases
+        workerState.onBulkCompleted(125, 125, timeValueMillis(100), false);
+        workerState.onBulkCompleted(1000, 1000, timeValueMillis(100), false);
+        assertEquals(1000, workerState.bulkSize(1000));
+
+        BulkByScrollTask.Status status = task.getStatus();
+        assertEquals(3, status.getBulkSizeDecreases());
+        assertEquals(3, status.getBulkSizeIncreases());
+
+        // a bulk request as large as allowed that holds all the pending requests unbounds the bulk size without counting
+        workerState.onBulkCompleted(1000, 1000, timeValueMillis(100), true);
+        assertEquals(500, workerState.bulkSize(1000));
+        workerState.onBulkCompleted(500, 500, timeValueMillis(100), false);
+        assertEquals(1000, workerState.bulkSize(1000));
+        status = task.getStatus();
+        assertEquals(4, status.getBulkSizeDecreases());
+        assertEquals(3, status.getBulkSizeIncreases());
+    }
+
     /**
      * Furiously rethrottles a delayed request to make sure that we never run it twice.
      */
@@ -0,0 +1,55 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.monitor;
+
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+public class NodeLoadServiceTests extends ESTestCase {
+
+    public void testSignalsFromCounters() {
+        NodeLoadService service = new NodeLoadService(Settings.EMPTY, null, null);
+        assertThat(service.searchRejectionRate(), equalTo(0.0));
+        assertThat(service.gcOverhead(), equalTo(0.0));
+        assertThat(service.ioUtilization(), equalTo(-1.0));
+
+        service.onSample(1000, 10, 100, 500);
+        // the first sample only records the counters
+        assertThat(service.searchRejectionRate(), equalTo(0.0));
+        assertThat(service.ioUtilization(), equalTo(-1.0));
+
+        service.onSample(2000, 20, 600, 1500);
+        assertThat(service.searchRejectionRate(), closeTo(0.3 * 10.0, 0.0001));
+        assertThat(service.gcOverhead(), closeTo(0.3 * 0.5, 0.0001));
+        assertThat(service.ioUtilization(), closeTo(0.3 * 1.0, 0.0001));
+    }
+
+    public void testUnavailableCounters() {
+        NodeLoadService service = new NodeLoadService(Settings.EMPTY, null, null);
+        service.onSample(1000, -1, 100, -1);
+        service.onSample(2000, -1, 100, -1);
+        assertThat(service.searchRejectionRate(), equalTo(0.0));
+        assertThat(service.gcOverhead(), equalTo(0.0));
+        assertThat(service.ioUtilization(), equalTo(-1.0));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.node;
+
+import org.elasticsearch.test.ESTestCase;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class LoadAwareReplicaRankerTests extends ESTestCase {
+
+    private static ResponseCollectorService.ComputedNodeStats stats(double rejectionRate, double gcOverhead, double ioUtilization) {
+        return new ResponseCollectorService.ComputedNodeStats("node", 2, 10, 5_000_000.0, 1_000_000.0,
+            rejectionRate, gcOverhead, ioUtilization, C3ReplicaRanker.INSTANCE);
+    }
+
+    public void testSameAsC3WithoutLoadSignals() {
+        LoadAwareReplicaRanker ranker = new LoadAwareReplicaRanker(1.0, 1.0, 1.0);
+        ResponseCollectorService.ComputedNodeStats unknown = stats(-1, -1, -1);
+        ResponseCollectorService.ComputedNodeStats idle = stats(0, 0, 0);
+        double c3Rank = C3ReplicaRanker.INSTANCE.rank(unknown, 1);
+        assertThat(ranker.rank(unknown, 1), equalTo(c3Rank));
+        assertThat(ranker.rank(idle, 1), equalTo(c3Rank));
+    }
+
+    public void testLoadSignalsIncreaseRank() {
+        LoadAwareReplicaRanker ranker = new LoadAwareReplicaRanker(1.0, 1.0, 1.0);
+        double idleRank = ranker.rank(stats(0, 0, 0), 1);
+        assertThat(ranker.rank(stats(2.0, 0, 0), 1), closeTo(idleRank * 3.0, 0.0001));
+        assertThat(ranker.rank(stats(0, 0, 0.5), 1), closeTo(idleRank * 1.5, 0.0001));
+        assertThat(ranker.rank(stats(0, 0.5, 0), 1), greaterThan(idleRank));
+        // GC overhead is capped so that the rank stays finite
+        assertTrue(Double.isFinite(ranker.rank(stats(0, 1.0, 0), 1)));
+        assertThat(ranker.rank(stats(0, 1.0, 0), 1), greaterThan(ranker.rank(stats(0, 0.5, 0), 1)));
+    }
+
+    public void testZeroWeightsIgnoreSignals() {
+        LoadAwareReplicaRanker ranker = new LoadAwareReplicaRanker(0.0, 0.0, 0.0);
+        ResponseCollectorService.ComputedNodeStats loaded = stats(randomDoubleBetween(0, 10, true), randomDouble(), randomDouble());
+        assertThat(ranker.rank(loaded, 1), closeTo(C3ReplicaRanker.INSTANCE.rank(loaded, 1), 0.0001));
+    }
+}
@@ -34,9 +34,11 @@ import org.elasticsearch.threadpool.ThreadPool;
 import org.junit.After;
 import org.junit.Before;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 
@@ -71,6 +73,48 @@ public class ResponseCollectorServiceTests extends ESTestCase {
         assertThat(nodeStats.get("node1").serviceTime, equalTo(10.0));
     }
 
+    public void testNodeLoadStats() throws Exception {
+        // load signals are ignored for nodes without response statistics
+        collector.addNodeLoadStatistics("node1", 1.0, 0.5, 0.25);
+        assertFalse(collector.getNodeStatistics("node1").isPresent());
+
+        collector.addNodeStatistics("node1", 1, 100, 10);
+        ResponseCollectorService.ComputedNodeStats stats = collector.getNodeStatistics("node1").get();
+        assertThat(stats.searchRejectionRate, equalTo(-1.0));
+        assertThat(stats.gcOverhead, equalTo(-1.0));
+        assertThat(stats.ioUtilization, equalTo(-1.0));
+
+        collector.addNodeLoadStatistics("node1", 1.0, 0.5, -1);
+        stats = collector.getNodeStatistics("node1").get();
+        assertThat(stats.searchRejectionRate, equalTo(1.0));
+        assertThat(stats.gcOverhead, equalTo(0.5));
+        assertThat(stats.ioUtilization, equalTo(-1.0));
+    }
+
+    public void testRankerSelection() throws Exception {
+        Map<String, ReplicaRanker> rankers = new HashMap<>();
+        rankers.put(C3ReplicaRanker.NAME, C3ReplicaRanker.INSTANCE);
+        rankers.put("constant", (stats, outstandingRequests) -> 42.0);
+        ClusterSettings clusterSettings = new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS);
+        ClusterService rankingClusterService = new ClusterService(Settings.EMPTY, clusterSettings, threadpool);
+        ResponseCollectorService rankingCollector = new ResponseCollectorService(rankingClusterService, rankers);
+        rankingCollector.addNodeStatistics("node1", 1, 100, 10);
+        assertSame(C3ReplicaRanker.INSTANCE, rankingCollector.getRanker());
+
+        clusterSettings.applySettings(Settings.builder().put(ResponseCollectorService.REPLICA_RANKER_SETTING.getKey(), "constant").build());
+        assertThat(rankingCollector.getNodeStatistics("node1").get().rank(1), equalTo(42.0));
+
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> clusterSettings.applySettings(
+            Settings.builder().put(ResponseCollectorService.REPLICA_RANKER_SETTING.getKey(), "unknown").build()));
+        assertThat(e.getCause().getMessage(), containsString("unknown replica ranker [unknown]"));
+        assertThat(rankingCollector.getRanker().rank(rankingCollector.getNodeStatistics("node1").get(), 1), equalTo(42.0));
+
+        e = expectThrows(IllegalArgumentException.class, () -> new ResponseCollectorService(new ClusterService(
+            Settings.builder().put(ResponseCollectorService.REPLICA_RANKER_SETTING.getKey(), "unknown").build(),
+            new ClusterSettings(Settings.EMPTY, ClusterSettings.BUILT_IN_CLUSTER_SETTINGS), threadpool)));
+        assertThat(e.getMessage(), containsString("unknown replica ranker [unknown]"));
+    }
+
     /*
      * Test that concurrently adding values and removing nodes does not cause exceptions
      */
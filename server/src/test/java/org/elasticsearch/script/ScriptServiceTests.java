@@ -37,6 +37,7 @@ import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -269,12 +270,102 @@ public class ScriptServiceTests extends ESTestCase {
         Settings.Builder builder = Settings.builder();
         builder.put(ScriptService.SCRIPT_CACHE_SIZE_SETTING.getKey(), 1);
         buildScriptService(builder.build());
-        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), randomFrom(contexts.values()));
-        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), randomFrom(contexts.values()));
+        ScriptContext<?> context = randomFrom(contexts.values());
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), context);
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), context);
         assertEquals(2L, scriptService.stats().getCompilations());
         assertEquals(1L, scriptService.stats().getCacheEvictions());
     }
 
+    public void testContextsShareTheCache() throws IOException {
+        Settings.Builder builder = Settings.builder();
+        builder.put(ScriptService.SCRIPT_CACHE_SIZE_SETTING.getKey(), 1);
+        buildScriptService(builder.build());
+        Script script = new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap());
+        // script.cache.max_size bounds the scripts of all the contexts together
+        scriptService.compile(script, ScoreScript.CONTEXT);
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), FieldScript.CONTEXT);
+        scriptService.compile(script, ScoreScript.CONTEXT);
+        ScriptStats stats = scriptService.stats();
+        assertEquals(3L, stats.getCompilations());
+        assertEquals(2L, stats.getCacheEvictions());
+        assertEquals(0L, stats.getCacheHits());
+        assertEquals(3L, stats.getCacheMisses());
+
+        // the statistics are still reported per context
+        ScriptContextStats scoreStats = contextStats(stats, ScoreScript.CONTEXT.name);
+        assertEquals(2L, scoreStats.getCompilations());
+        assertEquals(1L, scoreStats.getCacheEvictions());
+        assertEquals(2L, scoreStats.getCacheMisses());
+        ScriptContextStats fieldStats = contextStats(stats, FieldScript.CONTEXT.name);
+        assertEquals(1L, fieldStats.getCompilations());
+        assertEquals(1L, fieldStats.getCacheEvictions());
+        assertEquals(1L, fieldStats.getCacheMisses());
+        assertEquals(contexts.size(), stats.getContextStats().size());
+    }
+
+    public void testContextCacheSizeSetting() throws IOException {
+        Settings.Builder builder = Settings.builder();
+        builder.put(ScriptService.SCRIPT_CACHE_SIZE_SETTING.getKey(), 1);
+        builder.put(ScriptService.SCRIPT_CONTEXT_CACHE_SIZE_SETTING.getConcreteSettingForNamespace(ScoreScript.CONTEXT.name).getKey(), 2);
+        buildScriptService(builder.build());
+        for (ScriptContext<?> context : Arrays.asList(ScoreScript.CONTEXT, FieldScript.CONTEXT)) {
+            scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), context);
+            scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), context);
+        }
+        // the score context has a cache of its own, the scripts of the other contexts don't evict its scripts
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "1+1", Collections.emptyMap()), ScoreScript.CONTEXT);
+        ScriptStats stats = scriptService.stats();
+        assertEquals(0L, contextStats(stats, ScoreScript.CONTEXT.name).getCacheEvictions());
+        assertEquals(1L, contextStats(stats, ScoreScript.CONTEXT.name).getCacheHits());
+        assertEquals(1L, contextStats(stats, FieldScript.CONTEXT.name).getCacheEvictions());
+    }
+
+    public void testCacheSizeInBytes() throws IOException {
+        Settings.Builder builder = Settings.builder();
+        builder.put(ScriptService.SCRIPT_CACHE_SIZE_IN_BYTES_SETTING.getKey(), ScriptCache.estimateSizeInBytes("1+1") * 2 + "b");
+        buildScriptService(builder.build());
+        ScriptContext<?> context = randomFrom(contexts.values());
+        // the count based limit does not apply
+        for (int i = 0; i < 2; i++) {
+            scriptService.compile(new Script(ScriptType.INLINE, "test", i + "+" + i, Collections.emptyMap()), context);
+        }
+        assertEquals(0L, scriptService.stats().getCacheEvictions());
+        scriptService.compile(new Script(ScriptType.INLINE, "test", "2+2", Collections.emptyMap()), context);
+        assertEquals(1L, scriptService.stats().getCacheEvictions());
+    }
+
+    public void testPrecompileStoredScripts() throws IOException {
+        buildScriptService(Settings.builder()
+            .putList(ScriptService.SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING.getKey(), ScoreScript.CONTEXT.name).build());
+        Map<String, StoredScriptSource> storedScripts = new HashMap<>();
+        storedScripts.put("test1", new StoredScriptSource("test", "1+1", Collections.emptyMap()));
+        storedScripts.put("unknown_lang", new StoredScriptSource("unknown", "1+1", Collections.emptyMap()));
+        scriptService.precompileStoredScripts(storedScripts);
+        assertEquals(1L, scriptService.stats().getCompilations());
+
+        // the stored script is now found in the cache
+        scriptService.compile(new Script(ScriptType.STORED, null, "test1", Collections.emptyMap()), ScoreScript.CONTEXT);
+        ScriptContextStats scoreStats = contextStats(scriptService.stats(), ScoreScript.CONTEXT.name);
+        assertEquals(1L, scoreStats.getCompilations());
+        assertEquals(1L, scoreStats.getCacheHits());
+    }
+
+    public void testUnknownPrecompileContext() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> buildScriptService(Settings.builder()
+            .putList(ScriptService.SCRIPT_CACHE_PRECOMPILE_CONTEXTS_SETTING.getKey(), "unknown").build()));
+        assertEquals("unknown script context [unknown] found in setting [script.cache.precompile_contexts].", e.getMessage());
+    }
+
+    private static ScriptContextStats contextStats(ScriptStats stats, String context) {
+        for (ScriptContextStats contextStats : stats.getContextStats()) {
+            if (contextStats.getContext().equals(context)) {
+                return contextStats;
+            }
+        }
+        throw new AssertionError("no stats for context [" + context + "]");
+    }
+
     public void testStoreScript() throws Exception {
         BytesReference script = BytesReference.bytes(XContentFactory.jsonBuilder()
             .startObject()
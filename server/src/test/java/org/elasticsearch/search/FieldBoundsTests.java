@@ -0,0 +1,143 @@
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.elasticsearch.search;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.elasticsearch.common.io.stream.Writeable;
+import org.elasticsearch.index.mapper.DateFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.ConstantScoreQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.NestedSortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortMode;
+import org.elasticsearch.search.sort.SortOrder;
+import org.elasticsearch.test.AbstractWireSerializingTestCase;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class FieldBoundsTests extends AbstractWireSerializingTestCase<FieldBounds> {
+
+    private static final String DATE_FORMAT = DateFieldMapper.DEFAULT_DATE_TIME_FORMATTER.pattern();
+
+    @Override
+    protected FieldBounds createTestInstance() {
+        if (rarely()) {
+            return FieldBounds.EMPTY;
+        }
+        double min = randomDouble();
+        return new FieldBounds(randomBoolean() ? null : DATE_FORMAT, min, min + randomDouble());
+    }
+
+    @Override
+    protected Writeable.Reader<FieldBounds> instanceReader() {
+        return FieldBounds::new;
+    }
+
+    public void testNumericMayMatch() {
+        FieldBounds bounds = new FieldBounds(null, 10, 20);
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte(5).lte(10), () -> 0L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte(15), () -> 0L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").lt(11), () -> 0L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gt(20), () -> 0L)); // bounds are treated as inclusive
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte(21), () -> 0L));
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").lte("9.5"), () -> 0L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").lte("not a number"), () -> 0L));
+        assertFalse(FieldBounds.EMPTY.mayMatch(QueryBuilders.rangeQuery("f").gte(0), () -> 0L));
+    }
+
+    public void testDateMayMatch() {
+        // 2019-01-01T00:00:00Z - 2019-01-31T00:00:00Z
+        FieldBounds bounds = new FieldBounds(DATE_FORMAT, 1546300800000L, 1548892800000L);
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("2019-01-15"), () -> 0L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("2018-12-31||/d").lte("2019-01-01"), () -> 0L));
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("2019-02-01"), () -> 0L));
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").lt("2018-12-31"), () -> 0L));
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("now-1d"), () -> 1551398400000L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("now-1M"), () -> 1549324800000L));
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("01/02/2019").format("dd/MM/yyyy"), () -> 0L));
+        assertFalse(bounds.mayMatch(QueryBuilders.rangeQuery("f").lte("2018-12-31T23:30:00"), () -> 0L));
+        // one hour behind UTC, so the upper bound is within the bounds
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").lte("2018-12-31T23:30:00").timeZone("-01:00"), () -> 0L));
+        assertTrue(bounds.mayMatch(QueryBuilders.rangeQuery("f").gte("not a date"), () -> 0L));
+    }
+
+    public void testRequiredRanges() {
+        RangeQueryBuilder range1 = QueryBuilders.rangeQuery("f1").gte(1);
+        RangeQueryBuilder range2 = QueryBuilders.rangeQuery("f2").gte(2);
+        RangeQueryBuilder range3 = QueryBuilders.rangeQuery("f3").gte(3);
+        BoolQueryBuilder bool = QueryBuilders.boolQuery()
+            .must(range1)
+            .filter(QueryBuilders.boolQuery().filter(new ConstantScoreQueryBuilder(range2)))
+            .should(range3)
+            .mustNot(QueryBuilders.rangeQuery("f4").gte(4));
+        assertEquals(Arrays.asList(range1, range2), FieldBounds.requiredRanges(bool));
+        assertEquals(Collections.singletonList(range3), FieldBounds.requiredRanges(range3));
+        assertEquals(Collections.emptyList(), FieldBounds.requiredRanges(QueryBuilders.termQuery("f", "v")));
+        assertEquals(Collections.emptyList(), FieldBounds.requiredRanges(null));
+    }
+
+    public void testCompute() throws IOException {
+        MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType(NumberFieldMapper.NumberType.LONG);
+        fieldType.setName("field");
+        try (Directory dir = newDirectory(); IndexWriter w = new IndexWriter(dir, newIndexWriterConfig())) {
+            try (DirectoryReader reader = DirectoryReader.open(w)) {
+                assertEquals(FieldBounds.EMPTY, FieldBounds.compute(fieldType, reader));
+            }
+            for (long value : new long[] {7, -3, 42}) {
+                Document doc = new Document();
+                doc.add(new LongPoint("field", value));
+                w.addDocument(doc);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(w)) {
+                assertEquals(new FieldBounds(null, -3, 42), FieldBounds.compute(fieldType, reader));
+                assertEquals(FieldBounds.EMPTY, FieldBounds.compute(null, reader));
+            }
+        }
+    }
+
+    public void testBoundedPrimarySort() {
+        assertNull(FieldBounds.boundedPrimarySort(null));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder()));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort("_score")));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort("_doc")));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort(SortBuilders.fieldSort("f").sortMode(SortMode.AVG))));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort(SortBuilders.fieldSort("f").missing("_first"))));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort(SortBuilders.fieldSort("f").missing(0))));
+        assertNull(FieldBounds.boundedPrimarySort(new SearchSourceBuilder()
+            .sort(SortBuilders.fieldSort("f").setNestedSort(new NestedSortBuilder("path")))));
+
+        FieldSortBuilder sort = SortBuilders.fieldSort("f").order(SortOrder.DESC);
+        assertSame(sort, FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort(sort).sort("g")));
+        sort = SortBuilders.fieldSort("f").sortMode(SortMode.MAX).missing("_last");
+        assertSame(sort, FieldBounds.boundedPrimarySort(new SearchSourceBuilder().sort(sort)));
+    }
+}
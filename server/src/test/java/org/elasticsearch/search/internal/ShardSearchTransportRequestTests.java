@@ -69,6 +69,7 @@ public class ShardSearchTransportRequestTests extends AbstractSearchTestCase {
         assertEquals(deserializedRequest.source(), shardSearchTransportRequest.source());
         assertEquals(deserializedRequest.searchType(), shardSearchTransportRequest.searchType());
         assertEquals(deserializedRequest.shardId(), shardSearchTransportRequest.shardId());
+        assertEquals(deserializedRequest.bottomSortValue(), shardSearchTransportRequest.bottomSortValue());
         assertEquals(deserializedRequest.numberOfShards(), shardSearchTransportRequest.numberOfShards());
         assertArrayEquals(deserializedRequest.indexRoutings(), shardSearchTransportRequest.indexRoutings());
         assertEquals(deserializedRequest.preference(), shardSearchTransportRequest.preference());
@@ -103,9 +104,13 @@ public class ShardSearchTransportRequestTests extends AbstractSearchTestCase {
             filteringAliases = new AliasFilter(null, Strings.EMPTY_ARRAY);
         }
         final String[] routings = generateRandomStringArray(5, 10, false, true);
-        return new ShardSearchTransportRequest(new OriginalIndices(searchRequest), searchRequest, shardId,
+        ShardSearchTransportRequest request = new ShardSearchTransportRequest(new OriginalIndices(searchRequest), searchRequest, shardId,
             randomIntBetween(1, 100), filteringAliases, randomBoolean() ? 1.0f : randomFloat(),
             Math.abs(randomLong()), randomAlphaOfLengthBetween(3, 10), routings);
+        if (randomBoolean()) {
+            request.bottomSortValue(randomDouble());
+        }
+        return request;
     }
 
     public void testFilteringAliases() throws Exception {
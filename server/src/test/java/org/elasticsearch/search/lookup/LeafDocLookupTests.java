@@ -27,6 +27,7 @@ import org.elasticsearch.test.ESTestCase;
 import org.junit.Before;
 
 import static org.elasticsearch.search.lookup.LeafDocLookup.TYPES_DEPRECATION_MESSAGE;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doReturn;
@@ -75,6 +76,13 @@ public class LeafDocLookupTests extends ESTestCase {
         assertEquals(docValues, fetchedDocValues);
     }
 
+    public void testPrimitiveLookupOfNonNumericField() {
+        IllegalArgumentException e = expectThrows(IllegalArgumentException.class, () -> docLookup.getLong("field"));
+        assertThat(e.getMessage(), startsWith("field [field] can't be read as a long"));
+        e = expectThrows(IllegalArgumentException.class, () -> docLookup.getDouble("field"));
+        assertThat(e.getMessage(), startsWith("field [field] can't be read as a double"));
+    }
+
     public void testTypesDeprecation() {
         ScriptDocValues<?> fetchedDocValues = docLookup.get("_type");
         assertEquals(docValues, fetchedDocValues);
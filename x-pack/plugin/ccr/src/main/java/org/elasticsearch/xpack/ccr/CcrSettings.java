@@ -42,6 +42,13 @@ public final class CcrSettings {
     private static final Setting<TimeValue> CCR_AUTO_FOLLOW_WAIT_FOR_METADATA_TIMEOUT = Setting.timeSetting(
         "ccr.auto_follow.wait_for_metadata_timeout", CCR_WAIT_FOR_METADATA_TIMEOUT, Property.NodeScope, Property.Dynamic);
 
+    /**
+     * Dynamic node setting for whether shard follow tasks ask the leader for their operations in the compressed batch encoding. This is
+     * redundant with enabling compression on the remote cluster connection.
+     */
+    public static final Setting<Boolean> CCR_COMPRESS_SHARD_CHANGES = Setting.boolSetting(
+        "ccr.shard_changes.compress", true, Property.NodeScope, Property.Dynamic);
+
     /**
      * Max bytes a node can recover per second.
      */
@@ -93,7 +100,8 @@ public final class CcrSettings {
                 CCR_AUTO_FOLLOW_WAIT_FOR_METADATA_TIMEOUT,
                 RECOVERY_CHUNK_SIZE,
                 INDICES_RECOVERY_MAX_CONCURRENT_FILE_CHUNKS_SETTING,
-                CCR_WAIT_FOR_METADATA_TIMEOUT);
+                CCR_WAIT_FOR_METADATA_TIMEOUT,
+                CCR_COMPRESS_SHARD_CHANGES);
     }
 
     private final CombinedRateLimiter ccrRateLimiter;
@@ -0,0 +1,188 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+
+package org.elasticsearch.xpack.ccr.action;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunes the read and write budgets of a {@link ShardFollowNodeTask} from the round-trip times of the shard changes requests and the
+ * bulk times of the follower. The configured follow parameters remain upper bounds:
+ * <ul>
+ *     <li>when the follower is behind by more than a read request worth of operations, the missing operations are split across the
+ *     read requests that can be outstanding so that they are fetched in parallel rather than by a few maximum sized requests;</li>
+ *     <li>the number of outstanding read requests is halved while the write buffer fills up, as the follower cannot keep up with the
+ *     reads anyway, and grows back one request at a time while the leader returns full batches;</li>
+ *     <li>the number of outstanding write requests is reduced while the time to index an operation on the follower is more than
+ *     twice its recent best, and grows back one request at a time while all write requests are in use.</li>
+ * </ul>
+ * It also keeps track of the rate at which the leader and the follower global checkpoints advance in order to forecast when the
+ * follower will have caught up with the leader.
+ * <p>
+ * This class is not thread-safe, it is guarded by the lock of the task that owns it.
+ */
+final class AdaptiveFollowController {
+
+    /** Read requests are not split into requests of fewer operations than this. */
+    static final int MIN_READ_REQUEST_OPERATION_COUNT = 64;
+    /** Write requests that are faster than this are not considered to be slowing the follower down. */
+    static final long MIN_SLOW_WRITE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** The number of write requests to observe before the number of outstanding write requests is adapted. */
+    static final int MIN_WRITE_SAMPLES = 8;
+    /** The minimum interval between two samples of the global checkpoints. */
+    static final long RATE_SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final double ALPHA = 0.3;
+
+    private final int maxOutstandingReadRequests;
+    private final int maxReadRequestOperationCount;
+    private final int maxOutstandingWriteRequests;
+
+    private int outstandingReadRequestsLimit;
+    private int outstandingWriteRequestsLimit;
+
+    private double writeNanosPerOperation = -1;
+    private double bestWriteNanosPerOperation = -1;
+    private double writeNanos = -1;
+    private long writeSamples = 0;
+
+    private boolean sampled = false;
+    private long lastSampleNanos;
+    private long lastLeaderGlobalCheckpoint;
+    private long lastFollowerGlobalCheckpoint;
+    private double leaderOperationsPerSecond = -1;
+    private double followerOperationsPerSecond = -1;
+
+    AdaptiveFollowController(int maxOutstandingReadRequests, int maxReadRequestOperationCount, int maxOutstandingWriteRequests) {
+        this.maxOutstandingReadRequests = maxOutstandingReadRequests;
+        this.maxReadRequestOperationCount = maxReadRequestOperationCount;
+        this.maxOutstandingWriteRequests = maxOutstandingWriteRequests;
+        // start with the configured budgets, they are only reduced based on what is observed
+        this.outstandingReadRequestsLimit = maxOutstandingReadRequests;
+        this.outstandingWriteRequestsLimit = maxOutstandingWriteRequests;
+    }
+
+    int maxOutstandingReadRequests() {
+        return outstandingReadRequestsLimit;
+    }
+
+    int maxOutstandingWriteRequests() {
+        return outstandingWriteRequestsLimit;
+    }
+
+    /**
+     * The number of operations to request per read request, given the number of operations the follower is missing.
+     */
+    int readRequestOperationCount(long missingOperations) {
+        if (missingOperations <= maxReadRequestOperationCount) {
+            return maxReadRequestOperationCount;
+        }
+        final long perRequest = (missingOperations + outstandingReadRequestsLimit - 1) / outstandingReadRequestsLimit;
+        final long atLeast = Math.min(MIN_READ_REQUEST_OPERATION_COUNT, maxReadRequestOperationCount);
+        return Math.toIntExact(Math.min(maxReadRequestOperationCount, Math.max(atLeast, perRequest)));
+    }
+
+    /**
+     * Called when a shard changes request returned operations.
+     *
+     * @param requestedOperations the number of operations that were requested
+     * @param receivedOperations  the number of operations that were returned
+     * @param writeBufferFilling  whether the write buffer is more than half full
+     */
+    void onReadResponse(int requestedOperations, int receivedOperations, boolean writeBufferFilling) {
+        if (writeBufferFilling) {
+            outstandingReadRequestsLimit = Math.max(Math.min(1, maxOutstandingReadRequests), outstandingReadRequestsLimit / 2);
+        } else if (receivedOperations >= requestedOperations && outstandingReadRequestsLimit < maxOutstandingReadRequests) {
+            outstandingReadRequestsLimit++;
+        }
+    }
+
+    /**
+     * Called when a bulk shard operations request completed.
+     *
+     * @param operations    the number of operations of the request
+     * @param tookNanos     the time it took to complete the request
+     * @param allWritesUsed whether all the outstanding write requests were in use when this one completed
+     */
+    void onWriteResponse(int operations, long tookNanos, boolean allWritesUsed) {
+        if (operations == 0) {
+            return;
+        }
+        final double nanosPerOperation = (double) tookNanos / operations;
+        writeNanosPerOperation = ewma(writeNanosPerOperation, nanosPerOperation);
+        writeNanos = ewma(writeNanos, tookNanos);
+        // let the best observed time drift up so that a permanent change of the follower load is eventually accepted
+        bestWriteNanosPerOperation = bestWriteNanosPerOperation < 0 ?
+            writeNanosPerOperation : Math.min(writeNanosPerOperation, bestWriteNanosPerOperation * 1.05);
+        writeSamples++;
+        if (writeSamples < MIN_WRITE_SAMPLES) {
+            return;
+        }
+        final int minWrites = Math.min(1, maxOutstandingWriteRequests);
+        if (writeNanos >= MIN_SLOW_WRITE_NANOS && writeNanosPerOperation > 2 * bestWriteNanosPerOperation) {
+            outstandingWriteRequestsLimit = Math.max(minWrites, outstandingWriteRequestsLimit * 3 / 4);
+        } else if (allWritesUsed && outstandingWriteRequestsLimit < maxOutstandingWriteRequests) {
+            outstandingWriteRequestsLimit++;
+        }
+    }
+
+    /**
+     * Samples the global checkpoints of the leader and the follower shards to compute the rates at which they advance.
+     */
+    void onGlobalCheckpoints(long nowNanos, long leaderGlobalCheckpoint, long followerGlobalCheckpoint) {
+        if (sampled == false) {
+            sampled = true;
+            lastSampleNanos = nowNanos;
+            lastLeaderGlobalCheckpoint = leaderGlobalCheckpoint;
+            lastFollowerGlobalCheckpoint = followerGlobalCheckpoint;
+            return;
+        }
+        final long elapsedNanos = nowNanos - lastSampleNanos;
+        if (elapsedNanos < RATE_SAMPLE_INTERVAL_NANOS) {
+            return;
+        }
+        final double elapsedSeconds = (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+        leaderOperationsPerSecond =
+            ewma(leaderOperationsPerSecond, Math.max(0L, leaderGlobalCheckpoint - lastLeaderGlobalCheckpoint) / elapsedSeconds);
+        followerOperationsPerSecond =
+            ewma(followerOperationsPerSecond, Math.max(0L, followerGlobalCheckpoint - lastFollowerGlobalCheckpoint) / elapsedSeconds);
+        lastSampleNanos = nowNanos;
+        lastLeaderGlobalCheckpoint = leaderGlobalCheckpoint;
+        lastFollowerGlobalCheckpoint = followerGlobalCheckpoint;
+    }
+
+    long leaderOperationsPerSecond() {
+        return leaderOperationsPerSecond < 0 ? 0 : Math.round(leaderOperationsPerSecond);
+    }
+
+    long followerOperationsPerSecond() {
+        return followerOperationsPerSecond < 0 ? 0 : Math.round(followerOperationsPerSecond);
+    }
+
+    /**
+     * Forecasts the time it takes for the follower to catch up with the leader at the current rates, {@code 0} if the follower is
+     * not behind and {@code -1} if it does not catch up at the current rates.
+     */
+    long timeToCatchUpMillis(long leaderGlobalCheckpoint, long followerGlobalCheckpoint) {
+        final long lag = leaderGlobalCheckpoint - followerGlobalCheckpoint;
+        if (lag <= 0) {
+            return 0;
+        }
+        if (followerOperationsPerSecond < 0) {
+            // no rates yet
+            return -1;
+        }
+        final double catchUpOperationsPerSecond = followerOperationsPerSecond - leaderOperationsPerSecond;
+        if (catchUpOperationsPerSecond <= 0) {
+            return -1;
+        }
+        return Math.round(lag / catchUpOperationsPerSecond * 1000);
+    }
+
+    private static double ewma(double current, double sample) {
+        return current < 0 ? sample : ALPHA * sample + (1 - ALPHA) * current;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+
+package org.elasticsearch.xpack.ccr.action;
+
+import org.apache.lucene.index.Term;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.compress.CompressorFactory;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.index.translog.Translog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch encoding of the operations of a {@link ShardChangesAction.Response}. Operations read from a leader shard are mostly consecutive
+ * and share most of their metadata, and their sources tend to look alike, so instead of serializing every operation on its own:
+ * <ul>
+ *     <li>the operation types, sequence numbers, primary terms and versions are written as columns, the numbers as deltas with the
+ *     previous operation;</li>
+ *     <li>the strings that repeat across operations (types, routings, uid fields and no-op reasons) are written once and then referred
+ *     to by their position in the batch;</li>
+ *     <li>the sources of all index operations are compressed together so that they are compressed against each other.</li>
+ * </ul>
+ */
+final class CompressedShardChanges {
+
+    private static final byte NULL_STRING = 0;
+    private static final byte NEW_STRING = 1;
+
+    private CompressedShardChanges() {}
+
+    static void writeOperations(final StreamOutput out, final Translog.Operation[] operations) throws IOException {
+        out.writeVInt(operations.length);
+        if (operations.length == 0) {
+            return;
+        }
+        for (Translog.Operation operation : operations) {
+            out.writeByte(operation.opType().id());
+        }
+        long previous = 0;
+        for (Translog.Operation operation : operations) {
+            out.writeZLong(operation.seqNo() - previous);
+            previous = operation.seqNo();
+        }
+        previous = 0;
+        for (Translog.Operation operation : operations) {
+            out.writeZLong(operation.primaryTerm() - previous);
+            previous = operation.primaryTerm();
+        }
+        previous = 0;
+        for (Translog.Operation operation : operations) {
+            final long version;
+            switch (operation.opType()) {
+                case CREATE:
+                case INDEX:
+                    version = ((Translog.Index) operation).version();
+                    break;
+                case DELETE:
+                    version = ((Translog.Delete) operation).version();
+                    break;
+                default:
+                    continue;
+            }
+            out.writeZLong(version - previous);
+            previous = version;
+        }
+
+        final Map<String, Integer> strings = new HashMap<>();
+        final BytesStreamOutput sources = new BytesStreamOutput();
+        try (StreamOutput compressedSources = CompressorFactory.COMPRESSOR.streamOutput(sources)) {
+            long previousAutoGeneratedIdTimestamp = 0;
+            for (Translog.Operation operation : operations) {
+                switch (operation.opType()) {
+                    case CREATE:
+                    case INDEX:
+                        final Translog.Index index = (Translog.Index) operation;
+                        writeString(out, index.type(), strings);
+                        out.writeString(index.id());
+                        writeString(out, index.routing(), strings);
+                        out.writeZLong(index.getAutoGeneratedIdTimestamp() - previousAutoGeneratedIdTimestamp);
+                        previousAutoGeneratedIdTimestamp = index.getAutoGeneratedIdTimestamp();
+                        out.writeVInt(index.source().length());
+                        index.source().writeTo(compressedSources);
+                        break;
+                    case DELETE:
+                        final Translog.Delete delete = (Translog.Delete) operation;
+                        writeString(out, delete.type(), strings);
+                        out.writeString(delete.id());
+                        writeString(out, delete.uid().field(), strings);
+                        out.writeBytesRef(delete.uid().bytes());
+                        break;
+                    case NO_OP:
+                        writeString(out, ((Translog.NoOp) operation).reason(), strings);
+                        break;
+                    default:
+                        throw new IllegalStateException("unexpected operation type [" + operation.opType() + "]");
+                }
+            }
+        }
+        out.writeBytesReference(sources.bytes());
+    }
+
+    static Translog.Operation[] readOperations(final StreamInput in) throws IOException {
+        final int count = in.readVInt();
+        final Translog.Operation[] operations = new Translog.Operation[count];
+        if (count == 0) {
+            return operations;
+        }
+        final Translog.Operation.Type[] types = new Translog.Operation.Type[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = Translog.Operation.Type.fromId(in.readByte());
+        }
+        final long[] seqNos = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            seqNos[i] = previous += in.readZLong();
+        }
+        final long[] primaryTerms = new long[count];
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            primaryTerms[i] = previous += in.readZLong();
+        }
+        final long[] versions = new long[count];
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            if (types[i] != Translog.Operation.Type.NO_OP) {
+                versions[i] = previous += in.readZLong();
+            }
+        }
+
+        final List<String> strings = new ArrayList<>();
+        final int[] sourceLengths = new int[count];
+        final String[] typeNames = new String[count];
+        final String[] ids = new String[count];
+        final String[] routings = new String[count];
+        final long[] autoGeneratedIdTimestamps = new long[count];
+        long previousAutoGeneratedIdTimestamp = 0;
+        for (int i = 0; i < count; i++) {
+            switch (types[i]) {
+                case CREATE:
+                case INDEX:
+                    typeNames[i] = readString(in, strings);
+                    ids[i] = in.readString();
+                    routings[i] = readString(in, strings);
+                    autoGeneratedIdTimestamps[i] = previousAutoGeneratedIdTimestamp += in.readZLong();
+                    sourceLengths[i] = in.readVInt();
+                    break;
+                case DELETE:
+                    final String type = readString(in, strings);
+                    final String id = in.readString();
+                    final Term uid = new Term(readString(in, strings), in.readBytesRef());
+                    operations[i] = new Translog.Delete(type, id, uid, seqNos[i], primaryTerms[i], versions[i]);
+                    break;
+                case NO_OP:
+                    operations[i] = new Translog.NoOp(seqNos[i], primaryTerms[i], readString(in, strings));
+                    break;
+                default:
+                    throw new IllegalStateException("unexpected operation type [" + types[i] + "]");
+            }
+        }
+
+        final BytesReference sources = CompressorFactory.uncompress(in.readBytesReference());
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            if (operations[i] == null) {
+                final byte[] source = BytesReference.toBytes(sources.slice(offset, sourceLengths[i]));
+                offset += sourceLengths[i];
+                operations[i] = new Translog.Index(typeNames[i], ids[i], seqNos[i], primaryTerms[i], versions[i], source, routings[i],
+                    autoGeneratedIdTimestamps[i]);
+            }
+        }
+        if (offset != sources.length()) {
+            throw new IllegalStateException("expected [" + sources.length() + "] bytes of sources but read [" + offset + "]");
+        }
+        return operations;
+    }
+
+    /**
+     * Writes the given string, or a reference to it if it has already been written for this batch.
+     */
+    private static void writeString(final StreamOutput out, final String string, final Map<String, Integer> strings) throws IOException {
+        if (string == null) {
+            out.writeVInt(NULL_STRING);
+            return;
+        }
+        final Integer position = strings.get(string);
+        if (position == null) {
+            strings.put(string, strings.size());
+            out.writeVInt(NEW_STRING);
+            out.writeString(string);
+        } else {
+            out.writeVInt(position + 2);
+        }
+    }
+
+    private static String readString(final StreamInput in, final List<String> strings) throws IOException {
+        final int reference = in.readVInt();
+        switch (reference) {
+            case NULL_STRING:
+                return null;
+            case NEW_STRING:
+                final String string = in.readString();
+                strings.add(string);
+                return string;
+            default:
+                return strings.get(reference - 2);
+        }
+    }
+}
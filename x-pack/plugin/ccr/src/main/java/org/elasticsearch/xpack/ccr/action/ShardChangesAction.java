@@ -7,6 +7,7 @@ package org.elasticsearch.xpack.ccr.action;
 
 import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.elasticsearch.ResourceNotFoundException;
+import org.elasticsearch.Version;
 import org.elasticsearch.action.Action;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRequestValidationException;
@@ -72,6 +73,7 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
         private String expectedHistoryUUID;
         private TimeValue pollTimeout = TransportResumeFollowAction.DEFAULT_READ_POLL_TIMEOUT;
         private ByteSizeValue maxBatchSize = TransportResumeFollowAction.DEFAULT_MAX_READ_REQUEST_SIZE;
+        private boolean compressOperations = false;
 
         private long relativeStartNanos;
 
@@ -112,6 +114,18 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             this.maxBatchSize = maxBatchSize;
         }
 
+        /**
+         * Whether the operations should be sent back in the compressed batch encoding of {@link CompressedShardChanges}. Leader nodes
+         * that do not know about this encoding ignore it and send the operations one by one.
+         */
+        public boolean isCompressOperations() {
+            return compressOperations;
+        }
+
+        public void setCompressOperations(boolean compressOperations) {
+            this.compressOperations = compressOperations;
+        }
+
         public String getExpectedHistoryUUID() {
             return expectedHistoryUUID;
         }
@@ -150,6 +164,9 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             expectedHistoryUUID = in.readString();
             pollTimeout = in.readTimeValue();
             maxBatchSize = new ByteSizeValue(in);
+            if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+                compressOperations = in.readBoolean();
+            }
 
             // Starting the clock in order to know how much time is spent on fetching operations:
             relativeStartNanos = System.nanoTime();
@@ -164,6 +181,9 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             out.writeString(expectedHistoryUUID);
             out.writeTimeValue(pollTimeout);
             maxBatchSize.writeTo(out);
+            if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+                out.writeBoolean(compressOperations);
+            }
         }
 
 
@@ -177,12 +197,13 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
                     Objects.equals(shardId, request.shardId) &&
                     Objects.equals(expectedHistoryUUID, request.expectedHistoryUUID) &&
                     Objects.equals(pollTimeout, request.pollTimeout) &&
-                    maxBatchSize.equals(request.maxBatchSize);
+                    maxBatchSize.equals(request.maxBatchSize) &&
+                    compressOperations == request.compressOperations;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(fromSeqNo, maxOperationCount, shardId, expectedHistoryUUID, pollTimeout, maxBatchSize);
+            return Objects.hash(fromSeqNo, maxOperationCount, shardId, expectedHistoryUUID, pollTimeout, maxBatchSize, compressOperations);
         }
 
         @Override
@@ -194,6 +215,7 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
                     ", expectedHistoryUUID=" + expectedHistoryUUID +
                     ", pollTimeout=" + pollTimeout +
                     ", maxBatchSize=" + maxBatchSize.getStringRep() +
+                    ", compressOperations=" + compressOperations +
                     '}';
         }
 
@@ -243,6 +265,15 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             return tookInMillis;
         }
 
+        private boolean compressOperations;
+
+        /**
+         * Whether the operations are sent in the compressed batch encoding, only relevant to how this response is serialized.
+         */
+        void setCompressOperations(boolean compressOperations) {
+            this.compressOperations = compressOperations;
+        }
+
         Response() {
         }
 
@@ -272,7 +303,14 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             globalCheckpoint = in.readZLong();
             maxSeqNo = in.readZLong();
             maxSeqNoOfUpdatesOrDeletes = in.readZLong();
-            operations = in.readArray(Translog.Operation::readOperation, Translog.Operation[]::new);
+            if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+                compressOperations = in.readBoolean();
+            }
+            if (compressOperations) {
+                operations = CompressedShardChanges.readOperations(in);
+            } else {
+                operations = in.readArray(Translog.Operation::readOperation, Translog.Operation[]::new);
+            }
             tookInMillis = in.readVLong();
         }
 
@@ -284,7 +322,15 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             out.writeZLong(globalCheckpoint);
             out.writeZLong(maxSeqNo);
             out.writeZLong(maxSeqNoOfUpdatesOrDeletes);
-            out.writeArray(Translog.Operation::writeOperation, operations);
+            final boolean compress = compressOperations && out.getVersion().onOrAfter(Version.V_7_0_2);
+            if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+                out.writeBoolean(compress);
+            }
+            if (compress) {
+                CompressedShardChanges.writeOperations(out, operations);
+            } else {
+                out.writeArray(Translog.Operation::writeOperation, operations);
+            }
             out.writeVLong(tookInMillis);
         }
 
@@ -351,13 +397,15 @@ public class ShardChangesAction extends Action<ShardChangesAction.Response> {
             final IndexMetaData indexMetaData = indexService.getMetaData();
             final long mappingVersion = indexMetaData.getMappingVersion();
             final long settingsVersion = indexMetaData.getSettingsVersion();
-            return getResponse(
+            final Response response = getResponse(
                     mappingVersion,
                     settingsVersion,
                     seqNoStats,
                     maxSeqNoOfUpdatesOrDeletes,
                     operations,
                     request.relativeStartNanos);
+            response.setCompressOperations(request.isCompressOperations());
+            return response;
         }
 
         @Override
@@ -66,6 +66,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
     private final ShardFollowTask params;
     private final BiConsumer<TimeValue, Runnable> scheduler;
     private final LongSupplier relativeTimeProvider;
+    private final AdaptiveFollowController controller;
 
     private String followerHistoryUUID;
     private long leaderGlobalCheckpoint;
@@ -107,6 +108,8 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         this.params = params;
         this.scheduler = scheduler;
         this.relativeTimeProvider = relativeTimeProvider;
+        this.controller = new AdaptiveFollowController(params.getMaxOutstandingReadRequests(),
+            params.getMaxReadRequestOperationCount(), params.getMaxOutstandingWriteRequests());
         /*
          * We keep track of the most recent fetch exceptions, with the number of exceptions that we track equal to the maximum number of
          * concurrent fetches. For each failed fetch, we track the from sequence number associated with the request, and we clear the entry
@@ -175,11 +178,13 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         LOGGER.trace("{} coordinate reads, lastRequestedSeqNo={}, leaderGlobalCheckpoint={}",
             params.getFollowShardId(), lastRequestedSeqNo, leaderGlobalCheckpoint);
         final int maxReadRequestOperationCount = params.getMaxReadRequestOperationCount();
+        // split what is missing across the reads that may be outstanding so that it is fetched in parallel
+        final int readRequestOperationCount = controller.readRequestOperationCount(leaderGlobalCheckpoint - lastRequestedSeqNo);
         while (hasReadBudget() && lastRequestedSeqNo < leaderGlobalCheckpoint) {
             final long from = lastRequestedSeqNo + 1;
-            final long maxRequiredSeqNo = Math.min(leaderGlobalCheckpoint, from + maxReadRequestOperationCount - 1);
+            final long maxRequiredSeqNo = Math.min(leaderGlobalCheckpoint, from + readRequestOperationCount - 1);
             final int requestOpCount;
-            if (numOutstandingReads == 0) {
+            if (numOutstandingReads == 0 && maxRequiredSeqNo == leaderGlobalCheckpoint) {
                 // This is the only request, we can optimistically fetch more documents if possible but not enforce max_required_seqno.
                 requestOpCount = maxReadRequestOperationCount;
             } else {
@@ -206,7 +211,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
 
     private boolean hasReadBudget() {
         assert Thread.holdsLock(this);
-        if (numOutstandingReads >= params.getMaxOutstandingReadRequests()) {
+        if (numOutstandingReads >= controller.maxOutstandingReadRequests()) {
             LOGGER.trace("{} no new reads, maximum number of concurrent reads have been reached [{}]",
                 params.getFollowShardId(), numOutstandingReads);
             return false;
@@ -222,6 +227,11 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         return true;
     }
 
+    private boolean isWriteBufferFilling() {
+        assert Thread.holdsLock(this);
+        return bufferSizeInBytes >= params.getMaxWriteBufferSize().getBytes() / 2 || buffer.size() >= params.getMaxWriteBufferCount() / 2;
+    }
+
     private synchronized void coordinateWrites() {
         if (isStopped()) {
             LOGGER.info("{} shard follow task has been stopped", params.getFollowShardId());
@@ -250,7 +260,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
 
     private boolean hasWriteBudget() {
         assert Thread.holdsLock(this);
-        if (numOutstandingWrites >= params.getMaxOutstandingWriteRequests()) {
+        if (numOutstandingWrites >= controller.maxOutstandingWriteRequests()) {
             LOGGER.trace("{} maximum number of concurrent writes have been reached [{}]",
                 params.getFollowShardId(), numOutstandingWrites);
             return false;
@@ -280,6 +290,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
                             operationsRead += response.getOperations().length;
                             bytesRead +=
                                 Arrays.stream(response.getOperations()).mapToLong(Translog.Operation::estimateSize).sum();
+                            controller.onReadResponse(maxOperationCount, response.getOperations().length, isWriteBufferFilling());
                         }
                     }
                     handleReadResponse(from, maxRequiredSeqNo, response);
@@ -336,6 +347,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         leaderGlobalCheckpoint = Math.max(leaderGlobalCheckpoint, response.getGlobalCheckpoint());
         leaderMaxSeqNo = Math.max(leaderMaxSeqNo, response.getMaxSeqNo());
         leaderMaxSeqNoOfUpdatesOrDeletes = SequenceNumbers.max(leaderMaxSeqNoOfUpdatesOrDeletes, response.getMaxSeqNoOfUpdatesOrDeletes());
+        controller.onGlobalCheckpoints(relativeTimeProvider.getAsLong(), leaderGlobalCheckpoint, followerGlobalCheckpoint);
         final long newFromSeqNo;
         if (response.getOperations().length == 0) {
             newFromSeqNo = from;
@@ -377,9 +389,13 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
         innerSendBulkShardOperationsRequest(followerHistoryUUID, operations, leaderMaxSeqNoOfUpdatesOrDeletes,
                 response -> {
                     synchronized (ShardFollowNodeTask.this) {
-                        totalWriteTimeMillis += TimeUnit.NANOSECONDS.toMillis(relativeTimeProvider.getAsLong() - startTime);
+                        final long tookNanos = relativeTimeProvider.getAsLong() - startTime;
+                        totalWriteTimeMillis += TimeUnit.NANOSECONDS.toMillis(tookNanos);
                         successfulWriteRequests++;
                         operationWritten += operations.size();
+                        final boolean allWritesUsed =
+                            numOutstandingWrites >= controller.maxOutstandingWriteRequests() && buffer.isEmpty() == false;
+                        controller.onWriteResponse(operations.size(), tookNanos, allWritesUsed);
                     }
                     handleWriteResponse(response);
                 },
@@ -397,6 +413,7 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
     private synchronized void handleWriteResponse(final BulkShardOperationsResponse response) {
         this.followerGlobalCheckpoint = Math.max(this.followerGlobalCheckpoint, response.getGlobalCheckpoint());
         this.followerMaxSeqNo = Math.max(this.followerMaxSeqNo, response.getMaxSeqNo());
+        controller.onGlobalCheckpoints(relativeTimeProvider.getAsLong(), leaderGlobalCheckpoint, followerGlobalCheckpoint);
         numOutstandingWrites--;
         assert numOutstandingWrites >= 0;
         coordinateWrites();
@@ -583,6 +600,12 @@ public abstract class ShardFollowNodeTask extends AllocatedPersistentTask {
                                 .collect(
                                         Collectors.toMap(Map.Entry::getKey, e -> Tuple.tuple(e.getValue().v1().get(), e.getValue().v2())))),
                 timeSinceLastFetchMillis,
+                controller.maxOutstandingReadRequests(),
+                controller.readRequestOperationCount(leaderGlobalCheckpoint - lastRequestedSeqNo),
+                controller.maxOutstandingWriteRequests(),
+                controller.leaderOperationsPerSecond(),
+                controller.followerOperationsPerSecond(),
+                controller.timeToCatchUpMillis(leaderGlobalCheckpoint, followerGlobalCheckpoint),
                 fatalException);
     }
 
@@ -84,6 +84,7 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
     private final IndexScopedSettings indexScopedSettings;
     private final TimeValue retentionLeaseRenewInterval;
     private volatile TimeValue waitForMetadataTimeOut;
+    private volatile boolean compressShardChanges;
 
     public ShardFollowTasksExecutor(Client client,
                                     ThreadPool threadPool,
@@ -98,6 +99,9 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
         this.waitForMetadataTimeOut = CcrSettings.CCR_WAIT_FOR_METADATA_TIMEOUT.get(settingsModule.getSettings());
         clusterService.getClusterSettings().addSettingsUpdateConsumer(CcrSettings.CCR_WAIT_FOR_METADATA_TIMEOUT,
             newVal -> this.waitForMetadataTimeOut = newVal);
+        this.compressShardChanges = CcrSettings.CCR_COMPRESS_SHARD_CHANGES.get(settingsModule.getSettings());
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(CcrSettings.CCR_COMPRESS_SHARD_CHANGES,
+            newVal -> this.compressShardChanges = newVal);
     }
 
     @Override
@@ -250,6 +254,7 @@ public class ShardFollowTasksExecutor extends PersistentTasksExecutor<ShardFollo
                 request.setMaxOperationCount(maxOperationCount);
                 request.setMaxBatchSize(params.getMaxReadRequestSize());
                 request.setPollTimeout(params.getReadPollTimeout());
+                request.setCompressOperations(compressShardChanges);
                 try {
                     remoteClient(params).execute(ShardChangesAction.INSTANCE, request, ActionListener.wrap(handler::accept, errorHandler));
                 } catch (NoSuchRemoteClusterException e) {
@@ -0,0 +1,113 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.ccr.action;
+
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class AdaptiveFollowControllerTests extends ESTestCase {
+
+    public void testReadRequestOperationCount() {
+        final AdaptiveFollowController controller = new AdaptiveFollowController(12, 5120, 9);
+        // a single read request worth of operations is requested at once
+        assertThat(controller.readRequestOperationCount(randomIntBetween(0, 5120)), equalTo(5120));
+        // otherwise the missing operations are split across the outstanding read requests
+        assertThat(controller.readRequestOperationCount(6000), equalTo(500));
+        assertThat(controller.readRequestOperationCount(6001), equalTo(501));
+        // but never into tiny requests
+        final AdaptiveFollowController manyReads = new AdaptiveFollowController(1000, 5120, 9);
+        assertThat(manyReads.readRequestOperationCount(6000), equalTo(AdaptiveFollowController.MIN_READ_REQUEST_OPERATION_COUNT));
+        // nor beyond the configured maximum
+        assertThat(controller.readRequestOperationCount(Long.MAX_VALUE / 2), equalTo(5120));
+        // a configured maximum below the minimum is honoured
+        final AdaptiveFollowController smallReads = new AdaptiveFollowController(12, 8, 9);
+        assertThat(smallReads.readRequestOperationCount(1000), equalTo(8));
+    }
+
+    public void testOutstandingReadRequestsBackOffWhenTheWriteBufferFills() {
+        final AdaptiveFollowController controller = new AdaptiveFollowController(12, 5120, 9);
+        assertThat(controller.maxOutstandingReadRequests(), equalTo(12));
+        controller.onReadResponse(500, 500, true);
+        assertThat(controller.maxOutstandingReadRequests(), equalTo(6));
+        for (int i = 0; i < 10; i++) {
+            controller.onReadResponse(500, 500, true);
+        }
+        assertThat(controller.maxOutstandingReadRequests(), equalTo(1));
+        // partial batches mean that the leader has no more operations to give, there is no point in reading more in parallel
+        controller.onReadResponse(500, 10, false);
+        assertThat(controller.maxOutstandingReadRequests(), equalTo(1));
+        for (int i = 0; i < 20; i++) {
+            controller.onReadResponse(500, 500, false);
+        }
+        assertThat(controller.maxOutstandingReadRequests(), equalTo(12));
+    }
+
+    public void testOutstandingWriteRequestsBackOffWhenTheFollowerSlowsDown() {
+        final AdaptiveFollowController controller = new AdaptiveFollowController(12, 5120, 8);
+        final long fastWrite = TimeUnit.MILLISECONDS.toNanos(200);
+        for (int i = 0; i < AdaptiveFollowController.MIN_WRITE_SAMPLES; i++) {
+            controller.onWriteResponse(1000, fastWrite, false);
+        }
+        assertThat(controller.maxOutstandingWriteRequests(), equalTo(8));
+        // writes take five times longer per operation
+        for (int i = 0; i < 5; i++) {
+            controller.onWriteResponse(1000, fastWrite * 5, false);
+        }
+        assertThat(controller.maxOutstandingWriteRequests(), lessThan(8));
+        for (int i = 0; i < 50; i++) {
+            controller.onWriteResponse(1000, fastWrite * 5, true);
+        }
+        // the slower writes eventually become the new normal
+        assertThat(controller.maxOutstandingWriteRequests(), equalTo(8));
+    }
+
+    public void testFastWritesDoNotBackOff() {
+        final AdaptiveFollowController controller = new AdaptiveFollowController(12, 5120, 8);
+        for (int i = 0; i < 100; i++) {
+            // too fast to be slowing the follower down, whatever the variation per operation
+            controller.onWriteResponse(randomIntBetween(1, 1000), randomLongBetween(1, TimeUnit.MILLISECONDS.toNanos(10)), false);
+        }
+        assertThat(controller.maxOutstandingWriteRequests(), equalTo(8));
+    }
+
+    public void testNoOutstandingRequestsConfigured() {
+        final AdaptiveFollowController controller = new AdaptiveFollowController(0, 5120, 0);
+        controller.onReadResponse(5120, 5120, true);
+        controller.onReadResponse(5120, 5120, false);
+        assertThat(controller.maxOutstandingReadRequests(), equalTo(0));
+        for (int i = 0; i < 20; i++) {
+            controller.onWriteResponse(1000, TimeUnit.SECONDS.toNanos(i + 1), true);
+        }
+        assertThat(controller.maxOutstandingWriteRequests(), equalTo(0));
+    }
+
+    public void testTimeToCatchUp() {
+        final AdaptiveFollowController controller = new AdaptiveFollowController(12, 5120, 9);
+        final long second = TimeUnit.SECONDS.toNanos(1);
+        assertThat(controller.timeToCatchUpMillis(100, 100), equalTo(0L));
+        // no rates yet
+        assertThat(controller.timeToCatchUpMillis(100, 0), equalTo(-1L));
+
+        controller.onGlobalCheckpoints(0, 1000, 0);
+        // samples closer than the sampling interval are ignored
+        controller.onGlobalCheckpoints(second / 2, 2000, 2000);
+        assertThat(controller.leaderOperationsPerSecond(), equalTo(0L));
+
+        controller.onGlobalCheckpoints(second, 1100, 300);
+        assertThat(controller.leaderOperationsPerSecond(), equalTo(100L));
+        assertThat(controller.followerOperationsPerSecond(), equalTo(300L));
+        // 800 operations behind, catching up 200 operations per second
+        assertThat(controller.timeToCatchUpMillis(1100, 300), equalTo(4000L));
+
+        controller.onGlobalCheckpoints(2 * second, 1600, 300);
+        // the follower now falls behind
+        assertThat(controller.timeToCatchUpMillis(1600, 300), equalTo(-1L));
+    }
+}
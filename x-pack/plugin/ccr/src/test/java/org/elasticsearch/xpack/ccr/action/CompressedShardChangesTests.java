@@ -0,0 +1,88 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.ccr.action;
+
+import org.apache.lucene.index.Term;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.index.mapper.IdFieldMapper;
+import org.elasticsearch.index.mapper.Uid;
+import org.elasticsearch.index.translog.Translog;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.test.VersionUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class CompressedShardChangesTests extends ESTestCase {
+
+    public void testRoundTrip() throws IOException {
+        final Translog.Operation[] operations = randomOperations(randomIntBetween(0, 256));
+        final BytesStreamOutput out = new BytesStreamOutput();
+        CompressedShardChanges.writeOperations(out, operations);
+        try (StreamInput in = out.bytes().streamInput()) {
+            final Translog.Operation[] read = CompressedShardChanges.readOperations(in);
+            assertThat(read, equalTo(operations));
+            assertThat(in.available(), equalTo(0));
+        }
+    }
+
+    public void testSmallerThanSerializingOperationsOneByOne() throws IOException {
+        final Translog.Operation[] operations = randomOperations(randomIntBetween(64, 256));
+        final BytesStreamOutput plain = new BytesStreamOutput();
+        plain.writeArray(Translog.Operation::writeOperation, operations);
+        final BytesStreamOutput compressed = new BytesStreamOutput();
+        CompressedShardChanges.writeOperations(compressed, operations);
+        logger.info("[{}] operations: [{}] bytes per operation one by one, [{}] bytes per operation compressed", operations.length,
+            plain.size() / operations.length, compressed.size() / operations.length);
+        // the sources of the operations share their field names and the metadata of consecutive operations differ by little
+        assertThat(compressed.size() * 2, lessThan(plain.size()));
+    }
+
+    public void testResponseFallsBackToOperationsOneByOneOnOlderVersions() throws IOException {
+        final ShardChangesAction.Response response =
+            new ShardChangesAction.Response(1L, 1L, 128L, 128L, 0L, randomOperations(randomIntBetween(1, 32)), 0L);
+        response.setCompressOperations(true);
+        final Version version = VersionUtils.randomVersionBetween(random(), Version.V_7_0_0, Version.V_7_0_1);
+        final ShardChangesAction.Response copy = copyStreamable(response, writableRegistry(), ShardChangesAction.Response::new, version);
+        assertThat(copy, equalTo(response));
+    }
+
+    private static Translog.Operation[] randomOperations(int count) {
+        final Translog.Operation[] operations = new Translog.Operation[count];
+        long seqNo = randomNonNegativeLong() / 2;
+        long primaryTerm = randomLongBetween(1, 16);
+        for (int i = 0; i < count; i++) {
+            seqNo += rarely() ? randomIntBetween(2, 1024) : 1;
+            if (rarely()) {
+                primaryTerm++;
+            }
+            final String id = randomAlphaOfLength(20);
+            final long version = randomLongBetween(1, 8);
+            switch (randomIntBetween(0, 9)) {
+                case 0:
+                    operations[i] = new Translog.NoOp(seqNo, primaryTerm, randomFrom("test", "filling gaps"));
+                    break;
+                case 1:
+                    operations[i] = new Translog.Delete("_doc", id, new Term(IdFieldMapper.NAME, Uid.encodeId(id)), seqNo, primaryTerm,
+                        version);
+                    break;
+                default:
+                    final String source = "{\"user\":\"" + randomFrom("kimchy", "jpountz", "dakrone") + "\",\"message\":\""
+                        + randomFrom("trying out Elasticsearch", "following the leader", "indexing some logs") + "\",\"count\":"
+                        + randomIntBetween(0, 1000) + "}";
+                    operations[i] = new Translog.Index("_doc", id, seqNo, primaryTerm, version, source.getBytes(StandardCharsets.UTF_8),
+                        randomBoolean() ? null : randomFrom("r1", "r2"), rarely() ? randomNonNegativeLong() : -1);
+                    break;
+            }
+        }
+        return operations;
+    }
+}
@@ -19,6 +19,7 @@ public class ShardChangesRequestTests extends AbstractStreamableTestCase<ShardCh
             new ShardChangesAction.Request(new ShardId("_index", "_indexUUID", 0), randomAlphaOfLength(4));
         request.setMaxOperationCount(randomIntBetween(0, Integer.MAX_VALUE));
         request.setFromSeqNo(randomNonNegativeLong());
+        request.setCompressOperations(randomBoolean());
         return request;
     }
 
@@ -22,7 +22,7 @@ public class ShardChangesResponseTests extends AbstractStreamableTestCase<ShardC
         for (int i = 0; i < numOps; i++) {
             operations[i] = new Translog.NoOp(i, 0, "test");
         }
-        return new ShardChangesAction.Response(
+        final ShardChangesAction.Response response = new ShardChangesAction.Response(
             mappingVersion,
             settingsVersion,
             leaderGlobalCheckpoint,
@@ -31,6 +31,8 @@ public class ShardChangesResponseTests extends AbstractStreamableTestCase<ShardC
             operations,
             randomNonNegativeLong()
         );
+        response.setCompressOperations(randomBoolean());
+        return response;
     }
 
     @Override
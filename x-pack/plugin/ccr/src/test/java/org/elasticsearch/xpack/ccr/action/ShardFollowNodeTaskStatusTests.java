@@ -61,6 +61,12 @@ public class ShardFollowNodeTaskStatusTests extends AbstractSerializingTestCase<
                 randomNonNegativeLong(),
                 randomReadExceptions(),
                 randomLong(),
+                randomIntBetween(0, Integer.MAX_VALUE),
+                randomIntBetween(0, Integer.MAX_VALUE),
+                randomIntBetween(0, Integer.MAX_VALUE),
+                randomNonNegativeLong(),
+                randomNonNegativeLong(),
+                randomLong(),
                 randomBoolean() ? new ElasticsearchException("fatal error") : null);
     }
 
@@ -104,6 +110,12 @@ public class ShardFollowNodeTaskStatusTests extends AbstractSerializingTestCase<
             assertThat(entry.getValue().v2().getCause().getMessage(), containsString(expected.getCause().getMessage()));
         }
         assertThat(newInstance.timeSinceLastReadMillis(), equalTo(expectedInstance.timeSinceLastReadMillis()));
+        assertThat(newInstance.adaptiveMaxOutstandingReadRequests(), equalTo(expectedInstance.adaptiveMaxOutstandingReadRequests()));
+        assertThat(newInstance.adaptiveMaxReadRequestOperationCount(), equalTo(expectedInstance.adaptiveMaxReadRequestOperationCount()));
+        assertThat(newInstance.adaptiveMaxOutstandingWriteRequests(), equalTo(expectedInstance.adaptiveMaxOutstandingWriteRequests()));
+        assertThat(newInstance.leaderOperationsPerSecond(), equalTo(expectedInstance.leaderOperationsPerSecond()));
+        assertThat(newInstance.followerOperationsPerSecond(), equalTo(expectedInstance.followerOperationsPerSecond()));
+        assertThat(newInstance.timeToCatchUpMillis(), equalTo(expectedInstance.timeToCatchUpMillis()));
     }
 
     @Override
@@ -97,6 +97,24 @@ public class ShardFollowNodeTaskTests extends ESTestCase {
         assertThat(status.lastRequestedSeqNo(), equalTo(60L));
     }
 
+    public void testCoordinateReadsSplitsMissingOperationsAcrossOutstandingReads() {
+        ShardFollowTaskParams params = new ShardFollowTaskParams();
+        params.maxReadRequestOperationCount = 1024;
+        params.maxOutstandingReadRequests = 4;
+        params.maxOutstandingWriteRequests = 1;
+
+        ShardFollowNodeTask task = createShardFollowTask(params);
+        startTask(task, 1999, -1);
+        task.coordinateReads();
+        // 2000 missing operations are fetched by 4 reads of 500 operations rather than by 2 reads of 1024 operations
+        assertThat(shardChangesRequests, contains(new long[][]{{0L, 500L}, {500L, 500L}, {1000L, 500L}, {1500L, 500L}}));
+        ShardFollowNodeTaskStatus status = task.getStatus();
+        assertThat(status.outstandingReadRequests(), equalTo(4));
+        assertThat(status.lastRequestedSeqNo(), equalTo(1999L));
+        assertThat(status.adaptiveMaxOutstandingReadRequests(), equalTo(4));
+        assertThat(status.adaptiveMaxOutstandingWriteRequests(), equalTo(1));
+    }
+
     public void testMaxWriteBufferCount() {
         ShardFollowTaskParams params = new ShardFollowTaskParams();
         params.maxReadRequestOperationCount = 64;
@@ -110,6 +110,12 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
                         randomNonNegativeLong(),
                         Tuple.tuple(randomIntBetween(0, Integer.MAX_VALUE), new ElasticsearchException("shard is sad"))));
         final long timeSinceLastReadMillis = randomNonNegativeLong();
+        final int adaptiveMaxOutstandingReadRequests = randomIntBetween(0, Integer.MAX_VALUE);
+        final int adaptiveMaxReadRequestOperationCount = randomIntBetween(0, Integer.MAX_VALUE);
+        final int adaptiveMaxOutstandingWriteRequests = randomIntBetween(0, Integer.MAX_VALUE);
+        final long leaderOperationsPerSecond = randomNonNegativeLong();
+        final long followerOperationsPerSecond = randomNonNegativeLong();
+        final long timeToCatchUpMillis = randomLongBetween(-1, Long.MAX_VALUE);
         final ShardFollowNodeTaskStatus status = new ShardFollowNodeTaskStatus(
                 "leader_cluster",
                 "leader_index",
@@ -138,6 +144,12 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
                 operationWritten,
                 fetchExceptions,
                 timeSinceLastReadMillis,
+                adaptiveMaxOutstandingReadRequests,
+                adaptiveMaxReadRequestOperationCount,
+                adaptiveMaxOutstandingWriteRequests,
+                leaderOperationsPerSecond,
+                followerOperationsPerSecond,
+                timeToCatchUpMillis,
                 new ElasticsearchException("fatal error"));
         final FollowStatsMonitoringDoc document = new FollowStatsMonitoringDoc("_cluster", timestamp, intervalMillis, node, status);
         final BytesReference xContent = XContentHelper.toXContent(document, XContentType.JSON, false);
@@ -194,6 +206,12 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
                                                 + "}"
                                         + "],"
                                         + "\"time_since_last_read_millis\":" + timeSinceLastReadMillis + ","
+                                        + "\"adaptive_max_outstanding_read_requests\":" + adaptiveMaxOutstandingReadRequests + ","
+                                        + "\"adaptive_max_read_request_operation_count\":" + adaptiveMaxReadRequestOperationCount + ","
+                                        + "\"adaptive_max_outstanding_write_requests\":" + adaptiveMaxOutstandingWriteRequests + ","
+                                        + "\"leader_operations_per_second\":" + leaderOperationsPerSecond + ","
+                                        + "\"follower_operations_per_second\":" + followerOperationsPerSecond + ","
+                                        + "\"time_to_catch_up_millis\":" + timeToCatchUpMillis + ","
                                         + "\"fatal_exception\":{\"type\":\"exception\",\"reason\":\"fatal error\"}"
                                 + "}"
                         + "}"));
@@ -230,6 +248,12 @@ public class FollowStatsMonitoringDocTests extends BaseMonitoringDocTestCase<Fol
             10,
             fetchExceptions,
             2,
+            8,
+            1024,
+            4,
+            100,
+            150,
+            20,
             new ElasticsearchException("fatal error"));
         XContentBuilder builder = jsonBuilder();
         builder.value(status);
@@ -7,6 +7,7 @@
 package org.elasticsearch.xpack.core.ccr;
 
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.Version;
 import org.elasticsearch.common.ParseField;
 import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.collect.Tuple;
@@ -61,6 +62,15 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
     private static final ParseField OPERATIONS_WRITTEN = new ParseField("operations_written");
     private static final ParseField READ_EXCEPTIONS = new ParseField("read_exceptions");
     private static final ParseField TIME_SINCE_LAST_READ_MILLIS_FIELD = new ParseField("time_since_last_read_millis");
+    private static final ParseField ADAPTIVE_MAX_OUTSTANDING_READ_REQUESTS_FIELD =
+        new ParseField("adaptive_max_outstanding_read_requests");
+    private static final ParseField ADAPTIVE_MAX_READ_REQUEST_OPERATION_COUNT_FIELD =
+        new ParseField("adaptive_max_read_request_operation_count");
+    private static final ParseField ADAPTIVE_MAX_OUTSTANDING_WRITE_REQUESTS_FIELD =
+        new ParseField("adaptive_max_outstanding_write_requests");
+    private static final ParseField LEADER_OPERATIONS_PER_SECOND_FIELD = new ParseField("leader_operations_per_second");
+    private static final ParseField FOLLOWER_OPERATIONS_PER_SECOND_FIELD = new ParseField("follower_operations_per_second");
+    private static final ParseField TIME_TO_CATCH_UP_MILLIS_FIELD = new ParseField("time_to_catch_up_millis");
     private static final ParseField FATAL_EXCEPTION = new ParseField("fatal_exception");
 
     @SuppressWarnings("unchecked")
@@ -98,7 +108,13 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                                             .stream()
                                             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))),
                             (long) args[26],
-                            (ElasticsearchException) args[27]));
+                            (int) args[27],
+                            (int) args[28],
+                            (int) args[29],
+                            (long) args[30],
+                            (long) args[31],
+                            (long) args[32],
+                            (ElasticsearchException) args[33]));
 
     public static final String READ_EXCEPTIONS_ENTRY_PARSER_NAME = "shard-follow-node-task-status-read-exceptions-entry";
 
@@ -135,6 +151,12 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         STATUS_PARSER.declareLong(ConstructingObjectParser.constructorArg(), OPERATIONS_WRITTEN);
         STATUS_PARSER.declareObjectArray(ConstructingObjectParser.constructorArg(), READ_EXCEPTIONS_ENTRY_PARSER, READ_EXCEPTIONS);
         STATUS_PARSER.declareLong(ConstructingObjectParser.constructorArg(), TIME_SINCE_LAST_READ_MILLIS_FIELD);
+        STATUS_PARSER.declareInt(ConstructingObjectParser.constructorArg(), ADAPTIVE_MAX_OUTSTANDING_READ_REQUESTS_FIELD);
+        STATUS_PARSER.declareInt(ConstructingObjectParser.constructorArg(), ADAPTIVE_MAX_READ_REQUEST_OPERATION_COUNT_FIELD);
+        STATUS_PARSER.declareInt(ConstructingObjectParser.constructorArg(), ADAPTIVE_MAX_OUTSTANDING_WRITE_REQUESTS_FIELD);
+        STATUS_PARSER.declareLong(ConstructingObjectParser.constructorArg(), LEADER_OPERATIONS_PER_SECOND_FIELD);
+        STATUS_PARSER.declareLong(ConstructingObjectParser.constructorArg(), FOLLOWER_OPERATIONS_PER_SECOND_FIELD);
+        STATUS_PARSER.declareLong(ConstructingObjectParser.constructorArg(), TIME_TO_CATCH_UP_MILLIS_FIELD);
         STATUS_PARSER.declareObject(ConstructingObjectParser.optionalConstructorArg(),
                 (p, c) -> ElasticsearchException.fromXContent(p),
                 FATAL_EXCEPTION);
@@ -315,6 +337,46 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         return timeSinceLastReadMillis;
     }
 
+    private final int adaptiveMaxOutstandingReadRequests;
+
+    public int adaptiveMaxOutstandingReadRequests() {
+        return adaptiveMaxOutstandingReadRequests;
+    }
+
+    private final int adaptiveMaxReadRequestOperationCount;
+
+    public int adaptiveMaxReadRequestOperationCount() {
+        return adaptiveMaxReadRequestOperationCount;
+    }
+
+    private final int adaptiveMaxOutstandingWriteRequests;
+
+    public int adaptiveMaxOutstandingWriteRequests() {
+        return adaptiveMaxOutstandingWriteRequests;
+    }
+
+    private final long leaderOperationsPerSecond;
+
+    public long leaderOperationsPerSecond() {
+        return leaderOperationsPerSecond;
+    }
+
+    private final long followerOperationsPerSecond;
+
+    public long followerOperationsPerSecond() {
+        return followerOperationsPerSecond;
+    }
+
+    private final long timeToCatchUpMillis;
+
+    /**
+     * The forecast of the time it takes for the follower to catch up with the leader at the current rates, {@code 0} if the follower
+     * is not behind and {@code -1} if it does not catch up at the current rates.
+     */
+    public long timeToCatchUpMillis() {
+        return timeToCatchUpMillis;
+    }
+
     private final ElasticsearchException fatalException;
 
     public ElasticsearchException getFatalException() {
@@ -349,6 +411,12 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
             final long operationWritten,
             final NavigableMap<Long, Tuple<Integer, ElasticsearchException>> readExceptions,
             final long timeSinceLastReadMillis,
+            final int adaptiveMaxOutstandingReadRequests,
+            final int adaptiveMaxReadRequestOperationCount,
+            final int adaptiveMaxOutstandingWriteRequests,
+            final long leaderOperationsPerSecond,
+            final long followerOperationsPerSecond,
+            final long timeToCatchUpMillis,
             final ElasticsearchException fatalException) {
         this.remoteCluster = remoteCluster;
         this.leaderIndex = leaderIndex;
@@ -377,6 +445,12 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         this.operationWritten = operationWritten;
         this.readExceptions = Objects.requireNonNull(readExceptions);
         this.timeSinceLastReadMillis = timeSinceLastReadMillis;
+        this.adaptiveMaxOutstandingReadRequests = adaptiveMaxOutstandingReadRequests;
+        this.adaptiveMaxReadRequestOperationCount = adaptiveMaxReadRequestOperationCount;
+        this.adaptiveMaxOutstandingWriteRequests = adaptiveMaxOutstandingWriteRequests;
+        this.leaderOperationsPerSecond = leaderOperationsPerSecond;
+        this.followerOperationsPerSecond = followerOperationsPerSecond;
+        this.timeToCatchUpMillis = timeToCatchUpMillis;
         this.fatalException = fatalException;
     }
 
@@ -409,6 +483,21 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
         this.readExceptions =
                 new TreeMap<>(in.readMap(StreamInput::readVLong, stream -> Tuple.tuple(stream.readVInt(), stream.readException())));
         this.timeSinceLastReadMillis = in.readZLong();
+        if (in.getVersion().onOrAfter(Version.V_7_0_2)) {
+            this.adaptiveMaxOutstandingReadRequests = in.readVInt();
+            this.adaptiveMaxReadRequestOperationCount = in.readVInt();
+            this.adaptiveMaxOutstandingWriteRequests = in.readVInt();
+            this.leaderOperationsPerSecond = in.readVLong();
+            this.followerOperationsPerSecond = in.readVLong();
+            this.timeToCatchUpMillis = in.readZLong();
+        } else {
+            this.adaptiveMaxOutstandingReadRequests = 0;
+            this.adaptiveMaxReadRequestOperationCount = 0;
+            this.adaptiveMaxOutstandingWriteRequests = 0;
+            this.leaderOperationsPerSecond = 0;
+            this.followerOperationsPerSecond = 0;
+            this.timeToCatchUpMillis = -1;
+        }
         this.fatalException = in.readException();
     }
 
@@ -452,6 +541,14 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                     stream.writeException(value.v2());
                 });
         out.writeZLong(timeSinceLastReadMillis);
+        if (out.getVersion().onOrAfter(Version.V_7_0_2)) {
+            out.writeVInt(adaptiveMaxOutstandingReadRequests);
+            out.writeVInt(adaptiveMaxReadRequestOperationCount);
+            out.writeVInt(adaptiveMaxOutstandingWriteRequests);
+            out.writeVLong(leaderOperationsPerSecond);
+            out.writeVLong(followerOperationsPerSecond);
+            out.writeZLong(timeToCatchUpMillis);
+        }
         out.writeException(fatalException);
     }
 
@@ -528,6 +625,15 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 TIME_SINCE_LAST_READ_MILLIS_FIELD.getPreferredName(),
                 "time_since_last_read",
                 new TimeValue(timeSinceLastReadMillis, TimeUnit.MILLISECONDS));
+        builder.field(ADAPTIVE_MAX_OUTSTANDING_READ_REQUESTS_FIELD.getPreferredName(), adaptiveMaxOutstandingReadRequests);
+        builder.field(ADAPTIVE_MAX_READ_REQUEST_OPERATION_COUNT_FIELD.getPreferredName(), adaptiveMaxReadRequestOperationCount);
+        builder.field(ADAPTIVE_MAX_OUTSTANDING_WRITE_REQUESTS_FIELD.getPreferredName(), adaptiveMaxOutstandingWriteRequests);
+        builder.field(LEADER_OPERATIONS_PER_SECOND_FIELD.getPreferredName(), leaderOperationsPerSecond);
+        builder.field(FOLLOWER_OPERATIONS_PER_SECOND_FIELD.getPreferredName(), followerOperationsPerSecond);
+        builder.humanReadableField(
+                TIME_TO_CATCH_UP_MILLIS_FIELD.getPreferredName(),
+                "time_to_catch_up",
+                new TimeValue(timeToCatchUpMillis, TimeUnit.MILLISECONDS));
         if (fatalException != null) {
             builder.field(FATAL_EXCEPTION.getPreferredName());
             builder.startObject();
@@ -582,6 +688,12 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 readExceptions.keySet().equals(that.readExceptions.keySet()) &&
                 getReadExceptionMessages(this).equals(getReadExceptionMessages(that)) &&
                 timeSinceLastReadMillis == that.timeSinceLastReadMillis &&
+                adaptiveMaxOutstandingReadRequests == that.adaptiveMaxOutstandingReadRequests &&
+                adaptiveMaxReadRequestOperationCount == that.adaptiveMaxReadRequestOperationCount &&
+                adaptiveMaxOutstandingWriteRequests == that.adaptiveMaxOutstandingWriteRequests &&
+                leaderOperationsPerSecond == that.leaderOperationsPerSecond &&
+                followerOperationsPerSecond == that.followerOperationsPerSecond &&
+                timeToCatchUpMillis == that.timeToCatchUpMillis &&
                 Objects.equals(fatalExceptionMessage, otherFatalExceptionMessage);
     }
 
@@ -620,6 +732,12 @@ public class ShardFollowNodeTaskStatus implements Task.Status {
                 readExceptions.keySet(),
                 getReadExceptionMessages(this),
                 timeSinceLastReadMillis,
+                adaptiveMaxOutstandingReadRequests,
+                adaptiveMaxReadRequestOperationCount,
+                adaptiveMaxOutstandingWriteRequests,
+                leaderOperationsPerSecond,
+                followerOperationsPerSecond,
+                timeToCatchUpMillis,
                 fatalExceptionMessage);
     }
 
@@ -154,8 +154,10 @@ public abstract class AsyncTwoPhaseIndexer<JobPosition, JobStats extends Indexer
                 // fire off the search. Note this is async, the method will return from here
                 executor.execute(() -> {
                     try {
-                        stats.markStartSearch();
-                        doNextSearch(buildSearchRequest(), ActionListener.wrap(this::onSearchResponse, this::finishWithSearchFailure));
+                        doPrepareJob(ActionListener.wrap(r -> {
+                            stats.markStartSearch();
+                            doNextSearch(buildSearchRequest(), ActionListener.wrap(this::onSearchResponse, this::finishWithSearchFailure));
+                        }, this::finishWithSearchFailure));
                     } catch (Exception e) {
                         finishWithSearchFailure(e);
                     }
@@ -203,6 +205,17 @@ public abstract class AsyncTwoPhaseIndexer<JobPosition, JobStats extends Indexer
      */
     protected abstract void onStartJob(long now);
 
+    /**
+     * Called on the executor after {@link #onStartJob(long)} and before the first search of the job, so that
+     * implementations can gather what the job needs asynchronously. The default implementation does nothing.
+     *
+     * @param listener
+     *            Listener to notify once the job is ready to send its first search
+     */
+    protected void doPrepareJob(ActionListener<Void> listener) {
+        listener.onResponse(null);
+    }
+
     /**
      * Executes the {@link SearchRequest} and calls <code>nextPhase</code> with the
      * response or the exception if an error occurs.
@@ -323,12 +336,18 @@ public abstract class AsyncTwoPhaseIndexer<JobPosition, JobStats extends Indexer
             }
 
             final List<IndexRequest> docs = iterationResult.getToIndex();
+            if (docs.isEmpty()) {
+                // the implementation did not produce anything to index for this page (e.g. it filtered
+                // everything out), move on to the next search
+                position.set(iterationResult.getPosition());
+                stats.markStartSearch();
+                doNextSearch(buildSearchRequest(), ActionListener.wrap(this::onSearchResponse, this::finishWithSearchFailure));
+                return;
+            }
+
             final BulkRequest bulkRequest = new BulkRequest();
             docs.forEach(bulkRequest::add);
 
-            // TODO this might be a valid case, e.g. if implementation filters
-            assert bulkRequest.requests().size() > 0;
-
             stats.markStartIndexing();
             doNextBulk(bulkRequest, ActionListener.wrap(bulkResponse -> {
                 // TODO we should check items in the response and move after accordingly to
@@ -0,0 +1,218 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.core.security.authz.accesscontrol;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexReaderContext;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.util.BitSet;
+import org.apache.lucene.util.BitSetIterator;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.SparseFixedBitSet;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.cache.RemovalNotification;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.elasticsearch.xpack.core.security.SecurityField.setting;
+
+/**
+ * A node level cache of the {@link BitSet}s that document level security builds from role queries, one per (segment, role query).
+ * Unlike the per-index {@link org.elasticsearch.index.cache.bitset.BitsetFilterCache} it is bounded by memory, expires entries that
+ * have not been used for a while and keeps sparse role query results in a {@link SparseFixedBitSet}. Entries are keyed on the role
+ * query itself so that users whose roles produce the same query share the same bit sets.
+ */
+public final class DocumentSubsetBitsetCache implements IndexReader.ClosedListener, Closeable {
+
+    /**
+     * The TTL defaults to 2 hours. We default to a large cache size ({@link #CACHE_SIZE_SETTING}), and aggressively
+     * expire unused entries so that the cache does not hold on to memory unnecessarily.
+     */
+    public static final Setting<TimeValue> CACHE_TTL_SETTING =
+        Setting.timeSetting(setting("dls.bitset.cache.ttl"), TimeValue.timeValueHours(2), Property.NodeScope);
+
+    public static final Setting<ByteSizeValue> CACHE_SIZE_SETTING = Setting.byteSizeSetting(setting("dls.bitset.cache.size"),
+        new ByteSizeValue(50, ByteSizeUnit.MB), Property.NodeScope);
+
+    /**
+     * Stands in for the bit set of a role query that does not match any document of a segment, as the cache does not accept
+     * {@code null} values and the result is worth caching as well.
+     */
+    private static final BitSet NULL_MARKER = new FixedBitSet(0);
+
+    private final Cache<BitsetCacheKey, BitSet> bitsetCache;
+    private final Map<IndexReader.CacheKey, Set<BitsetCacheKey>> keysByIndex;
+
+    public DocumentSubsetBitsetCache(Settings settings) {
+        final TimeValue ttl = CACHE_TTL_SETTING.get(settings);
+        final ByteSizeValue size = CACHE_SIZE_SETTING.get(settings);
+        this.bitsetCache = CacheBuilder.<BitsetCacheKey, BitSet>builder()
+            .setExpireAfterAccess(ttl)
+            .setMaximumWeight(size.getBytes())
+            .weigher((key, bitSet) -> bitSet.ramBytesUsed())
+            .removalListener(this::onCacheEviction)
+            .build();
+        this.keysByIndex = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onClose(IndexReader.CacheKey ownerCoreCacheKey) {
+        final Set<BitsetCacheKey> keys = keysByIndex.remove(ownerCoreCacheKey);
+        if (keys != null) {
+            keys.forEach(bitsetCache::invalidate);
+        }
+    }
+
+    private void onCacheEviction(RemovalNotification<BitsetCacheKey, BitSet> notification) {
+        final BitsetCacheKey bitsetKey = notification.getKey();
+        // The set itself stays until the segment is closed so that we only ever register one closed listener per segment
+        final Set<BitsetCacheKey> keys = keysByIndex.get(bitsetKey.index);
+        if (keys != null) {
+            keys.remove(bitsetKey);
+        }
+    }
+
+    @Override
+    public void close() {
+        keysByIndex.clear();
+        bitsetCache.invalidateAll();
+    }
+
+    int entryCount() {
+        return this.bitsetCache.count();
+    }
+
+    /**
+     * Obtain the {@link BitSet} for the given {@code query} in the given {@code context}.
+     * If there is a cached entry for that query and context, it will be returned.
+     * Otherwise a new BitSet will be created and stored in the cache.
+     * The returned BitSet may be null (e.g. if the query has no results).
+     */
+    public BitSet getBitSet(final Query query, final LeafReaderContext context) throws ExecutionException {
+        final IndexReader.CacheHelper coreCacheHelper = context.reader().getCoreCacheHelper();
+        if (coreCacheHelper == null) {
+            throw new IllegalArgumentException("Reader " + context.reader() + " does not support caching");
+        }
+        final IndexReader.CacheKey indexKey = coreCacheHelper.getKey();
+        final BitsetCacheKey cacheKey = new BitsetCacheKey(indexKey, query);
+
+        final BitSet bitSet = bitsetCache.computeIfAbsent(cacheKey, ignore1 -> {
+            final boolean[] added = new boolean[] { false };
+            keysByIndex.computeIfAbsent(indexKey, ignore2 -> {
+                added[0] = true;
+                return ConcurrentHashMap.newKeySet();
+            }).add(cacheKey);
+            if (added[0]) {
+                try {
+                    coreCacheHelper.addClosedListener(this);
+                } catch (AlreadyClosedException e) {
+                    onClose(indexKey);
+                    throw e;
+                }
+            }
+            return computeBitSet(query, context);
+        });
+        return bitSet == NULL_MARKER ? null : bitSet;
+    }
+
+    private static BitSet computeBitSet(Query query, LeafReaderContext context) throws IOException {
+        final IndexReaderContext topLevelContext = ReaderUtil.getTopLevelContext(context);
+        final IndexSearcher searcher = new IndexSearcher(topLevelContext);
+        searcher.setQueryCache(null);
+        final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        final Scorer s = weight.scorer(context);
+        if (s == null) {
+            return NULL_MARKER;
+        }
+        final int maxDoc = context.reader().maxDoc();
+        final BitSet bitSet = BitSet.of(s.iterator(), maxDoc);
+        // BitSet#of picks the implementation from the cost of the iterator, which is only an upper bound for most role queries.
+        // Role queries tend to be selective so use the actual cardinality to keep the sparse ones compact.
+        if (bitSet instanceof FixedBitSet && bitSet.cardinality() < (maxDoc >>> 7)) {
+            final SparseFixedBitSet sparse = new SparseFixedBitSet(maxDoc);
+            sparse.or(new BitSetIterator(bitSet, 0L));
+            return sparse;
+        }
+        return bitSet;
+    }
+
+    public static List<Setting<?>> getSettings() {
+        return Arrays.asList(CACHE_TTL_SETTING, CACHE_SIZE_SETTING);
+    }
+
+    /**
+     * Usage statistics of the cache, reported with the roles usage of the security feature set.
+     */
+    public Map<String, Object> usageStats() {
+        final Cache.CacheStats stats = bitsetCache.stats();
+        final ByteSizeValue ram = new ByteSizeValue(bitsetCache.weight(), ByteSizeUnit.BYTES);
+        final Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("count", entryCount());
+        usage.put("memory", ram.toString());
+        usage.put("memory_in_bytes", ram.getBytes());
+        usage.put("hits", stats.getHits());
+        usage.put("misses", stats.getMisses());
+        usage.put("evictions", stats.getEvictions());
+        return Collections.unmodifiableMap(usage);
+    }
+
+    private static class BitsetCacheKey {
+        final IndexReader.CacheKey index;
+        final Query query;
+
+        private BitsetCacheKey(IndexReader.CacheKey index, Query query) {
+            this.index = index;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            final BitsetCacheKey that = (BitsetCacheKey) other;
+            return Objects.equals(this.index, that.index) &&
+                Objects.equals(this.query, that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, query);
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "(" + index + "," + query + ")";
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.Fields;
 import org.apache.lucene.index.FilterDirectoryReader;
 import org.apache.lucene.index.FilterLeafReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.index.PointValues;
@@ -21,16 +22,22 @@ import org.apache.lucene.index.SortedSetDocValues;
 import org.apache.lucene.index.StoredFieldVisitor;
 import org.apache.lucene.index.Terms;
 import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.FilterIterator;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.lucene.util.automaton.CharacterRunAutomaton;
+import org.elasticsearch.ElasticsearchParseException;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
-import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
 import org.elasticsearch.common.logging.LoggerMessageFormat;
+import org.elasticsearch.common.xcontent.DeprecationHandler;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentHelper;
-import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.XContentParser;
 import org.elasticsearch.index.mapper.FieldNamesFieldMapper;
 import org.elasticsearch.index.mapper.SourceFieldMapper;
 
@@ -41,6 +48,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A {@link FilterLeafReader} that exposes only a subset
@@ -110,6 +118,92 @@ public final class FieldSubsetReader extends FilterLeafReader {
         }
     }
 
+    /**
+     * Cache of the fields of a segment that are visible through a given automaton. Field level security wraps every segment
+     * for every search, and the automata are shared by all users with the same field permissions (see
+     * {@link org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsCache}), so they are compared by identity.
+     * Entries are keyed on the core cache key so that they survive refreshes that only add deletes, and are recomputed when
+     * doc values updates changed the {@link FieldInfos} of the segment. The size of the top-level map is bounded by the number
+     * of segments on the node.
+     */
+    static final Map<IndexReader.CacheKey, Cache<CharacterRunAutomaton, FilteredFields>> FILTERED_FIELDS_CACHE =
+        new ConcurrentHashMap<>();
+
+    /**
+     * Like {@link FilteredFields#FilteredFields(FieldInfos, CharacterRunAutomaton)} but caches results.
+     */
+    private static FilteredFields getFilteredFields(LeafReader reader, CharacterRunAutomaton filter) {
+        final FieldInfos fieldInfos = reader.getFieldInfos();
+        final IndexReader.CacheHelper cacheHelper = reader.getCoreCacheHelper();
+        if (cacheHelper == null) {
+            return new FilteredFields(fieldInfos, filter);
+        }
+        final boolean[] added = new boolean[] { false };
+        final Cache<CharacterRunAutomaton, FilteredFields> perCoreCache = FILTERED_FIELDS_CACHE.computeIfAbsent(cacheHelper.getKey(),
+                key -> {
+                    added[0] = true;
+                    return CacheBuilder.<CharacterRunAutomaton, FilteredFields>builder()
+                            // Not configurable, this limit only exists so that if field permissions are updated
+                            // then we won't risk OOME because of old automata that are not used anymore
+                            .setMaximumWeight(1000)
+                            .weigher((k, v) -> 1) // just count
+                            .build();
+                });
+        if (added[0]) {
+            IndexReader.ClosedListener closedListener = FILTERED_FIELDS_CACHE::remove;
+            try {
+                cacheHelper.addClosedListener(closedListener);
+            } catch (AlreadyClosedException e) {
+                closedListener.onClose(cacheHelper.getKey());
+                throw e;
+            }
+        }
+        FilteredFields filteredFields = perCoreCache.get(filter);
+        if (filteredFields == null || filteredFields.source != fieldInfos) {
+            filteredFields = new FilteredFields(fieldInfos, filter);
+            perCoreCache.put(filter, filteredFields);
+        }
+        return filteredFields;
+    }
+
+    /**
+     * The fields of a segment that are visible through an automaton.
+     */
+    static final class FilteredFields {
+        /** The unfiltered fields of the segment these were computed from */
+        final FieldInfos source;
+        /** List of filtered fields */
+        final FieldInfos fieldInfos;
+        /** The numbers of the filtered fields, so that stored fields can be checked without looking up the field by name */
+        final FixedBitSet fieldNumbers;
+        /** Filtered stats of the {@link FieldNamesFieldMapper} field, lazily computed by the first reader that needs them */
+        volatile long[] fieldNamesStats;
+
+        FilteredFields(FieldInfos source, CharacterRunAutomaton filter) {
+            int maxFieldNumber = -1;
+            for (FieldInfo fi : source) {
+                maxFieldNumber = Math.max(maxFieldNumber, fi.number);
+            }
+            ArrayList<FieldInfo> filteredInfos = new ArrayList<>();
+            FixedBitSet fieldNumbers = new FixedBitSet(maxFieldNumber + 1);
+            for (FieldInfo fi : source) {
+                if (filter.run(fi.name)) {
+                    filteredInfos.add(fi);
+                    fieldNumbers.set(fi.number);
+                }
+            }
+            this.source = source;
+            this.fieldInfos = new FieldInfos(filteredInfos.toArray(new FieldInfo[filteredInfos.size()]));
+            this.fieldNumbers = fieldNumbers;
+        }
+
+        boolean hasField(FieldInfo fieldInfo) {
+            return fieldInfo.number < fieldNumbers.length() && fieldNumbers.get(fieldInfo.number);
+        }
+    }
+
+    /** Fields visible through the filter */
+    private final FilteredFields filteredFields;
     /** List of filtered fields */
     private final FieldInfos fieldInfos;
     /** An automaton that only accepts authorized fields. */
@@ -122,13 +216,8 @@ public final class FieldSubsetReader extends FilterLeafReader {
      */
     FieldSubsetReader(LeafReader in, CharacterRunAutomaton filter) throws IOException {
         super(in);
-        ArrayList<FieldInfo> filteredInfos = new ArrayList<>();
-        for (FieldInfo fi : in.getFieldInfos()) {
-            if (filter.run(fi.name)) {
-                filteredInfos.add(fi);
-            }
-        }
-        fieldInfos = new FieldInfos(filteredInfos.toArray(new FieldInfo[filteredInfos.size()]));
+        this.filteredFields = getFilteredFields(in, filter);
+        this.fieldInfos = filteredFields.fieldInfos;
         this.filter = filter;
         final Terms fieldNameTerms = super.terms(FieldNamesFieldMapper.NAME);
         this.fieldNamesFilterTerms = fieldNameTerms == null ? null : new FieldNamesTerms(fieldNameTerms);
@@ -215,6 +304,140 @@ public final class FieldSubsetReader extends FilterLeafReader {
         return filtered;
     }
 
+    /**
+     * Filter a serialized document by a {@link CharacterRunAutomaton} that defines the fields to retain. This is the streaming
+     * equivalent of {@link #filter(Map, CharacterRunAutomaton, int)}: authorized values are copied from the parser to a builder
+     * of the same content type, and objects and arrays are only written once they turn out to hold an authorized value.
+     */
+    static BytesReference filter(BytesReference source, CharacterRunAutomaton includeAutomaton) throws IOException {
+        try (XContentParser parser = XContentHelper.createParser(NamedXContentRegistry.EMPTY,
+                DeprecationHandler.THROW_UNSUPPORTED_OPERATION, source);
+             XContentBuilder builder = XContentBuilder.builder(parser.contentType().xContent())) {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                throw new ElasticsearchParseException("expected an object but got [{}]", parser.currentToken());
+            }
+            builder.startObject();
+            new SourceFilter(parser, builder, includeAutomaton).filterObject(0);
+            builder.endObject();
+            return BytesReference.bytes(builder);
+        }
+    }
+
+    /**
+     * Copies the authorized parts of an object from a parser to a builder, deferring the start of the enclosing objects and
+     * arrays until something is written to them.
+     */
+    private static final class SourceFilter {
+        private final XContentParser parser;
+        private final XContentBuilder builder;
+        private final CharacterRunAutomaton includeAutomaton;
+        /** Names of the objects and arrays that are currently open in the parser, {@code null} for array elements */
+        private final List<String> openNames = new ArrayList<>();
+        /** Whether the objects and arrays that are currently open in the parser are objects */
+        private final List<Boolean> openObjects = new ArrayList<>();
+        /** How many of the open objects and arrays have already been started in the builder */
+        private int started = 0;
+
+        SourceFilter(XContentParser parser, XContentBuilder builder, CharacterRunAutomaton includeAutomaton) {
+            this.parser = parser;
+            this.builder = builder;
+            this.includeAutomaton = includeAutomaton;
+        }
+
+        void filterObject(int initialState) throws IOException {
+            XContentParser.Token token;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_OBJECT) {
+                assert token == XContentParser.Token.FIELD_NAME : token;
+                final String key = parser.currentName();
+                token = parser.nextToken();
+
+                int state = step(includeAutomaton, key, initialState);
+                if (state == -1) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                if (token == XContentParser.Token.START_OBJECT) {
+                    state = includeAutomaton.step(state, '.');
+                    if (state == -1) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    open(key, true);
+                    filterObject(state);
+                    close();
+                } else if (token == XContentParser.Token.START_ARRAY) {
+                    open(key, false);
+                    filterArray(state);
+                    close();
+                } else if (includeAutomaton.isAccept(state)) {
+                    startOpen();
+                    builder.field(key);
+                    builder.copyCurrentStructure(parser);
+                }
+            }
+        }
+
+        private void filterArray(int initialState) throws IOException {
+            XContentParser.Token token;
+            while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+                if (token == XContentParser.Token.START_OBJECT) {
+                    int state = includeAutomaton.step(initialState, '.');
+                    if (state == -1) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    // like the map based filtering, objects in arrays are retained even if none of their fields are authorized
+                    open(null, true);
+                    startOpen();
+                    filterObject(state);
+                    close();
+                } else if (token == XContentParser.Token.START_ARRAY) {
+                    open(null, false);
+                    filterArray(initialState);
+                    close();
+                } else if (includeAutomaton.isAccept(initialState)) {
+                    startOpen();
+                    builder.copyCurrentStructure(parser);
+                }
+            }
+        }
+
+        private void open(String name, boolean object) {
+            openNames.add(name);
+            openObjects.add(object);
+        }
+
+        /** Start all open objects and arrays that have not been started in the builder yet. */
+        private void startOpen() throws IOException {
+            for (; started < openNames.size(); started++) {
+                final String name = openNames.get(started);
+                if (name != null) {
+                    builder.field(name);
+                }
+                if (openObjects.get(started)) {
+                    builder.startObject();
+                } else {
+                    builder.startArray();
+                }
+            }
+        }
+
+        private void close() throws IOException {
+            final int last = openNames.size() - 1;
+            final boolean object = openObjects.remove(last);
+            openNames.remove(last);
+            if (last < started) {
+                if (object) {
+                    builder.endObject();
+                } else {
+                    builder.endArray();
+                }
+                started = last;
+            }
+        }
+    }
+
     /** Step through all characters of the provided string, and return the
      *  resulting state, or -1 if that did not lead to a valid state. */
     private static int step(CharacterRunAutomaton automaton, String key, int state) {
@@ -230,12 +453,9 @@ public final class FieldSubsetReader extends FilterLeafReader {
             @Override
             public void binaryField(FieldInfo fieldInfo, byte[] value) throws IOException {
                 if (SourceFieldMapper.NAME.equals(fieldInfo.name)) {
-                    // for _source, parse, filter out the fields we care about, and serialize back downstream
-                    BytesReference bytes = new BytesArray(value);
-                    Tuple<XContentType, Map<String, Object>> result = XContentHelper.convertToMap(bytes, true);
-                    Map<String, Object> transformedSource = filter(result.v2(), filter, 0);
-                    XContentBuilder xContentBuilder = XContentBuilder.builder(result.v1().xContent()).map(transformedSource);
-                    visitor.binaryField(fieldInfo, BytesReference.toBytes(BytesReference.bytes(xContentBuilder)));
+                    // for _source, stream through it and only copy the fields we care about downstream
+                    BytesReference filtered = filter(new BytesArray(value), filter);
+                    visitor.binaryField(fieldInfo, BytesReference.toBytes(filtered));
                 } else {
                     visitor.binaryField(fieldInfo, value);
                 }
@@ -268,7 +488,7 @@ public final class FieldSubsetReader extends FilterLeafReader {
 
             @Override
             public Status needsField(FieldInfo fieldInfo) throws IOException {
-                return hasField(fieldInfo.name) ? visitor.needsField(fieldInfo) : Status.NO;
+                return filteredFields.hasField(fieldInfo) ? visitor.needsField(fieldInfo) : Status.NO;
             }
         });
     }
@@ -380,18 +600,24 @@ public final class FieldSubsetReader extends FilterLeafReader {
         FieldNamesTerms(Terms in) throws IOException {
             super(in);
             assert in.hasFreqs() == false;
-            // re-compute the stats for the field to take
-            // into account the filtered terms.
-            final TermsEnum e = iterator();
-            long size = 0, sumDocFreq = 0, sumTotalFreq = 0;
-            while (e.next() != null) {
-                size ++;
-                sumDocFreq += e.docFreq();
-                sumTotalFreq += e.totalTermFreq();
+            long[] stats = filteredFields.fieldNamesStats;
+            if (stats == null) {
+                // re-compute the stats for the field to take
+                // into account the filtered terms.
+                final TermsEnum e = iterator();
+                long size = 0, sumDocFreq = 0, sumTotalFreq = 0;
+                while (e.next() != null) {
+                    size ++;
+                    sumDocFreq += e.docFreq();
+                    sumTotalFreq += e.totalTermFreq();
+                }
+                stats = new long[] { size, sumDocFreq, sumTotalFreq };
+                // the postings are shared by all readers of the segment core, so are the filtered stats
+                filteredFields.fieldNamesStats = stats;
             }
-            this.size = size;
-            this.sumDocFreq = sumDocFreq;
-            this.sumTotalFreq = sumTotalFreq;
+            this.size = stats[0];
+            this.sumDocFreq = stats[1];
+            this.sumTotalFreq = stats[2];
         }
 
         @Override
@@ -12,9 +12,11 @@ import org.elasticsearch.common.io.stream.StreamOutput;
 import org.elasticsearch.common.io.stream.Streamable;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Helper class to create simple usage stat counters based on longs
@@ -126,10 +128,22 @@ public class Counters implements Streamable {
     }
 
     public static Counters merge(List<Counters> counters) {
+        return merge(counters, Collections.emptySet());
+    }
+
+    /**
+     * Merges the counters by adding them up, except for the counters named in {@code maxNames} which hold a maximum,
+     * such as the maximum lag on a node, and keep the greatest of their values
+     */
+    public static Counters merge(List<Counters> counters, Set<String> maxNames) {
         Counters result = new Counters();
         for (Counters c : counters) {
             for (ObjectLongCursor<String> cursor : c.counters) {
-                result.inc(cursor.key, cursor.value);
+                if (maxNames.contains(cursor.key) && result.counters.containsKey(cursor.key)) {
+                    result.counters.put(cursor.key, Math.max(result.counters.get(cursor.key), cursor.value));
+                } else {
+                    result.inc(cursor.key, cursor.value);
+                }
             }
         }
 
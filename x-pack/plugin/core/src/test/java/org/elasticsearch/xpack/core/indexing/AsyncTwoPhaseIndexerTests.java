@@ -197,6 +197,81 @@ public class AsyncTwoPhaseIndexerTests extends ESTestCase {
         }
     }
 
+    private class MockIndexerWithEmptyIterations extends AsyncTwoPhaseIndexer<Integer, MockJobStats> {
+
+        private final int emptyIterations;
+        private int prepareCalls;
+        private int searches;
+
+        protected MockIndexerWithEmptyIterations(Executor executor, AtomicReference<IndexerState> initialState, Integer initialPosition,
+                                                 int emptyIterations) {
+            super(executor, initialState, initialPosition, new MockJobStats());
+            this.emptyIterations = emptyIterations;
+        }
+
+        @Override
+        protected String getJobId() {
+            return "mock";
+        }
+
+        @Override
+        protected IterationResult<Integer> doProcess(SearchResponse searchResponse) {
+            // nothing to index until the last iteration
+            return new IterationResult<>(Collections.emptyList(), searches, searches > emptyIterations);
+        }
+
+        @Override
+        protected SearchRequest buildSearchRequest() {
+            assertThat(prepareCalls, equalTo(1));
+            return null;
+        }
+
+        @Override
+        protected void onStartJob(long now) {
+            assertThat(prepareCalls, equalTo(0));
+        }
+
+        @Override
+        protected void doPrepareJob(ActionListener<Void> listener) {
+            ++prepareCalls;
+            listener.onResponse(null);
+        }
+
+        @Override
+        protected void doNextSearch(SearchRequest request, ActionListener<SearchResponse> nextPhase) {
+            ++searches;
+            final SearchResponseSections sections = new SearchResponseSections(
+                new SearchHits(new SearchHit[0], new TotalHits(0, TotalHits.Relation.EQUAL_TO), 0), null,
+                null, false, null, null, 1);
+            nextPhase.onResponse(new SearchResponse(sections, null, 1, 1, 0, 0, ShardSearchFailure.EMPTY_ARRAY, null));
+        }
+
+        @Override
+        protected void doNextBulk(BulkRequest request, ActionListener<BulkResponse> nextPhase) {
+            fail("should not be called");
+        }
+
+        @Override
+        protected void doSaveState(IndexerState state, Integer position, Runnable next) {
+            next.run();
+        }
+
+        @Override
+        protected void onFailure(Exception exc) {
+            fail(exc.getMessage());
+        }
+
+        @Override
+        protected void onFinish() {
+            isFinished.set(true);
+        }
+
+        @Override
+        protected void onAbort() {
+            fail("should not be called");
+        }
+    }
+
     private static class MockJobStats extends IndexerJobStats {
 
         @Override
@@ -230,6 +305,27 @@ public class AsyncTwoPhaseIndexerTests extends ESTestCase {
         }
     }
 
+    public void testIterationsWithoutDocumentsToIndex() throws InterruptedException {
+        AtomicReference<IndexerState> state = new AtomicReference<>(IndexerState.STOPPED);
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        isFinished.set(false);
+        try {
+            int emptyIterations = randomIntBetween(1, 10);
+            MockIndexerWithEmptyIterations indexer = new MockIndexerWithEmptyIterations(executor, state, 0, emptyIterations);
+            indexer.start();
+            assertTrue(indexer.maybeTriggerAsyncJob(System.currentTimeMillis()));
+            assertTrue(ESTestCase.awaitBusy(() -> isFinished.get()));
+            assertThat(indexer.getState(), equalTo(IndexerState.STARTED));
+            assertThat(indexer.prepareCalls, equalTo(1));
+            assertThat(indexer.searches, equalTo(emptyIterations + 1));
+            assertThat(indexer.getPosition(), equalTo(emptyIterations));
+            assertThat(indexer.getStats().getNumPages(), equalTo((long) emptyIterations + 1));
+            assertThat(indexer.getStats().getOutputDocuments(), equalTo(0L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     public void testStateMachineBrokenSearch() throws InterruptedException {
         AtomicReference<IndexerState> state = new AtomicReference<>(IndexerState.STOPPED);
         final ExecutorService executor = Executors.newFixedThreadPool(1);
@@ -190,6 +190,12 @@ public class WaitForFollowShardTasksStepTests extends AbstractStepTestCase<WaitF
             0,
             Collections.emptyNavigableMap(),
             0,
+            0,
+            0,
+            0,
+            0,
+            0,
+            0,
             null
         );
     }
@@ -0,0 +1,153 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.core.security.authz.accesscontrol;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BitSet;
+import org.apache.lucene.util.SparseFixedBitSet;
+import org.elasticsearch.common.CheckedConsumer;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.core.internal.io.IOUtils;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class DocumentSubsetBitsetCacheTests extends ESTestCase {
+
+    public void testSameBitSetIsReturnedForIdenticalQuery() throws Exception {
+        final DocumentSubsetBitsetCache cache = new DocumentSubsetBitsetCache(Settings.EMPTY);
+        runTestOnIndex(leafContext -> {
+            // two roles that grant access through the same query
+            final Query query1 = new TermQuery(new Term("field-1", "value-1"));
+            final BitSet bitSet1 = cache.getBitSet(query1, leafContext);
+            assertThat(bitSet1, notNullValue());
+
+            final Query query2 = new TermQuery(new Term("field-1", "value-1"));
+            final BitSet bitSet2 = cache.getBitSet(query2, leafContext);
+            assertThat(bitSet2, sameInstance(bitSet1));
+
+            final Map<String, Object> stats = cache.usageStats();
+            assertThat(stats.get("count"), equalTo(1));
+            assertThat(stats.get("hits"), equalTo(1L));
+            assertThat(stats.get("misses"), equalTo(1L));
+            assertThat((Long) stats.get("memory_in_bytes"), equalTo(bitSet1.ramBytesUsed()));
+        });
+    }
+
+    public void testNullBitSetIsReturnedForNonMatchingQuery() throws Exception {
+        final DocumentSubsetBitsetCache cache = new DocumentSubsetBitsetCache(Settings.EMPTY);
+        runTestOnIndex(leafContext -> {
+            final Query query = new TermQuery(new Term("not-mapped", "any-value"));
+            assertThat(cache.getBitSet(query, leafContext), nullValue());
+            // the lack of matches is cached too
+            assertThat(cache.getBitSet(query, leafContext), nullValue());
+            assertThat(cache.entryCount(), equalTo(1));
+            assertThat(cache.usageStats().get("hits"), equalTo(1L));
+        });
+    }
+
+    public void testSelectiveQueryUsesSparseBitSet() throws Exception {
+        final DocumentSubsetBitsetCache cache = new DocumentSubsetBitsetCache(Settings.EMPTY);
+        runTestOnIndex(leafContext -> {
+            // both clauses match half of the documents but they only have the first document in common
+            final Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term("parity", "even")), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term("skewed_parity", "odd")), BooleanClause.Occur.FILTER)
+                .build();
+            final BitSet bitSet = cache.getBitSet(query, leafContext);
+            assertThat(bitSet, instanceOf(SparseFixedBitSet.class));
+            assertThat(bitSet.cardinality(), equalTo(1));
+            assertThat(bitSet.get(0), equalTo(true));
+        });
+    }
+
+    public void testCacheRespectsMemoryLimit() throws Exception {
+        runTestOnIndex(leafContext -> {
+            final long bytesPerBitSet = new DocumentSubsetBitsetCache(Settings.EMPTY).getBitSet(query(0), leafContext).ramBytesUsed();
+            // Enough to hold exactly 2 bit-sets in the cache
+            final long maxCacheBytes = bytesPerBitSet * 2;
+            final Settings settings = Settings.builder()
+                .put(DocumentSubsetBitsetCache.CACHE_SIZE_SETTING.getKey(), maxCacheBytes + "b")
+                .build();
+            final DocumentSubsetBitsetCache cache = new DocumentSubsetBitsetCache(settings);
+
+            final int numQueries = randomIntBetween(5, 10);
+            for (int i = 0; i < numQueries; i++) {
+                final BitSet bitSet = cache.getBitSet(query(i), leafContext);
+                assertThat(bitSet.ramBytesUsed(), equalTo(bytesPerBitSet));
+            }
+            final Map<String, Object> stats = cache.usageStats();
+            assertThat(stats.get("count"), equalTo(2));
+            assertThat(stats.get("memory_in_bytes"), equalTo(maxCacheBytes));
+            assertThat(stats.get("evictions"), equalTo((long) numQueries - 2));
+        });
+    }
+
+    public void testCacheIsClearedWhenTheSegmentIsClosed() throws Exception {
+        final DocumentSubsetBitsetCache cache = new DocumentSubsetBitsetCache(Settings.EMPTY);
+        runTestOnIndex(leafContext -> {
+            for (int i = 0; i < 5; i++) {
+                assertThat(cache.getBitSet(new TermQuery(new Term("field-" + i, "value-" + i)), leafContext), notNullValue());
+            }
+            assertThat(cache.entryCount(), equalTo(5));
+        });
+        assertThat(cache.entryCount(), equalTo(0));
+    }
+
+    private void runTestOnIndex(CheckedConsumer<LeafReaderContext, Exception> body) throws Exception {
+        try (Directory directory = newDirectory()) {
+            final IndexWriterConfig iwc = new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE);
+            final int numDocs = scaledRandomIntBetween(512, 1024);
+            try (IndexWriter writer = new IndexWriter(directory, iwc)) {
+                for (int i = 0; i < numDocs; i++) {
+                    final Document document = new Document();
+                    document.add(new StringField("field-" + i, "value-" + i, Field.Store.NO));
+                    document.add(new StringField("parity", i % 2 == 0 ? "even" : "odd", Field.Store.NO));
+                    document.add(new StringField("skewed_parity", i % 2 == 0 && i != 0 ? "even" : "odd", Field.Store.NO));
+                    writer.addDocument(document);
+                }
+                writer.forceMerge(1);
+            }
+            DirectoryReader reader = DirectoryReader.open(directory);
+            try {
+                assertThat(reader.leaves().size(), equalTo(1));
+                body.accept(reader.leaves().get(0));
+            } finally {
+                IOUtils.close(reader);
+            }
+        }
+    }
+
+    /**
+     * A distinct query per {@code i}, all of them matching half of the documents of the test index.
+     */
+    private static Query query(int i) {
+        return new BooleanQuery.Builder()
+            .add(new TermQuery(new Term("parity", i % 2 == 0 ? "even" : "odd")), BooleanClause.Occur.FILTER)
+            .add(new TermQuery(new Term("dummy", Integer.toString(i))), BooleanClause.Occur.SHOULD)
+            .build();
+    }
+}
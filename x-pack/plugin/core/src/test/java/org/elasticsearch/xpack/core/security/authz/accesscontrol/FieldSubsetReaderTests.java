@@ -23,6 +23,7 @@ import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.FieldInfo;
 import org.apache.lucene.index.FieldInfos;
 import org.apache.lucene.index.Fields;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.LeafReader;
@@ -51,8 +52,11 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.mapper.FieldNamesFieldMapper;
@@ -734,6 +738,75 @@ public class FieldSubsetReaderTests extends ESTestCase {
         assertEquals(expected, filtered);
     }
 
+    public void testStreamingSourceFilteringMatchesMapFiltering() throws Exception {
+        Map<String, Object> inner = new HashMap<>();
+        inner.put("bar", 42);
+        inner.put("baz", "qux");
+        inner.put("empty", Collections.emptyMap());
+        Map<String, Object> map = new HashMap<>();
+        map.put("foo", inner);
+        map.put("bar", "baz");
+        map.put("nothing", null);
+        map.put("array", Arrays.asList(inner, 12, Collections.singletonMap("baz", 6), Arrays.asList(1, inner)));
+        map.put("objects", Arrays.asList(Collections.singletonMap("foo", "1"), Collections.singletonMap("baz", "2")));
+
+        final XContentType xContentType = randomFrom(XContentType.values());
+        final BytesReference source = BytesReference.bytes(XContentBuilder.builder(xContentType.xContent()).map(map));
+        final List<Automaton> automata = Arrays.asList(
+            Automata.makeAnyString(),
+            Automata.makeEmpty(),
+            Automatons.patterns("foo"),
+            Automatons.patterns("foo.*"),
+            Automatons.patterns("*.bar"),
+            Automatons.patterns("array", "objects.baz"),
+            Automatons.patterns("array.baz", "nothing"),
+            Operations.minus(Automata.makeAnyString(), Automatons.patterns("foo.bar", "array.baz"),
+                Operations.DEFAULT_MAX_DETERMINIZED_STATES),
+            Operations.minus(Automata.makeAnyString(), Automatons.patterns("*.baz"), Operations.DEFAULT_MAX_DETERMINIZED_STATES));
+        for (Automaton automaton : automata) {
+            CharacterRunAutomaton include = new CharacterRunAutomaton(automaton);
+            BytesReference filtered = FieldSubsetReader.filter(source, include);
+            Tuple<XContentType, Map<String, Object>> result = XContentHelper.convertToMap(filtered, false, xContentType);
+            assertEquals(FieldSubsetReader.filter(map, include, 0), result.v2());
+        }
+    }
+
+    /**
+     * test that fields are only filtered once per segment and automaton.
+     */
+    public void testFilteredFieldsAreCached() throws Exception {
+        Directory dir = newDirectory();
+        IndexWriterConfig iwc = new IndexWriterConfig(null);
+        IndexWriter iw = new IndexWriter(dir, iwc);
+
+        // add document with 2 fields
+        Document doc = new Document();
+        doc.add(new StringField("fieldA", "test", Field.Store.NO));
+        doc.add(new StringField("fieldB", "test", Field.Store.NO));
+        iw.addDocument(doc);
+
+        // open two readers sharing the same automaton, like two searches of users with the same field permissions
+        CharacterRunAutomaton automaton = new CharacterRunAutomaton(Automata.makeString("fieldA"));
+        DirectoryReader reader = DirectoryReader.open(iw);
+        DirectoryReader ir1 = FieldSubsetReader.wrap(reader, automaton);
+        DirectoryReader ir2 = FieldSubsetReader.wrap(reader, automaton);
+        DirectoryReader ir3 = FieldSubsetReader.wrap(reader, new CharacterRunAutomaton(Automata.makeString("fieldA")));
+
+        LeafReader segmentReader = ir1.leaves().get(0).reader();
+        assertSame(segmentReader.getFieldInfos(), ir2.leaves().get(0).reader().getFieldInfos());
+        // a different automaton gets its own entry, even if it accepts the same fields
+        assertNotSame(segmentReader.getFieldInfos(), ir3.leaves().get(0).reader().getFieldInfos());
+        assertEquals(ir3.leaves().get(0).reader().getFieldInfos().size(), segmentReader.getFieldInfos().size());
+
+        IndexReader.CacheKey coreKey = segmentReader.getCoreCacheHelper().getKey();
+        assertEquals(2, FieldSubsetReader.FILTERED_FIELDS_CACHE.get(coreKey).count());
+
+        TestUtil.checkReader(ir1);
+        IOUtils.close(reader, iw, dir);
+        // the entries of the segment are dropped when it is closed
+        assertFalse(FieldSubsetReader.FILTERED_FIELDS_CACHE.containsKey(coreKey));
+    }
+
     /**
      * test special handling for _field_names field.
      */
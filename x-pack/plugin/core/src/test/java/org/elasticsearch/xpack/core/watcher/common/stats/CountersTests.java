@@ -7,11 +7,14 @@ package org.elasticsearch.xpack.core.watcher.common.stats;
 
 import org.elasticsearch.test.ESTestCase;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 
 import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
 
 public class CountersTests extends ESTestCase {
 
@@ -29,4 +32,17 @@ public class CountersTests extends ESTestCase {
         assertThat(fooMap, hasEntry("bar", 1L));
         assertThat(fooMap, hasEntry("baz", 2L));
     }
+
+    public void testMergeMaxCounters() {
+        Counters first = new Counters();
+        first.inc("lag.count", 2);
+        first.inc("lag.max_time_in_ms", 500);
+        Counters second = new Counters();
+        second.inc("lag.count", 3);
+        second.inc("lag.max_time_in_ms", 200);
+        Counters merged = Counters.merge(Arrays.asList(first, second), Collections.singleton("lag.max_time_in_ms"));
+        assertThat(merged.get("lag.count"), is(5L));
+        assertThat(merged.get("lag.max_time_in_ms"), is(500L));
+        assertThat(Counters.merge(Arrays.asList(first, second)).get("lag.max_time_in_ms"), is(700L));
+    }
 }
@@ -7,12 +7,18 @@ package org.elasticsearch.xpack.ml.datafeed.extractor.chunked;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionRequestBuilder;
 import org.elasticsearch.action.search.SearchAction;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.metrics.Max;
@@ -23,14 +29,19 @@ import org.elasticsearch.xpack.core.ml.datafeed.DatafeedConfig;
 import org.elasticsearch.xpack.core.ml.datafeed.extractor.DataExtractor;
 import org.elasticsearch.xpack.core.ml.datafeed.extractor.ExtractorUtils;
 import org.elasticsearch.xpack.core.rollup.action.RollupSearchAction;
+import org.elasticsearch.xpack.ml.MachineLearning;
 import org.elasticsearch.xpack.ml.datafeed.extractor.DataExtractorFactory;
 import org.elasticsearch.xpack.ml.datafeed.extractor.aggregation.RollupDataExtractorFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A wrapper {@link DataExtractor} that can be used with other extractors in order to perform
@@ -43,6 +54,11 @@ import java.util.Optional;
  * when necessary, and to jump the search forward to the time where the earliest data can be found.
  * If a search for a chunk returns empty, the set up is performed again for the remaining time.
  *
+ * <p> When more than one concurrent chunk is configured, the chunks following the current one are
+ * fetched ahead on the ML utility thread pool (see {@link ChunkFetch}) and held in memory until
+ * they are consumed, so the data is still returned in time order. The set up is then only performed
+ * again once all the chunks fetched ahead turned out to be empty.
+ *
  * <p> Cancellation's behaviour depends on the delegate extractor.
  *
  * <p> Note that this class is NOT thread-safe.
@@ -73,6 +89,8 @@ public class ChunkedDataExtractor implements DataExtractor {
     private long chunkSpan;
     private boolean isCancelled;
     private DataExtractor currentExtractor;
+    private final Deque<ChunkFetch> prefetchedChunks = new ArrayDeque<>();
+    private long prefetchedEnd;
 
     public ChunkedDataExtractor(Client client, DataExtractorFactory dataExtractorFactory, ChunkedDataExtractorContext context) {
         this.client = Objects.requireNonNull(client);
@@ -108,6 +126,7 @@ public class ChunkedDataExtractor implements DataExtractor {
     }
 
     private void setUpChunkedSearch() throws IOException {
+        cancelPrefetchedChunks();
         DataSummary dataSummary = dataSummaryFactory.buildDataSummary();
         if (dataSummary.hasData()) {
             currentStart = context.timeAligner.alignToFloor(dataSummary.earliestTime());
@@ -141,7 +160,7 @@ public class ChunkedDataExtractor implements DataExtractor {
                 return nextStream;
             }
 
-            if (isNewSearch && hasNext()) {
+            if (isNewSearch && hasNext() && prefetchedChunksMayHaveData() == false) {
                 // If it was a new search it means it returned 0 results. Thus,
                 // we reconfigure and jump to the next time interval where there are data.
                 setUpChunkedSearch();
@@ -153,10 +172,42 @@ public class ChunkedDataExtractor implements DataExtractor {
     private void advanceTime() {
         currentStart = currentEnd;
         currentEnd = Math.min(currentStart + chunkSpan, context.end);
-        currentExtractor = dataExtractorFactory.newExtractor(currentStart, currentEnd);
+        currentExtractor = context.maxConcurrentChunks > 1 ? nextPrefetchedChunk() : dataExtractorFactory.newExtractor(currentStart,
+            currentEnd);
         LOGGER.trace("[{}] advances time to [{}, {})", context.jobId, currentStart, currentEnd);
     }
 
+    /**
+     * Tops up the chunks that are fetched ahead, starting with the current chunk, and returns the current one.
+     */
+    private DataExtractor nextPrefetchedChunk() {
+        if (prefetchedChunks.isEmpty()) {
+            prefetchedEnd = currentStart;
+        }
+        while (prefetchedChunks.size() < context.maxConcurrentChunks && prefetchedEnd < context.end) {
+            long chunkStart = prefetchedEnd;
+            prefetchedEnd = Math.min(chunkStart + chunkSpan, context.end);
+            ChunkFetch chunkFetch = new ChunkFetch(chunkStart, prefetchedEnd);
+            prefetchedChunks.add(chunkFetch);
+            chunkFetch.schedule();
+        }
+        ChunkFetch current = prefetchedChunks.poll();
+        assert current.start == currentStart && current.end == currentEnd
+            : "expected chunk [" + currentStart + ", " + currentEnd + ") but was [" + current.start + ", " + current.end + ")";
+        return current;
+    }
+
+    private boolean prefetchedChunksMayHaveData() {
+        return prefetchedChunks.stream().anyMatch(ChunkFetch::mayHaveData);
+    }
+
+    private void cancelPrefetchedChunks() {
+        for (ChunkFetch chunkFetch : prefetchedChunks) {
+            chunkFetch.cancel();
+        }
+        prefetchedChunks.clear();
+    }
+
     @Override
     public boolean isCancelled() {
         return isCancelled;
@@ -167,6 +218,7 @@ public class ChunkedDataExtractor implements DataExtractor {
         if (currentExtractor != null) {
             currentExtractor.cancel();
         }
+        cancelPrefetchedChunks();
         isCancelled = true;
     }
 
@@ -179,6 +231,125 @@ public class ChunkedDataExtractor implements DataExtractor {
         return context;
     }
 
+    /**
+     * Fetches all the data of a chunk, either on the ML utility thread pool or, if no thread has picked it up
+     * by the time the chunk is consumed, on the consuming thread. The data is then returned from memory.
+     */
+    private class ChunkFetch implements DataExtractor, Runnable {
+
+        private final long start;
+        private final long end;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean cancelled;
+        private volatile DataExtractor extractor;
+        private Deque<BytesReference> fetched;
+        private Exception failure;
+        private Deque<BytesReference> remaining;
+
+        private ChunkFetch(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void schedule() {
+            ThreadContext threadContext = client.threadPool().getThreadContext();
+            try {
+                client.threadPool().executor(MachineLearning.UTILITY_THREAD_POOL_NAME).execute(threadContext.preserveContext(this));
+            } catch (EsRejectedExecutionException e) {
+                // the chunk is fetched by the consuming thread once it is its turn
+                LOGGER.debug("[{}] could not fetch chunk [{}, {}) ahead: {}", context.jobId, start, end, e.getMessage());
+            }
+        }
+
+        @Override
+        public void run() {
+            if (claimed.compareAndSet(false, true) == false) {
+                return;
+            }
+            try {
+                Deque<BytesReference> streams = new ArrayDeque<>();
+                if (cancelled == false) {
+                    extractor = dataExtractorFactory.newExtractor(start, end);
+                    if (cancelled) {
+                        extractor.cancel();
+                    }
+                    while (extractor.hasNext()) {
+                        Optional<InputStream> stream = extractor.next();
+                        if (stream.isPresent()) {
+                            BytesStreamOutput out = new BytesStreamOutput();
+                            Streams.copy(stream.get(), out);
+                            streams.add(out.bytes());
+                        }
+                    }
+                }
+                fetched = streams;
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private boolean mayHaveData() {
+            return done.getCount() > 0 || failure != null || fetched.isEmpty() == false;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining == null || remaining.isEmpty() == false;
+        }
+
+        @Override
+        public Optional<InputStream> next() throws IOException {
+            if (remaining == null) {
+                remaining = awaitFetched();
+            }
+            BytesReference next = remaining.poll();
+            return next == null ? Optional.empty() : Optional.of(next.streamInput());
+        }
+
+        private Deque<BytesReference> awaitFetched() throws IOException {
+            run();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ElasticsearchException("[" + context.jobId + "] interrupted while fetching chunk [" + start + ", " + end
+                    + ")", e);
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            if (failure != null) {
+                throw new ElasticsearchException(failure);
+            }
+            return fetched;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            DataExtractor current = extractor;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public long getEndTime() {
+            return end;
+        }
+    }
+
     private class DataSummaryFactory {
 
         /**
@@ -32,10 +32,11 @@ class ChunkedDataExtractorContext {
     final Map<String, String> headers;
     final boolean hasAggregations;
     final Long histogramInterval;
+    final int maxConcurrentChunks;
 
     ChunkedDataExtractorContext(String jobId, String timeField, List<String> indices, QueryBuilder query, int scrollSize, long start,
                                 long end, @Nullable TimeValue chunkSpan, TimeAligner timeAligner, Map<String, String> headers,
-                                boolean hasAggregations, @Nullable Long histogramInterval) {
+                                boolean hasAggregations, @Nullable Long histogramInterval, int maxConcurrentChunks) {
         this.jobId = Objects.requireNonNull(jobId);
         this.timeField = Objects.requireNonNull(timeField);
         this.indices = indices.toArray(new String[indices.size()]);
@@ -48,5 +49,6 @@ class ChunkedDataExtractorContext {
         this.headers = headers;
         this.hasAggregations = hasAggregations;
         this.histogramInterval = histogramInterval;
+        this.maxConcurrentChunks = maxConcurrentChunks;
     }
 }
@@ -6,6 +6,7 @@
 package org.elasticsearch.xpack.ml.datafeed.extractor.chunked;
 
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.xpack.core.ml.datafeed.DatafeedConfig;
 import org.elasticsearch.xpack.core.ml.datafeed.extractor.DataExtractor;
@@ -17,6 +18,13 @@ import java.util.Objects;
 
 public class ChunkedDataExtractorFactory implements DataExtractorFactory {
 
+    /**
+     * The maximum number of chunks of the time range that are searched concurrently. The chunks following the one that is
+     * consumed are fetched ahead in the background, see {@link ChunkedDataExtractor}.
+     */
+    public static final Setting<Integer> MAX_CONCURRENT_CHUNKS =
+            Setting.intSetting("xpack.ml.max_concurrent_datafeed_chunks", 1, 1, 16, Setting.Property.NodeScope);
+
     private final Client client;
     private final DatafeedConfig datafeedConfig;
     private final Job job;
@@ -50,7 +58,8 @@ public class ChunkedDataExtractorFactory implements DataExtractorFactory {
                 timeAligner,
                 datafeedConfig.getHeaders(),
                 datafeedConfig.hasAggregations(),
-                datafeedConfig.hasAggregations() ? datafeedConfig.getHistogramIntervalMillis(xContentRegistry) : null
+                datafeedConfig.hasAggregations() ? datafeedConfig.getHistogramIntervalMillis(xContentRegistry) : null,
+                MAX_CONCURRENT_CHUNKS.get(client.settings())
             );
         return new ChunkedDataExtractor(client, dataExtractorFactory, dataExtractorContext);
     }
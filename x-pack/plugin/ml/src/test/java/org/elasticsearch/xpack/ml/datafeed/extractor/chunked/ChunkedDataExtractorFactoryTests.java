@@ -26,6 +26,7 @@ import java.util.Date;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class ChunkedDataExtractorFactoryTests extends ESTestCase {
 
@@ -41,6 +42,7 @@ public class ChunkedDataExtractorFactoryTests extends ESTestCase {
     @Before
     public void setUpMocks() {
         client = mock(Client.class);
+        when(client.settings()).thenReturn(Settings.EMPTY);
         dataExtractorFactory = mock(DataExtractorFactory.class);
     }
 
@@ -62,6 +64,18 @@ public class ChunkedDataExtractorFactoryTests extends ESTestCase {
         assertThat(dataExtractor.getContext().end, equalTo(9000L));
     }
 
+    public void testNewExtractor_GivenMaxConcurrentChunks() {
+        ChunkedDataExtractorFactory factory = createFactory(1000L);
+        assertThat(((ChunkedDataExtractor) factory.newExtractor(2000, 5000)).getContext().maxConcurrentChunks, equalTo(1));
+
+        int maxConcurrentChunks = randomIntBetween(1, 16);
+        when(client.settings()).thenReturn(
+            Settings.builder().put(ChunkedDataExtractorFactory.MAX_CONCURRENT_CHUNKS.getKey(), maxConcurrentChunks).build());
+        ChunkedDataExtractor dataExtractor = (ChunkedDataExtractor) factory.newExtractor(2000, 5000);
+
+        assertThat(dataExtractor.getContext().maxConcurrentChunks, equalTo(maxConcurrentChunks));
+    }
+
     public void testIntervalTimeAligner() {
         ChunkedDataExtractorContext.TimeAligner timeAligner = ChunkedDataExtractorFactory.newIntervalTimeAligner(100L);
         assertThat(timeAligner.alignToFloor(300L), equalTo(300L));
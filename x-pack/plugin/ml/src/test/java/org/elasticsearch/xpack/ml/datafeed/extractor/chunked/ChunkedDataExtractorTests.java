@@ -11,7 +11,12 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.ShardSearchFailure;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.io.Streams;
+import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsExecutors;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.common.util.concurrent.ThreadContext;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.mock.orig.Mockito;
@@ -23,22 +28,30 @@ import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.metrics.Max;
 import org.elasticsearch.search.aggregations.metrics.Min;
 import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xpack.core.ml.datafeed.extractor.DataExtractor;
+import org.elasticsearch.xpack.ml.MachineLearning;
 import org.elasticsearch.xpack.ml.datafeed.extractor.DataExtractorFactory;
 import org.junit.Before;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -53,6 +66,7 @@ public class ChunkedDataExtractorTests extends ESTestCase {
     private QueryBuilder query;
     private int scrollSize;
     private TimeValue chunkSpan;
+    private int maxConcurrentChunks;
     private DataExtractorFactory dataExtractorFactory;
 
     private class TestDataExtractor extends ChunkedDataExtractor {
@@ -88,6 +102,7 @@ public class ChunkedDataExtractorTests extends ESTestCase {
         query = QueryBuilders.matchAllQuery();
         scrollSize = 1000;
         chunkSpan = null;
+        maxConcurrentChunks = 1;
         dataExtractorFactory = mock(DataExtractorFactory.class);
     }
 
@@ -410,6 +425,87 @@ public class ChunkedDataExtractorTests extends ESTestCase {
         assertThat(searchRequest, containsString("\"from\":200000,\"to\":400000"));
     }
 
+    public void testExtractionGivenConcurrentChunks() throws IOException {
+        chunkSpan = TimeValue.timeValueSeconds(1);
+        maxConcurrentChunks = 3;
+        // chunks are either fetched ahead or, when the thread pool rejects them, by the consuming thread
+        mockThreadPool(randomBoolean() ? EsExecutors.newDirectExecutorService() : rejectingExecutor());
+        TestDataExtractor extractor = new TestDataExtractor(1000L, 4300L);
+        extractor.setNextResponse(createSearchResponse(10L, 1000L, 4200L));
+
+        when(dataExtractorFactory.newExtractor(1000L, 2000L)).thenReturn(new StubSubExtractor(stream("a"), stream("b")));
+        when(dataExtractorFactory.newExtractor(2000L, 3000L)).thenReturn(new StubSubExtractor(stream("c")));
+        when(dataExtractorFactory.newExtractor(3000L, 4000L)).thenReturn(new StubSubExtractor(stream("d"), stream("e")));
+        when(dataExtractorFactory.newExtractor(4000L, 4300L)).thenReturn(new StubSubExtractor(stream("f")));
+
+        List<String> data = new ArrayList<>();
+        while (extractor.hasNext()) {
+            Optional<InputStream> next = extractor.next();
+            if (next.isPresent()) {
+                data.add(Streams.copyToString(new InputStreamReader(next.get(), StandardCharsets.UTF_8)));
+            }
+        }
+        assertThat(data, equalTo(Arrays.asList("a", "b", "c", "d", "e", "f")));
+
+        verify(dataExtractorFactory).newExtractor(1000L, 2000L);
+        verify(dataExtractorFactory).newExtractor(2000L, 3000L);
+        verify(dataExtractorFactory).newExtractor(3000L, 4000L);
+        verify(dataExtractorFactory).newExtractor(4000L, 4300L);
+        Mockito.verifyNoMoreInteractions(dataExtractorFactory);
+        assertThat(capturedSearchRequests.size(), equalTo(1));
+    }
+
+    public void testExtractionGivenConcurrentChunksAndIntermediateEmptyChunks() throws IOException {
+        chunkSpan = TimeValue.timeValueSeconds(1);
+        maxConcurrentChunks = 2;
+        mockThreadPool(EsExecutors.newDirectExecutorService());
+        TestDataExtractor extractor = new TestDataExtractor(1000L, 6000L);
+        extractor.setNextResponse(createSearchResponse(10L, 1000L, 5900L));
+
+        when(dataExtractorFactory.newExtractor(1000L, 2000L)).thenReturn(new StubSubExtractor(stream("a")));
+        // an empty chunk followed by a chunk that was fetched ahead with data does not reconfigure the search
+        when(dataExtractorFactory.newExtractor(2000L, 3000L)).thenReturn(new StubSubExtractor());
+        when(dataExtractorFactory.newExtractor(3000L, 4000L)).thenReturn(new StubSubExtractor(stream("b")));
+        // two empty chunks in a row do
+        when(dataExtractorFactory.newExtractor(4000L, 5000L)).thenReturn(new StubSubExtractor());
+        when(dataExtractorFactory.newExtractor(5000L, 6000L)).thenReturn(new StubSubExtractor());
+
+        assertThat(Streams.copyToString(new InputStreamReader(extractor.next().get(), StandardCharsets.UTF_8)), equalTo("a"));
+        assertThat(Streams.copyToString(new InputStreamReader(extractor.next().get(), StandardCharsets.UTF_8)), equalTo("b"));
+        assertThat(capturedSearchRequests.size(), equalTo(1));
+
+        extractor.setNextResponse(createSearchResponse(0L, 0L, 0L));
+        assertThat(extractor.next().isPresent(), is(false));
+        assertThat(extractor.hasNext(), is(false));
+
+        assertThat(capturedSearchRequests.size(), equalTo(2));
+        String searchRequest = capturedSearchRequests.get(1).toString().replaceAll("\\s", "");
+        assertThat(searchRequest, containsString("\"from\":4000,\"to\":6000"));
+    }
+
+    public void testCancelGivenConcurrentChunks() throws IOException {
+        chunkSpan = TimeValue.timeValueSeconds(1);
+        maxConcurrentChunks = 3;
+        // nothing is fetched ahead so that the chunks that follow the current one are still pending when cancelling
+        mockThreadPool(rejectingExecutor());
+        TestDataExtractor extractor = new TestDataExtractor(1000L, 4300L);
+        extractor.setNextResponse(createSearchResponse(10L, 1000L, 4200L));
+
+        when(dataExtractorFactory.newExtractor(1000L, 2000L)).thenReturn(new StubSubExtractor(stream("a"), stream("b")));
+
+        assertThat(Streams.copyToString(new InputStreamReader(extractor.next().get(), StandardCharsets.UTF_8)), equalTo("a"));
+
+        extractor.cancel();
+
+        assertThat(extractor.isCancelled(), is(true));
+        assertThat(extractor.hasNext(), is(true));
+        assertThat(Streams.copyToString(new InputStreamReader(extractor.next().get(), StandardCharsets.UTF_8)), equalTo("b"));
+        assertThat(extractor.hasNext(), is(false));
+
+        verify(dataExtractorFactory).newExtractor(1000L, 2000L);
+        Mockito.verifyNoMoreInteractions(dataExtractorFactory);
+    }
+
     public void testCancelGivenNextWasNeverCalled() {
         chunkSpan = TimeValue.timeValueSeconds(1);
         TestDataExtractor extractor = new TestDataExtractor(1000L, 2300L);
@@ -554,13 +650,31 @@ public class ChunkedDataExtractorTests extends ESTestCase {
         return searchResponse;
     }
 
+    private void mockThreadPool(ExecutorService executor) {
+        ThreadPool threadPool = mock(ThreadPool.class);
+        when(threadPool.getThreadContext()).thenReturn(new ThreadContext(Settings.EMPTY));
+        when(threadPool.executor(MachineLearning.UTILITY_THREAD_POOL_NAME)).thenReturn(executor);
+        when(client.threadPool()).thenReturn(threadPool);
+    }
+
+    private static ExecutorService rejectingExecutor() {
+        ExecutorService executor = mock(ExecutorService.class);
+        doThrow(new EsRejectedExecutionException("rejected")).when(executor).execute(any(Runnable.class));
+        return executor;
+    }
+
+    private static InputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+
     private ChunkedDataExtractorContext createContext(long start, long end) {
         return createContext(start, end, false, null);
     }
 
     private ChunkedDataExtractorContext createContext(long start, long end, boolean hasAggregations, Long histogramInterval) {
         return new ChunkedDataExtractorContext(jobId, timeField, indices, query, scrollSize, start, end, chunkSpan,
-                ChunkedDataExtractorFactory.newIdentityTimeAligner(), Collections.emptyMap(), hasAggregations, histogramInterval);
+                ChunkedDataExtractorFactory.newIdentityTimeAligner(), Collections.emptyMap(), hasAggregations, histogramInterval,
+                maxConcurrentChunks);
     }
 
     private static class StubSubExtractor implements DataExtractor {
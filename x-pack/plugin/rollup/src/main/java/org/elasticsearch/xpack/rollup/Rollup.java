@@ -17,6 +17,7 @@ import org.elasticsearch.common.inject.Module;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.IndexScopedSettings;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsFilter;
 import org.elasticsearch.common.settings.SettingsModule;
@@ -100,6 +101,12 @@ public class Rollup extends Plugin implements ActionPlugin, PersistentTaskPlugin
     public static final String DYNAMIC_MAPPING_TEMPLATE = TemplateUtils.loadTemplate(ROLLUP_TEMPLATE_NAME,
             Version.CURRENT.toString(), Rollup.ROLLUP_TEMPLATE_VERSION_PATTERN);
 
+    /**
+     * Whether rollup jobs roll up again the buckets that receive documents after they have been rolled up
+     */
+    public static final Setting<Boolean> RECOMPUTE_LATE_DATA =
+            Setting.boolSetting("xpack.rollup.recompute_late_data", false, Setting.Property.NodeScope);
+
     // list of headers that will be stored when a job is created
     public static final Set<String> HEADER_FILTERS =
             new HashSet<>(Arrays.asList("es-security-runas-user", "_xpack_security_authentication"));
@@ -137,6 +144,11 @@ public class Rollup extends Plugin implements ActionPlugin, PersistentTaskPlugin
 
     protected XPackLicenseState getLicenseState() { return XPackPlugin.getSharedLicenseState(); }
 
+    @Override
+    public List<Setting<?>> getSettings() {
+        return Collections.singletonList(RECOMPUTE_LATE_DATA);
+    }
+
     @Override
     public List<RestHandler> getRestHandlers(Settings settings, RestController restController, ClusterSettings clusterSettings,
                                              IndexScopedSettings indexScopedSettings, SettingsFilter settingsFilter,
@@ -198,7 +210,8 @@ public class Rollup extends Plugin implements ActionPlugin, PersistentTaskPlugin
         }
 
         schedulerEngine.set(new SchedulerEngine(settings, getClock()));
-        return Collections.singletonList(new RollupJobTask.RollupJobPersistentTasksExecutor(client, schedulerEngine.get(), threadPool));
+        return Collections.singletonList(new RollupJobTask.RollupJobPersistentTasksExecutor(client, schedulerEngine.get(), threadPool,
+            RECOMPUTE_LATE_DATA.get(settings)));
     }
 
     // overridable by tests
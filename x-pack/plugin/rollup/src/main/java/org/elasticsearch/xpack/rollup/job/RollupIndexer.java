@@ -5,11 +5,20 @@
  */
 package org.elasticsearch.xpack.rollup.job;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.common.Rounding;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.mapper.SeqNoFieldMapper;
+import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.seqno.SequenceNumbers;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
 import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
@@ -43,11 +52,14 @@ import org.elasticsearch.xpack.core.rollup.job.TermsGroupConfig;
 import org.joda.time.DateTimeZone;
 
 import java.time.ZoneId;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -56,15 +68,47 @@ import static org.elasticsearch.xpack.core.rollup.RollupField.formatFieldName;
 
 /**
  * An abstract implementation of {@link AsyncTwoPhaseIndexer} that builds a rollup index incrementally.
+ *
+ * When late data is recomputed, the indexer captures the global checkpoints of the source shards at the start of every run. Before
+ * rolling up new buckets, it looks for the documents that were indexed on each shard since the previous run and that fall in time
+ * buckets that were already rolled up, and rolls these buckets up again. Rollup documents have stable ids, so the recomputed buckets
+ * replace the existing ones.
  */
 public abstract class RollupIndexer extends AsyncTwoPhaseIndexer<Map<String, Object>, RollupIndexerJobStats> {
+    private static final Logger logger = LogManager.getLogger(RollupIndexer.class);
+
     static final String AGGREGATION_NAME = RollupField.NAME;
 
+    /**
+     * The maximum number of time ranges that are searched when recomputing late buckets, beyond which the whole
+     * time range between the earliest and the latest late buckets is recomputed.
+     */
+    static final int MAX_LATE_BUCKET_RANGES = 512;
+
+    private enum Phase {
+        FIND_LATE_BUCKETS,
+        RECOMPUTE_LATE_BUCKETS,
+        ROLLUP
+    }
+
     private final RollupJob job;
     protected final AtomicBoolean upgradedDocumentID;
     private final CompositeAggregationBuilder compositeBuilder;
+    private final boolean recomputeLateData;
+    private final CompositeAggregationBuilder lateBucketsBuilder;
     private long maxBoundary;
 
+    private Phase phase = Phase.ROLLUP;
+    // the global checkpoints of the source shards at the start of the last complete run, and of the current run
+    private Map<ShardId, Long> lastCheckpoints;
+    private Map<ShardId, Long> checkpoints;
+    private final Deque<ShardId> changedShards = new ArrayDeque<>();
+    private long lateDataBoundary;
+    private Map<String, Object> lateBucketsAfterKey;
+    private final TreeSet<Long> lateBuckets = new TreeSet<>();
+    private QueryBuilder lateBucketsQuery;
+    private Map<String, Object> recomputeAfterKey;
+
     /**
      * Ctr
      * @param executor Executor to use to fire the first request of a background job.
@@ -75,10 +119,28 @@ public abstract class RollupIndexer extends AsyncTwoPhaseIndexer<Map<String, Obj
      */
     RollupIndexer(Executor executor, RollupJob job, AtomicReference<IndexerState> initialState, Map<String, Object> initialPosition,
             AtomicBoolean upgradedDocumentID) {
+        this(executor, job, initialState, initialPosition, upgradedDocumentID, false);
+    }
+
+    /**
+     * Ctr
+     * @param executor Executor to use to fire the first request of a background job.
+     * @param job The rollup job
+     * @param initialState Initial state for the indexer
+     * @param initialPosition The last indexed bucket of the task
+     * @param upgradedDocumentID whether job has updated IDs (for BWC)
+     * @param recomputeLateData whether buckets that receive documents after they have been rolled up are rolled up again
+     */
+    RollupIndexer(Executor executor, RollupJob job, AtomicReference<IndexerState> initialState, Map<String, Object> initialPosition,
+            AtomicBoolean upgradedDocumentID, boolean recomputeLateData) {
         super(executor, initialState, initialPosition, new RollupIndexerJobStats());
         this.job = job;
         this.compositeBuilder = createCompositeBuilder(job.getConfig());
         this.upgradedDocumentID = upgradedDocumentID;
+        this.recomputeLateData = recomputeLateData;
+        this.lateBucketsBuilder = new CompositeAggregationBuilder(AGGREGATION_NAME,
+            createValueSourceBuilders(job.getConfig().getGroupConfig().getDateHistogram()));
+        this.lateBucketsBuilder.size(job.getConfig().getPageSize());
     }
 
     /**
@@ -104,10 +166,94 @@ public abstract class RollupIndexer extends AsyncTwoPhaseIndexer<Map<String, Obj
         } else {
             maxBoundary = rounded;
         }
+        phase = Phase.ROLLUP;
+        changedShards.clear();
+        lateBuckets.clear();
+    }
+
+    @Override
+    protected void doPrepareJob(ActionListener<Void> listener) {
+        if (recomputeLateData == false) {
+            listener.onResponse(null);
+            return;
+        }
+        doGetGlobalCheckpoints(ActionListener.wrap(globalCheckpoints -> {
+            startFindingLateBuckets(globalCheckpoints);
+            listener.onResponse(null);
+        }, listener::onFailure));
+    }
+
+    /**
+     * Fetches the global checkpoints of the primary shards of the source indices. Only called when late data is recomputed.
+     *
+     * @param listener Listener to notify with the global checkpoint of each source shard
+     */
+    protected abstract void doGetGlobalCheckpoints(ActionListener<Map<ShardId, Long>> listener);
+
+    private void startFindingLateBuckets(Map<ShardId, Long> globalCheckpoints) {
+        checkpoints = new HashMap<>(globalCheckpoints);
+        final Map<String, Object> position = getPosition();
+        if (lastCheckpoints == null || position == null) {
+            // nothing was rolled up since checkpoints were last captured (e.g. the job just started on this node)
+            return;
+        }
+        // shards that did not report their checkpoint are looked at again once they do
+        lastCheckpoints.forEach(checkpoints::putIfAbsent);
+        for (Map.Entry<ShardId, Long> checkpoint : globalCheckpoints.entrySet()) {
+            if (checkpoint.getValue() > lastCheckpoints.getOrDefault(checkpoint.getKey(), SequenceNumbers.NO_OPS_PERFORMED)) {
+                changedShards.add(checkpoint.getKey());
+            }
+        }
+        if (changedShards.isEmpty() == false) {
+            // the bucket of the position might only have been partially rolled up, so it is included
+            Rounding rounding = job.getConfig().getGroupConfig().getDateHistogram().createRounding();
+            lateDataBoundary = rounding.nextRoundingValue(getPositionTime(position));
+            lateBucketsAfterKey = null;
+            phase = Phase.FIND_LATE_BUCKETS;
+        }
     }
 
     @Override
     protected SearchRequest buildSearchRequest() {
+        switch (phase) {
+            case FIND_LATE_BUCKETS:
+                return buildLateBucketsSearchRequest();
+            case RECOMPUTE_LATE_BUCKETS:
+                SearchSourceBuilder recomputeSource = new SearchSourceBuilder()
+                        .size(0)
+                        .trackTotalHits(false)
+                        .query(lateBucketsQuery)
+                        .aggregation(compositeBuilder.aggregateAfter(recomputeAfterKey));
+                return new SearchRequest(job.getConfig().getIndexPattern()).source(recomputeSource);
+            default:
+                return buildRollupSearchRequest();
+        }
+    }
+
+    /**
+     * Builds the search request that finds the date histogram buckets of the documents of the next changed shard that were
+     * indexed since the last run and that are older than the rolled up position.
+     */
+    private SearchRequest buildLateBucketsSearchRequest() {
+        final ShardId shardId = changedShards.peek();
+        final long fromSeqNo = lastCheckpoints.getOrDefault(shardId, SequenceNumbers.NO_OPS_PERFORMED);
+        final String fieldName = job.getConfig().getGroupConfig().getDateHistogram().getField();
+        final QueryBuilder query = new BoolQueryBuilder()
+                .filter(new RangeQueryBuilder(fieldName).lt(lateDataBoundary).format("epoch_millis"))
+                .filter(new RangeQueryBuilder(SeqNoFieldMapper.NAME).gt(fromSeqNo));
+        final SearchSourceBuilder searchSource = new SearchSourceBuilder()
+                .size(0)
+                .trackTotalHits(false)
+                .query(query)
+                .aggregation(lateBucketsBuilder.aggregateAfter(lateBucketsAfterKey));
+        return new SearchRequest(shardId.getIndexName())
+                .preference("_shards:" + shardId.id())
+                // the index might have been deleted since its checkpoints were captured
+                .indicesOptions(IndicesOptions.lenientExpandOpen())
+                .source(searchSource);
+    }
+
+    private SearchRequest buildRollupSearchRequest() {
             // Indexer is single-threaded, and only place that the ID scheme can get upgraded is doSaveState(), so
             // we can pass down the boolean value rather than the atomic here
         final Map<String, Object> position = getPosition();
@@ -122,12 +268,94 @@ public abstract class RollupIndexer extends AsyncTwoPhaseIndexer<Map<String, Obj
 
     @Override
     protected IterationResult<Map<String, Object>> doProcess(SearchResponse searchResponse) {
+        switch (phase) {
+            case FIND_LATE_BUCKETS:
+                return processLateBuckets(searchResponse);
+            case RECOMPUTE_LATE_BUCKETS:
+                final CompositeAggregation recomputed = searchResponse.getAggregations().get(AGGREGATION_NAME);
+                if (recomputed.getBuckets().isEmpty()) {
+                    phase = Phase.ROLLUP;
+                    return new IterationResult<>(Collections.emptyList(), getPosition(), false);
+                }
+                recomputeAfterKey = recomputed.afterKey();
+                // the position is only moved by the rollup of new buckets
+                return new IterationResult<>(
+                        IndexerUtils.processBuckets(recomputed, job.getConfig().getRollupIndex(), getStats(),
+                                job.getConfig().getGroupConfig(), job.getConfig().getId(), upgradedDocumentID.get()),
+                        getPosition(), false);
+            default:
+                break;
+        }
+
         final CompositeAggregation response = searchResponse.getAggregations().get(AGGREGATION_NAME);
+        final boolean isDone = response.getBuckets().isEmpty();
+        if (isDone && recomputeLateData) {
+            lastCheckpoints = checkpoints;
+        }
 
         return new IterationResult<>(
                 IndexerUtils.processBuckets(response, job.getConfig().getRollupIndex(), getStats(),
                         job.getConfig().getGroupConfig(), job.getConfig().getId(), upgradedDocumentID.get()),
-                response.afterKey(), response.getBuckets().isEmpty());
+                response.afterKey(), isDone);
+    }
+
+    private IterationResult<Map<String, Object>> processLateBuckets(SearchResponse searchResponse) {
+        // there are no aggregations if the index of the shard does not exist anymore
+        final CompositeAggregation response = searchResponse.getAggregations() == null ? null
+                : searchResponse.getAggregations().get(AGGREGATION_NAME);
+        if (response != null) {
+            final DateHistogramGroupConfig dateHisto = job.getConfig().getGroupConfig().getDateHistogram();
+            final String dateHistogramName = RollupField.formatIndexerAggName(dateHisto.getField(), DateHistogramAggregationBuilder.NAME);
+            for (CompositeAggregation.Bucket bucket : response.getBuckets()) {
+                lateBuckets.add(((Number) bucket.getKey().get(dateHistogramName)).longValue());
+            }
+        }
+        if (response == null || response.getBuckets().size() < job.getConfig().getPageSize()) {
+            // done with this shard
+            changedShards.poll();
+            lateBucketsAfterKey = null;
+            if (changedShards.isEmpty()) {
+                if (lateBuckets.isEmpty()) {
+                    phase = Phase.ROLLUP;
+                } else {
+                    logger.debug("[{}] recomputing [{}] late buckets", getJobId(), lateBuckets.size());
+                    lateBucketsQuery = createLateBucketsQuery();
+                    recomputeAfterKey = null;
+                    phase = Phase.RECOMPUTE_LATE_BUCKETS;
+                }
+            }
+        } else {
+            lateBucketsAfterKey = response.afterKey();
+        }
+        return new IterationResult<>(Collections.emptyList(), getPosition(), false);
+    }
+
+    /**
+     * Creates the query that matches the documents of the late buckets, merging adjacent buckets into a single range.
+     */
+    private QueryBuilder createLateBucketsQuery() {
+        final DateHistogramGroupConfig dateHisto = job.getConfig().getGroupConfig().getDateHistogram();
+        final Rounding rounding = dateHisto.createRounding();
+        final List<long[]> ranges = new ArrayList<>();
+        for (long bucket : lateBuckets) {
+            final long end = rounding.nextRoundingValue(bucket);
+            final long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] >= bucket) {
+                last[1] = Math.max(last[1], end);
+            } else {
+                ranges.add(new long[] { bucket, end });
+            }
+        }
+        if (ranges.size() > MAX_LATE_BUCKET_RANGES) {
+            final long[] span = new long[] { ranges.get(0)[0], ranges.get(ranges.size() - 1)[1] };
+            ranges.clear();
+            ranges.add(span);
+        }
+        final BoolQueryBuilder query = new BoolQueryBuilder();
+        for (long[] range : ranges) {
+            query.should(new RangeQueryBuilder(dateHisto.getField()).gte(range[0]).lt(range[1]).format("epoch_millis"));
+        }
+        return query;
     }
 
     /**
@@ -164,11 +392,9 @@ public abstract class RollupIndexer extends AsyncTwoPhaseIndexer<Map<String, Obj
         assert maxBoundary < Long.MAX_VALUE;
         DateHistogramGroupConfig dateHisto = job.getConfig().getGroupConfig().getDateHistogram();
         String fieldName = dateHisto.getField();
-        String rollupFieldName = fieldName + "."  + DateHistogramAggregationBuilder.NAME;
         long lowerBound = 0L;
         if (position != null) {
-            Number value = (Number) position.get(rollupFieldName);
-            lowerBound = value.longValue();
+            lowerBound = getPositionTime(position);
         }
         assert lowerBound <= maxBoundary;
         final RangeQueryBuilder query = new RangeQueryBuilder(fieldName)
@@ -178,6 +404,16 @@ public abstract class RollupIndexer extends AsyncTwoPhaseIndexer<Map<String, Obj
         return query;
     }
 
+    /**
+     * Returns the start of the date histogram bucket of the provided position
+     */
+    private long getPositionTime(Map<String, Object> position) {
+        String fieldName = job.getConfig().getGroupConfig().getDateHistogram().getField();
+        String rollupFieldName = fieldName + "."  + DateHistogramAggregationBuilder.NAME;
+        Number value = (Number) position.get(rollupFieldName);
+        return value.longValue();
+    }
+
     static Map<String, Object> createMetadata(final GroupConfig groupConfig) {
         final Map<String, Object> metadata = new HashMap<>();
         if (groupConfig != null) {
@@ -8,6 +8,9 @@ package org.elasticsearch.xpack.rollup.job;
 import org.apache.log4j.Logger;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsAction;
+import org.elasticsearch.action.admin.indices.stats.IndicesStatsRequest;
+import org.elasticsearch.action.admin.indices.stats.ShardStats;
 import org.elasticsearch.action.bulk.BulkAction;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
@@ -17,6 +20,7 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.client.ParentTaskAssigningClient;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.persistent.AllocatedPersistentTask;
 import org.elasticsearch.persistent.PersistentTaskState;
 import org.elasticsearch.persistent.PersistentTasksCustomMetaData;
@@ -35,6 +39,7 @@ import org.elasticsearch.xpack.core.rollup.job.RollupJobStatus;
 import org.elasticsearch.xpack.core.scheduler.SchedulerEngine;
 import org.elasticsearch.xpack.rollup.Rollup;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -54,12 +59,19 @@ public class RollupJobTask extends AllocatedPersistentTask implements SchedulerE
         private final Client client;
         private final SchedulerEngine schedulerEngine;
         private final ThreadPool threadPool;
+        private final boolean recomputeLateData;
 
         public RollupJobPersistentTasksExecutor(Client client, SchedulerEngine schedulerEngine, ThreadPool threadPool) {
+            this(client, schedulerEngine, threadPool, false);
+        }
+
+        public RollupJobPersistentTasksExecutor(Client client, SchedulerEngine schedulerEngine, ThreadPool threadPool,
+                                                boolean recomputeLateData) {
             super(RollupField.TASK_NAME, Rollup.TASK_THREAD_POOL_NAME);
             this.client = client;
             this.schedulerEngine = schedulerEngine;
             this.threadPool = threadPool;
+            this.recomputeLateData = recomputeLateData;
         }
 
         @Override
@@ -81,7 +93,7 @@ public class RollupJobTask extends AllocatedPersistentTask implements SchedulerE
                                                      PersistentTasksCustomMetaData.PersistentTask<RollupJob> persistentTask,
                                                      Map<String, String> headers) {
             return new RollupJobTask(id, type, action, parentTaskId, persistentTask.getParams(),
-                    (RollupJobStatus) persistentTask.getState(), client, schedulerEngine, threadPool, headers);
+                    (RollupJobStatus) persistentTask.getState(), client, schedulerEngine, threadPool, headers, recomputeLateData);
         }
     }
 
@@ -98,13 +110,28 @@ public class RollupJobTask extends AllocatedPersistentTask implements SchedulerE
         private final RollupJob job;
 
         ClientRollupPageManager(RollupJob job, IndexerState initialState, Map<String, Object> initialPosition,
-                                Client client, AtomicBoolean upgradedDocumentID) {
+                                Client client, AtomicBoolean upgradedDocumentID, boolean recomputeLateData) {
             super(threadPool.executor(ThreadPool.Names.GENERIC), job, new AtomicReference<>(initialState),
-                initialPosition, upgradedDocumentID);
+                initialPosition, upgradedDocumentID, recomputeLateData);
             this.client = client;
             this.job = job;
         }
 
+        @Override
+        protected void doGetGlobalCheckpoints(ActionListener<Map<ShardId, Long>> listener) {
+            IndicesStatsRequest request = new IndicesStatsRequest().indices(job.getConfig().getIndexPattern()).clear();
+            ClientHelper.executeWithHeadersAsync(job.getHeaders(), ClientHelper.ROLLUP_ORIGIN, client, IndicesStatsAction.INSTANCE,
+                    request, ActionListener.wrap(response -> {
+                        Map<ShardId, Long> checkpoints = new HashMap<>();
+                        for (ShardStats shardStats : response.getShards()) {
+                            if (shardStats.getShardRouting().primary() && shardStats.getSeqNoStats() != null) {
+                                checkpoints.put(shardStats.getShardRouting().shardId(), shardStats.getSeqNoStats().getGlobalCheckpoint());
+                            }
+                        }
+                        listener.onResponse(checkpoints);
+                    }, listener::onFailure));
+        }
+
         @Override
         protected void doNextSearch(SearchRequest request, ActionListener<SearchResponse> nextPhase) {
             ClientHelper.executeWithHeadersAsync(job.getHeaders(), ClientHelper.ROLLUP_ORIGIN, client, SearchAction.INSTANCE, request,
@@ -161,6 +188,12 @@ public class RollupJobTask extends AllocatedPersistentTask implements SchedulerE
 
     RollupJobTask(long id, String type, String action, TaskId parentTask, RollupJob job, RollupJobStatus state,
                   Client client, SchedulerEngine schedulerEngine, ThreadPool threadPool, Map<String, String> headers) {
+        this(id, type, action, parentTask, job, state, client, schedulerEngine, threadPool, headers, false);
+    }
+
+    RollupJobTask(long id, String type, String action, TaskId parentTask, RollupJob job, RollupJobStatus state,
+                  Client client, SchedulerEngine schedulerEngine, ThreadPool threadPool, Map<String, String> headers,
+                  boolean recomputeLateData) {
         super(id, type, action, RollupField.NAME + "_" + job.getConfig().getId(), parentTask, headers);
         this.job = job;
         this.schedulerEngine = schedulerEngine;
@@ -205,7 +238,7 @@ public class RollupJobTask extends AllocatedPersistentTask implements SchedulerE
             this.upgradedDocumentID.set(state.isUpgradedDocumentID());
         }
         this.indexer = new ClientRollupPageManager(job, initialState, initialPosition,
-                new ParentTaskAssigningClient(client, new TaskId(getPersistentTaskId())), upgradedDocumentID);
+                new ParentTaskAssigningClient(client, new TaskId(getPersistentTaskId())), upgradedDocumentID, recomputeLateData);
     }
 
     @Override
@@ -41,6 +41,7 @@ import org.elasticsearch.index.mapper.Mapper;
 import org.elasticsearch.index.mapper.NumberFieldMapper;
 import org.elasticsearch.index.query.QueryShardContext;
 import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.AggregatorTestCase;
 import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
@@ -638,6 +639,11 @@ public class RollupIndexerIndexingTests extends AggregatorTestCase {
             listener.onResponse(new BulkResponse(new BulkItemResponse[0], 0));
         }
 
+        @Override
+        protected void doGetGlobalCheckpoints(ActionListener<Map<ShardId, Long>> listener) {
+            assert false : "doGetGlobalCheckpoints should not be called";
+        }
+
         @Override
         protected void doSaveState(IndexerState state, Map<String, Object> position, Runnable next) {
             assert state == IndexerState.INDEXING || state == IndexerState.STARTED || state == IndexerState.STOPPED;
@@ -14,23 +14,32 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchResponseSections;
 import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.InternalAggregations;
 import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.xpack.core.indexing.IndexerState;
 import org.elasticsearch.xpack.core.rollup.ConfigTestHelpers;
 import org.elasticsearch.xpack.core.rollup.RollupField;
+import org.elasticsearch.xpack.core.rollup.job.DateHistogramGroupConfig;
 import org.elasticsearch.xpack.core.rollup.job.GroupConfig;
 import org.elasticsearch.xpack.core.rollup.job.RollupJob;
 import org.elasticsearch.xpack.core.rollup.job.RollupJobConfig;
 import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -41,8 +50,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -107,6 +119,11 @@ public class RollupIndexerStateTests extends ESTestCase {
             assert false : "doNextBulk should not be called";
         }
 
+        @Override
+        protected void doGetGlobalCheckpoints(ActionListener<Map<ShardId, Long>> listener) {
+            assert false : "doGetGlobalCheckpoints should not be called";
+        }
+
         @Override
         protected void doSaveState(IndexerState state, Map<String, Object> position, Runnable next) {
             assert state == IndexerState.STARTED || state == IndexerState.INDEXING || state == IndexerState.STOPPED;
@@ -197,6 +214,11 @@ public class RollupIndexerStateTests extends ESTestCase {
             nextPhase.onResponse(bulkFunction.apply(request));
         }
 
+        @Override
+        protected void doGetGlobalCheckpoints(ActionListener<Map<ShardId, Long>> listener) {
+            assert false : "doGetGlobalCheckpoints should not be called";
+        }
+
         @Override
         protected void doSaveState(IndexerState state, Map<String, Object> position, Runnable next) {
             assert state == IndexerState.STARTED || state == IndexerState.INDEXING || state == IndexerState.STOPPED;
@@ -217,6 +239,208 @@ public class RollupIndexerStateTests extends ESTestCase {
         protected void onFinish() {}
     }
 
+    private static class LateDataRollupIndexer extends RollupIndexer {
+        final List<SearchRequest> searchRequests = new ArrayList<>();
+        final List<BulkRequest> bulkRequests = new ArrayList<>();
+        final Function<SearchRequest, SearchResponse> searchFunction;
+        Map<ShardId, Long> globalCheckpoints;
+        boolean finished;
+
+        LateDataRollupIndexer(RollupJob job, AtomicReference<IndexerState> initialState,
+                              Function<SearchRequest, SearchResponse> searchFunction) {
+            super(Runnable::run, job, initialState, null, new AtomicBoolean(randomBoolean()), true);
+            this.searchFunction = searchFunction;
+        }
+
+        @Override
+        protected void doGetGlobalCheckpoints(ActionListener<Map<ShardId, Long>> listener) {
+            listener.onResponse(globalCheckpoints);
+        }
+
+        @Override
+        protected void doNextSearch(SearchRequest request, ActionListener<SearchResponse> nextPhase) {
+            searchRequests.add(request);
+            nextPhase.onResponse(searchFunction.apply(request));
+        }
+
+        @Override
+        protected void doNextBulk(BulkRequest request, ActionListener<BulkResponse> nextPhase) {
+            bulkRequests.add(request);
+            nextPhase.onResponse(new BulkResponse(new BulkItemResponse[0], 100));
+        }
+
+        @Override
+        protected void doSaveState(IndexerState state, Map<String, Object> position, Runnable next) {
+            next.run();
+        }
+
+        @Override
+        protected void onAbort() {
+            assert false : "onAbort should not be called";
+        }
+
+        @Override
+        protected void onFailure(Exception exc) {
+            throw new AssertionError("failed with " + exc);
+        }
+
+        @Override
+        protected void onFinish() {
+            finished = true;
+        }
+    }
+
+    public void testRecomputeLateData() throws Exception {
+        final long hour = TimeValue.timeValueHours(1).millis();
+        final String field = "timestamp";
+        final String bucketKey = field + ".date_histogram";
+        final RollupJobConfig config = new RollupJobConfig("late", "source-*", "rollup", "0 * * * * ?", 10,
+            new GroupConfig(new DateHistogramGroupConfig(field, DateHistogramInterval.HOUR)), Collections.emptyList(), null);
+        final RollupJob job = new RollupJob(config, Collections.emptyMap());
+        final ShardId existingShard = new ShardId("source-1", "_na_", 0);
+        final ShardId newShard = new ShardId("source-2", "_na_", 1);
+
+        final Map<String, List<Long>> responses = new HashMap<>();
+        final Function<SearchRequest, SearchResponse> searchFunction = request -> {
+            final String key;
+            if (request.preference() != null) {
+                key = request.indices()[0] + request.preference();
+            } else if (request.source().query() instanceof BoolQueryBuilder) {
+                key = "recompute";
+            } else {
+                key = "rollup";
+            }
+            final List<Long> buckets = responses.getOrDefault(key, Collections.emptyList());
+            responses.put(key, Collections.emptyList());
+            return createCompositeResponse(buckets.stream().map(b -> Collections.<String, Object>singletonMap(bucketKey, b))
+                .collect(Collectors.toList()));
+        };
+
+        final LateDataRollupIndexer indexer = new LateDataRollupIndexer(job, new AtomicReference<>(IndexerState.STOPPED), searchFunction);
+        indexer.start();
+
+        // the first run only captures the checkpoints
+        indexer.globalCheckpoints = Collections.singletonMap(existingShard, 10L);
+        responses.put("rollup", Collections.singletonList(1000 * hour));
+        assertTrue(indexer.maybeTriggerAsyncJob(System.currentTimeMillis()));
+        assertTrue(indexer.finished);
+        assertThat(indexer.searchRequests.size(), equalTo(2));
+        assertThat(indexer.getPosition().get(bucketKey), equalTo(1000 * hour));
+
+        // documents are indexed in old buckets of the existing shard and of a new index
+        indexer.searchRequests.clear();
+        indexer.bulkRequests.clear();
+        indexer.finished = false;
+        final Map<ShardId, Long> checkpoints = new HashMap<>();
+        checkpoints.put(existingShard, 15L);
+        checkpoints.put(newShard, 3L);
+        indexer.globalCheckpoints = checkpoints;
+        responses.put("source-1_shards:0", Arrays.asList(997 * hour, 1000 * hour));
+        responses.put("source-2_shards:1", Collections.singletonList(998 * hour));
+        responses.put("recompute", Arrays.asList(997 * hour, 998 * hour, 1000 * hour));
+        assertTrue(indexer.maybeTriggerAsyncJob(System.currentTimeMillis()));
+        assertTrue(indexer.finished);
+
+        // one search per changed shard, one to recompute the late buckets and one to roll up new buckets
+        assertThat(indexer.searchRequests.size(), equalTo(5));
+        final Map<String, SearchRequest> findRequests = indexer.searchRequests.subList(0, 2).stream()
+            .collect(Collectors.toMap(r -> r.indices()[0], r -> r));
+        assertThat(findRequests.get("source-1").preference(), equalTo("_shards:0"));
+        assertThat(findRequests.get("source-1").source().query().toString(), containsString("\"from\" : 10"));
+        assertThat(findRequests.get("source-2").preference(), equalTo("_shards:1"));
+        assertThat(findRequests.get("source-2").source().query().toString(), containsString("\"from\" : -1"));
+        // the bucket of the position is included since it might only have been partially rolled up
+        assertThat(findRequests.get("source-1").source().query().toString(), containsString("\"to\" : " + 1001 * hour));
+
+        final SearchRequest recompute = indexer.searchRequests.get(2);
+        assertThat(recompute.indices(), equalTo(new String[] { "source-*" }));
+        final BoolQueryBuilder recomputeQuery = (BoolQueryBuilder) recompute.source().query();
+        assertThat(recomputeQuery.should().size(), equalTo(2));
+        final RangeQueryBuilder adjacentBuckets = (RangeQueryBuilder) recomputeQuery.should().get(0);
+        assertThat(adjacentBuckets.from(), equalTo(997 * hour));
+        assertThat(adjacentBuckets.to(), equalTo(999 * hour));
+        final RangeQueryBuilder positionBucket = (RangeQueryBuilder) recomputeQuery.should().get(1);
+        assertThat(positionBucket.from(), equalTo(1000 * hour));
+        assertThat(positionBucket.to(), equalTo(1001 * hour));
+        assertThat(indexer.searchRequests.get(4).source().query(), instanceOf(RangeQueryBuilder.class));
+
+        assertThat(indexer.bulkRequests.size(), equalTo(1));
+        assertThat(indexer.bulkRequests.get(0).requests().size(), equalTo(3));
+        // the position is only moved by new buckets
+        assertThat(indexer.getPosition().get(bucketKey), equalTo(1000 * hour));
+
+        // nothing changed
+        indexer.searchRequests.clear();
+        indexer.finished = false;
+        assertTrue(indexer.maybeTriggerAsyncJob(System.currentTimeMillis()));
+        assertTrue(indexer.finished);
+        assertThat(indexer.searchRequests.size(), equalTo(1));
+        assertTrue(indexer.abort());
+    }
+
+    private static SearchResponse createCompositeResponse(List<Map<String, Object>> keys) {
+        Aggregations aggs = new Aggregations(Collections.singletonList(new CompositeAggregation() {
+            @Override
+            public List<? extends Bucket> getBuckets() {
+                return keys.stream().map(key -> new Bucket() {
+                    @Override
+                    public Map<String, Object> getKey() {
+                        return key;
+                    }
+
+                    @Override
+                    public String getKeyAsString() {
+                        return null;
+                    }
+
+                    @Override
+                    public long getDocCount() {
+                        return 1;
+                    }
+
+                    @Override
+                    public Aggregations getAggregations() {
+                        return new InternalAggregations(Collections.emptyList());
+                    }
+
+                    @Override
+                    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+                        return null;
+                    }
+                }).collect(Collectors.toList());
+            }
+
+            @Override
+            public Map<String, Object> afterKey() {
+                return keys.isEmpty() ? null : keys.get(keys.size() - 1);
+            }
+
+            @Override
+            public String getName() {
+                return RollupField.NAME;
+            }
+
+            @Override
+            public String getType() {
+                return null;
+            }
+
+            @Override
+            public Map<String, Object> getMetaData() {
+                return null;
+            }
+
+            @Override
+            public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+                return null;
+            }
+        }));
+        final SearchResponseSections sections = new SearchResponseSections(
+            new SearchHits(new SearchHit[0], new TotalHits(0, TotalHits.Relation.EQUAL_TO), 0),
+            aggs, null, false, null, null, 1);
+        return new SearchResponse(sections, null, 1, 1, 0, 0, ShardSearchFailure.EMPTY_ARRAY, null);
+    }
+
     public void testStarted() throws Exception {
         RollupJob job = new RollupJob(ConfigTestHelpers.randomRollupJobConfig(random()), Collections.emptyMap());
         AtomicReference<IndexerState> state = new AtomicReference<>(IndexerState.STOPPED);
@@ -19,6 +19,7 @@ import org.elasticsearch.xpack.core.security.user.AnonymousUser;
 import org.elasticsearch.xpack.security.audit.logfile.LoggingAuditTrail;
 import org.elasticsearch.xpack.security.authc.Realms;
 import org.elasticsearch.xpack.security.authc.support.mapper.NativeRoleMappingStore;
+import org.elasticsearch.xpack.security.authz.AuthorizationService;
 import org.elasticsearch.xpack.security.authz.store.CompositeRolesStore;
 import org.elasticsearch.xpack.security.transport.filter.IPFilter;
 
@@ -47,18 +48,21 @@ public class SecurityFeatureSet implements XPackFeatureSet {
     private final NativeRoleMappingStore roleMappingStore;
     @Nullable
     private final IPFilter ipFilter;
+    @Nullable
+    private final AuthorizationService authorizationService;
 
     @Inject
     public SecurityFeatureSet(Settings settings, @Nullable XPackLicenseState licenseState,
                               @Nullable Realms realms, @Nullable CompositeRolesStore rolesStore,
                               @Nullable NativeRoleMappingStore roleMappingStore,
-                              @Nullable IPFilter ipFilter) {
+                              @Nullable IPFilter ipFilter, @Nullable AuthorizationService authorizationService) {
         this.licenseState = licenseState;
         this.realms = realms;
         this.rolesStore = rolesStore;
         this.roleMappingStore = roleMappingStore;
         this.settings = settings;
         this.ipFilter = ipFilter;
+        this.authorizationService = authorizationService;
     }
 
     @Override
@@ -111,7 +115,13 @@ public class SecurityFeatureSet implements XPackFeatureSet {
 
         final ActionListener<Map<String, Object>> rolesStoreUsageListener =
                 ActionListener.wrap(rolesStoreUsage -> {
-                    rolesUsageRef.set(rolesStoreUsage);
+                    if (authorizationService == null) {
+                        rolesUsageRef.set(rolesStoreUsage);
+                    } else {
+                        final Map<String, Object> rolesUsage = new HashMap<>(rolesStoreUsage);
+                        rolesUsage.put("indices_authorization_cache", authorizationService.indicesAuthorizationCacheUsage());
+                        rolesUsageRef.set(rolesUsage);
+                    }
                     doCountDown.run();
                 }, listener::onFailure);
 
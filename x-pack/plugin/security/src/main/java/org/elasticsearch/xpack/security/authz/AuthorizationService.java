@@ -103,6 +103,7 @@ public class AuthorizationService {
     private final ThreadContext threadContext;
     private final AnonymousUser anonymousUser;
     private final AuthorizationEngine rbacEngine;
+    private final IndicesAuthorizationCache indicesAuthorizationCache;
     private final AuthorizationEngine authorizationEngine;
     private final Set<RequestInterceptor> requestInterceptors;
     private final XPackLicenseState licenseState;
@@ -121,13 +122,24 @@ public class AuthorizationService {
         this.anonymousUser = anonymousUser;
         this.isAnonymousEnabled = AnonymousUser.isAnonymousEnabled(settings);
         this.anonymousAuthzExceptionEnabled = ANONYMOUS_AUTHORIZATION_EXCEPTION_SETTING.get(settings);
-        this.rbacEngine = new RBACEngine(settings, rolesStore);
+        final RBACEngine rbacEngine = new RBACEngine(settings, rolesStore);
+        this.indicesAuthorizationCache = rbacEngine.getIndicesAuthorizationCache();
+        clusterService.addListener(indicesAuthorizationCache);
+        rolesStore.addInvalidationListener(indicesAuthorizationCache::invalidateAll);
+        this.rbacEngine = rbacEngine;
         this.authorizationEngine = authorizationEngine == null ? this.rbacEngine : authorizationEngine;
         this.requestInterceptors = requestInterceptors;
         this.settings = settings;
         this.licenseState = licenseState;
     }
 
+    /**
+     * Usage statistics of the cache of index authorization results of the built-in authorization engine.
+     */
+    public Map<String, Object> indicesAuthorizationCacheUsage() {
+        return indicesAuthorizationCache.usageStats();
+    }
+
     public void checkPrivileges(Authentication authentication, HasPrivilegesRequest request,
                                 Collection<ApplicationPrivilegeDescriptor> applicationPrivilegeDescriptors,
                                 ActionListener<HasPrivilegesResponse> listener) {
@@ -0,0 +1,194 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+
+package org.elasticsearch.xpack.security.authz;
+
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.metadata.AliasOrIndex;
+import org.elasticsearch.common.cache.Cache;
+import org.elasticsearch.common.cache.CacheBuilder;
+import org.elasticsearch.common.metrics.CounterMetric;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Setting.Property;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.xpack.core.security.authz.accesscontrol.IndicesAccessControl;
+import org.elasticsearch.xpack.core.security.authz.permission.LimitedRole;
+import org.elasticsearch.xpack.core.security.authz.permission.Role;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.elasticsearch.xpack.core.security.SecurityField.setting;
+
+/**
+ * Caches the outcome of the index level authorization of the {@link RBACEngine}: the indices and aliases a role is authorized
+ * to access for an action, and the {@link IndicesAccessControl} of a role and action for a set of resolved indices. Both
+ * require to go through all the indices and aliases of the cluster or all the groups of the role, for every request including
+ * every shard level request of a search.
+ * <p>
+ * Entries are keyed on the identity of the role, which is cached by the
+ * {@link org.elasticsearch.xpack.security.authz.store.CompositeRolesStore} for a set of role names and rebuilt whenever one
+ * of these roles changes, and are only valid for the {@link org.elasticsearch.cluster.metadata.MetaData} they were computed
+ * from. The {@link LimitedRole} of an API key is built for every request, its entries are keyed on the names of the role and
+ * the identity of the role it is limited by, which the roles store caches per API key. The cache is cleared when the metadata of the cluster or roles change.
+ */
+public final class IndicesAuthorizationCache implements ClusterStateListener {
+
+    /**
+     * The maximum number of index and alias names held by the cache. {@code 0} disables the cache.
+     */
+    public static final Setting<Integer> CACHE_SIZE_SETTING =
+        Setting.intSetting(setting("authz.indices_cache.max_size"), 100_000, 0, Property.NodeScope);
+
+    private final Cache<CacheKey, CacheValue<List<String>>> authorizedIndicesCache;
+    private final Cache<CacheKey, CacheValue<IndicesAccessControl>> indicesAccessControlCache;
+    private final boolean enabled;
+    private final CounterMetric hits = new CounterMetric();
+    private final CounterMetric misses = new CounterMetric();
+    /** The alias and index lookup of the cluster metadata that is currently applied; only results computed from it are cached */
+    private volatile Map<String, AliasOrIndex> currentLookup;
+
+    public IndicesAuthorizationCache(Settings settings) {
+        final int size = CACHE_SIZE_SETTING.get(settings);
+        this.enabled = size > 0;
+        this.authorizedIndicesCache = CacheBuilder.<CacheKey, CacheValue<List<String>>>builder()
+            .setMaximumWeight(size)
+            .weigher((key, value) -> value.value.size() + 1)
+            .build();
+        this.indicesAccessControlCache = CacheBuilder.<CacheKey, CacheValue<IndicesAccessControl>>builder()
+            .setMaximumWeight(size)
+            .weigher((key, value) -> key.indices.size() + 1)
+            .build();
+    }
+
+    @Override
+    public void clusterChanged(ClusterChangedEvent event) {
+        if (event.metaDataChanged()) {
+            currentLookup = event.state().metaData().getAliasAndIndexLookup();
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        authorizedIndicesCache.invalidateAll();
+        indicesAccessControlCache.invalidateAll();
+    }
+
+    /**
+     * Returns the names of the indices and aliases that the role is authorized to access for the action, loading them if they
+     * were not cached for the given alias and index lookup.
+     */
+    List<String> getAuthorizedIndices(Role role, String action, Map<String, AliasOrIndex> aliasAndIndexLookup,
+                                      Supplier<List<String>> loader) {
+        return get(authorizedIndicesCache, new CacheKey(role, action, Collections.emptySet()), aliasAndIndexLookup, loader);
+    }
+
+    /**
+     * Returns the access control of the role for the action on the given indices, loading it if it was not cached for the given
+     * alias and index lookup.
+     */
+    IndicesAccessControl getIndicesAccessControl(Role role, String action, Set<String> indices,
+                                                 Map<String, AliasOrIndex> aliasAndIndexLookup, Supplier<IndicesAccessControl> loader) {
+        return get(indicesAccessControlCache, new CacheKey(role, action, indices), aliasAndIndexLookup, loader);
+    }
+
+    private <V> V get(Cache<CacheKey, CacheValue<V>> cache, CacheKey key, Map<String, AliasOrIndex> aliasAndIndexLookup,
+                      Supplier<V> loader) {
+        if (enabled == false) {
+            return loader.get();
+        }
+        final CacheValue<V> cached = cache.get(key);
+        if (cached != null && cached.aliasAndIndexLookup == aliasAndIndexLookup) {
+            hits.inc();
+            return cached.value;
+        }
+        misses.inc();
+        final V value = loader.get();
+        // requests that started before the metadata changed must not populate the cache with stale results
+        if (aliasAndIndexLookup == currentLookup) {
+            cache.put(key, new CacheValue<>(aliasAndIndexLookup, value));
+        }
+        return value;
+    }
+
+    public static List<Setting<?>> getSettings() {
+        return Collections.singletonList(CACHE_SIZE_SETTING);
+    }
+
+    /**
+     * Usage statistics of the cache, reported with the roles usage of the security feature set.
+     */
+    public Map<String, Object> usageStats() {
+        final Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("enabled", enabled);
+        usage.put("count", authorizedIndicesCache.count() + indicesAccessControlCache.count());
+        usage.put("hits", hits.count());
+        usage.put("misses", misses.count());
+        usage.put("evictions", authorizedIndicesCache.stats().getEvictions() + indicesAccessControlCache.stats().getEvictions());
+        return Collections.unmodifiableMap(usage);
+    }
+
+    private static final class CacheValue<V> {
+        final Map<String, AliasOrIndex> aliasAndIndexLookup;
+        final V value;
+
+        private CacheValue(Map<String, AliasOrIndex> aliasAndIndexLookup, V value) {
+            this.aliasAndIndexLookup = aliasAndIndexLookup;
+            this.value = value;
+        }
+    }
+
+    private static final class CacheKey {
+        /** the role, or the role that limits it for a {@link LimitedRole}, compared by identity */
+        final Role role;
+        /** the names of a {@link LimitedRole}, {@code null} for other roles */
+        final String[] limitedRoleNames;
+        final String action;
+        final Set<String> indices;
+
+        private CacheKey(Role role, String action, Set<String> indices) {
+            if (role instanceof LimitedRole) {
+                // a new limited role is built for every request of an API key, from the role descriptors of the API key, which
+                // never change, and the role they are limited by, which is cached for the API key and rebuilt when it changes
+                this.role = ((LimitedRole) role).limitedBy();
+                this.limitedRoleNames = role.names();
+            } else {
+                this.role = role;
+                this.limitedRoleNames = null;
+            }
+            this.action = action;
+            this.indices = indices;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            final CacheKey that = (CacheKey) other;
+            // roles are compared by identity, a role that changed is a different instance
+            return this.role == that.role &&
+                Arrays.equals(this.limitedRoleNames, that.limitedRoleNames) &&
+                Objects.equals(this.action, that.action) &&
+                Objects.equals(this.indices, that.indices);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(role), Arrays.hashCode(limitedRoleNames), action, indices);
+        }
+    }
+}
@@ -95,10 +95,16 @@ public class RBACEngine implements AuthorizationEngine {
 
     private final CompositeRolesStore rolesStore;
     private final FieldPermissionsCache fieldPermissionsCache;
+    private final IndicesAuthorizationCache indicesAuthorizationCache;
 
     public RBACEngine(Settings settings, CompositeRolesStore rolesStore) {
         this.rolesStore = rolesStore;
         this.fieldPermissionsCache = new FieldPermissionsCache(settings);
+        this.indicesAuthorizationCache = new IndicesAuthorizationCache(settings);
+    }
+
+    IndicesAuthorizationCache getIndicesAuthorizationCache() {
+        return indicesAuthorizationCache;
     }
 
     @Override
@@ -309,7 +315,9 @@ public class RBACEngine implements AuthorizationEngine {
                                       Map<String, AliasOrIndex> aliasOrIndexLookup, ActionListener<List<String>> listener) {
         if (authorizationInfo instanceof RBACAuthorizationInfo) {
             final Role role = ((RBACAuthorizationInfo) authorizationInfo).getRole();
-            listener.onResponse(resolveAuthorizedIndicesFromRole(role, requestInfo.getAction(), aliasOrIndexLookup));
+            final String action = requestInfo.getAction();
+            listener.onResponse(indicesAuthorizationCache.getAuthorizedIndices(role, action, aliasOrIndexLookup,
+                () -> resolveAuthorizedIndicesFromRole(role, action, aliasOrIndexLookup)));
         } else {
             listener.onFailure(
                 new IllegalArgumentException("unsupported authorization info:" + authorizationInfo.getClass().getSimpleName()));
@@ -485,7 +493,8 @@ public class RBACEngine implements AuthorizationEngine {
                                            ActionListener<IndexAuthorizationResult> listener) {
         if (authorizationInfo instanceof RBACAuthorizationInfo) {
             final Role role = ((RBACAuthorizationInfo) authorizationInfo).getRole();
-            final IndicesAccessControl accessControl = role.authorize(action, indices, aliasAndIndexLookup, fieldPermissionsCache);
+            final IndicesAccessControl accessControl = indicesAuthorizationCache.getIndicesAccessControl(role, action, indices,
+                aliasAndIndexLookup, () -> role.authorize(action, indices, aliasAndIndexLookup, fieldPermissionsCache));
             listener.onResponse(new IndexAuthorizationResult(true, accessControl));
         } else {
             listener.onFailure(new IllegalArgumentException("unsupported authorization info:" +
@@ -28,6 +28,7 @@ import org.elasticsearch.xpack.core.common.IteratingActionListener;
 import org.elasticsearch.xpack.core.security.authc.Authentication;
 import org.elasticsearch.xpack.core.security.authz.RoleDescriptor;
 import org.elasticsearch.xpack.core.security.authz.RoleDescriptor.IndicesPrivileges;
+import org.elasticsearch.xpack.core.security.authz.accesscontrol.DocumentSubsetBitsetCache;
 import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsCache;
 import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsDefinition;
 import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsDefinition.FieldGrantExcludeGroup;
@@ -58,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -107,15 +109,17 @@ public class CompositeRolesStore {
     private final AtomicLong numInvalidation = new AtomicLong();
     private final AnonymousUser anonymousUser;
     private final ApiKeyService apiKeyService;
+    private final DocumentSubsetBitsetCache dlsBitsetCache;
     private final boolean isAnonymousEnabled;
     private final List<BiConsumer<Set<String>, ActionListener<RoleRetrievalResult>>> builtInRoleProviders;
     private final List<BiConsumer<Set<String>, ActionListener<RoleRetrievalResult>>> allRoleProviders;
+    private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
 
     public CompositeRolesStore(Settings settings, FileRolesStore fileRolesStore, NativeRolesStore nativeRolesStore,
                                ReservedRolesStore reservedRolesStore, NativePrivilegeStore privilegeStore,
                                List<BiConsumer<Set<String>, ActionListener<RoleRetrievalResult>>> rolesProviders,
                                ThreadContext threadContext, XPackLicenseState licenseState, FieldPermissionsCache fieldPermissionsCache,
-                               ApiKeyService apiKeyService) {
+                               ApiKeyService apiKeyService, DocumentSubsetBitsetCache dlsBitsetCache) {
         this.fileRolesStore = fileRolesStore;
         fileRolesStore.addListener(this::invalidate);
         this.nativeRolesStore = nativeRolesStore;
@@ -123,6 +127,7 @@ public class CompositeRolesStore {
         this.licenseState = licenseState;
         this.fieldPermissionsCache = fieldPermissionsCache;
         this.apiKeyService = apiKeyService;
+        this.dlsBitsetCache = dlsBitsetCache;
         CacheBuilder<RoleKey, Role> builder = CacheBuilder.builder();
         final int cacheSize = CACHE_SIZE_SETTING.get(settings);
         if (cacheSize >= 0) {
@@ -409,12 +414,20 @@ public class CompositeRolesStore {
         }
     }
 
+    /**
+     * Adds a listener that is notified whenever cached roles are invalidated.
+     */
+    public void addInvalidationListener(Runnable listener) {
+        invalidationListeners.add(Objects.requireNonNull(listener));
+    }
+
     public void invalidateAll() {
         numInvalidation.incrementAndGet();
         negativeLookupCache.invalidateAll();
         try (ReleasableLock ignored = readLock.acquire()) {
             roleCache.invalidateAll();
         }
+        invalidationListeners.forEach(Runnable::run);
     }
 
     public void invalidate(String role) {
@@ -431,6 +444,7 @@ public class CompositeRolesStore {
             }
         }
         negativeLookupCache.invalidate(role);
+        invalidationListeners.forEach(Runnable::run);
     }
 
     public void invalidate(Set<String> roles) {
@@ -448,11 +462,13 @@ public class CompositeRolesStore {
         }
 
         roles.forEach(negativeLookupCache::invalidate);
+        invalidationListeners.forEach(Runnable::run);
     }
 
     public void usageStats(ActionListener<Map<String, Object>> listener) {
-        final Map<String, Object> usage = new HashMap<>(2);
+        final Map<String, Object> usage = new HashMap<>(3);
         usage.put("file", fileRolesStore.usageStats());
+        usage.put("dls", Collections.singletonMap("bit_set_cache", dlsBitsetCache.usageStats()));
         nativeRolesStore.usageStats(ActionListener.wrap(map -> {
             usage.put("native", map);
             listener.onResponse(usage);
@@ -16,6 +16,8 @@ import org.elasticsearch.common.util.BigArrays;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.http.HttpChannel;
 import org.elasticsearch.http.netty4.Netty4HttpServerTransport;
+import org.elasticsearch.indices.breaker.CircuitBreakerService;
+import org.elasticsearch.indices.breaker.NoneCircuitBreakerService;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.xpack.core.ssl.SSLConfiguration;
 import org.elasticsearch.xpack.core.ssl.SSLService;
@@ -37,7 +39,14 @@ public class SecurityNetty4HttpServerTransport extends Netty4HttpServerTransport
     public SecurityNetty4HttpServerTransport(Settings settings, NetworkService networkService, BigArrays bigArrays, IPFilter ipFilter,
                                              SSLService sslService, ThreadPool threadPool, NamedXContentRegistry xContentRegistry,
                                              Dispatcher dispatcher) {
-        super(settings, networkService, bigArrays, threadPool, xContentRegistry, dispatcher);
+        this(settings, networkService, bigArrays, ipFilter, sslService, threadPool, xContentRegistry, dispatcher,
+            new NoneCircuitBreakerService());
+    }
+
+    public SecurityNetty4HttpServerTransport(Settings settings, NetworkService networkService, BigArrays bigArrays, IPFilter ipFilter,
+                                             SSLService sslService, ThreadPool threadPool, NamedXContentRegistry xContentRegistry,
+                                             Dispatcher dispatcher, CircuitBreakerService circuitBreakerService) {
+        super(settings, networkService, bigArrays, threadPool, xContentRegistry, dispatcher, circuitBreakerService);
         this.securityExceptionHandler = new SecurityHttpExceptionHandler(logger, lifecycle, (c, e) -> super.onException(c, e));
         this.ipFilter = ipFilter;
         final boolean ssl = HTTP_SSL_ENABLED.get(settings);
@@ -64,7 +64,7 @@ public class SecurityFeatureSetTests extends ESTestCase {
 
     public void testAvailable() {
         SecurityFeatureSet featureSet = new SecurityFeatureSet(settings, licenseState, realms,
-                rolesStore, roleMappingStore, ipFilter);
+                rolesStore, roleMappingStore, ipFilter, null);
         when(licenseState.isSecurityAvailable()).thenReturn(true);
         assertThat(featureSet.available(), is(true));
 
@@ -74,12 +74,12 @@ public class SecurityFeatureSetTests extends ESTestCase {
 
     public void testEnabled() {
         SecurityFeatureSet featureSet = new SecurityFeatureSet(settings, licenseState, realms,
-                rolesStore, roleMappingStore, ipFilter);
+                rolesStore, roleMappingStore, ipFilter, null);
         assertThat(featureSet.enabled(), is(true));
 
         when(licenseState.isSecurityDisabledByTrialLicense()).thenReturn(true);
         featureSet = new SecurityFeatureSet(settings, licenseState, realms,
-                rolesStore, roleMappingStore, ipFilter);
+                rolesStore, roleMappingStore, ipFilter, null);
         assertThat(featureSet.enabled(), is(false));
     }
 
@@ -152,7 +152,7 @@ public class SecurityFeatureSetTests extends ESTestCase {
         }
 
         SecurityFeatureSet featureSet = new SecurityFeatureSet(settings.build(), licenseState,
-                realms, rolesStore, roleMappingStore, ipFilter);
+                realms, rolesStore, roleMappingStore, ipFilter, null);
         PlainActionFuture<XPackFeatureSet.Usage> future = new PlainActionFuture<>();
         featureSet.usage(future);
         XPackFeatureSet.Usage securityUsage = future.get();
@@ -15,6 +15,7 @@ import org.elasticsearch.cluster.node.DiscoveryNode;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.inject.ModulesBuilder;
 import org.elasticsearch.common.network.NetworkModule;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.Setting;
@@ -244,6 +245,19 @@ public class SecurityTests extends ESTestCase {
         assertNull(joinValidator);
     }
 
+    public void testFeatureSetOnDisabledSecurity() throws Exception {
+        Settings disabledSettings = Settings.builder().put("xpack.security.enabled", false).build();
+        createComponents(disabledSettings);
+        ModulesBuilder modules = new ModulesBuilder();
+        modules.add(b -> {
+            b.bind(Settings.class).toInstance(disabledSettings);
+            b.bind(XPackLicenseState.class).toInstance(licenseState);
+        });
+        security.createGuiceModules().forEach(modules::add);
+        SecurityFeatureSet featureSet = modules.createInjector().getInstance(SecurityFeatureSet.class);
+        assertFalse(featureSet.enabled());
+    }
+
     public void testTLSJoinValidator() throws Exception {
         createComponents(Settings.EMPTY);
         BiConsumer<DiscoveryNode, ClusterState> joinValidator = security.getJoinValidator();
@@ -0,0 +1,178 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+
+package org.elasticsearch.xpack.security.authz;
+
+import org.elasticsearch.Version;
+import org.elasticsearch.action.search.SearchAction;
+import org.elasticsearch.cluster.ClusterChangedEvent;
+import org.elasticsearch.cluster.ClusterName;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.AliasOrIndex;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.core.security.authz.accesscontrol.IndicesAccessControl;
+import org.elasticsearch.xpack.core.security.authz.permission.FieldPermissionsCache;
+import org.elasticsearch.xpack.core.security.authz.permission.LimitedRole;
+import org.elasticsearch.xpack.core.security.authz.permission.Role;
+import org.elasticsearch.xpack.core.security.authz.privilege.IndexPrivilege;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class IndicesAuthorizationCacheTests extends ESTestCase {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    public void testAuthorizedIndicesAreCached() {
+        final IndicesAuthorizationCache cache = new IndicesAuthorizationCache(Settings.EMPTY);
+        final ClusterState state = clusterState(ClusterState.EMPTY_STATE, "index-1", "index-2", "other");
+        cache.clusterChanged(new ClusterChangedEvent("test", state, ClusterState.EMPTY_STATE));
+        final Map<String, AliasOrIndex> lookup = state.metaData().getAliasAndIndexLookup();
+        final Role role = Role.builder("test").add(IndexPrivilege.READ, "index-*").build();
+
+        final List<String> authorized = authorizedIndices(cache, role, SearchAction.NAME, lookup);
+        assertThat(authorized, containsInAnyOrder("index-1", "index-2"));
+        assertThat(authorizedIndices(cache, role, SearchAction.NAME, lookup), sameInstance(authorized));
+        assertThat(loads.get(), equalTo(1));
+
+        // roles are compared by identity, as the roles store builds a new role when it changes
+        final Role sameRole = Role.builder("test").add(IndexPrivilege.READ, "index-*").build();
+        authorizedIndices(cache, sameRole, SearchAction.NAME, lookup);
+        assertThat(loads.get(), equalTo(2));
+
+        final Map<String, Object> stats = cache.usageStats();
+        assertThat(stats.get("count"), equalTo(2));
+        assertThat(stats.get("hits"), equalTo(1L));
+        assertThat(stats.get("misses"), equalTo(2L));
+    }
+
+    public void testApiKeyRolesAreCached() {
+        final IndicesAuthorizationCache cache = new IndicesAuthorizationCache(Settings.EMPTY);
+        final ClusterState state = clusterState(ClusterState.EMPTY_STATE, "index-1", "index-2", "other");
+        cache.clusterChanged(new ClusterChangedEvent("test", state, ClusterState.EMPTY_STATE));
+        final Map<String, AliasOrIndex> lookup = state.metaData().getAliasAndIndexLookup();
+        // the roles store caches both roles for the API key, but builds a new limited role for every request
+        final Role apiKeyRole = Role.builder("api_key_role").add(IndexPrivilege.READ, "index-*").build();
+        final Role limitedBy = Role.builder("owner_role").add(IndexPrivilege.READ, "index-1").build();
+
+        final List<String> authorized =
+            authorizedIndices(cache, LimitedRole.createLimitedRole(apiKeyRole, limitedBy), SearchAction.NAME, lookup);
+        assertThat(authorized, containsInAnyOrder("index-1"));
+        assertThat(authorizedIndices(cache, LimitedRole.createLimitedRole(apiKeyRole, limitedBy), SearchAction.NAME, lookup),
+            sameInstance(authorized));
+        final IndicesAccessControl accessControl =
+            indicesAccessControl(cache, LimitedRole.createLimitedRole(apiKeyRole, limitedBy), Collections.singleton("index-1"), lookup);
+        assertThat(indicesAccessControl(cache, LimitedRole.createLimitedRole(apiKeyRole, limitedBy), Collections.singleton("index-1"),
+            lookup), sameInstance(accessControl));
+        assertThat(loads.get(), equalTo(2));
+        assertThat(cache.usageStats().get("hits"), equalTo(2L));
+
+        // neither the limiting role nor the role it limits are shared with other roles
+        authorizedIndices(cache, limitedBy, SearchAction.NAME, lookup);
+        final Role otherLimitedBy = Role.builder("owner_role").add(IndexPrivilege.READ, "index-1").build();
+        authorizedIndices(cache, LimitedRole.createLimitedRole(apiKeyRole, otherLimitedBy), SearchAction.NAME, lookup);
+        final Role otherApiKeyRole = Role.builder("other_api_key_role").add(IndexPrivilege.READ, "index-*").build();
+        authorizedIndices(cache, LimitedRole.createLimitedRole(otherApiKeyRole, limitedBy), SearchAction.NAME, lookup);
+        assertThat(loads.get(), equalTo(5));
+        assertThat(cache.usageStats().get("count"), equalTo(5));
+    }
+
+    public void testIndicesAccessControlIsCached() {
+        final IndicesAuthorizationCache cache = new IndicesAuthorizationCache(Settings.EMPTY);
+        final ClusterState state = clusterState(ClusterState.EMPTY_STATE, "index-1", "index-2");
+        cache.clusterChanged(new ClusterChangedEvent("test", state, ClusterState.EMPTY_STATE));
+        final Map<String, AliasOrIndex> lookup = state.metaData().getAliasAndIndexLookup();
+        final Role role = Role.builder("test").add(IndexPrivilege.READ, "index-*").build();
+
+        final IndicesAccessControl accessControl = indicesAccessControl(cache, role, Collections.singleton("index-1"), lookup);
+        assertThat(accessControl.isGranted(), equalTo(true));
+        assertThat(indicesAccessControl(cache, role, Collections.singleton("index-1"), lookup), sameInstance(accessControl));
+        assertThat(loads.get(), equalTo(1));
+
+        indicesAccessControl(cache, role, Collections.singleton("index-2"), lookup);
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    public void testCacheIsClearedWhenMetaDataChanges() {
+        final IndicesAuthorizationCache cache = new IndicesAuthorizationCache(Settings.EMPTY);
+        final ClusterState state = clusterState(ClusterState.EMPTY_STATE, "index-1");
+        final Role role = Role.builder("test").add(IndexPrivilege.READ, "index-*").build();
+
+        // nothing is cached until the metadata of the cluster is known
+        authorizedIndices(cache, role, SearchAction.NAME, state.metaData().getAliasAndIndexLookup());
+        assertThat(cache.usageStats().get("count"), equalTo(0));
+
+        cache.clusterChanged(new ClusterChangedEvent("test", state, ClusterState.EMPTY_STATE));
+        authorizedIndices(cache, role, SearchAction.NAME, state.metaData().getAliasAndIndexLookup());
+        assertThat(cache.usageStats().get("count"), equalTo(1));
+
+        final ClusterState newState = clusterState(state, "index-1", "index-2");
+        cache.clusterChanged(new ClusterChangedEvent("test", newState, state));
+        assertThat(cache.usageStats().get("count"), equalTo(0));
+
+        // a request that started with the previous metadata does not get nor populate cached results
+        final int loadsBefore = loads.get();
+        authorizedIndices(cache, role, SearchAction.NAME, state.metaData().getAliasAndIndexLookup());
+        assertThat(loads.get(), equalTo(loadsBefore + 1));
+        assertThat(cache.usageStats().get("count"), equalTo(0));
+
+        final List<String> authorized = authorizedIndices(cache, role, SearchAction.NAME, newState.metaData().getAliasAndIndexLookup());
+        assertThat(authorized, containsInAnyOrder("index-1", "index-2"));
+
+        cache.invalidateAll();
+        assertThat(cache.usageStats().get("count"), equalTo(0));
+    }
+
+    public void testCacheCanBeDisabled() {
+        final Settings settings = Settings.builder().put(IndicesAuthorizationCache.CACHE_SIZE_SETTING.getKey(), 0).build();
+        final IndicesAuthorizationCache cache = new IndicesAuthorizationCache(settings);
+        final ClusterState state = clusterState(ClusterState.EMPTY_STATE, "index-1");
+        cache.clusterChanged(new ClusterChangedEvent("test", state, ClusterState.EMPTY_STATE));
+        final Role role = Role.builder("test").add(IndexPrivilege.READ, "index-*").build();
+
+        authorizedIndices(cache, role, SearchAction.NAME, state.metaData().getAliasAndIndexLookup());
+        authorizedIndices(cache, role, SearchAction.NAME, state.metaData().getAliasAndIndexLookup());
+        assertThat(loads.get(), equalTo(2));
+        assertThat(cache.usageStats().get("enabled"), equalTo(false));
+    }
+
+    private List<String> authorizedIndices(IndicesAuthorizationCache cache, Role role, String action,
+                                           Map<String, AliasOrIndex> lookup) {
+        return cache.getAuthorizedIndices(role, action, lookup, () -> {
+            loads.incrementAndGet();
+            return RBACEngine.resolveAuthorizedIndicesFromRole(role, action, lookup);
+        });
+    }
+
+    private IndicesAccessControl indicesAccessControl(IndicesAuthorizationCache cache, Role role, Set<String> indices,
+                                                      Map<String, AliasOrIndex> lookup) {
+        return cache.getIndicesAccessControl(role, SearchAction.NAME, indices, lookup, () -> {
+            loads.incrementAndGet();
+            return role.authorize(SearchAction.NAME, indices, lookup, new FieldPermissionsCache(Settings.EMPTY));
+        });
+    }
+
+    private static ClusterState clusterState(ClusterState previous, String... indices) {
+        final MetaData.Builder metaData = MetaData.builder(previous.metaData());
+        for (String index : indices) {
+            metaData.put(IndexMetaData.builder(index)
+                .settings(Settings.builder().put(IndexMetaData.SETTING_VERSION_CREATED, Version.CURRENT))
+                .numberOfShards(1)
+                .numberOfReplicas(0), false);
+        }
+        return ClusterState.builder(ClusterName.DEFAULT).metaData(metaData).build();
+    }
+}
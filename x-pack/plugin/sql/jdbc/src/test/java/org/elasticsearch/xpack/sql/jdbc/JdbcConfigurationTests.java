@@ -17,6 +17,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
+import static org.elasticsearch.xpack.sql.client.ConnectionConfiguration.BINARY_COMMUNICATION;
 import static org.elasticsearch.xpack.sql.client.ConnectionConfiguration.CONNECT_TIMEOUT;
 import static org.elasticsearch.xpack.sql.client.ConnectionConfiguration.NETWORK_TIMEOUT;
 import static org.elasticsearch.xpack.sql.client.ConnectionConfiguration.PAGE_SIZE;
@@ -178,6 +179,15 @@ public class JdbcConfigurationTests extends ESTestCase {
         assertEquals(pageSize, ci.pageSize());
     }
 
+    public void testBinaryFormat() throws Exception {
+        assertThat(ci("jdbc:es://test:9200").binaryCommunication(), is(false));
+        assertThat(ci("jdbc:es://test:9200?binary.format=true").binaryCommunication(), is(true));
+
+        Properties properties = new Properties();
+        properties.setProperty(BINARY_COMMUNICATION, "false");
+        assertThat(JdbcConfiguration.create("jdbc:es://test:9200?binary.format=true", properties, 0).binaryCommunication(), is(false));
+    }
+
     public void testTimoutOverride() throws Exception {
         Properties properties  = new Properties();
         properties.setProperty(CONNECT_TIMEOUT, "3"); // Should be overridden
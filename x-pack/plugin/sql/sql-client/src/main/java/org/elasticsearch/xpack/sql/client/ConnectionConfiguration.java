@@ -56,6 +56,12 @@ public class ConnectionConfiguration {
     
     public static final String CLIENT_ID = "client_id";
 
+    // Wire format
+
+    // CBOR instead of JSON for requests and responses; cheaper to encode and to decode for large, numeric pages
+    public static final String BINARY_COMMUNICATION = "binary.format";
+    private static final String BINARY_COMMUNICATION_DEFAULT = "false";
+
     // Auth
 
     public static final String AUTH_USER = "user";
@@ -64,7 +70,7 @@ public class ConnectionConfiguration {
 
     protected static final Set<String> OPTION_NAMES = new LinkedHashSet<>(
             Arrays.asList(PROPERTIES_VALIDATION, CONNECT_TIMEOUT, NETWORK_TIMEOUT, QUERY_TIMEOUT, PAGE_TIMEOUT, PAGE_SIZE,
-                    AUTH_USER, AUTH_PASS));
+                    BINARY_COMMUNICATION, AUTH_USER, AUTH_PASS));
 
     static {
         OPTION_NAMES.addAll(SslConfig.OPTION_NAMES);
@@ -85,6 +91,8 @@ public class ConnectionConfiguration {
     private final long pageTimeout;
     private final int pageSize;
 
+    private final boolean binaryCommunication;
+
     private final String user, pass;
 
     private final SslConfig sslConfig;
@@ -107,6 +115,9 @@ public class ConnectionConfiguration {
         pageTimeout = parseValue(PAGE_TIMEOUT, settings.getProperty(PAGE_TIMEOUT, PAGE_TIMEOUT_DEFAULT), Long::parseLong);
         pageSize = parseValue(PAGE_SIZE, settings.getProperty(PAGE_SIZE, PAGE_SIZE_DEFAULT), Integer::parseInt);
 
+        binaryCommunication = parseValue(BINARY_COMMUNICATION, settings.getProperty(BINARY_COMMUNICATION, BINARY_COMMUNICATION_DEFAULT),
+                Boolean::parseBoolean);
+
         // auth
         user = settings.getProperty(AUTH_USER);
         pass = settings.getProperty(AUTH_PASS);
@@ -118,8 +129,8 @@ public class ConnectionConfiguration {
     }
 
     public ConnectionConfiguration(URI baseURI, String connectionString, boolean validateProperties, long connectTimeout,
-                                   long networkTimeout, long queryTimeout, long pageTimeout, int pageSize, String user, String pass,
-                                   SslConfig sslConfig, ProxyConfig proxyConfig) throws ClientException {
+                                   long networkTimeout, long queryTimeout, long pageTimeout, int pageSize, boolean binaryCommunication,
+                                   String user, String pass, SslConfig sslConfig, ProxyConfig proxyConfig) throws ClientException {
         this.validateProperties = validateProperties;
         this.connectionString = connectionString;
         this.connectTimeout = connectTimeout;
@@ -129,6 +140,8 @@ public class ConnectionConfiguration {
         this.pageTimeout = pageTimeout;
         this.pageSize = pageSize;
 
+        this.binaryCommunication = binaryCommunication;
+
         // auth
         this.user = user;
         this.pass = pass;
@@ -220,6 +233,10 @@ public class ConnectionConfiguration {
         return pageSize;
     }
 
+    public boolean binaryCommunication() {
+        return binaryCommunication;
+    }
+
     // auth
     public String authUser() {
         return user;
@@ -70,6 +70,8 @@ public class JreHttpUrlConnection implements Closeable {
     final HttpURLConnection con;
     private final URL url;
     private static final String GZIP = "gzip";
+    private static final String JSON_MEDIA_TYPE = "application/json";
+    private static final String CBOR_MEDIA_TYPE = "application/cbor";
 
     public JreHttpUrlConnection(URL url, ConnectionConfiguration cfg) throws ClientException {
         this.url = url;
@@ -139,12 +141,25 @@ public class JreHttpUrlConnection implements Closeable {
             CheckedConsumer<OutputStream, IOException> doc,
             CheckedBiFunction<InputStream, Function<String, String>, R, IOException> parser,
             String requestMethod
+    ) throws ClientException {
+        return request(doc, parser, requestMethod, JSON_MEDIA_TYPE);
+    }
+
+    /**
+     * Sends the request body with the given media type and asks for the
+     * response, including any failure, to be rendered with the same one.
+     */
+    public <R> ResponseOrException<R> request(
+            CheckedConsumer<OutputStream, IOException> doc,
+            CheckedBiFunction<InputStream, Function<String, String>, R, IOException> parser,
+            String requestMethod,
+            String mediaType
     ) throws ClientException {
         try {
             con.setRequestMethod(requestMethod);
             con.setDoOutput(true);
-            con.setRequestProperty("Content-Type", "application/json");
-            con.setRequestProperty("Accept", "application/json");
+            con.setRequestProperty("Content-Type", mediaType);
+            con.setRequestProperty("Accept", mediaType);
             if (doc != null) {
                 try (OutputStream out = con.getOutputStream()) {
                     doc.accept(out);
@@ -171,7 +186,8 @@ public class JreHttpUrlConnection implements Closeable {
     private <R> ResponseOrException<R> parserError() throws IOException {
         RemoteFailure failure;
         try (InputStream stream = getStream(con, con.getErrorStream())) {
-            failure = RemoteFailure.parseFromResponse(stream);
+            String contentType = con.getContentType();
+            failure = RemoteFailure.parseFromResponse(stream, contentType != null && contentType.startsWith(CBOR_MEDIA_TYPE));
         }
         if (con.getResponseCode() >= 500) {
             return new ResponseOrException<>(new SQLException("Server encountered an error ["
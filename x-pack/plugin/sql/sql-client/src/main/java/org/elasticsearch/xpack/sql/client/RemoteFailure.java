@@ -10,6 +10,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
@@ -56,18 +57,36 @@ public class RemoteFailure {
         JSON_FACTORY.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
     }
 
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+    static {
+        CBOR_FACTORY.configure(JsonFactory.Feature.FAIL_ON_SYMBOL_HASH_OVERFLOW, true);
+        CBOR_FACTORY.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, false);
+        // See the JSON factory above for why the stream is left open.
+        CBOR_FACTORY.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+    }
+
     /**
      * Parse a failure from the response. The stream is not closed when the parsing is complete.
      * The caller must close it.
      * @throws IOException if there is a catastrophic failure parsing the remote failure
      */
     public static RemoteFailure parseFromResponse(InputStream stream) throws IOException {
+        return parseFromResponse(stream, false);
+    }
+
+    /**
+     * Parse a failure from the response, which is encoded in CBOR if {@code binary} is {@code true} and in JSON
+     * otherwise. Elasticsearch renders failures in the format the request asked for with its {@code Accept} header.
+     * The stream is not closed when the parsing is complete. The caller must close it.
+     * @throws IOException if there is a catastrophic failure parsing the remote failure
+     */
+    public static RemoteFailure parseFromResponse(InputStream stream, boolean binary) throws IOException {
         // Mark so we can rewind to get the entire response in case we have to render an error.
         stream = new BufferedInputStream(stream);
         stream.mark(MAX_RAW_RESPONSE);
         JsonParser parser = null;
         try {
-            parser = JSON_FACTORY.createParser(stream);
+            parser = (binary ? CBOR_FACTORY : JSON_FACTORY).createParser(stream);
             return parseResponseTopLevel(parser);
         } catch (JsonParseException e) {
             throw new IOException(parseErrorMessage(e.getOriginalMessage(), stream, parser), e);
@@ -6,6 +6,11 @@
 package org.elasticsearch.xpack.sql.client;
 
 import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.json.JsonXContent;
 import org.elasticsearch.test.ESTestCase;
 import org.elasticsearch.xpack.sql.client.RemoteFailure;
 
@@ -213,6 +218,19 @@ public class RemoteFailureTests extends ESTestCase {
         assertEquals(Arrays.asList("_root", "_foo"), cause.metadata().get("index"));
     }
 
+    public void testParseCbor() throws IOException {
+        XContentBuilder cbor = XContentFactory.cborBuilder();
+        try (InputStream in = Files.newInputStream(getDataPath("/remote_failure/nested.json"));
+             XContentParser parser = createParser(JsonXContent.jsonXContent, in)) {
+            cbor.copyCurrentStructure(parser);
+        }
+        RemoteFailure failure = RemoteFailure.parseFromResponse(BytesReference.bytes(cbor).streamInput(), true);
+        assertEquals("parsing_exception", failure.type());
+        assertEquals("line 1:1: no viable alternative at input 'test'", failure.reason());
+        assertNotNull(failure.cause());
+        assertEquals("no_viable_alt_exception", failure.cause().type());
+    }
+
     private RemoteFailure parse(String fileName) throws IOException {
         try (InputStream in = Files.newInputStream(getDataPath("/remote_failure/" + fileName))) {
             return RemoteFailure.parseFromResponse(in);
@@ -14,6 +14,7 @@ import org.elasticsearch.common.xcontent.json.JsonXContent;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Locale;
 
 public final class ProtoUtils {
@@ -29,6 +30,9 @@ public final class ProtoUtils {
         if (token == XContentParser.Token.VALUE_STRING) {
             //binary values will be parsed back and returned as base64 strings when reading from json and yaml
             return parser.text();
+        } else if (token == XContentParser.Token.VALUE_EMBEDDED_OBJECT) {
+            //binary values are embedded as raw bytes when reading from cbor; keep them as base64 strings like above
+            return Base64.getEncoder().encodeToString(parser.binaryValue());
         } else if (token == XContentParser.Token.VALUE_NUMBER) {
             return parser.numberValue();
         } else if (token == XContentParser.Token.VALUE_BOOLEAN) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.sql.execution.search;
+
+import org.apache.lucene.util.PriorityQueue;
+import org.elasticsearch.common.collect.Tuple;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the first {@code size} rows of a result, according to the sorting columns that need to be applied locally (typically
+ * because they sort on aggregations). The rows are kept in a bounded queue whose head is the row that sorts last, so memory
+ * usage is bounded by {@code size} rather than by the number of rows added.
+ */
+@SuppressWarnings("rawtypes")
+class LocalRowSorter {
+
+    private final List<Tuple<Integer, Comparator>> sortingColumns;
+    private final PriorityQueue<Row> queue;
+    private int counter;
+
+    LocalRowSorter(List<Tuple<Integer, Comparator>> sortingColumns, int size) {
+        this.sortingColumns = sortingColumns;
+        this.queue = new PriorityQueue<Row>(size) {
+            @Override
+            protected boolean lessThan(Row l, Row r) {
+                // the head of the queue is the row that sorts last, so it is the one dropped on overflow
+                return compare(l, r) > 0;
+            }
+        };
+    }
+
+    /**
+     * Adds a row.
+     *
+     * @return whether a row was dropped because more than {@code size} rows have been added
+     */
+    boolean add(Object[] values) {
+        return queue.insertWithOverflow(new Row(values, counter++)) != null;
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    /**
+     * Removes the kept rows and returns them in sort order.
+     */
+    List<List<?>> drain() {
+        List<?>[] rows = new List<?>[queue.size()];
+        for (int i = rows.length - 1; i >= 0; i--) {
+            rows[i] = Arrays.asList(queue.pop().values);
+        }
+        return Arrays.asList(rows);
+    }
+
+    // compare rows based on the received attribute sort
+    // if a sort item is not in the list, it is assumed the sorting happened in ES
+    // and the results are left as is (by using the row ordering), otherwise it is sorted based on the given criteria.
+    //
+    // Take for example ORDER BY a, x, b, y
+    // a, b - are sorted in ES
+    // x, y - need to be sorted client-side
+    // sorting on x kicks in, only if the values for a are equal.
+
+    // thanks to @jpountz for the row ordering idea as a way to preserve ordering
+    @SuppressWarnings("unchecked")
+    int compare(Row l, Row r) {
+        for (Tuple<Integer, Comparator> tuple : sortingColumns) {
+            int i = tuple.v1().intValue();
+            Comparator comparator = tuple.v2();
+
+            Object vl = l.values[i];
+            Object vr = r.values[i];
+            if (comparator != null) {
+                int result = comparator.compare(vl, vr);
+                // if things are equals, move to the next comparator
+                if (result != 0) {
+                    return result;
+                }
+            }
+            // no comparator means the existing order needs to be preserved
+            else {
+                // check the values - if they are equal move to the next comparator
+                // otherwise return the row order
+                if (Objects.equals(vl, vr) == false) {
+                    return Integer.compare(l.order, r.order);
+                }
+            }
+        }
+        // everything is equal, fall-back to the row order
+        return Integer.compare(l.order, r.order);
+    }
+
+    static final class Row {
+        private final Object[] values;
+        private final int order;
+
+        Row(Object[] values, int order) {
+            this.values = values;
+            this.order = order;
+        }
+    }
+}
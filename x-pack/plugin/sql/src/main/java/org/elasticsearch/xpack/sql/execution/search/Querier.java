@@ -7,7 +7,6 @@ package org.elasticsearch.xpack.sql.execution.search;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.util.PriorityQueue;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
@@ -68,9 +67,7 @@ import java.util.BitSet;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Collections.singletonList;
 // TODO: add retry/back-off
@@ -143,9 +140,9 @@ public class Querier {
 
     /**
      * Listener used for local sorting (typically due to aggregations used inside `ORDER BY`).
-     * 
-     * This listener consumes the whole result set, sorts it in memory then sends the paginated
-     * results back to the client.
+     *
+     * This listener consumes the whole result set while keeping only the rows that make it into the
+     * result in memory, then sends the paginated results back to the client.
      */
     @SuppressWarnings("rawtypes")
     class LocalAggregationSorterListener implements ActionListener<SchemaRowSet> {
@@ -153,69 +150,30 @@ public class Querier {
         private final ActionListener<SchemaRowSet> listener;
 
         // keep the top N entries.
-        private final PriorityQueue<Tuple<List<?>, Integer>> data;
-        private final AtomicInteger counter = new AtomicInteger();
+        private final LocalRowSorter data;
         private volatile Schema schema;
 
-        private static final int MAXIMUM_SIZE = 512;
+        // the sorted rows are handed to the client through the cursor, hence the caps on their number
+        static final int DEFAULT_SIZE = 512;
+        static final int MAXIMUM_SIZE = 10_000;
         private final boolean noLimit;
 
         LocalAggregationSorterListener(ActionListener<SchemaRowSet> listener, List<Tuple<Integer, Comparator>> sortingColumns, int limit) {
             this.listener = listener;
 
-            int size = MAXIMUM_SIZE;
+            int size = DEFAULT_SIZE;
             if (limit < 0) {
                 noLimit = true;
             } else {
                 noLimit = false;
                 if (limit > MAXIMUM_SIZE) {
-                    throw new PlanningException("The maximum LIMIT for aggregate sorting is [{}], received [{}]", limit, MAXIMUM_SIZE);
+                    throw new PlanningException("The maximum LIMIT for aggregate sorting is [{}], received [{}]", MAXIMUM_SIZE, limit);
                 } else {
                     size = limit;
                 }
             }
 
-            this.data = new PriorityQueue<Tuple<List<?>, Integer>>(size) {
-
-                // compare row based on the received attribute sort
-                // if a sort item is not in the list, it is assumed the sorting happened in ES
-                // and the results are left as is (by using the row ordering), otherwise it is sorted based on the given criteria.
-                //
-                // Take for example ORDER BY a, x, b, y
-                // a, b - are sorted in ES
-                // x, y - need to be sorted client-side
-                // sorting on x kicks in, only if the values for a are equal.
-
-                // thanks to @jpountz for the row ordering idea as a way to preserve ordering
-                @SuppressWarnings("unchecked")
-                @Override
-                protected boolean lessThan(Tuple<List<?>, Integer> l, Tuple<List<?>, Integer> r) {
-                    for (Tuple<Integer, Comparator> tuple : sortingColumns) {
-                        int i = tuple.v1().intValue();
-                        Comparator comparator = tuple.v2();
-
-                        Object vl = l.v1().get(i);
-                        Object vr = r.v1().get(i);
-                        if (comparator != null) {
-                            int result = comparator.compare(vl, vr);
-                            // if things are equals, move to the next comparator
-                            if (result != 0) {
-                                return result < 0;
-                            }
-                        }
-                        // no comparator means the existing order needs to be preserved
-                        else {
-                            // check the values - if they are equal move to the next comparator
-                            // otherwise return the row order
-                            if (Objects.equals(vl, vr) == false) {
-                                return l.v2().compareTo(r.v2()) < 0;
-                            }
-                        }
-                    }
-                    // everything is equal, fall-back to the row order
-                    return l.v2().compareTo(r.v2()) < 0;
-                }
-            };
+            this.data = new LocalRowSorter(sortingColumns, size);
         }
 
         @Override
@@ -246,14 +204,17 @@ public class Querier {
         private boolean consumeRowSet(RowSet rowSet) {
             // use a synchronized block for visibility purposes (there's no concurrency)
             ResultRowSet<?> rrs = (ResultRowSet<?>) rowSet;
+            int columnCount = rrs.resultColumnCount();
             synchronized (data) {
                 for (boolean hasRows = rrs.hasCurrentRow(); hasRows; hasRows = rrs.advanceRow()) {
-                    List<Object> row = new ArrayList<>(rrs.columnCount());
-                    rrs.forEachResultColumn(row::add);
+                    Object[] row = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rrs.resultColumn(i);
+                    }
                     // if the queue overflows and no limit was specified, bail out
-                    if (data.insertWithOverflow(new Tuple<>(row, counter.getAndIncrement())) != null && noLimit) {
+                    if (data.add(row) && noLimit) {
                         onFailure(new SqlIllegalArgumentException(
-                                "The default limit [{}] for aggregate sorting has been reached; please specify a LIMIT"));
+                                "The default limit [{}] for aggregate sorting has been reached; please specify a LIMIT", DEFAULT_SIZE));
                         return false;
                     }
                 }
@@ -262,10 +223,9 @@ public class Querier {
         }
 
         private void sendResponse() {
-            List<List<?>> list = new ArrayList<>(data.size());
-            Tuple<List<?>, Integer> pop = null;
-            while ((pop = data.pop()) != null) {
-                list.add(pop.v1());
+            List<List<?>> list;
+            synchronized (data) {
+                list = data.drain();
             }
             listener.onResponse(new PagingListRowSet(schema, list, schema.size(), cfg.pageSize()));
         }
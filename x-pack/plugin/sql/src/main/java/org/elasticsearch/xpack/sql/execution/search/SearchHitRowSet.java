@@ -19,6 +19,10 @@ import java.util.Set;
 
 /**
  * Extracts rows from an array of {@link SearchHit}.
+ * <p>
+ * When the hits have no inner hits, the page is extracted column by column: the first access to a value runs every
+ * user visible extractor over all the hits of the page and keeps the values in one array per column, so the rows are
+ * then read from these arrays instead of looking up the extractor and walking the hits for every value.
  */
 class SearchHitRowSet extends ResultRowSet<HitExtractor> {
     private final SearchHit[] hits;
@@ -29,6 +33,8 @@ class SearchHitRowSet extends ResultRowSet<HitExtractor> {
     private final int size;
     private final int[] indexPerLevel;
     private int row = 0;
+    // values of the user columns, one array per column, extracted on first access for pages without inner hits
+    private Object[][] columns;
 
     SearchHitRowSet(List<HitExtractor> exts, BitSet mask, SearchHit[] hits, int limit, String scrollId) {
         super(exts, mask);
@@ -93,6 +99,30 @@ class SearchHitRowSet extends ResultRowSet<HitExtractor> {
         return cursor == Cursor.EMPTY;
     }
 
+    @Override
+    protected Object getColumn(int column) {
+        if (indexPerLevel.length > 1) {
+            return super.getColumn(column);
+        }
+        if (columns == null) {
+            columns = extractColumns();
+        }
+        return columns[column][row];
+    }
+
+    private Object[][] extractColumns() {
+        Object[][] values = new Object[columnCount()][];
+        for (int column = 0; column < values.length; column++) {
+            HitExtractor extractor = userExtractor(column);
+            Object[] columnValues = new Object[size];
+            for (int i = 0; i < size; i++) {
+                columnValues[i] = extractor.extract(hits[i]);
+            }
+            values[column] = columnValues;
+        }
+        return values;
+    }
+
     @Override
     protected Object extractValue(HitExtractor e) {
         int extractorLevel = e.hitName() == null ? 0 : 1;
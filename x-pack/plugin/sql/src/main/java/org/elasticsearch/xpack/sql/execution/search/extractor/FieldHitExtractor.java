@@ -44,12 +44,31 @@ public class FieldHitExtractor implements HitExtractor {
                 .tokenizeToStringArray(hitName == null ? name : name.substring(hitName.length() + 1), ".");
     }
 
+    /**
+     * All the dotted keys that can be looked up in the source for the given path: {@code keys[from][to]} joins
+     * {@code path[from]} up to (and including) {@code path[to]}. They are built once per extractor instead of once
+     * per hit since the same extractor is applied to every hit of every page.
+     */
+    private static String[][] sourcePathKeys(String[] path) {
+        String[][] keys = new String[path.length][];
+        for (int from = 0; from < path.length; from++) {
+            keys[from] = new String[path.length];
+            StringJoiner sj = new StringJoiner(".");
+            for (int to = from; to < path.length; to++) {
+                sj.add(path[to]);
+                keys[from][to] = sj.toString();
+            }
+        }
+        return keys;
+    }
+
     private final String fieldName, hitName;
     private final DataType dataType;
     private final ZoneId zoneId;
     private final boolean useDocValue;
     private final boolean arrayLeniency;
     private final String[] path;
+    private final String[][] pathKeys;
 
     public FieldHitExtractor(String name, DataType dataType, ZoneId zoneId, boolean useDocValue) {
         this(name, dataType, zoneId, useDocValue, null, false);
@@ -74,6 +93,7 @@ public class FieldHitExtractor implements HitExtractor {
         }
 
         this.path = sourcePath(fieldName, useDocValue, hitName);
+        this.pathKeys = sourcePathKeys(path);
     }
 
     FieldHitExtractor(StreamInput in) throws IOException {
@@ -85,6 +105,7 @@ public class FieldHitExtractor implements HitExtractor {
         hitName = in.readOptionalString();
         arrayLeniency = in.readBoolean();
         path = sourcePath(fieldName, useDocValue, hitName);
+        pathKeys = sourcePathKeys(path);
     }
 
     @Override
@@ -166,10 +187,9 @@ public class FieldHitExtractor implements HitExtractor {
             // Find all possible entries by examining all combinations under the current level ("idx") of the "path"
             // e.g.: If the path == "a.b.c.d" and the idx == 0, we need to check the current subMap against the keys:
             //       "b", "b.c" and "b.c.d"
-            StringJoiner sj = new StringJoiner(".");
+            String[] keys = pathKeys[idx + 1];
             for (int i = idx + 1; i < path.length; i++) {
-                sj.add(path[i]);
-                Object node = subMap.get(sj.toString());
+                Object node = subMap.get(keys[i]);
                 
                 if (node instanceof List) {
                     List listOfValues = (List) node;
@@ -97,7 +97,7 @@ public class TransportSqlQueryAction extends HandledTransportAction<SqlQueryRequ
     }
 
     static SqlQueryResponse createResponse(Mode mode, RowSet rowSet, List<ColumnInfo> columns) {
-        List<List<Object>> rows = new ArrayList<>();
+        List<List<Object>> rows = new ArrayList<>(rowSet.size());
         rowSet.forEachRow(rowView -> {
             List<Object> row = new ArrayList<>(rowView.columnCount());
             rowView.forEachColumn(row::add);
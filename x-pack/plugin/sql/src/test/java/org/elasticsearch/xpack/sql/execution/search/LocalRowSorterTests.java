@@ -0,0 +1,74 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.sql.execution.search;
+
+import org.elasticsearch.common.collect.Tuple;
+import org.elasticsearch.test.ESTestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+
+@SuppressWarnings("rawtypes")
+public class LocalRowSorterTests extends ESTestCase {
+
+    private static List<Tuple<Integer, Comparator>> ascendingOn(int column) {
+        return singletonList(new Tuple<>(column, Comparator.naturalOrder()));
+    }
+
+    public void testKeepsFirstRowsInOrder() {
+        int size = randomIntBetween(1, 50);
+        int rows = randomIntBetween(0, 200);
+        LocalRowSorter sorter = new LocalRowSorter(ascendingOn(0), size);
+        List<Integer> values = new ArrayList<>(rows);
+        boolean overflowed = false;
+        for (int i = 0; i < rows; i++) {
+            int value = randomIntBetween(0, 1000);
+            values.add(value);
+            overflowed |= sorter.add(new Object[] { value });
+        }
+        assertEquals(rows > size, overflowed);
+        assertEquals(Math.min(rows, size), sorter.size());
+
+        values.sort(Comparator.naturalOrder());
+        List<List<?>> sorted = sorter.drain();
+        assertEquals(Math.min(rows, size), sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            assertEquals(values.get(i), sorted.get(i).get(0));
+        }
+        assertEquals(0, sorter.size());
+    }
+
+    public void testDescendingWithLimit() {
+        LocalRowSorter sorter = new LocalRowSorter(singletonList(new Tuple<>(0, Comparator.reverseOrder())), 2);
+        for (int value : new int[] { 3, 9, 1, 7, 5 }) {
+            sorter.add(new Object[] { value });
+        }
+        assertEquals(Arrays.asList(Arrays.asList(9), Arrays.asList(7)), sorter.drain());
+    }
+
+    public void testColumnsWithoutComparatorPreserveRowOrder() {
+        // the first column was sorted in Elasticsearch already, the second one is sorted locally
+        List<Tuple<Integer, Comparator>> columns = Arrays.asList(new Tuple<>(0, null), new Tuple<>(1, Comparator.naturalOrder()));
+        LocalRowSorter sorter = new LocalRowSorter(columns, 10);
+        sorter.add(new Object[] { "b", 1 });
+        sorter.add(new Object[] { "a", 3 });
+        sorter.add(new Object[] { "a", 2 });
+        sorter.add(new Object[] { "c", 0 });
+        sorter.add(new Object[] { "c", 0 });
+
+        List<List<?>> sorted = sorter.drain();
+        assertEquals(Arrays.asList(
+            Arrays.asList("b", 1),
+            Arrays.asList("a", 2),
+            Arrays.asList("a", 3),
+            Arrays.asList("c", 0),
+            Arrays.asList("c", 0)), sorted);
+    }
+}
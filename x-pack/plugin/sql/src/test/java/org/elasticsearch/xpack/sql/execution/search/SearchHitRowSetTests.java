@@ -0,0 +1,71 @@
+/*
+ * Copyright Elasticsearch B.V. and/or licensed to Elasticsearch B.V. under one
+ * or more contributor license agreements. Licensed under the Elastic License;
+ * you may not use this file except in compliance with the Elastic License.
+ */
+package org.elasticsearch.xpack.sql.execution.search;
+
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.test.ESTestCase;
+import org.elasticsearch.xpack.sql.execution.search.extractor.FieldHitExtractor;
+import org.elasticsearch.xpack.sql.execution.search.extractor.HitExtractor;
+import org.elasticsearch.xpack.sql.session.Cursor;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singletonList;
+
+public class SearchHitRowSetTests extends ESTestCase {
+
+    public void testColumnsAreExtractedFromAllHits() {
+        int fieldCount = between(1, 10);
+        List<HitExtractor> extractors = new ArrayList<>(fieldCount);
+        BitSet mask = new BitSet();
+        for (int i = 0; i < fieldCount; i++) {
+            extractors.add(new FieldHitExtractor("field" + i, null, ZoneOffset.UTC, true, false));
+            // hide some of the columns, like those only used for sorting
+            if (i == 0 || randomBoolean()) {
+                mask.set(i);
+            }
+        }
+
+        SearchHit[] hits = new SearchHit[between(1, 100)];
+        for (int doc = 0; doc < hits.length; doc++) {
+            Map<String, DocumentField> fields = new HashMap<>();
+            for (int i = 0; i < fieldCount; i++) {
+                // some of the hits miss some of the fields
+                if (randomBoolean()) {
+                    fields.put("field" + i, new DocumentField("field" + i, singletonList(doc * fieldCount + i)));
+                }
+            }
+            hits[doc] = new SearchHit(doc);
+            hits[doc].fields(fields);
+        }
+
+        int limit = randomBoolean() ? -1 : between(1, hits.length);
+        SearchHitRowSet rowSet = new SearchHitRowSet(extractors, mask, hits, limit, null);
+        int expectedSize = limit < 0 ? hits.length : limit;
+        assertEquals(expectedSize, rowSet.size());
+        assertEquals(mask.cardinality(), rowSet.columnCount());
+        assertEquals(Cursor.EMPTY, rowSet.nextPageCursor());
+
+        // go through the rows twice to check that the extracted columns survive a reset
+        for (int pass = 0; pass < 2; pass++) {
+            int doc = 0;
+            for (boolean hasRows = rowSet.hasCurrentRow(); hasRows; hasRows = rowSet.advanceRow()) {
+                for (int column = 0, field = mask.nextSetBit(0); field >= 0; column++, field = mask.nextSetBit(field + 1)) {
+                    assertEquals(extractors.get(field).extract(hits[doc]), rowSet.column(column));
+                }
+                doc++;
+            }
+            assertEquals(expectedSize, doc);
+            rowSet.reset();
+        }
+    }
+}
@@ -287,6 +287,16 @@ public class FieldHitExtractorTests extends AbstractWireSerializingTestCase<Fiel
         assertEquals(value, fe.extractFromSource(map));
     }
 
+    public void testSameExtractorOnDifferentHierarchies() throws IOException {
+        FieldHitExtractor fe = copyInstance(getFieldHitExtractor("a.b.c.d", false));
+        Object value = randomValue();
+        assertEquals(value, fe.extractFromSource(singletonMap("a.b.c.d", value)));
+        assertEquals(value, fe.extractFromSource(singletonMap("a", singletonMap("b.c", singletonMap("d", value)))));
+        assertEquals(value, fe.extractFromSource(singletonMap("a.b", singletonMap("c.d", value))));
+        assertEquals(value, fe.extractFromSource(singletonMap("a", singletonMap("b", singletonMap("c", singletonMap("d", value))))));
+        assertNull(fe.extractFromSource(singletonMap("a", singletonMap("b.d", value))));
+    }
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public void testNestedFieldsWithDotsAndRandomHiearachy() {
         String[] path = new String[100];
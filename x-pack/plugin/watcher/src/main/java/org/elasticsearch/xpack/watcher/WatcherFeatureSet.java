@@ -20,6 +20,7 @@ import org.elasticsearch.xpack.core.watcher.client.WatcherClient;
 import org.elasticsearch.xpack.core.watcher.common.stats.Counters;
 import org.elasticsearch.xpack.core.watcher.transport.actions.stats.WatcherStatsRequest;
 import org.elasticsearch.xpack.core.watcher.transport.actions.stats.WatcherStatsResponse;
+import org.elasticsearch.xpack.watcher.trigger.schedule.engine.TickerScheduleTriggerEngine;
 
 import java.util.Collections;
 import java.util.List;
@@ -81,7 +82,8 @@ public class WatcherFeatureSet implements XPackFeatureSet {
                             .map(WatcherStatsResponse.Node::getStats)
                             .filter(Objects::nonNull)
                             .collect(Collectors.toList());
-                    Counters mergedCounters = Counters.merge(countersPerNode);
+                    Counters mergedCounters = Counters.merge(countersPerNode,
+                            Collections.singleton(TickerScheduleTriggerEngine.MAX_LAG_COUNTER));
                     listener.onResponse(new WatcherFeatureSetUsage(available(), enabled(), mergedCounters.toNestedMap()));
                 }, listener::onFailure));
             }
@@ -7,6 +7,7 @@ package org.elasticsearch.xpack.watcher.trigger;
 
 import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.xpack.core.watcher.common.stats.Counters;
 import org.elasticsearch.xpack.core.watcher.trigger.Trigger;
 import org.elasticsearch.xpack.core.watcher.trigger.TriggerEvent;
 import org.elasticsearch.xpack.core.watcher.watch.Watch;
@@ -45,6 +46,13 @@ public interface TriggerEngine<T extends Trigger, E extends TriggerEvent> {
      */
     boolean remove(String jobId);
 
+    /**
+     * Returns statistics about how this engine triggers its jobs, which are reported as part of the watcher stats
+     */
+    default Counters stats() {
+        return new Counters();
+    }
+
     E simulateEvent(String jobId, @Nullable Map<String, Object> data, TriggerService service);
 
     T parseTrigger(String context, XContentParser parser) throws IOException;
@@ -14,6 +14,7 @@ import org.elasticsearch.xpack.core.watcher.trigger.TriggerEvent;
 import org.elasticsearch.xpack.core.watcher.watch.Watch;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -134,7 +135,13 @@ public class TriggerService {
                 }
             }
         });
-        return counters;
+
+        List<Counters> allCounters = new ArrayList<>(engines.size() + 1);
+        allCounters.add(counters);
+        for (TriggerEngine engine : engines.values()) {
+            allCounters.add(engine.stats());
+        }
+        return Counters.merge(allCounters);
     }
 
     /**
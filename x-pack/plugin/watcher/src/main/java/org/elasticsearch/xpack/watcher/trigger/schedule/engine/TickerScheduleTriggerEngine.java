@@ -10,8 +10,10 @@ import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Setting.Property;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.metrics.MeanMetric;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.node.Node;
+import org.elasticsearch.xpack.core.watcher.common.stats.Counters;
 import org.elasticsearch.xpack.core.watcher.trigger.TriggerEvent;
 import org.elasticsearch.xpack.core.watcher.watch.Watch;
 import org.elasticsearch.xpack.watcher.trigger.schedule.Schedule;
@@ -27,23 +29,38 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 
 import static org.elasticsearch.common.settings.Setting.positiveTimeSetting;
 
+/**
+ * A schedule trigger engine that checks for due watches on every tick of a single ticker thread. Active schedules are kept in a
+ * priority queue ordered by their next scheduled time, so that a tick only has to look at the schedules that are actually due
+ * rather than at every loaded watch. Schedules that are removed or replaced are not taken out of the queue eagerly but skipped when
+ * they come up, and the queue is rebuilt if too many of these stale entries pile up.
+ */
 public class TickerScheduleTriggerEngine extends ScheduleTriggerEngine {
 
     public static final Setting<TimeValue> TICKER_INTERVAL_SETTING =
         positiveTimeSetting("xpack.watcher.trigger.schedule.ticker.tick_interval", TimeValue.timeValueMillis(500), Property.NodeScope);
 
+    /** the maximum lag of a node, merged across nodes by keeping the greatest value rather than adding the values up */
+    public static final String MAX_LAG_COUNTER = "trigger.schedule.lag.max_time_in_ms";
+
     private static final Logger logger = LogManager.getLogger(TickerScheduleTriggerEngine.class);
 
     private final TimeValue tickInterval;
     private final Map<String, ActiveSchedule> schedules = new ConcurrentHashMap<>();
+    // guarded by itself, contains an entry for every active schedule with a next scheduled time plus stale entries
+    private final PriorityQueue<QueuedSchedule> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.scheduledTime));
+    private final MeanMetric triggerLag = new MeanMetric();
+    private volatile long maxTriggerLag;
     private final Ticker ticker;
 
     public TickerScheduleTriggerEngine(Settings settings, ScheduleRegistry scheduleRegistry, Clock clock) {
@@ -72,17 +89,25 @@ public class TickerScheduleTriggerEngine extends ScheduleTriggerEngine {
         // as the reload, so if we clean out the old data structure here,
         // that can lead to that one watch not being triggered
         this.schedules.putAll(startingSchedules);
+        startingSchedules.values().forEach(this::enqueue);
     }
 
     @Override
     public void stop() {
-        schedules.clear();
+        clearSchedules();
         ticker.close();
     }
 
     @Override
     public synchronized void pauseExecution() {
+        clearSchedules();
+    }
+
+    private void clearSchedules() {
         schedules.clear();
+        synchronized (queue) {
+            queue.clear();
+        }
     }
 
     @Override
@@ -95,7 +120,9 @@ public class TickerScheduleTriggerEngine extends ScheduleTriggerEngine {
         // watcher indexing listener
         // this also means that updating an existing watch would not retrigger the schedule time, if it remains the same schedule
         if (currentSchedule == null || currentSchedule.schedule.equals(trigger.getSchedule()) == false) {
-            schedules.put(watch.id(), new ActiveSchedule(watch.id(), trigger.getSchedule(), clock.millis()));
+            ActiveSchedule schedule = new ActiveSchedule(watch.id(), trigger.getSchedule(), clock.millis());
+            schedules.put(watch.id(), schedule);
+            enqueue(schedule);
         }
     }
 
@@ -104,16 +131,46 @@ public class TickerScheduleTriggerEngine extends ScheduleTriggerEngine {
         return schedules.remove(jobId) != null;
     }
 
+    private void enqueue(ActiveSchedule schedule) {
+        // schedules without a next scheduled time will never fire
+        long scheduledTime = schedule.scheduledTime;
+        if (scheduledTime >= 0) {
+            synchronized (queue) {
+                queue.add(new QueuedSchedule(schedule, scheduledTime));
+            }
+        }
+    }
+
     void checkJobs() {
         long triggeredTime = clock.millis();
+        maybeRebuildQueue();
         List<TriggerEvent> events = new ArrayList<>();
-        for (ActiveSchedule schedule : schedules.values()) {
+        while (true) {
+            final QueuedSchedule entry;
+            synchronized (queue) {
+                QueuedSchedule head = queue.peek();
+                if (head == null || head.scheduledTime > triggeredTime) {
+                    break;
+                }
+                entry = queue.poll();
+            }
+            final ActiveSchedule schedule = entry.schedule;
+            if (schedules.get(schedule.name) != schedule || schedule.scheduledTime != entry.scheduledTime) {
+                // the schedule was removed or replaced in the meantime, or this is a duplicate entry
+                continue;
+            }
             long scheduledTime = schedule.check(triggeredTime);
+            enqueue(schedule);
             if (scheduledTime > 0) {
                 ZonedDateTime triggeredDateTime = utcDateTimeAtEpochMillis(triggeredTime);
                 ZonedDateTime scheduledDateTime = utcDateTimeAtEpochMillis(scheduledTime);
                 logger.debug("triggered job [{}] at [{}] (scheduled time was [{}])", schedule.name,
                     triggeredDateTime, scheduledDateTime);
+                long lag = Math.max(0L, triggeredTime - scheduledTime);
+                triggerLag.inc(lag);
+                if (lag > maxTriggerLag) {
+                    maxTriggerLag = lag;
+                }
                 events.add(new ScheduleTriggerEvent(schedule.name, triggeredDateTime, scheduledDateTime));
                 if (events.size() >= 1000) {
                     notifyListeners(events);
@@ -126,6 +183,33 @@ public class TickerScheduleTriggerEngine extends ScheduleTriggerEngine {
         }
     }
 
+    /**
+     * Removed and replaced schedules stay in the queue until they are due. Rebuilds the queue from the active schedules once these
+     * stale entries make up the majority of it, so that frequently updated watches with long intervals do not pile up.
+     */
+    private void maybeRebuildQueue() {
+        synchronized (queue) {
+            if (queue.size() > 2 * schedules.size() + 128) {
+                queue.clear();
+                for (ActiveSchedule schedule : schedules.values()) {
+                    long scheduledTime = schedule.scheduledTime;
+                    if (scheduledTime >= 0) {
+                        queue.add(new QueuedSchedule(schedule, scheduledTime));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Counters stats() {
+        Counters counters = new Counters();
+        counters.inc("trigger.schedule.lag.count", triggerLag.count());
+        counters.inc("trigger.schedule.lag.total_time_in_ms", triggerLag.sum());
+        counters.inc(MAX_LAG_COUNTER, maxTriggerLag);
+        return counters;
+    }
+
     private ZonedDateTime utcDateTimeAtEpochMillis(long triggeredTime) {
         return Instant.ofEpochMilli(triggeredTime).atZone(ZoneOffset.UTC);
     }
@@ -169,6 +253,21 @@ public class TickerScheduleTriggerEngine extends ScheduleTriggerEngine {
         }
     }
 
+    /**
+     * An entry of the schedule queue. The scheduled time is captured when the entry is created, since the scheduled time of an active
+     * schedule moves on once it got triggered, and entries that no longer match the schedule are skipped.
+     */
+    private static final class QueuedSchedule {
+
+        private final ActiveSchedule schedule;
+        private final long scheduledTime;
+
+        QueuedSchedule(ActiveSchedule schedule, long scheduledTime) {
+            this.schedule = schedule;
+            this.scheduledTime = scheduledTime;
+        }
+    }
+
     class Ticker extends Thread {
 
         private volatile boolean active = true;
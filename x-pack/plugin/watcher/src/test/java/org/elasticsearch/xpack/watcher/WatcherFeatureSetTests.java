@@ -27,6 +27,7 @@ import org.elasticsearch.common.xcontent.ObjectPath;
 import org.elasticsearch.xpack.core.watcher.support.xcontent.XContentSource;
 import org.elasticsearch.xpack.core.watcher.transport.actions.stats.WatcherStatsAction;
 import org.elasticsearch.xpack.core.watcher.transport.actions.stats.WatcherStatsResponse;
+import org.elasticsearch.xpack.watcher.trigger.schedule.engine.TickerScheduleTriggerEngine;
 import org.junit.Before;
 
 import java.util.ArrayList;
@@ -91,6 +92,7 @@ public class WatcherFeatureSetTests extends ESTestCase {
             Counters firstCounters = new Counters();
             firstCounters.inc("foo.foo", 1);
             firstCounters.inc("foo.bar.baz", 1);
+            firstCounters.inc(TickerScheduleTriggerEngine.MAX_LAG_COUNTER, 300);
             firstNode.setStats(firstCounters);
             nodes.add(firstNode);
 
@@ -99,6 +101,7 @@ public class WatcherFeatureSetTests extends ESTestCase {
             Counters secondCounters = new Counters();
             secondCounters.inc("spam", 1);
             secondCounters.inc("foo.bar.baz", 4);
+            secondCounters.inc(TickerScheduleTriggerEngine.MAX_LAG_COUNTER, 200);
             secondNode.setStats(secondCounters);
             nodes.add(secondNode);
 
@@ -110,13 +113,15 @@ public class WatcherFeatureSetTests extends ESTestCase {
         PlainActionFuture<WatcherFeatureSet.Usage> future = new PlainActionFuture<>();
         new WatcherFeatureSet(Settings.EMPTY, licenseState, client).usage(future);
         WatcherFeatureSetUsage watcherUsage = (WatcherFeatureSetUsage) future.get();
-        assertThat(watcherUsage.stats().keySet(), containsInAnyOrder("foo", "spam"));
+        assertThat(watcherUsage.stats().keySet(), containsInAnyOrder("foo", "spam", "trigger"));
         long fooBarBaz = ObjectPath.eval("foo.bar.baz", watcherUsage.stats());
         assertThat(fooBarBaz, is(5L));
         long fooFoo = ObjectPath.eval("foo.foo", watcherUsage.stats());
         assertThat(fooFoo, is(1L));
         long spam = ObjectPath.eval("spam", watcherUsage.stats());
         assertThat(spam, is(1L));
+        long maxLag = ObjectPath.eval(TickerScheduleTriggerEngine.MAX_LAG_COUNTER, watcherUsage.stats());
+        assertThat(maxLag, is(300L));
         BytesStreamOutput out = new BytesStreamOutput();
         watcherUsage.writeTo(out);
         XPackFeatureSet.Usage serializedUsage = new WatcherFeatureSetUsage(out.bytes().streamInput());
@@ -38,6 +38,7 @@ public class TriggerServiceTests extends ESTestCase {
     public void setupTriggerService() {
         TriggerEngine triggerEngine = mock(TriggerEngine.class);
         when(triggerEngine.type()).thenReturn(ENGINE_TYPE);
+        when(triggerEngine.stats()).thenReturn(new Counters());
         service = new TriggerService(Collections.singleton(triggerEngine));
 
         // simple watch, input and simple action
@@ -108,6 +109,20 @@ public class TriggerServiceTests extends ESTestCase {
 
     }
 
+    public void testStatsIncludeEngineStats() {
+        TriggerEngine triggerEngine = mock(TriggerEngine.class);
+        when(triggerEngine.type()).thenReturn(ENGINE_TYPE);
+        Counters engineStats = new Counters();
+        engineStats.inc("trigger.foo.lag.count", 3);
+        when(triggerEngine.stats()).thenReturn(engineStats);
+        TriggerService triggerService = new TriggerService(Collections.singleton(triggerEngine));
+        triggerService.add(watch1);
+
+        Counters stats = triggerService.stats();
+        assertThat(stats.get("trigger.foo.lag.count"), is(3L));
+        assertThat(stats.get("count.active"), is(1L));
+    }
+
     public void testCountOnPause() {
         assertThat(service.count(), is(0L));
         service.add(watch2);
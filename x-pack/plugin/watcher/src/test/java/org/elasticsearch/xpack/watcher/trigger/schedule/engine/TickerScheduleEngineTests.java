@@ -279,6 +279,47 @@ public class TickerScheduleEngineTests extends ESTestCase {
         assertThat(engine.getSchedules().get("_id"), not(is(activeSchedule)));
     }
 
+    public void testRemovedWatchIsNotTriggered() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final List<String> triggered = Collections.synchronizedList(new ArrayList<>());
+        engine.register(events -> {
+            for (TriggerEvent event : events) {
+                triggered.add(event.jobName());
+                if (event.jobName().equals("_kept")) {
+                    latch.countDown();
+                }
+            }
+        });
+        engine.start(Collections.emptySet());
+        engine.add(createWatch("_removed", interval("1s")));
+        engine.add(createWatch("_kept", interval("1s")));
+        assertThat(engine.remove("_removed"), is(true));
+        // re-adding a watch with a different schedule leaves a stale queue entry behind that must not fire
+        engine.add(createWatch("_kept", interval("1m")));
+        engine.add(createWatch("_kept", interval("1s")));
+
+        advanceClockIfNeeded(clock.instant().plusMillis(1100).atZone(ZoneOffset.UTC));
+        if (latch.await(3, TimeUnit.SECONDS) == false) {
+            fail("waiting too long for the watch to be triggered");
+        }
+        assertThat(triggered, is(Collections.singletonList("_kept")));
+    }
+
+    public void testTriggerLagStats() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        engine.register(events -> latch.countDown());
+        engine.start(Collections.singletonList(createWatch("_id", interval("1s"))));
+        assertThat(engine.stats().get("trigger.schedule.lag.count"), is(0L));
+
+        advanceClockIfNeeded(clock.instant().plusMillis(1500).atZone(ZoneOffset.UTC));
+        if (latch.await(3, TimeUnit.SECONDS) == false) {
+            fail("waiting too long for the watch to be triggered");
+        }
+        assertThat(engine.stats().get("trigger.schedule.lag.count"), is(1L));
+        assertThat(engine.stats().get("trigger.schedule.lag.total_time_in_ms"), is(500L));
+        assertThat(engine.stats().get("trigger.schedule.lag.max_time_in_ms"), is(500L));
+    }
+
     private Watch createWatch(String name, Schedule schedule) {
         return new Watch(name, new ScheduleTrigger(schedule), new ExecutableNoneInput(),
                 InternalAlwaysCondition.INSTANCE, null, null,